@@ -0,0 +1,23 @@
+package com.todoapp.application.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.todoapp.domain.model.VirusScanStatus;
+
+/**
+ * Attachment status update pushed to clients over STOMP.
+ *
+ * <p>The status is one of STAGED, STORED, SCANNING, CLEAN, INFECTED, SCAN_FAILED or UPLOAD_FAILED.
+ * STORED is how the PENDING scan status is reported: the file is in object storage and queued for
+ * scanning.
+ */
+public record AttachmentStatusMessage(
+    UUID attachmentId, Long taskId, String status, boolean downloadable, Instant timestamp) {
+
+  public static AttachmentStatusMessage of(UUID attachmentId, Long taskId, VirusScanStatus status) {
+    String reported = status == VirusScanStatus.PENDING ? "STORED" : status.name();
+    boolean downloadable = status == VirusScanStatus.CLEAN || status == VirusScanStatus.SCAN_FAILED;
+    return new AttachmentStatusMessage(attachmentId, taskId, reported, downloadable, Instant.now());
+  }
+}
@@ -0,0 +1,62 @@
+package com.todoapp.application.dto;
+
+import java.util.List;
+
+import com.todoapp.domain.model.PermissionLevel;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for sharing many tasks with many users in one request.
+ *
+ * <p>The tasks to share are the union of:
+ *
+ * <ul>
+ *   <li>the listed task IDs
+ *   <li>every task of the given category
+ *   <li>all subtasks of the above, when {@code includeSubtasks} is set
+ * </ul>
+ *
+ * Only tasks owned by the caller are shared; other IDs are ignored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk share request for many tasks and users")
+public class BulkShareDTO {
+
+  @Schema(description = "IDs of the tasks to share", example = "[1, 2, 3]")
+  private List<Long> taskIds;
+
+  @Schema(description = "Share every task of this category", example = "10")
+  private Long categoryId;
+
+  @Schema(description = "Also share all subtasks of the selected tasks", example = "true")
+  private boolean includeSubtasks;
+
+  @Schema(description = "IDs of the users to share with", example = "[5, 6, 7]", required = true)
+  @NotEmpty(message = "User IDs list cannot be empty")
+  private List<Long> userIds;
+
+  @Schema(description = "Permission granted to every user", example = "VIEW", required = true)
+  @NotNull(message = "Permission level is required")
+  private PermissionLevel permissionLevel;
+
+  /**
+   * Validate that the request selects some tasks.
+   *
+   * @throws IllegalArgumentException if validation fails
+   */
+  public void validate() {
+    if ((taskIds == null || taskIds.isEmpty()) && categoryId == null) {
+      throw new IllegalArgumentException("Either task IDs or a category ID is required");
+    }
+  }
+}
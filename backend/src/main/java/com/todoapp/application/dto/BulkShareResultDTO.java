@@ -0,0 +1,26 @@
+package com.todoapp.application.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Outcome of a bulk share request. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a bulk share")
+public class BulkShareResultDTO {
+
+  @Schema(description = "Number of tasks shared", example = "200")
+  private int taskCount;
+
+  @Schema(description = "Number of users the tasks were shared with", example = "10")
+  private int userCount;
+
+  @Schema(description = "Number of new shares", example = "1990")
+  private int sharesCreated;
+
+  @Schema(description = "Number of existing shares whose permission changed", example = "10")
+  private int sharesUpdated;
+}
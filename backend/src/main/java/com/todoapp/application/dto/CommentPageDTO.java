@@ -0,0 +1,11 @@
+package com.todoapp.application.dto;
+
+import java.util.List;
+
+/**
+ * A page of a task's comment thread, newest first.
+ *
+ * @param comments The comments of the page
+ * @param nextCursor The cursor of the next, older page, or null on the last page
+ */
+public record CommentPageDTO(List<CommentDTO> comments, String nextCursor) {}
@@ -0,0 +1,30 @@
+package com.todoapp.application.dto;
+
+import java.time.Instant;
+
+/**
+ * A change to a task's comment thread, pushed to everyone who can read the task.
+ *
+ * @param taskId The ID of the task
+ * @param action ADDED, UPDATED or DELETED
+ * @param commentId The ID of the changed comment
+ * @param comment The comment after the change, or null if it was deleted
+ * @param timestamp When the change was made
+ */
+public record CommentThreadMessage(
+    Long taskId, String action, Long commentId, CommentDTO comment, Instant timestamp) {
+
+  public static CommentThreadMessage added(CommentDTO comment) {
+    return new CommentThreadMessage(
+        comment.getTaskId(), "ADDED", comment.getId(), comment, Instant.now());
+  }
+
+  public static CommentThreadMessage updated(CommentDTO comment) {
+    return new CommentThreadMessage(
+        comment.getTaskId(), "UPDATED", comment.getId(), comment, Instant.now());
+  }
+
+  public static CommentThreadMessage deleted(Long taskId, Long commentId) {
+    return new CommentThreadMessage(taskId, "DELETED", commentId, null, Instant.now());
+  }
+}
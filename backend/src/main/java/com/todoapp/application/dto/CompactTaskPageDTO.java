@@ -0,0 +1,35 @@
+package com.todoapp.application.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of tasks in the compact representation. Each category and tag of the page is sent once in
+ * a dictionary keyed by ID, and the tasks refer to them through {@code categoryId} and {@code
+ * tagIds} instead of repeating names and colors on every row.
+ *
+ * @param tasks The tasks of the page, without category names and tag objects
+ * @param categories The categories referenced by the page
+ * @param tags The tags referenced by the page
+ * @param page The page number (0-indexed)
+ * @param size The page size
+ * @param totalElements The number of tasks on all pages
+ * @param totalPages The number of pages
+ */
+public record CompactTaskPageDTO(
+    List<TaskResponseDTO> tasks,
+    Map<Long, Reference> categories,
+    Map<Long, Reference> tags,
+    int page,
+    int size,
+    long totalElements,
+    int totalPages) {
+
+  /**
+   * A dictionary entry for a category or tag.
+   *
+   * @param name The name
+   * @param color The color, if any
+   */
+  public record Reference(String name, String color) {}
+}
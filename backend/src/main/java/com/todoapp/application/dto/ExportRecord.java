@@ -0,0 +1,70 @@
+package com.todoapp.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.todoapp.domain.model.EntryType;
+import com.todoapp.domain.model.Priority;
+
+/**
+ * One line of a data export in NDJSON. The {@code type} property tells the records apart. An export
+ * lists categories and tags first, then tasks with every parent before its subtasks, then comments
+ * and time entries, so an import can resolve every reference from records it has already read. IDs
+ * are those of the exporting instance and are only used to link records within the file.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+  @JsonSubTypes.Type(ExportRecord.CategoryRecord.class),
+  @JsonSubTypes.Type(ExportRecord.TagRecord.class),
+  @JsonSubTypes.Type(ExportRecord.TaskRecord.class),
+  @JsonSubTypes.Type(ExportRecord.CommentRecord.class),
+  @JsonSubTypes.Type(ExportRecord.TimeEntryRecord.class)
+})
+public sealed interface ExportRecord {
+
+  /** The ID of the record in the exported data. */
+  Long id();
+
+  @JsonTypeName("CATEGORY")
+  record CategoryRecord(Long id, String name, String color, String icon) implements ExportRecord {}
+
+  @JsonTypeName("TAG")
+  record TagRecord(Long id, String name, String color) implements ExportRecord {}
+
+  @JsonTypeName("TASK")
+  record TaskRecord(
+      Long id,
+      Long parentId,
+      Long categoryId,
+      List<Long> tagIds,
+      String description,
+      Priority priority,
+      boolean completed,
+      LocalDateTime dueDate,
+      LocalDateTime completedAt,
+      Long position,
+      Integer estimatedDurationMinutes,
+      Integer actualDurationMinutes,
+      LocalDateTime createdAt)
+      implements ExportRecord {}
+
+  @JsonTypeName("COMMENT")
+  record CommentRecord(
+      Long id, Long taskId, String content, boolean edited, LocalDateTime createdAt)
+      implements ExportRecord {}
+
+  @JsonTypeName("TIME_ENTRY")
+  record TimeEntryRecord(
+      Long id,
+      Long taskId,
+      EntryType entryType,
+      LocalDateTime startTime,
+      LocalDateTime endTime,
+      Integer durationMinutes,
+      LocalDateTime loggedAt,
+      String notes)
+      implements ExportRecord {}
+}
@@ -18,6 +18,7 @@ public class FileAttachmentDTO {
   private LocalDateTime createdAt;
   private LocalDateTime scannedAt;
   private boolean downloadable;
+  private String thumbnailUrl;
 
   // Constructors
 
@@ -137,4 +138,12 @@ public class FileAttachmentDTO {
   public void setDownloadable(boolean downloadable) {
     this.downloadable = downloadable;
   }
+
+  public String getThumbnailUrl() {
+    return thumbnailUrl;
+  }
+
+  public void setThumbnailUrl(String thumbnailUrl) {
+    this.thumbnailUrl = thumbnailUrl;
+  }
 }
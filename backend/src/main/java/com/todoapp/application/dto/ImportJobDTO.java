@@ -0,0 +1,41 @@
+package com.todoapp.application.dto;
+
+import java.time.LocalDateTime;
+
+import com.todoapp.domain.model.ImportJob;
+import com.todoapp.domain.model.ImportJobStatus;
+
+/**
+ * Progress of a background import.
+ *
+ * @param id The job ID
+ * @param status The job state
+ * @param fileName The name of the uploaded file
+ * @param totalRecords The number of records in the file
+ * @param processedRecords The number of records imported so far
+ * @param errorMessage Why the job failed, if it did
+ * @param createdAt When the file was uploaded
+ * @param completedAt When the job completed or failed
+ */
+public record ImportJobDTO(
+    Long id,
+    ImportJobStatus status,
+    String fileName,
+    long totalRecords,
+    long processedRecords,
+    String errorMessage,
+    LocalDateTime createdAt,
+    LocalDateTime completedAt) {
+
+  public static ImportJobDTO from(ImportJob job) {
+    return new ImportJobDTO(
+        job.getId(),
+        job.getStatus(),
+        job.getFileName(),
+        job.getTotalRecords(),
+        job.getProcessedRecords(),
+        job.getErrorMessage(),
+        job.getCreatedAt(),
+        job.getCompletedAt());
+  }
+}
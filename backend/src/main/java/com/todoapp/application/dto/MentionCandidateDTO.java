@@ -0,0 +1,10 @@
+package com.todoapp.application.dto;
+
+/**
+ * A user offered by mention autocomplete.
+ *
+ * @param id The user ID
+ * @param username The handle to insert after the @
+ * @param fullName The full name, or null
+ */
+public record MentionCandidateDTO(Long id, String username, String fullName) {}
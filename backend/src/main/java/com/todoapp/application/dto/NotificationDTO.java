@@ -13,6 +13,7 @@ public class NotificationDTO {
   private String message;
   private Long relatedTaskId;
   private String relatedTaskDescription;
+  private int occurrenceCount = 1;
   private boolean isRead;
   private LocalDateTime createdAt;
   private LocalDateTime readAt;
@@ -92,6 +93,14 @@ public class NotificationDTO {
     this.relatedTaskDescription = relatedTaskDescription;
   }
 
+  public int getOccurrenceCount() {
+    return occurrenceCount;
+  }
+
+  public void setOccurrenceCount(int occurrenceCount) {
+    this.occurrenceCount = occurrenceCount;
+  }
+
   public boolean isRead() {
     return isRead;
   }
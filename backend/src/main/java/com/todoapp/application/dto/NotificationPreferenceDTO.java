@@ -2,6 +2,7 @@ package com.todoapp.application.dto;
 
 import java.util.UUID;
 
+import com.todoapp.domain.model.DigestFrequency;
 import com.todoapp.domain.model.NotificationType;
 
 public class NotificationPreferenceDTO {
@@ -11,6 +12,8 @@ public class NotificationPreferenceDTO {
   private NotificationType notificationType;
   private boolean inAppEnabled;
   private boolean emailEnabled;
+  // Left unchanged on update when null
+  private DigestFrequency digestFrequency;
 
   // Constructors
 
@@ -70,4 +73,12 @@ public class NotificationPreferenceDTO {
   public void setEmailEnabled(boolean emailEnabled) {
     this.emailEnabled = emailEnabled;
   }
+
+  public DigestFrequency getDigestFrequency() {
+    return digestFrequency;
+  }
+
+  public void setDigestFrequency(DigestFrequency digestFrequency) {
+    this.digestFrequency = digestFrequency;
+  }
 }
@@ -0,0 +1,93 @@
+package com.todoapp.application.dto;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Due-date filter of a task listing. Every part narrows the same half-open range of due dates, and
+ * only open tasks with a due date are listed.
+ *
+ * <p>Due dates are stored as server-local times. The windows are days and weeks of the caller's
+ * time zone, converted to server-local bounds, so "today" ends at the caller's midnight.
+ *
+ * @param dueAfter Only tasks due at or after this server-local time
+ * @param dueBefore Only tasks due before this server-local time
+ * @param overdue Only tasks whose due date has passed
+ * @param window Only tasks due in this calendar window of the caller
+ * @param timeZone The caller's time zone, for the window
+ */
+public record TaskDueFilter(
+    LocalDateTime dueAfter,
+    LocalDateTime dueBefore,
+    boolean overdue,
+    DueWindow window,
+    ZoneId timeZone) {
+
+  /** Calendar windows of the caller's time zone. Weeks start on Monday. */
+  public enum DueWindow {
+    TODAY,
+    THIS_WEEK
+  }
+
+  /** Whether the filter restricts anything. */
+  public boolean isActive() {
+    return dueAfter != null || dueBefore != null || overdue || window != null;
+  }
+
+  /**
+   * Resolve the filter into server-local bounds.
+   *
+   * @param now The time of the request
+   * @param storageZone The zone due dates are stored in
+   * @return The range of due dates; a null bound is open
+   */
+  public DueRange resolve(Instant now, ZoneId storageZone) {
+    LocalDateTime from = dueAfter;
+    LocalDateTime to = dueBefore;
+    if (overdue) {
+      to = earlier(to, LocalDateTime.ofInstant(now, storageZone));
+    }
+    if (window != null) {
+      LocalDate today = LocalDate.ofInstant(now, timeZone);
+      LocalDate start =
+          window == DueWindow.TODAY
+              ? today
+              : today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      LocalDate end = window == DueWindow.TODAY ? start.plusDays(1) : start.plusWeeks(1);
+      from = later(from, toStorage(start, storageZone));
+      to = earlier(to, toStorage(end, storageZone));
+    }
+    return new DueRange(from, to);
+  }
+
+  /** The server-local time at which a day of the caller's zone starts. */
+  private LocalDateTime toStorage(LocalDate day, ZoneId storageZone) {
+    return LocalDateTime.ofInstant(day.atStartOfDay(timeZone).toInstant(), storageZone);
+  }
+
+  private static LocalDateTime earlier(LocalDateTime a, LocalDateTime b) {
+    return a == null || b.isBefore(a) ? b : a;
+  }
+
+  private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+    return a == null || b.isAfter(a) ? b : a;
+  }
+
+  /**
+   * Half-open range of due dates.
+   *
+   * @param from The first due date included, or null
+   * @param to The first due date excluded, or null
+   */
+  public record DueRange(LocalDateTime from, LocalDateTime to) {
+
+    /** Whether no due date can fall into the range. */
+    public boolean isEmpty() {
+      return from != null && to != null && !from.isBefore(to);
+    }
+  }
+}
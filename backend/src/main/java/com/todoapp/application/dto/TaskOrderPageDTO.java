@@ -0,0 +1,11 @@
+package com.todoapp.application.dto;
+
+import java.util.List;
+
+/**
+ * A page of a task list in its manual order.
+ *
+ * @param tasks The tasks of the page
+ * @param nextCursor The cursor of the next page, or null on the last page
+ */
+public record TaskOrderPageDTO(List<TaskResponseDTO> tasks, String nextCursor) {}
@@ -0,0 +1,35 @@
+package com.todoapp.application.dto;
+
+import java.time.LocalDateTime;
+
+import com.todoapp.domain.model.Priority;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Field-level task changes. Only the fields that are set are written; the others keep whatever
+ * value they have when the update runs, so collaborators changing different fields never overwrite
+ * each other.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPatchDTO {
+
+  @Size(min = 1, max = 5000, message = "Description must be between 1 and 5000 characters")
+  private String description;
+
+  private Priority priority;
+
+  private LocalDateTime dueDate;
+
+  /** Remove the due date; takes precedence over {@code dueDate}. */
+  private boolean clearDueDate;
+
+  @Min(value = 0, message = "Estimated duration cannot be negative")
+  private Integer estimatedDurationMinutes;
+}
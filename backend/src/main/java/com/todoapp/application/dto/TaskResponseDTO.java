@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.todoapp.domain.model.Priority;
+import com.todoapp.domain.model.TaskAccessLevel;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -26,7 +27,7 @@ public class TaskResponseDTO {
 
   private LocalDateTime completedAt;
 
-  private Integer position;
+  private Long position;
 
   private Long categoryId;
 
@@ -36,6 +37,9 @@ public class TaskResponseDTO {
 
   private List<TagDTO> tags;
 
+  /** Tag references; only set in the compact representation, which leaves out {@code tags}. */
+  private List<Long> tagIds;
+
   private Integer estimatedDurationMinutes;
 
   private Integer actualDurationMinutes;
@@ -51,4 +55,10 @@ public class TaskResponseDTO {
   private LocalDateTime createdAt;
 
   private LocalDateTime updatedAt;
+
+  /** Optimistic lock version; leads the ETag and is expected back in If-Match. */
+  private Long version;
+
+  /** Access of the requesting user; only set by listings that mix owned and shared tasks. */
+  private TaskAccessLevel accessLevel;
 }
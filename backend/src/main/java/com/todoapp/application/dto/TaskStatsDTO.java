@@ -0,0 +1,51 @@
+package com.todoapp.application.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.todoapp.domain.model.Priority;
+
+/**
+ * Dashboard numbers of a user's tasks.
+ *
+ * @param total The number of tasks, subtasks included
+ * @param completed The number of completed tasks
+ * @param open The number of tasks that are not completed
+ * @param overdue The number of open tasks whose due date has passed
+ * @param openByPriority The number of open tasks per priority
+ * @param byCategory Task counts per category, for categories that have tasks
+ * @param completionHistory Completed tasks per day of completion, oldest first, one entry per day
+ * @param generatedAt The time the overdue count refers to
+ */
+public record TaskStatsDTO(
+    long total,
+    long completed,
+    long open,
+    long overdue,
+    Map<Priority, Long> openByPriority,
+    List<CategoryStats> byCategory,
+    List<DailyCompletions> completionHistory,
+    LocalDateTime generatedAt) {
+
+  /**
+   * Task counts of one category.
+   *
+   * @param categoryId The category ID
+   * @param name The category name
+   * @param color The category color
+   * @param total The number of tasks in the category
+   * @param completed The number of completed tasks in the category
+   */
+  public record CategoryStats(
+      Long categoryId, String name, String color, long total, long completed) {}
+
+  /**
+   * Tasks completed on one day.
+   *
+   * @param date The day
+   * @param completed The number of tasks completed that day that still exist and are completed
+   */
+  public record DailyCompletions(LocalDate date, long completed) {}
+}
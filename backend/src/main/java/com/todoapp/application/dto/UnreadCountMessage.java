@@ -0,0 +1,11 @@
+package com.todoapp.application.dto;
+
+import java.time.Instant;
+
+/** Unread notification count pushed to clients over STOMP whenever it changes. */
+public record UnreadCountMessage(long unreadCount, Instant timestamp) {
+
+  public static UnreadCountMessage of(long unreadCount) {
+    return new UnreadCountMessage(unreadCount, Instant.now());
+  }
+}
@@ -13,6 +13,7 @@ public class UserResponseDTO {
 
   private Long id;
   private String email;
+  private String username;
   private String fullName;
   private Boolean isActive;
   private Boolean emailVerified;
@@ -1,15 +1,26 @@
 package com.todoapp.application.mapper;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
+import com.todoapp.application.dto.CompactTaskPageDTO;
+import com.todoapp.application.dto.CompactTaskPageDTO.Reference;
 import com.todoapp.application.dto.TagDTO;
 import com.todoapp.application.dto.TaskCreateDTO;
 import com.todoapp.application.dto.TaskResponseDTO;
 import com.todoapp.domain.model.Category;
 import com.todoapp.domain.model.Priority;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskRank;
 import com.todoapp.domain.model.User;
 
 @Component
@@ -23,12 +34,26 @@ public class TaskMapper {
     task.setDueDate(dto.getDueDate());
     task.setEstimatedDurationMinutes(dto.getEstimatedDurationMinutes());
     task.setIsCompleted(false);
-    task.setPosition(0);
+    task.setPosition(TaskRank.forNewTask(Instant.now()));
     task.setDepth(0);
     return task;
   }
 
   public TaskResponseDTO toResponseDTO(Task task) {
+    TaskResponseDTO dto = toResponseDTO(task, LocalDateTime.now());
+    dto.setSubtaskProgress(task.calculateSubtaskProgress());
+    return dto;
+  }
+
+  /**
+   * Map a listed task, judging whether it is overdue at the given time. The subtask collection is
+   * not touched: the listing sets the subtask progress of its whole page from one grouped count.
+   *
+   * @param task The task
+   * @param now The time of the request
+   * @return The response DTO, without subtask progress
+   */
+  public TaskResponseDTO toResponseDTO(Task task, LocalDateTime now) {
     TaskResponseDTO dto = new TaskResponseDTO();
     dto.setId(task.getId());
     dto.setDescription(task.getDescription());
@@ -39,11 +64,11 @@ public class TaskMapper {
     dto.setPosition(task.getPosition());
     dto.setEstimatedDurationMinutes(task.getEstimatedDurationMinutes());
     dto.setActualDurationMinutes(task.getActualDurationMinutes());
-    dto.setIsOverdue(task.isOverdue());
+    dto.setIsOverdue(task.isOverdue(now));
     dto.setDepth(task.getDepth());
-    dto.setSubtaskProgress(task.calculateSubtaskProgress());
     dto.setCreatedAt(task.getCreatedAt());
     dto.setUpdatedAt(task.getUpdatedAt());
+    dto.setVersion(task.getVersion());
 
     if (task.getCategory() != null) {
       dto.setCategoryId(task.getCategory().getId());
@@ -72,6 +97,61 @@ public class TaskMapper {
     return dto;
   }
 
+  /**
+   * Turn the grouped subtask counts of a page into the completion percentage of each parent.
+   *
+   * @param subtaskCounts Rows of {@code [parentId, subtaskCount, completedCount]}
+   * @return Subtask progress by parent task ID; tasks without subtasks are absent
+   */
+  public Map<Long, Integer> toSubtaskProgress(List<Object[]> subtaskCounts) {
+    Map<Long, Integer> progress = new HashMap<>(subtaskCounts.size() * 2);
+    for (Object[] row : subtaskCounts) {
+      progress.put(
+          (Long) row[0],
+          Task.subtaskProgress(((Number) row[2]).longValue(), ((Number) row[1]).longValue()));
+    }
+    return progress;
+  }
+
+  /**
+   * Convert a page of tasks to the compact representation. Categories and tags move into
+   * dictionaries that hold each of them once, and the tasks keep only their IDs.
+   *
+   * @param page The page of tasks; its DTOs are reused for the compact rows
+   * @return The compact page
+   */
+  public CompactTaskPageDTO toCompactPage(Page<TaskResponseDTO> page) {
+    Map<Long, Reference> categories = new LinkedHashMap<>();
+    Map<Long, Reference> tags = new LinkedHashMap<>();
+    List<TaskResponseDTO> rows = new ArrayList<>(page.getNumberOfElements());
+    for (TaskResponseDTO dto : page.getContent()) {
+      if (dto.getCategoryId() != null) {
+        categories.putIfAbsent(
+            dto.getCategoryId(), new Reference(dto.getCategoryName(), dto.getCategoryColor()));
+        dto.setCategoryName(null);
+        dto.setCategoryColor(null);
+      }
+      if (dto.getTags() != null) {
+        List<Long> tagIds = new ArrayList<>(dto.getTags().size());
+        for (TagDTO tag : dto.getTags()) {
+          tags.putIfAbsent(tag.getId(), new Reference(tag.getName(), tag.getColor()));
+          tagIds.add(tag.getId());
+        }
+        dto.setTagIds(tagIds);
+        dto.setTags(null);
+      }
+      rows.add(dto);
+    }
+    return new CompactTaskPageDTO(
+        rows,
+        categories,
+        tags,
+        page.getNumber(),
+        page.getSize(),
+        page.getTotalElements(),
+        page.getTotalPages());
+  }
+
   public void updateEntityFromDTO(TaskCreateDTO dto, Task task, Category category) {
     task.setDescription(dto.getDescription());
     if (dto.getPriority() != null) {
@@ -12,6 +12,7 @@ public class UserMapper {
     UserResponseDTO dto = new UserResponseDTO();
     dto.setId(user.getId());
     dto.setEmail(user.getEmail());
+    dto.setUsername(user.getUsername());
     dto.setFullName(user.getFullName());
     dto.setIsActive(user.getIsActive());
     dto.setEmailVerified(user.getEmailVerified());
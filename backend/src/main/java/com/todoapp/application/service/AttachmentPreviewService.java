@@ -0,0 +1,189 @@
+package com.todoapp.application.service;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.todoapp.domain.event.AttachmentStatusChangedEvent;
+import com.todoapp.domain.model.FileAttachment;
+import com.todoapp.domain.model.VirusScanStatus;
+import com.todoapp.domain.repository.FileAttachmentRepository;
+import com.todoapp.infrastructure.storage.FileStorageService;
+import com.todoapp.infrastructure.storage.ThumbnailGenerator;
+
+/**
+ * Generates preview images for attachments once they have been scanned clean. Previews are stored
+ * in MinIO next to the original file so task detail views can load a few kilobytes instead of the
+ * full attachment.
+ *
+ * <p>A clean scan records a preview request on the attachment row, and generation clears it once it
+ * has run, whatever the outcome. Jobs dropped because the preview queue was full keep their
+ * request, and a periodic sweep resubmits requests that have waited longer than the retry delay.
+ */
+@Service
+public class AttachmentPreviewService {
+
+  private static final Logger logger = LoggerFactory.getLogger(AttachmentPreviewService.class);
+
+  public static final String THUMBNAIL_SUFFIX = ".thumb.jpg";
+
+  private final FileAttachmentRepository fileAttachmentRepository;
+  private final FileStorageService fileStorageService;
+  private final ThumbnailGenerator thumbnailGenerator;
+  private final ThreadPoolTaskExecutor previewExecutor;
+
+  @Value("${app.preview.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.preview.max-source-bytes:10485760}")
+  private long maxSourceBytes;
+
+  @Value("${app.preview.recovery.retry-after-minutes:10}")
+  private long retryAfterMinutes;
+
+  @Value("${app.preview.recovery.batch-size:100}")
+  private int recoveryBatchSize;
+
+  public AttachmentPreviewService(
+      FileAttachmentRepository fileAttachmentRepository,
+      FileStorageService fileStorageService,
+      ThumbnailGenerator thumbnailGenerator,
+      @Qualifier("previewExecutor") ThreadPoolTaskExecutor previewExecutor) {
+    this.fileAttachmentRepository = fileAttachmentRepository;
+    this.fileStorageService = fileStorageService;
+    this.thumbnailGenerator = thumbnailGenerator;
+    this.previewExecutor = previewExecutor;
+  }
+
+  /**
+   * Kick off preview generation after a scan result has been committed. Runs on the bounded preview
+   * executor so the scan consumer is never blocked by rendering.
+   *
+   * @param event The status change event
+   */
+  @Async("previewExecutor")
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onAttachmentStatusChanged(AttachmentStatusChangedEvent event) {
+    if (!enabled || event.status() != VirusScanStatus.CLEAN) {
+      return;
+    }
+    generateThumbnail(event.attachmentId());
+  }
+
+  /**
+   * Resubmit preview requests that were dropped by a full queue. Each request is renewed before it
+   * is submitted, so concurrent sweeps do not submit it twice, and no more requests are submitted
+   * than the queue has room for.
+   */
+  @Scheduled(fixedDelayString = "${app.preview.recovery.interval-ms:60000}")
+  public void recoverDroppedPreviews() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      int room = previewExecutor.getQueueCapacity() - previewExecutor.getQueueSize();
+      if (room <= 0) {
+        return;
+      }
+
+      LocalDateTime now = LocalDateTime.now();
+      LocalDateTime requestedBefore = now.minusMinutes(retryAfterMinutes);
+      List<UUID> pending =
+          fileAttachmentRepository.findPendingPreviewIds(
+              requestedBefore, PageRequest.of(0, Math.min(room, recoveryBatchSize)));
+
+      int resubmitted = 0;
+      for (UUID attachmentId : pending) {
+        if (fileAttachmentRepository.renewPreviewRequest(attachmentId, now, requestedBefore) > 0) {
+          previewExecutor.execute(() -> generateThumbnail(attachmentId));
+          resubmitted++;
+        }
+      }
+
+      if (resubmitted > 0) {
+        logger.info("Preview recovery resubmitted {} attachments", resubmitted);
+      }
+    } catch (Exception e) {
+      logger.error("Error during preview recovery", e);
+    }
+  }
+
+  /**
+   * Generate and store a thumbnail for an attachment, then clear its preview request.
+   *
+   * @param attachmentId The ID of the attachment
+   * @return true if a thumbnail was generated, false if skipped or failed
+   */
+  public boolean generateThumbnail(UUID attachmentId) {
+    FileAttachment attachment = fileAttachmentRepository.findById(attachmentId).orElse(null);
+    if (attachment == null) {
+      logger.debug("Attachment {} no longer exists, skipping thumbnail", attachmentId);
+      return false;
+    }
+
+    try {
+      return render(attachment);
+    } finally {
+      if (attachment.getPreviewRequestedAt() != null) {
+        fileAttachmentRepository.clearPreviewRequest(attachmentId);
+      }
+    }
+  }
+
+  private boolean render(FileAttachment attachment) {
+    UUID attachmentId = attachment.getId();
+    if (attachment.getScanStatus() != VirusScanStatus.CLEAN || attachment.hasThumbnail()) {
+      return false;
+    }
+
+    if (!thumbnailGenerator.supports(attachment.getMimeType())) {
+      return false;
+    }
+
+    if (attachment.getFileSize() > maxSourceBytes) {
+      logger.info(
+          "Attachment {} is {} bytes, above preview limit of {} bytes",
+          attachmentId,
+          attachment.getFileSize(),
+          maxSourceBytes);
+      return false;
+    }
+
+    String thumbnailKey =
+        fileStorageService.generateDerivativeKey(attachment.getStorageKey(), THUMBNAIL_SUFFIX);
+
+    try (InputStream source = fileStorageService.downloadFile(attachment.getStorageKey())) {
+      Optional<byte[]> thumbnail = thumbnailGenerator.generate(source, attachment.getMimeType());
+      if (thumbnail.isEmpty()) {
+        logger.info("No thumbnail could be rendered for attachment {}", attachmentId);
+        return false;
+      }
+
+      fileStorageService.uploadObject(
+          thumbnailKey, thumbnail.get(), ThumbnailGenerator.THUMBNAIL_CONTENT_TYPE);
+      fileAttachmentRepository.updateThumbnail(attachmentId, thumbnailKey, LocalDateTime.now());
+
+      logger.info(
+          "Thumbnail generated for attachment {} ({} bytes)", attachmentId, thumbnail.get().length);
+      return true;
+
+    } catch (Exception e) {
+      logger.error("Failed to generate thumbnail for attachment: {}", attachmentId, e);
+      return false;
+    }
+  }
+}
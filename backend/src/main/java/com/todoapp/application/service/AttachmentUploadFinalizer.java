@@ -0,0 +1,217 @@
+package com.todoapp.application.service;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.todoapp.domain.event.AttachmentStagedEvent;
+import com.todoapp.domain.event.AttachmentStatusChangedEvent;
+import com.todoapp.domain.model.FileAttachment;
+import com.todoapp.domain.model.VirusScanStatus;
+import com.todoapp.domain.repository.FileAttachmentRepository;
+import com.todoapp.infrastructure.messaging.VirusScanService;
+import com.todoapp.infrastructure.storage.AttachmentStagingStore;
+import com.todoapp.infrastructure.storage.FileStorageService;
+
+/**
+ * Moves staged asynchronous uploads into object storage and hands them over to virus scanning.
+ *
+ * <p>Finalization normally starts right after the upload request commits. A periodic sweep picks up
+ * uploads that were not finalized (executor queue full, storage outage, restart) and marks them
+ * UPLOAD_FAILED once they are older than the configured timeout.
+ *
+ * <p>Every transfer starts by claiming the row with a conditional update from STAGED to STORING,
+ * and every later status change is conditional on that claim. The event listener and the sweep can
+ * therefore race for the same upload without copying it twice, and the sweep never fails or deletes
+ * the staged file of a transfer that is still running. A claim older than the claim timeout is
+ * treated as abandoned by a worker that died and can be taken over.
+ */
+@Service
+public class AttachmentUploadFinalizer {
+
+  private static final Logger logger = LoggerFactory.getLogger(AttachmentUploadFinalizer.class);
+
+  private final FileAttachmentRepository fileAttachmentRepository;
+  private final FileStorageService fileStorageService;
+  private final AttachmentStagingStore stagingStore;
+  private final VirusScanService virusScanService;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Value("${app.file-upload.async.retry-after-seconds:60}")
+  private long retryAfterSeconds;
+
+  @Value("${app.file-upload.async.fail-after-minutes:60}")
+  private long failAfterMinutes;
+
+  @Value("${app.file-upload.async.claim-timeout-minutes:30}")
+  private long claimTimeoutMinutes;
+
+  public AttachmentUploadFinalizer(
+      FileAttachmentRepository fileAttachmentRepository,
+      FileStorageService fileStorageService,
+      AttachmentStagingStore stagingStore,
+      VirusScanService virusScanService,
+      ApplicationEventPublisher eventPublisher) {
+    this.fileAttachmentRepository = fileAttachmentRepository;
+    this.fileStorageService = fileStorageService;
+    this.stagingStore = stagingStore;
+    this.virusScanService = virusScanService;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Start finalization once the staged attachment row has been committed.
+   *
+   * @param event The staged upload event
+   */
+  @Async("uploadExecutor")
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onAttachmentStaged(AttachmentStagedEvent event) {
+    finalizeUpload(event.attachmentId());
+  }
+
+  /**
+   * Upload the staged content of an attachment to object storage and queue it for scanning.
+   * Attachments that are no longer STAGED, or are being stored by another worker, are skipped, so
+   * repeated and concurrent calls are harmless.
+   *
+   * @param attachmentId The ID of the attachment
+   * @return true if the attachment was moved to storage
+   */
+  public boolean finalizeUpload(UUID attachmentId) {
+    FileAttachment attachment = fileAttachmentRepository.findById(attachmentId).orElse(null);
+    if (attachment == null) {
+      logger.debug("Attachment {} no longer exists, discarding staged upload", attachmentId);
+      stagingStore.delete(attachmentId);
+      return false;
+    }
+
+    LocalDateTime claimedAt = claim(attachmentId);
+    if (claimedAt == null) {
+      return false;
+    }
+
+    if (!stagingStore.exists(attachmentId)) {
+      logger.error("Staged content missing for attachment {}", attachmentId);
+      release(attachment, claimedAt, VirusScanStatus.UPLOAD_FAILED);
+      return false;
+    }
+
+    try (InputStream content = stagingStore.open(attachmentId)) {
+      fileStorageService.storeFile(
+          attachment.getStorageKey(), content, attachment.getMimeType(), attachment.getFileSize());
+    } catch (Exception e) {
+      // Back to STAGED so the recovery sweep retries it
+      logger.error("Failed to move staged upload to storage: {}", attachmentId, e);
+      release(attachment, claimedAt, VirusScanStatus.STAGED);
+      return false;
+    }
+
+    if (!release(attachment, claimedAt, VirusScanStatus.PENDING)) {
+      logger.warn("Claim on staged upload {} was taken over during the transfer", attachmentId);
+      return false;
+    }
+    stagingStore.delete(attachmentId);
+
+    // Announce STORED before queueing so the push order matches the status order
+    virusScanService.queueForScanning(attachmentId);
+
+    logger.info("Staged upload stored: {}", attachmentId);
+    return true;
+  }
+
+  /** Retry staged uploads that were not finalized and fail those that have waited too long. */
+  @Scheduled(fixedDelayString = "${app.file-upload.async.recovery-interval-ms:60000}")
+  public void recoverStagedUploads() {
+    try {
+      LocalDateTime now = LocalDateTime.now();
+      LocalDateTime failBefore = now.minusMinutes(failAfterMinutes);
+
+      List<FileAttachment> stale =
+          fileAttachmentRepository.findUnfinalizedUploads(
+              now.minusSeconds(retryAfterSeconds), now.minusMinutes(claimTimeoutMinutes));
+
+      for (FileAttachment attachment : stale) {
+        if (attachment.getCreatedAt() != null && attachment.getCreatedAt().isBefore(failBefore)) {
+          failTimedOut(attachment);
+        } else {
+          finalizeUpload(attachment.getId());
+        }
+      }
+
+      if (!stale.isEmpty()) {
+        logger.info("Staged upload recovery processed {} attachments", stale.size());
+      }
+    } catch (Exception e) {
+      logger.error("Error during staged upload recovery", e);
+    }
+  }
+
+  private void failTimedOut(FileAttachment attachment) {
+    // Claim first: an upload that another worker is still transferring is left alone
+    LocalDateTime claimedAt = claim(attachment.getId());
+    if (claimedAt == null) {
+      return;
+    }
+    logger.warn("Staged upload {} timed out", attachment.getId());
+    if (release(attachment, claimedAt, VirusScanStatus.UPLOAD_FAILED)) {
+      stagingStore.delete(attachment.getId());
+    }
+  }
+
+  /**
+   * Claim a staged upload for this worker.
+   *
+   * @return the claim timestamp, or null if the upload is not STAGED or another worker holds a live
+   *     claim on it
+   */
+  private LocalDateTime claim(UUID attachmentId) {
+    // Truncated so the value read back from the database compares equal
+    LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    int claimed =
+        fileAttachmentRepository.claimStagedUpload(
+            attachmentId, claimedAt, claimedAt.minusMinutes(claimTimeoutMinutes));
+    if (claimed == 0) {
+      logger.debug("Staged upload {} is not claimable, skipping", attachmentId);
+      return null;
+    }
+    return claimedAt;
+  }
+
+  /**
+   * Move a claimed upload to its next status and announce it, unless the claim was taken over.
+   * Going back to STAGED is not announced, since clients never saw the upload leave it.
+   */
+  private boolean release(
+      FileAttachment attachment, LocalDateTime claimedAt, VirusScanStatus next) {
+    if (fileAttachmentRepository.releaseClaimedUpload(attachment.getId(), claimedAt, next) == 0) {
+      return false;
+    }
+    attachment.setScanStatus(next);
+    if (next != VirusScanStatus.STAGED) {
+      publishStatusChange(attachment);
+    }
+    return true;
+  }
+
+  private void publishStatusChange(FileAttachment attachment) {
+    eventPublisher.publishEvent(
+        new AttachmentStatusChangedEvent(
+            attachment.getId(),
+            attachment.getTask().getId(),
+            attachment.getUser().getId(),
+            attachment.getScanStatus()));
+  }
+}
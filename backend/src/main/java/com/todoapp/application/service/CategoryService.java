@@ -8,19 +8,30 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.todoapp.application.dto.CategoryDTO;
 import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.SyncEntityType;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.CategoryRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.ReferenceDataCacheInvalidator;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 
 @Service
 public class CategoryService {
 
   private final CategoryRepository categoryRepository;
   private final UserRepository userRepository;
-
-  public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository) {
+  private final ReferenceDataCacheInvalidator cacheInvalidator;
+  private final SyncChangeLog syncChangeLog;
+
+  public CategoryService(
+      CategoryRepository categoryRepository,
+      UserRepository userRepository,
+      ReferenceDataCacheInvalidator cacheInvalidator,
+      SyncChangeLog syncChangeLog) {
     this.categoryRepository = categoryRepository;
     this.userRepository = userRepository;
+    this.cacheInvalidator = cacheInvalidator;
+    this.syncChangeLog = syncChangeLog;
   }
 
   @Transactional
@@ -39,6 +50,8 @@ public class CategoryService {
     category.setUser(user);
 
     Category savedCategory = categoryRepository.save(category);
+    cacheInvalidator.evict(Category.class, savedCategory.getId());
+    syncChangeLog.changed(SyncEntityType.CATEGORY, savedCategory.getId(), userId);
     return mapToDTO(savedCategory);
   }
 
@@ -74,6 +87,8 @@ public class CategoryService {
     category.setColor(categoryDTO.getColor());
 
     Category updatedCategory = categoryRepository.save(category);
+    cacheInvalidator.evict(Category.class, id);
+    syncChangeLog.changed(SyncEntityType.CATEGORY, id, userId);
     return mapToDTO(updatedCategory);
   }
 
@@ -85,6 +100,8 @@ public class CategoryService {
             .orElseThrow(() -> new RuntimeException("Category not found"));
 
     categoryRepository.delete(category);
+    cacheInvalidator.evict(Category.class, id);
+    syncChangeLog.deleted(SyncEntityType.CATEGORY, id, userId);
   }
 
   private CategoryDTO mapToDTO(Category category) {
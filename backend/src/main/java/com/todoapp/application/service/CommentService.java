@@ -1,7 +1,14 @@
 package com.todoapp.application.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -9,17 +16,27 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.todoapp.application.dto.CommentDTO;
+import com.todoapp.application.dto.CommentPageDTO;
+import com.todoapp.application.dto.CommentThreadMessage;
 import com.todoapp.domain.model.Comment;
 import com.todoapp.domain.model.NotificationType;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.CommentRepository;
 import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.CommentThreadVersions;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
+import com.todoapp.presentation.websocket.CommentWebSocketHandler;
 
 import jakarta.transaction.Transactional;
 
@@ -33,6 +50,14 @@ public class CommentService {
   private final TaskRepository taskRepository;
   private final UserRepository userRepository;
   private final NotificationService notificationService;
+  private final TaskAccessResolver accessResolver;
+  private final TaskShareRepository taskShareRepository;
+  private final CommentThreadVersions threadVersions;
+  private final CommentWebSocketHandler commentWebSocketHandler;
+  private final SyncChangeLog syncChangeLog;
+
+  @Value("${app.comments.max-page-size:100}")
+  private int maxPageSize = 100;
 
   private static final Pattern MENTION_PATTERN = Pattern.compile("@(\\w+)");
 
@@ -40,11 +65,21 @@ public class CommentService {
       CommentRepository commentRepository,
       TaskRepository taskRepository,
       UserRepository userRepository,
-      NotificationService notificationService) {
+      NotificationService notificationService,
+      TaskAccessResolver accessResolver,
+      TaskShareRepository taskShareRepository,
+      CommentThreadVersions threadVersions,
+      CommentWebSocketHandler commentWebSocketHandler,
+      SyncChangeLog syncChangeLog) {
     this.commentRepository = commentRepository;
     this.taskRepository = taskRepository;
     this.userRepository = userRepository;
     this.notificationService = notificationService;
+    this.accessResolver = accessResolver;
+    this.taskShareRepository = taskShareRepository;
+    this.threadVersions = threadVersions;
+    this.commentWebSocketHandler = commentWebSocketHandler;
+    this.syncChangeLog = syncChangeLog;
   }
 
   public CommentDTO addComment(Long taskId, CommentDTO commentDTO, Long userId) {
@@ -55,11 +90,9 @@ public class CommentService {
       throw new IllegalArgumentException("Comment content cannot be empty");
     }
 
-    // Find user
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+    // The author is only needed as a foreign key; its email is read from the second-level cache
+    // when the response or a notification needs it
+    User user = userRepository.getReferenceById(userId);
 
     // Find task and verify user has access
     Task task =
@@ -67,8 +100,8 @@ public class CommentService {
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    // Verify user owns the task (for now, only task owner can comment)
-    if (!task.getUser().getId().equals(userId)) {
+    // Owners and users the task is shared with may comment
+    if (!accessResolver.canRead(task, userId)) {
       throw new IllegalArgumentException("User does not have access to this task");
     }
 
@@ -81,6 +114,7 @@ public class CommentService {
 
     Comment savedComment = commentRepository.save(comment);
     logger.info("Comment ID: {} created for task ID: {}", savedComment.getId(), taskId);
+    syncChangeLog.commentChanged(savedComment.getId(), taskId, task.getUser().getId(), false);
 
     // Process mentions and send notifications
     processMentions(savedComment, user, task);
@@ -93,26 +127,75 @@ public class CommentService {
           task.getUser(), NotificationType.TASK_COMMENTED, message, task);
     }
 
-    return toDTO(savedComment);
+    CommentDTO created = toDTO(savedComment);
+    threadChanged(task, CommentThreadMessage.added(created));
+    return created;
   }
 
-  public List<CommentDTO> getCommentsByTaskId(Long taskId, Long userId) {
-    logger.debug("Fetching comments for task ID: {} by user ID: {}", taskId, userId);
+  /**
+   * Get the ETag of a task's comment thread. It changes whenever a comment of the task is added,
+   * updated or deleted.
+   *
+   * @param taskId The ID of the task
+   * @param userId The ID of the reading user
+   * @return The ETag, or null if the thread version is unavailable
+   */
+  public String getThreadETag(Long taskId, Long userId) {
+    requireReadAccess(taskId, userId);
+    String version = threadVersions.current(taskId);
+    return version == null ? null : "\"" + taskId + "-" + version + "\"";
+  }
 
-    // Verify task exists and user has access
-    Task task =
-        taskRepository
-            .findById(taskId)
-            .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
+  /**
+   * Get a page of a task's comments, newest first. Pages are addressed by keyset cursor, so deep
+   * pages cost the same as the first one, and all authors of a page are loaded in one query.
+   *
+   * @param taskId The ID of the task
+   * @param userId The ID of the reading user
+   * @param cursor The cursor returned with the previous page, or null for the newest comments
+   * @param limit The page size
+   * @return The page and the cursor of the next one
+   */
+  public CommentPageDTO getCommentThread(Long taskId, Long userId, String cursor, int limit) {
+    logger.debug("Fetching comments for task ID: {} by user ID: {}", taskId, userId);
+    requireReadAccess(taskId, userId);
+
+    int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+    // One extra row tells whether there is a next page
+    Pageable pageable = PageRequest.of(0, pageSize + 1);
+    List<Comment> comments;
+    if (cursor == null || cursor.isBlank()) {
+      comments = commentRepository.findThreadPage(taskId, pageable);
+    } else {
+      ThreadCursor position = ThreadCursor.decode(cursor);
+      comments =
+          commentRepository.findThreadPageBefore(
+              taskId, position.createdAt(), position.id(), pageable);
+    }
 
-    if (!task.getUser().getId().equals(userId)) {
-      throw new IllegalArgumentException("User does not have access to this task");
+    String nextCursor = null;
+    if (comments.size() > pageSize) {
+      comments = comments.subList(0, pageSize);
+      Comment last = comments.get(pageSize - 1);
+      nextCursor = new ThreadCursor(last.getCreatedAt(), last.getId()).encode();
     }
 
-    List<Comment> comments = commentRepository.findByTaskIdAndTaskUserId(taskId, userId);
+    // Author IDs come from the foreign keys, so the lazy authors are never initialized
+    Set<Long> authorIds =
+        comments.stream().map(comment -> comment.getAuthor().getId()).collect(Collectors.toSet());
+    Map<Long, String> authorEmails = new HashMap<>();
+    if (!authorIds.isEmpty()) {
+      for (Object[] row : userRepository.findEmailsByIds(authorIds)) {
+        authorEmails.put((Long) row[0], (String) row[1]);
+      }
+    }
     logger.debug("Found {} comments for task ID: {}", comments.size(), taskId);
 
-    return comments.stream().map(this::toDTO).collect(Collectors.toList());
+    List<CommentDTO> page =
+        comments.stream()
+            .map(comment -> toDTO(comment, taskId, authorEmails.get(comment.getAuthor().getId())))
+            .collect(Collectors.toList());
+    return new CommentPageDTO(page, nextCursor);
   }
 
   public CommentDTO updateComment(Long commentId, CommentDTO commentDTO, Long userId) {
@@ -141,8 +224,12 @@ public class CommentService {
 
     Comment updatedComment = commentRepository.save(comment);
     logger.info("Comment ID: {} updated successfully", commentId);
+    Task task = comment.getTask();
+    syncChangeLog.commentChanged(commentId, task.getId(), task.getUser().getId(), false);
 
-    return toDTO(updatedComment);
+    CommentDTO updated = toDTO(updatedComment);
+    threadChanged(task, CommentThreadMessage.updated(updated));
+    return updated;
   }
 
   public void deleteComment(Long commentId, Long userId) {
@@ -160,8 +247,12 @@ public class CommentService {
       throw new IllegalArgumentException("Only the comment author can delete the comment");
     }
 
+    Task task = comment.getTask();
     commentRepository.delete(comment);
     logger.info("Comment ID: {} deleted successfully", commentId);
+    syncChangeLog.commentChanged(commentId, task.getId(), task.getUser().getId(), true);
+
+    threadChanged(task, CommentThreadMessage.deleted(task.getId(), commentId));
   }
 
   private void processMentions(Comment comment, User author, Task task) {
@@ -170,26 +261,50 @@ public class CommentService {
     Set<String> mentionedUsernames = new HashSet<>();
 
     while (matcher.find()) {
-      String username = matcher.group(1);
-      mentionedUsernames.add(username);
-    }
-
-    for (String username : mentionedUsernames) {
-      userRepository
-          .findByEmail(username + "@example.com")
-          .ifPresent(
-              mentionedUser -> {
-                // Don't notify the author of the comment
-                if (!mentionedUser.getId().equals(author.getId())) {
-                  String message =
-                      String.format(
-                          "%s mentioned you in a comment on task '%s': %s",
-                          author.getEmail(), task.getDescription(), truncateContent(content, 50));
-                  notificationService.createNotification(
-                      mentionedUser, NotificationType.TASK_MENTIONED, message, task);
-                }
-              });
+      mentionedUsernames.add(matcher.group(1).toLowerCase(Locale.ROOT));
     }
+    if (mentionedUsernames.isEmpty()) {
+      return;
+    }
+
+    // All handles of the comment in one query
+    List<User> mentionedUsers =
+        userRepository.findByUsernameIn(mentionedUsernames).stream()
+            // Don't notify the author of the comment
+            .filter(mentionedUser -> !mentionedUser.getId().equals(author.getId()))
+            .filter(mentionedUser -> Boolean.TRUE.equals(mentionedUser.getIsActive()))
+            .collect(Collectors.toList());
+    if (mentionedUsers.isEmpty()) {
+      return;
+    }
+
+    String message =
+        String.format(
+            "%s mentioned you in a comment on task '%s': %s",
+            author.getEmail(), task.getDescription(), truncateContent(content, 50));
+    notificationService.createNotifications(
+        mentionedUsers, NotificationType.TASK_MENTIONED, mentionedUser -> message, task);
+  }
+
+  private void requireReadAccess(Long taskId, Long userId) {
+    // Resolved from the access cache; the task itself is not loaded
+    TaskAccessLevel access =
+        accessResolver
+            .accessLevel(taskId, userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
+
+    if (!access.canRead()) {
+      throw new IllegalArgumentException("User does not have access to this task");
+    }
+  }
+
+  private void threadChanged(Task task, CommentThreadMessage message) {
+    threadVersions.changed(task.getId());
+
+    Set<Long> readers = new LinkedHashSet<>();
+    readers.add(task.getUser().getId());
+    readers.addAll(taskShareRepository.findSharedWithUserIdsByTaskId(task.getId()));
+    commentWebSocketHandler.sendCommentUpdate(readers, message);
   }
 
   private String truncateContent(String content, int maxLength) {
@@ -200,15 +315,42 @@ public class CommentService {
   }
 
   private CommentDTO toDTO(Comment comment) {
+    return toDTO(comment, comment.getTask().getId(), comment.getAuthor().getEmail());
+  }
+
+  private CommentDTO toDTO(Comment comment, Long taskId, String authorEmail) {
     CommentDTO dto = new CommentDTO();
     dto.setId(comment.getId());
-    dto.setTaskId(comment.getTask().getId());
+    dto.setTaskId(taskId);
     dto.setAuthorId(comment.getAuthor().getId());
-    dto.setAuthorEmail(comment.getAuthor().getEmail());
+    dto.setAuthorEmail(authorEmail);
     dto.setContent(comment.getContent());
     dto.setIsEdited(comment.getIsEdited());
     dto.setCreatedAt(comment.getCreatedAt());
     dto.setUpdatedAt(comment.getUpdatedAt());
     return dto;
   }
+
+  /** Keyset position of the last comment of a page, encoded as an opaque string. */
+  private record ThreadCursor(LocalDateTime createdAt, Long id) {
+
+    String encode() {
+      String raw = createdAt + "|" + id;
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ThreadCursor decode(String cursor) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        return new ThreadCursor(
+            LocalDateTime.parse(raw.substring(0, separator)),
+            Long.parseLong(raw.substring(separator + 1)));
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException("Invalid comment cursor");
+      }
+    }
+  }
 }
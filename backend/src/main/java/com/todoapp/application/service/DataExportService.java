@@ -0,0 +1,314 @@
+package com.todoapp.application.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoapp.application.dto.ExportRecord;
+import com.todoapp.application.dto.ExportRecord.CategoryRecord;
+import com.todoapp.application.dto.ExportRecord.CommentRecord;
+import com.todoapp.application.dto.ExportRecord.TagRecord;
+import com.todoapp.application.dto.ExportRecord.TaskRecord;
+import com.todoapp.application.dto.ExportRecord.TimeEntryRecord;
+import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.Comment;
+import com.todoapp.domain.model.Tag;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TimeEntry;
+import com.todoapp.domain.repository.CategoryRepository;
+import com.todoapp.domain.repository.CommentRepository;
+import com.todoapp.domain.repository.TagRepository;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TimeEntryRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Exports everything a user owns: categories, tags, tasks with their subtasks, and the comments and
+ * time entries on those tasks.
+ *
+ * <p>The export is written while it is read, so memory use does not grow with the number of tasks.
+ * Each entity type is read through a server-side cursor; rows are converted in chunks, the tags of
+ * a chunk of tasks are loaded with one batched query, and the persistence context is cleared after
+ * every chunk. NDJSON carries every record and can be imported again ({@link DataImportService}).
+ * CSV is a flat task list for spreadsheets, with category and tag names instead of IDs.
+ */
+@Service
+public class DataExportService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DataExportService.class);
+
+  static final String CSV_HEADER =
+      "id,parent_id,description,priority,completed,due_date,completed_at,category,tags,"
+          + "estimated_duration_minutes,actual_duration_minutes,created_at";
+
+  /** Output formats of an export. */
+  public enum Format {
+    NDJSON,
+    CSV
+  }
+
+  private final TaskRepository taskRepository;
+  private final CategoryRepository categoryRepository;
+  private final TagRepository tagRepository;
+  private final CommentRepository commentRepository;
+  private final TimeEntryRepository timeEntryRepository;
+  private final EntityManager entityManager;
+  private final ObjectWriter recordWriter;
+  private final ObjectMapper objectMapper;
+
+  /** Matches the {@code @BatchSize} of {@code Task.tags}, so a chunk loads its tags at once. */
+  @Value("${app.export.chunk-size:100}")
+  private int chunkSize;
+
+  public DataExportService(
+      TaskRepository taskRepository,
+      CategoryRepository categoryRepository,
+      TagRepository tagRepository,
+      CommentRepository commentRepository,
+      TimeEntryRepository timeEntryRepository,
+      EntityManager entityManager,
+      ObjectMapper objectMapper) {
+    this.taskRepository = taskRepository;
+    this.categoryRepository = categoryRepository;
+    this.tagRepository = tagRepository;
+    this.commentRepository = commentRepository;
+    this.timeEntryRepository = timeEntryRepository;
+    this.entityManager = entityManager;
+    this.objectMapper = objectMapper;
+    // Flushing is left to the chunk loop instead of every record
+    this.recordWriter =
+        objectMapper
+            .writerFor(ExportRecord.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  /**
+   * Write the data of a user in the given format.
+   *
+   * @param userId The ID of the exporting user
+   * @param format The output format
+   * @param out The response stream; left open
+   * @throws IOException If the client went away
+   */
+  @Transactional(readOnly = true)
+  public void export(Long userId, Format format, OutputStream out) throws IOException {
+    long written = format == Format.CSV ? writeCsv(userId, out) : writeNdjson(userId, out);
+    logger.info("Exported {} records as {} for user ID: {}", written, format, userId);
+  }
+
+  private long writeNdjson(Long userId, OutputStream out) throws IOException {
+    long written = 0;
+    try (JsonGenerator generator =
+        objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      // The container owns the response stream
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // Records are separated by the newline written after each of them
+      generator.setRootValueSeparator(null);
+
+      List<ExportRecord> references = new ArrayList<>();
+      for (Category category : categoryRepository.findByUserId(userId)) {
+        references.add(
+            new CategoryRecord(
+                category.getId(), category.getName(), category.getColor(), category.getIcon()));
+      }
+      for (Tag tag : tagRepository.findByUserId(userId)) {
+        references.add(new TagRecord(tag.getId(), tag.getName(), tag.getColor()));
+      }
+      written += writeRecords(generator, references);
+
+      try (Stream<Task> tasks = taskRepository.streamForExport(userId)) {
+        written +=
+            forEachChunk(
+                tasks, chunk -> writeRecords(generator, map(chunk, DataExportService::toRecord)));
+      }
+      try (Stream<Comment> comments = commentRepository.streamForExport(userId)) {
+        written +=
+            forEachChunk(
+                comments,
+                chunk -> writeRecords(generator, map(chunk, DataExportService::toRecord)));
+      }
+      try (Stream<TimeEntry> entries = timeEntryRepository.streamForExport(userId)) {
+        written +=
+            forEachChunk(
+                entries, chunk -> writeRecords(generator, map(chunk, DataExportService::toRecord)));
+      }
+    }
+    return written;
+  }
+
+  private long writeCsv(Long userId, OutputStream out) throws IOException {
+    Map<Long, String> categories =
+        categoryRepository.findByUserId(userId).stream()
+            .collect(Collectors.toMap(Category::getId, Category::getName));
+
+    // Not closed: the container owns the response stream
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writer.write(CSV_HEADER);
+    writer.write('\n');
+    long written;
+    try (Stream<Task> tasks = taskRepository.streamForExport(userId)) {
+      written =
+          forEachChunk(
+              tasks,
+              chunk -> {
+                for (Task task : chunk) {
+                  writeCsvRow(writer, task, categories);
+                }
+                writer.flush();
+                return chunk.size();
+              });
+    }
+    writer.flush();
+    return written;
+  }
+
+  private static void writeCsvRow(Writer writer, Task task, Map<Long, String> categories)
+      throws IOException {
+    String tags =
+        task.getTags() == null
+            ? ""
+            : task.getTags().stream().map(Tag::getName).collect(Collectors.joining(";"));
+    Object[] columns = {
+      task.getId(),
+      task.getParentTask() != null ? task.getParentTask().getId() : null,
+      task.getDescription(),
+      task.getPriority(),
+      task.getIsCompleted(),
+      task.getDueDate(),
+      task.getCompletedAt(),
+      task.getCategory() != null ? categories.get(task.getCategory().getId()) : null,
+      tags,
+      task.getEstimatedDurationMinutes(),
+      task.getActualDurationMinutes(),
+      task.getCreatedAt()
+    };
+    for (int i = 0; i < columns.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      if (columns[i] != null) {
+        writer.write(csvField(columns[i].toString()));
+      }
+    }
+    writer.write('\n');
+  }
+
+  /**
+   * Quote a CSV field when needed (RFC 4180). Text a spreadsheet would evaluate as a formula is
+   * prefixed with an apostrophe.
+   */
+  static String csvField(String value) {
+    String field = value;
+    if (!field.isEmpty() && "=+-@".indexOf(field.charAt(0)) >= 0) {
+      field = "'" + field;
+    }
+    if (field.indexOf(',') >= 0
+        || field.indexOf('"') >= 0
+        || field.indexOf('\n') >= 0
+        || field.indexOf('\r') >= 0) {
+      return '"' + field.replace("\"", "\"\"") + '"';
+    }
+    return field;
+  }
+
+  private int writeRecords(JsonGenerator generator, List<ExportRecord> records) throws IOException {
+    for (ExportRecord record : records) {
+      recordWriter.writeValue(generator, record);
+      generator.writeRaw('\n');
+    }
+    generator.flush();
+    return records.size();
+  }
+
+  /**
+   * Hand the rows of a stream to a writer in chunks and clear the persistence context after each
+   * chunk, so the streamed entities do not pile up.
+   */
+  private <T> long forEachChunk(Stream<T> rows, ChunkWriter<T> writer) throws IOException {
+    long written = 0;
+    List<T> chunk = new ArrayList<>(chunkSize);
+    for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+      chunk.add(it.next());
+      if (chunk.size() == chunkSize || !it.hasNext()) {
+        written += writer.write(chunk);
+        chunk.clear();
+        entityManager.clear();
+      }
+    }
+    return written;
+  }
+
+  private static <T> List<ExportRecord> map(List<T> rows, Function<T, ExportRecord> mapper) {
+    List<ExportRecord> records = new ArrayList<>(rows.size());
+    for (T row : rows) {
+      records.add(mapper.apply(row));
+    }
+    return records;
+  }
+
+  static TaskRecord toRecord(Task task) {
+    // Foreign keys only, so the parent and category are never loaded
+    return new TaskRecord(
+        task.getId(),
+        task.getParentTask() != null ? task.getParentTask().getId() : null,
+        task.getCategory() != null ? task.getCategory().getId() : null,
+        task.getTags() == null ? List.of() : task.getTags().stream().map(Tag::getId).toList(),
+        task.getDescription(),
+        task.getPriority(),
+        Boolean.TRUE.equals(task.getIsCompleted()),
+        task.getDueDate(),
+        task.getCompletedAt(),
+        task.getPosition(),
+        task.getEstimatedDurationMinutes(),
+        task.getActualDurationMinutes(),
+        task.getCreatedAt());
+  }
+
+  static CommentRecord toRecord(Comment comment) {
+    return new CommentRecord(
+        comment.getId(),
+        comment.getTask().getId(),
+        comment.getContent(),
+        Boolean.TRUE.equals(comment.getIsEdited()),
+        comment.getCreatedAt());
+  }
+
+  static TimeEntryRecord toRecord(TimeEntry entry) {
+    return new TimeEntryRecord(
+        entry.getId(),
+        entry.getTask().getId(),
+        entry.getEntryType(),
+        entry.getStartTime(),
+        entry.getEndTime(),
+        entry.getDurationMinutes(),
+        entry.getLoggedAt(),
+        entry.getNotes());
+  }
+
+  @FunctionalInterface
+  private interface ChunkWriter<T> {
+    int write(List<T> chunk) throws IOException;
+  }
+}
@@ -0,0 +1,282 @@
+package com.todoapp.application.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.todoapp.application.dto.ExportRecord;
+import com.todoapp.application.dto.ImportJobDTO;
+import com.todoapp.domain.event.ImportJobCreatedEvent;
+import com.todoapp.domain.model.ImportJob;
+import com.todoapp.domain.model.ImportJobStatus;
+import com.todoapp.domain.repository.ImportJobRepository;
+import com.todoapp.infrastructure.persistence.ImportChunkWriter;
+import com.todoapp.infrastructure.storage.ImportFileStore;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ConflictException;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
+
+/**
+ * Imports NDJSON files written by {@link DataExportService} as background jobs.
+ *
+ * <p>The upload is copied to disk as it arrives and acknowledged with a PENDING job; the import
+ * starts once the job is committed. The file is parsed one record at a time and imported in chunks,
+ * each in its own transaction together with the job's checkpoint, so memory use does not depend on
+ * the size of the file and a job that stops (restart, database outage) resumes after its last
+ * committed chunk. A periodic sweep picks up jobs that are PENDING or RUNNING without progress for
+ * longer than the configured time. Every imported row belongs to the importing user.
+ */
+@Service
+public class DataImportService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DataImportService.class);
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final ImportJobRepository importJobRepository;
+  private final ImportFileStore importFileStore;
+  private final ImportChunkWriter chunkWriter;
+  private final TransactionTemplate transactionTemplate;
+  private final TaskExecutor importExecutor;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ObjectReader recordReader;
+
+  @Value("${app.import.chunk-size:1000}")
+  private int chunkSize;
+
+  @Value("${app.import.max-file-size-mb:1024}")
+  private long maxFileSizeMb;
+
+  @Value("${app.import.stale-after-minutes:5}")
+  private long staleAfterMinutes;
+
+  @Value("${app.import.recovery.enabled:true}")
+  private boolean recoveryEnabled;
+
+  public DataImportService(
+      ImportJobRepository importJobRepository,
+      ImportFileStore importFileStore,
+      ImportChunkWriter chunkWriter,
+      TransactionTemplate transactionTemplate,
+      @Qualifier("importExecutor") TaskExecutor importExecutor,
+      ApplicationEventPublisher eventPublisher,
+      ObjectMapper objectMapper) {
+    this.importJobRepository = importJobRepository;
+    this.importFileStore = importFileStore;
+    this.chunkWriter = chunkWriter;
+    this.transactionTemplate = transactionTemplate;
+    this.importExecutor = importExecutor;
+    this.eventPublisher = eventPublisher;
+    this.recordReader = objectMapper.readerFor(ExportRecord.class);
+  }
+
+  /**
+   * Receive an import file and create its job. No transaction is held while the file is uploaded.
+   *
+   * @param userId The ID of the importing user
+   * @param fileName The name of the uploaded file, if known
+   * @param content The NDJSON request body
+   * @return The PENDING job
+   * @throws IOException If the upload cannot be read or stored
+   * @throws IllegalArgumentException If the file is too large, not UTF-8, or has no records
+   */
+  public ImportJobDTO startImport(Long userId, String fileName, InputStream content)
+      throws IOException {
+    Path received = importFileStore.receive(content, maxFileSizeMb * 1024 * 1024);
+    ImportJob job;
+    try {
+      long records = countRecords(received);
+      if (records == 0) {
+        throw new IllegalArgumentException("Import file contains no records");
+      }
+      job = new ImportJob(userId, fileName);
+      job.setTotalRecords(records);
+      job = importJobRepository.save(job);
+      importFileStore.attach(received, job.getId());
+    } catch (IOException | RuntimeException e) {
+      importFileStore.discard(received);
+      throw e;
+    }
+
+    eventPublisher.publishEvent(new ImportJobCreatedEvent(job.getId()));
+    logger.info(
+        "Import job {} created for user ID: {} with {} records",
+        job.getId(),
+        userId,
+        job.getTotalRecords());
+    return ImportJobDTO.from(job);
+  }
+
+  /**
+   * Get the progress of an import job of a user.
+   *
+   * @param userId The ID of the importing user
+   * @param jobId The ID of the job
+   * @return The job
+   * @throws ResourceNotFoundException If the user has no such job
+   */
+  public ImportJobDTO getJob(Long userId, Long jobId) {
+    return importJobRepository
+        .findByIdAndUserId(jobId, userId)
+        .map(ImportJobDTO::from)
+        .orElseThrow(() -> new ResourceNotFoundException("Import job not found: " + jobId));
+  }
+
+  /**
+   * Resume a FAILED import job of a user from its checkpoint.
+   *
+   * @param userId The ID of the importing user
+   * @param jobId The ID of the job
+   * @return The PENDING job
+   * @throws ResourceNotFoundException If the user has no such job
+   * @throws ConflictException If the job has not failed
+   */
+  public ImportJobDTO resumeImport(Long userId, Long jobId) {
+    ImportJobDTO job = getJob(userId, jobId);
+    if (importJobRepository.requeue(jobId, userId, LocalDateTime.now()) == 0) {
+      throw new ConflictException("Only a failed import can be resumed", job);
+    }
+    eventPublisher.publishEvent(new ImportJobCreatedEvent(jobId));
+    logger.info("Import job {} requeued by user ID: {}", jobId, userId);
+    return getJob(userId, jobId);
+  }
+
+  /**
+   * Start a new or requeued job once it has been committed.
+   *
+   * @param event The job creation event
+   */
+  @Async("importExecutor")
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onImportJobCreated(ImportJobCreatedEvent event) {
+    runImport(event.jobId());
+  }
+
+  /**
+   * Run or resume an import job. The job is only run if it can be taken: when it is PENDING, or
+   * RUNNING without progress for longer than the stale time. Records up to the job's checkpoint are
+   * skipped.
+   *
+   * @param jobId The ID of the job
+   */
+  public void runImport(Long jobId) {
+    LocalDateTime now = LocalDateTime.now();
+    if (importJobRepository.claim(jobId, now, now.minusMinutes(staleAfterMinutes)) == 0) {
+      logger.debug("Import job {} is not available, skipping", jobId);
+      return;
+    }
+    ImportJob job = importJobRepository.findById(jobId).orElse(null);
+    if (job == null) {
+      return;
+    }
+    if (!importFileStore.exists(jobId)) {
+      fail(jobId, "Import file is missing");
+      return;
+    }
+
+    long processed = job.getProcessedRecords();
+    logger.info("Running import job {} from record {}", jobId, processed);
+    try (InputStream in = importFileStore.open(jobId);
+        MappingIterator<ExportRecord> records = recordReader.readValues(in)) {
+      for (long skipped = 0; skipped < processed && records.hasNextValue(); skipped++) {
+        records.nextValue();
+      }
+
+      List<ExportRecord> chunk = new ArrayList<>(chunkSize);
+      while (records.hasNextValue()) {
+        chunk.add(records.nextValue());
+        if (chunk.size() == chunkSize || !records.hasNextValue()) {
+          if (!writeChunk(job, processed, chunk)) {
+            logger.info("Import job {} was taken over or stopped at record {}", jobId, processed);
+            return;
+          }
+          processed += chunk.size();
+          chunk = new ArrayList<>(chunkSize);
+        }
+      }
+    } catch (Exception e) {
+      logger.error("Import job {} failed after {} records", jobId, processed, e);
+      fail(jobId, describe(e));
+      return;
+    }
+
+    importJobRepository.finish(jobId, ImportJobStatus.COMPLETED, null, LocalDateTime.now());
+    importFileStore.delete(jobId);
+    logger.info("Import job {} completed with {} records", jobId, processed);
+  }
+
+  /** Resume jobs that were not started or stopped making progress. */
+  @Scheduled(fixedDelayString = "${app.import.recovery.interval-ms:60000}")
+  public void resumeStalledImports() {
+    if (!recoveryEnabled) {
+      return;
+    }
+    try {
+      List<ImportJob> stalled =
+          importJobRepository.findByStatusInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+              List.of(ImportJobStatus.PENDING, ImportJobStatus.RUNNING),
+              LocalDateTime.now().minusMinutes(staleAfterMinutes));
+      for (ImportJob job : stalled) {
+        Long jobId = job.getId();
+        importExecutor.execute(() -> runImport(jobId));
+      }
+      if (!stalled.isEmpty()) {
+        logger.info("Import recovery resubmitted {} jobs", stalled.size());
+      }
+    } catch (Exception e) {
+      logger.error("Error during import recovery", e);
+    }
+  }
+
+  private boolean writeChunk(ImportJob job, long processed, List<ExportRecord> chunk) {
+    Boolean written =
+        transactionTemplate.execute(
+            status -> chunkWriter.write(job.getId(), job.getUserId(), processed, chunk));
+    return Boolean.TRUE.equals(written);
+  }
+
+  private void fail(Long jobId, String message) {
+    importJobRepository.finish(jobId, ImportJobStatus.FAILED, message, LocalDateTime.now());
+  }
+
+  private static long countRecords(Path file) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return reader.lines().filter(line -> !line.isBlank()).count();
+    } catch (UncheckedIOException e) {
+      throw new IllegalArgumentException("Import file is not valid UTF-8 text", e);
+    }
+  }
+
+  private static String describe(Exception e) {
+    String message;
+    if (e instanceof JsonProcessingException json && json.getLocation() != null) {
+      message = json.getOriginalMessage() + " (line " + json.getLocation().getLineNr() + ")";
+    } else {
+      message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+    return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+  }
+}
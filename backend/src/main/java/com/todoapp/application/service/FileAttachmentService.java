@@ -1,5 +1,6 @@
 package com.todoapp.application.service;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
@@ -7,21 +8,28 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.todoapp.application.dto.FileAttachmentDTO;
+import com.todoapp.domain.event.AttachmentStagedEvent;
+import com.todoapp.domain.event.AttachmentStatusChangedEvent;
 import com.todoapp.domain.model.FileAttachment;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.model.VirusScanStatus;
 import com.todoapp.domain.repository.FileAttachmentRepository;
 import com.todoapp.domain.repository.TaskRepository;
 import com.todoapp.domain.repository.UserRepository;
 import com.todoapp.infrastructure.messaging.VirusScanService;
+import com.todoapp.infrastructure.storage.AttachmentStagingStore;
 import com.todoapp.infrastructure.storage.FileStorageService;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
 
 @Service
 public class FileAttachmentService {
@@ -33,6 +41,9 @@ public class FileAttachmentService {
   private final UserRepository userRepository;
   private final FileStorageService fileStorageService;
   private final VirusScanService virusScanService;
+  private final AttachmentStagingStore stagingStore;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TaskAccessResolver accessResolver;
 
   // User storage quota: 1GB
   private static final long USER_STORAGE_QUOTA = 1024L * 1024L * 1024L; // 1GB in bytes
@@ -42,12 +53,18 @@ public class FileAttachmentService {
       TaskRepository taskRepository,
       UserRepository userRepository,
       FileStorageService fileStorageService,
-      VirusScanService virusScanService) {
+      VirusScanService virusScanService,
+      AttachmentStagingStore stagingStore,
+      ApplicationEventPublisher eventPublisher,
+      TaskAccessResolver accessResolver) {
     this.fileAttachmentRepository = fileAttachmentRepository;
     this.taskRepository = taskRepository;
     this.userRepository = userRepository;
     this.fileStorageService = fileStorageService;
     this.virusScanService = virusScanService;
+    this.stagingStore = stagingStore;
+    this.eventPublisher = eventPublisher;
+    this.accessResolver = accessResolver;
   }
 
   /**
@@ -65,19 +82,16 @@ public class FileAttachmentService {
       throw new IllegalArgumentException("File cannot be empty");
     }
 
-    // Fetch task and user
+    // Fetch the task; the uploader is only needed as a foreign key
     Task task =
         taskRepository
             .findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found: " + taskId));
 
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+    User user = userRepository.getReferenceById(userId);
 
-    // Verify user has access to the task
-    verifyUserAccessToTask(task, user);
+    // Verify user may add attachments to the task
+    verifyEditAccess(task, userId);
 
     // Check user storage quota
     checkUserStorageQuota(userId, file.getSize());
@@ -109,6 +123,7 @@ public class FileAttachmentService {
 
     // Queue for virus scanning
     virusScanService.queueForScanning(attachment.getId());
+    publishStatusChange(attachment);
 
     logger.info(
         "File attachment created: {} for task: {} by user: {}", attachment.getId(), taskId, userId);
@@ -117,26 +132,71 @@ public class FileAttachmentService {
   }
 
   /**
-   * Get all file attachments for a task.
+   * Accept a file attachment without waiting for object storage. The bytes are staged on local disk
+   * and the attachment row is created with status STAGED; moving the file to storage and scanning
+   * it continue in the background once this transaction commits, with each status change pushed to
+   * the uploader.
    *
    * @param taskId The ID of the task
-   * @param userId The ID of the requesting user
-   * @return List of file attachment DTOs
+   * @param userId The ID of the user uploading the file
+   * @param file The multipart file to upload
+   * @return The staged file attachment DTO
    */
-  @Transactional(readOnly = true)
-  public List<FileAttachmentDTO> getAttachmentsForTask(Long taskId, Long userId) {
+  @Transactional
+  public FileAttachmentDTO uploadFileAsync(Long taskId, Long userId, MultipartFile file) {
+    if (file == null || file.isEmpty()) {
+      throw new IllegalArgumentException("File cannot be empty");
+    }
+
     Task task =
         taskRepository
             .findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found: " + taskId));
 
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+    User user = userRepository.getReferenceById(userId);
+
+    verifyEditAccess(task, userId);
+    checkUserStorageQuota(userId, file.getSize());
+
+    // Reserve the storage key now so the row is complete before the bytes reach storage
+    FileAttachment attachment = new FileAttachment();
+    attachment.setTask(task);
+    attachment.setUser(user);
+    attachment.setFileName(file.getOriginalFilename());
+    attachment.setFileSize(file.getSize());
+    attachment.setMimeType(file.getContentType());
+    attachment.setStorageKey(fileStorageService.generateStorageKey(file.getOriginalFilename()));
+    attachment.setScanStatus(VirusScanStatus.STAGED);
+
+    attachment = fileAttachmentRepository.save(attachment);
+
+    try {
+      stagingStore.stage(attachment.getId(), file);
+    } catch (IOException e) {
+      logger.error("Failed to stage file: {}", file.getOriginalFilename(), e);
+      throw new RuntimeException("Failed to upload file", e);
+    }
+
+    // Finalization starts after commit, so it always sees the STAGED row
+    eventPublisher.publishEvent(new AttachmentStagedEvent(attachment.getId()));
+
+    logger.info(
+        "File attachment staged: {} for task: {} by user: {}", attachment.getId(), taskId, userId);
 
+    return toDTO(attachment);
+  }
+
+  /**
+   * Get all file attachments for a task.
+   *
+   * @param taskId The ID of the task
+   * @param userId The ID of the requesting user
+   * @return List of file attachment DTOs
+   */
+  @Transactional(readOnly = true)
+  public List<FileAttachmentDTO> getAttachmentsForTask(Long taskId, Long userId) {
     // Verify user has access to the task
-    verifyUserAccessToTask(task, user);
+    verifyReadAccess(taskId, userId);
 
     List<FileAttachment> attachments = fileAttachmentRepository.findByTaskId(taskId);
 
@@ -157,13 +217,8 @@ public class FileAttachmentService {
             .findById(attachmentId)
             .orElseThrow(() -> new RuntimeException("File attachment not found: " + attachmentId));
 
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
     // Verify user has access to the attachment
-    verifyUserAccessToTask(attachment.getTask(), user);
+    verifyReadAccess(attachment.getTask().getId(), userId);
 
     // Check if file is safe to download
     if (!attachment.isDownloadable()) {
@@ -175,6 +230,34 @@ public class FileAttachmentService {
     return fileStorageService.downloadFile(attachment.getStorageKey());
   }
 
+  /**
+   * Look up the preview image of a file attachment. Access is checked here, once; the returned
+   * source opens the stored preview only when read, so a caller answering a conditional request
+   * never touches storage.
+   *
+   * @param attachmentId The ID of the attachment
+   * @param userId The ID of the requesting user
+   * @return Source of the JPEG preview
+   * @throws ResourceNotFoundException if no preview has been generated
+   */
+  @Transactional(readOnly = true)
+  public InputStreamSource getThumbnail(UUID attachmentId, Long userId) {
+    FileAttachment attachment =
+        fileAttachmentRepository
+            .findById(attachmentId)
+            .orElseThrow(() -> new RuntimeException("File attachment not found: " + attachmentId));
+
+    // Verify user has access to the attachment
+    verifyReadAccess(attachment.getTask().getId(), userId);
+
+    if (!attachment.hasThumbnail()) {
+      throw new ResourceNotFoundException("No preview available for attachment: " + attachmentId);
+    }
+
+    String thumbnailKey = attachment.getThumbnailKey();
+    return () -> fileStorageService.downloadFile(thumbnailKey);
+  }
+
   /**
    * Delete a file attachment.
    *
@@ -188,13 +271,8 @@ public class FileAttachmentService {
             .findById(attachmentId)
             .orElseThrow(() -> new RuntimeException("File attachment not found: " + attachmentId));
 
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
-    // Verify user has access to the attachment
-    verifyUserAccessToTask(attachment.getTask(), user);
+    // Verify user may remove attachments from the task
+    verifyEditAccess(attachment.getTask().getId(), userId);
 
     // Delete from storage
     try {
@@ -204,6 +282,15 @@ public class FileAttachmentService {
       // Continue with database deletion even if storage deletion fails
     }
 
+    if (attachment.hasThumbnail()) {
+      try {
+        fileStorageService.deleteFile(attachment.getThumbnailKey());
+      } catch (Exception e) {
+        logger.error(
+            "Failed to delete thumbnail from storage: {}", attachment.getThumbnailKey(), e);
+      }
+    }
+
     // Delete from database
     fileAttachmentRepository.delete(attachment);
 
@@ -224,33 +311,51 @@ public class FileAttachmentService {
             .findById(attachmentId)
             .orElseThrow(() -> new RuntimeException("File attachment not found: " + attachmentId));
 
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
     // Verify user has access to the attachment
-    verifyUserAccessToTask(attachment.getTask(), user);
+    verifyReadAccess(attachment.getTask().getId(), userId);
 
     return toDTO(attachment);
   }
 
   /**
-   * Verify that a user has access to a task (either owns it or has it shared with them).
+   * Verify that a user may read a task (either owns it or has it shared with them). Works on the
+   * task ID so a lazy task reference is not initialized.
    *
-   * @param task The task to check
-   * @param user The user requesting access
+   * @param taskId The ID of the task to check
+   * @param userId The ID of the user requesting access
    * @throws AccessDeniedException if user doesn't have access
    */
-  private void verifyUserAccessToTask(Task task, User user) {
-    // User owns the task
-    if (task.getUser().getId().equals(user.getId())) {
-      return;
+  private void verifyReadAccess(Long taskId, Long userId) {
+    TaskAccessLevel access =
+        accessResolver
+            .accessLevel(taskId, userId)
+            .orElseThrow(() -> new RuntimeException("Task not found: " + taskId));
+    if (!access.canRead()) {
+      throw new AccessDeniedException("User does not have access to this task");
     }
+  }
 
-    // Check if task is shared with user (if sharing is implemented)
-    // For now, only owner can access
-    throw new AccessDeniedException("User does not have access to this task");
+  /**
+   * Verify that a user may change the attachments of a task (owner or EDIT share).
+   *
+   * @param taskId The ID of the task to check
+   * @param userId The ID of the user requesting access
+   * @throws AccessDeniedException if user doesn't have edit access
+   */
+  private void verifyEditAccess(Long taskId, Long userId) {
+    TaskAccessLevel access =
+        accessResolver
+            .accessLevel(taskId, userId)
+            .orElseThrow(() -> new RuntimeException("Task not found: " + taskId));
+    if (!access.canEdit()) {
+      throw new AccessDeniedException("User does not have edit permission for this task");
+    }
+  }
+
+  private void verifyEditAccess(Task task, Long userId) {
+    if (!accessResolver.canEdit(task, userId)) {
+      throw new AccessDeniedException("User does not have edit permission for this task");
+    }
   }
 
   /**
@@ -274,6 +379,15 @@ public class FileAttachmentService {
     }
   }
 
+  private void publishStatusChange(FileAttachment attachment) {
+    eventPublisher.publishEvent(
+        new AttachmentStatusChangedEvent(
+            attachment.getId(),
+            attachment.getTask().getId(),
+            attachment.getUser().getId(),
+            attachment.getScanStatus()));
+  }
+
   /**
    * Convert FileAttachment entity to DTO.
    *
@@ -293,6 +407,9 @@ public class FileAttachmentService {
     dto.setCreatedAt(attachment.getCreatedAt());
     dto.setScannedAt(attachment.getScannedAt());
     dto.setDownloadable(attachment.isDownloadable());
+    if (attachment.hasThumbnail()) {
+      dto.setThumbnailUrl("/api/v1/attachments/" + attachment.getId() + "/thumbnail");
+    }
     return dto;
   }
 }
@@ -1,22 +1,36 @@
 package com.todoapp.application.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.todoapp.application.dto.NotificationDTO;
 import com.todoapp.application.dto.NotificationPreferenceDTO;
+import com.todoapp.domain.event.UnreadNotificationsChangedEvent;
 import com.todoapp.domain.model.*;
+import com.todoapp.domain.repository.NotificationDigestItemRepository;
 import com.todoapp.domain.repository.NotificationPreferenceRepository;
 import com.todoapp.domain.repository.NotificationRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.NotificationPreferenceCache;
+import com.todoapp.infrastructure.cache.UnreadNotificationCounter;
+import com.todoapp.infrastructure.messaging.EmailMessage;
 import com.todoapp.infrastructure.messaging.EmailNotifier;
 import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
 
@@ -30,63 +44,128 @@ public class NotificationService {
   private final SimpMessagingTemplate messagingTemplate;
   private final EmailNotifier emailNotifier;
   private final UserRepository userRepository;
+  private final UnreadNotificationCounter unreadCounter;
+  private final ApplicationEventPublisher eventPublisher;
+  private final NotificationDigestItemRepository digestItemRepository;
+  private final NotificationPreferenceCache preferenceCache;
+
+  // Repeats of an unread notification within this window are collapsed into it; 0 disables it
+  @Value("${app.notifications.collapse-window-minutes:1440}")
+  private long collapseWindowMinutes;
+
+  @Value("${app.notifications.unread-list.max-page-size:100}")
+  private int maxUnreadPageSize;
+
+  @Value("${app.notifications.digest.daily-hour:8}")
+  private int digestDailyHour;
 
   public NotificationService(
       NotificationRepository notificationRepository,
       NotificationPreferenceRepository preferenceRepository,
       SimpMessagingTemplate messagingTemplate,
       EmailNotifier emailNotifier,
-      UserRepository userRepository) {
+      UserRepository userRepository,
+      UnreadNotificationCounter unreadCounter,
+      ApplicationEventPublisher eventPublisher,
+      NotificationDigestItemRepository digestItemRepository,
+      NotificationPreferenceCache preferenceCache) {
     this.notificationRepository = notificationRepository;
     this.preferenceRepository = preferenceRepository;
     this.messagingTemplate = messagingTemplate;
     this.emailNotifier = emailNotifier;
     this.userRepository = userRepository;
+    this.unreadCounter = unreadCounter;
+    this.eventPublisher = eventPublisher;
+    this.digestItemRepository = digestItemRepository;
+    this.preferenceCache = preferenceCache;
   }
 
   /**
-   * Create and send a notification to a user.
+   * Create and send a notification to a user. If the user receives this type as a digest, the
+   * notification is buffered instead and delivered with the next digest.
    *
    * @param user The recipient user
    * @param type The notification type
    * @param message The notification message
    * @param relatedTask The related task (optional)
-   * @return The created notification
+   * @return The created notification, or null if it was buffered for a digest
    */
   @Transactional
   public Notification createNotification(
       User user, NotificationType type, String message, Task relatedTask) {
-    if (user == null) {
-      throw new IllegalArgumentException("User cannot be null");
-    }
-    if (type == null) {
-      throw new IllegalArgumentException("Notification type cannot be null");
+    validateNotification(user, type, message);
+    return createNotification(user, type, message, relatedTask, preferenceCache.get(user.getId()));
+  }
+
+  /**
+   * Create and send a notification to each of several users, e.g. everyone mentioned in a comment.
+   * The preferences of all recipients are read in one call.
+   *
+   * @param recipients The recipient users
+   * @param type The notification type
+   * @param messageFor The message for a recipient
+   * @param relatedTask The related task (optional)
+   * @return The created notifications, without those buffered for a digest
+   */
+  @Transactional
+  public List<Notification> createNotifications(
+      List<User> recipients,
+      NotificationType type,
+      Function<User, String> messageFor,
+      Task relatedTask) {
+    List<String> messages = recipients.stream().map(messageFor).toList();
+    for (int i = 0; i < recipients.size(); i++) {
+      validateNotification(recipients.get(i), type, messages.get(i));
     }
-    if (message == null || message.trim().isEmpty()) {
-      throw new IllegalArgumentException("Message cannot be empty");
+    Map<Long, NotificationPreferenceMatrix> preferences =
+        preferenceCache.getAll(recipients.stream().map(User::getId).toList());
+
+    List<Notification> created = new ArrayList<>();
+    for (int i = 0; i < recipients.size(); i++) {
+      User user = recipients.get(i);
+      Notification notification =
+          createNotification(
+              user, type, messages.get(i), relatedTask, preferences.get(user.getId()));
+      if (notification != null) {
+        created.add(notification);
+      }
     }
+    return created;
+  }
 
-    // Create notification
-    Notification notification = new Notification();
-    notification.setUser(user);
-    notification.setType(type);
-    notification.setMessage(message);
-    notification.setRelatedTask(relatedTask);
-    notification.setRead(false);
-
-    notification = notificationRepository.save(notification);
+  private Notification createNotification(
+      User user,
+      NotificationType type,
+      String message,
+      Task relatedTask,
+      NotificationPreferenceMatrix preferences) {
+    if (preferences.isDigest(type) && preferences.isAnyEnabled(type)) {
+      bufferForDigest(user, type, message, relatedTask, preferences);
+      return null;
+    }
 
-    // Get user preferences
-    NotificationPreference preference =
-        preferenceRepository
-            .findByUserAndNotificationType(user, type)
-            .orElse(getDefaultPreference(user, type));
+    Notification notification = findRepeatTarget(user, type, relatedTask);
+    if (notification != null) {
+      // Same event again for the same task: bump the counter instead of adding a row
+      notification.recordRepeat(message);
+      notification = notificationRepository.save(notification);
+    } else {
+      notification = new Notification();
+      notification.setUser(user);
+      notification.setType(type);
+      notification.setMessage(message);
+      notification.setRelatedTask(relatedTask);
+      notification.setRead(false);
+
+      notification = notificationRepository.save(notification);
+      eventPublisher.publishEvent(UnreadNotificationsChangedEvent.added(user.getId()));
+    }
 
     // Send via enabled channels
-    if (preference.isInAppEnabled()) {
+    if (preferences.isInAppEnabled(type)) {
       sendViaWebSocket(notification);
     }
-    if (preference.isEmailEnabled()) {
+    if (preferences.isEmailEnabled(type)) {
       sendViaEmail(notification);
     }
 
@@ -96,6 +175,51 @@ public class NotificationService {
     return notification;
   }
 
+  /**
+   * Deliver a digest to a user: one in-app notification and/or one email covering every buffered
+   * notification of the window.
+   *
+   * @param user The recipient user
+   * @param summary The short summary shown in the app
+   * @param details The full digest text used as the email body
+   * @param inApp Whether to create the in-app notification
+   * @param email Whether to send the email
+   * @return The in-app digest notification, or null if only an email was sent
+   */
+  @Transactional
+  public Notification createDigestNotification(
+      User user, String summary, String details, boolean inApp, boolean email) {
+    Notification notification = null;
+    if (inApp) {
+      notification = new Notification();
+      notification.setUser(user);
+      notification.setType(NotificationType.DIGEST);
+      notification.setMessage(summary);
+      notification.setRead(false);
+
+      notification = notificationRepository.save(notification);
+      eventPublisher.publishEvent(UnreadNotificationsChangedEvent.added(user.getId()));
+      sendViaWebSocket(notification);
+    }
+    if (email) {
+      try {
+        emailNotifier.sendEmail(
+            new EmailMessage(
+                notification != null ? notification.getId() : UUID.randomUUID(),
+                user.getEmail(),
+                NotificationType.DIGEST,
+                details,
+                null,
+                null));
+      } catch (Exception e) {
+        logger.error("Failed to send digest email to user {}", user.getId(), e);
+      }
+    }
+
+    logger.info("Digest delivered to user {}: inApp={}, email={}", user.getId(), inApp, email);
+    return notification;
+  }
+
   /**
    * Get unread notifications for a user.
    *
@@ -130,8 +254,7 @@ public class NotificationService {
             .findById(notificationId)
             .orElseThrow(() -> new RuntimeException("Notification not found: " + notificationId));
 
-    notification.markAsRead();
-    notificationRepository.save(notification);
+    markAsReadAndPublish(notification);
 
     logger.info("Notification marked as read: id={}", notificationId);
   }
@@ -177,7 +300,9 @@ public class NotificationService {
     preference.setInAppEnabled(inAppEnabled);
     preference.setEmailEnabled(emailEnabled);
 
-    return preferenceRepository.save(preference);
+    preference = preferenceRepository.save(preference);
+    preferenceCache.evict(userId);
+    return preference;
   }
 
   /**
@@ -192,6 +317,7 @@ public class NotificationService {
     dto.setUserId(notification.getUser().getId());
     dto.setType(notification.getType());
     dto.setMessage(notification.getMessage());
+    dto.setOccurrenceCount(notification.getOccurrenceCount());
     dto.setRead(notification.isRead());
     dto.setCreatedAt(notification.getCreatedAt());
     dto.setReadAt(notification.getReadAt());
@@ -214,6 +340,84 @@ public class NotificationService {
     return notifications.stream().map(this::toDTO).collect(Collectors.toList());
   }
 
+  /**
+   * Find the unread notification a new one should be collapsed into: same user, type and task,
+   * created within the collapse window.
+   *
+   * @param user The recipient user
+   * @param type The notification type
+   * @param relatedTask The related task (optional)
+   * @return The notification to collapse into, or null to create a new one
+   */
+  private Notification findRepeatTarget(User user, NotificationType type, Task relatedTask) {
+    if (collapseWindowMinutes <= 0 || relatedTask == null || relatedTask.getId() == null) {
+      return null;
+    }
+    // The window bounds created_at, so only the most recent partitions are searched
+    LocalDateTime since = LocalDateTime.now().minusMinutes(collapseWindowMinutes);
+    List<Notification> repeats =
+        notificationRepository.findUnreadRepeats(
+            user.getId(), relatedTask.getId(), type, since, PageRequest.of(0, 1));
+    return repeats.isEmpty() ? null : repeats.get(0);
+  }
+
+  /**
+   * Buffer a notification for the digest window it falls into. A notification for a task that
+   * already has one of the same type waiting is dropped, so repeated reminders show up once.
+   *
+   * @param user The recipient user
+   * @param type The notification type
+   * @param message The notification message
+   * @param relatedTask The related task (optional)
+   * @param preferences The user's preferences
+   */
+  private void bufferForDigest(
+      User user,
+      NotificationType type,
+      String message,
+      Task relatedTask,
+      NotificationPreferenceMatrix preferences) {
+    Long taskId = relatedTask != null ? relatedTask.getId() : null;
+    if (taskId != null
+        && digestItemRepository.existsByUserIdAndTypeAndTaskId(user.getId(), type, taskId)) {
+      logger.debug("Digest already holds a {} notification for task {}", type, taskId);
+      return;
+    }
+
+    LocalDateTime deliverAt =
+        preferences.getDigestFrequency(type).windowEnd(LocalDateTime.now(), digestDailyHour);
+    digestItemRepository.save(
+        new NotificationDigestItem(
+            user.getId(),
+            type,
+            message,
+            taskId,
+            preferences.isInAppEnabled(type),
+            preferences.isEmailEnabled(type),
+            deliverAt));
+    logger.debug(
+        "Notification buffered for digest: type={}, user={}, deliverAt={}",
+        type,
+        user.getId(),
+        deliverAt);
+  }
+
+  /**
+   * Mark a notification as read and report the change to the unread counter. Notifications that are
+   * already read are left untouched.
+   *
+   * @param notification The notification
+   */
+  private void markAsReadAndPublish(Notification notification) {
+    if (notification.isRead()) {
+      return;
+    }
+    notification.markAsRead();
+    notificationRepository.save(notification);
+    eventPublisher.publishEvent(
+        UnreadNotificationsChangedEvent.removed(notification.getUser().getId()));
+  }
+
   /**
    * Send notification via WebSocket.
    *
@@ -244,38 +448,39 @@ public class NotificationService {
     }
   }
 
-  /**
-   * Get default notification preference.
-   *
-   * @param user The user
-   * @param type The notification type
-   * @return Default preference (in-app enabled, email disabled)
-   */
-  private NotificationPreference getDefaultPreference(User user, NotificationType type) {
-    NotificationPreference preference = new NotificationPreference(user, type);
-    preference.setInAppEnabled(true);
-    preference.setEmailEnabled(false);
-    return preference;
+  private void validateNotification(User user, NotificationType type, String message) {
+    if (user == null) {
+      throw new IllegalArgumentException("User cannot be null");
+    }
+    if (type == null) {
+      throw new IllegalArgumentException("Notification type cannot be null");
+    }
+    if (message == null || message.trim().isEmpty()) {
+      throw new IllegalArgumentException("Message cannot be empty");
+    }
   }
 
   // Overloaded methods for controller usage with Long userId
 
+  /**
+   * Get a page of unread notifications for a user, newest first. The page size is capped.
+   *
+   * @param userId The user ID
+   * @param page The page number (0-indexed)
+   * @param size The page size
+   * @return Unread notifications of the requested page
+   */
   @Transactional(readOnly = true)
-  public List<NotificationDTO> getUnreadNotifications(Long userId) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-    return toDTOList(getUnreadNotifications(user));
+  public List<NotificationDTO> getUnreadNotifications(Long userId, int page, int size) {
+    Pageable pageable = PageRequest.of(page, Math.min(size, maxUnreadPageSize));
+    return toDTOList(
+        notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId, pageable));
   }
 
   @Transactional(readOnly = true)
   public long getUnreadCount(Long userId) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-    return getUnreadCount(user);
+    // Served from the Redis counter; the database is only counted when it does not exist yet
+    return unreadCounter.getUnreadCount(userId);
   }
 
   @Transactional
@@ -291,8 +496,7 @@ public class NotificationService {
       throw new IllegalArgumentException("You can only mark your own notifications as read");
     }
 
-    notification.markAsRead();
-    notificationRepository.save(notification);
+    markAsReadAndPublish(notification);
     logger.info("Notification marked as read: id={}", notificationId);
 
     return toDTO(notification);
@@ -312,43 +516,41 @@ public class NotificationService {
     }
 
     notificationRepository.delete(notification);
+    if (!notification.isRead()) {
+      eventPublisher.publishEvent(UnreadNotificationsChangedEvent.removed(userId));
+    }
     logger.info("Notification deleted: id={}", notificationId);
   }
 
   @Transactional
   public void markAllAsRead(Long userId) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-
-    List<Notification> unreadNotifications =
-        notificationRepository.findByUserAndIsReadFalseOrderByCreatedAtDesc(user);
-    for (Notification notification : unreadNotifications) {
-      notification.markAsRead();
+    int updated = notificationRepository.markAllAsReadForUser(userId, LocalDateTime.now());
+    if (updated > 0) {
+      eventPublisher.publishEvent(UnreadNotificationsChangedEvent.cleared(userId));
     }
-    notificationRepository.saveAll(unreadNotifications);
 
-    logger.info("All notifications marked as read for user: {}", userId);
+    logger.info("{} notifications marked as read for user: {}", updated, userId);
   }
 
+  /**
+   * Get the preferences of a user for every notification type, served from the preference cache.
+   * Types without a stored preference show the defaults. The DTOs carry no preference ID; updates
+   * are keyed by notification type.
+   *
+   * @param userId The user ID
+   * @return One preference per notification type
+   */
   @Transactional(readOnly = true)
   public List<NotificationPreferenceDTO> getPreferences(Long userId) {
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-
-    List<NotificationPreference> preferences = preferenceRepository.findByUser(user);
-
-    // If no preferences exist, return default preferences for all types
-    if (preferences.isEmpty()) {
-      return java.util.Arrays.stream(NotificationType.values())
-          .map(type -> toPreferenceDTO(getDefaultPreference(user, type)))
-          .collect(Collectors.toList());
-    }
-
-    return preferences.stream().map(this::toPreferenceDTO).collect(Collectors.toList());
+    userRepository
+        .findById(userId)
+        .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+
+    NotificationPreferenceMatrix preferences = preferenceCache.get(userId);
+    return Arrays.stream(NotificationType.values())
+        .filter(type -> type != NotificationType.DIGEST)
+        .map(type -> toPreferenceDTO(userId, type, preferences))
+        .collect(Collectors.toList());
   }
 
   @Transactional
@@ -359,6 +561,11 @@ public class NotificationService {
             .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
     NotificationType type = dto.getNotificationType();
+    if (type == NotificationType.DIGEST
+        && dto.getDigestFrequency() != null
+        && dto.getDigestFrequency() != DigestFrequency.IMMEDIATE) {
+      throw new IllegalArgumentException("Digests cannot be delivered as digests");
+    }
     Optional<NotificationPreference> existing =
         preferenceRepository.findByUserAndNotificationType(user, type);
 
@@ -373,13 +580,28 @@ public class NotificationService {
 
     preference.setInAppEnabled(dto.isInAppEnabled());
     preference.setEmailEnabled(dto.isEmailEnabled());
+    if (dto.getDigestFrequency() != null) {
+      preference.setDigestFrequency(dto.getDigestFrequency());
+    }
 
     preference = preferenceRepository.save(preference);
+    preferenceCache.evict(userId);
     logger.info("Notification preference updated for user {} and type {}", userId, type);
 
     return toPreferenceDTO(preference);
   }
 
+  private NotificationPreferenceDTO toPreferenceDTO(
+      Long userId, NotificationType type, NotificationPreferenceMatrix preferences) {
+    NotificationPreferenceDTO dto = new NotificationPreferenceDTO();
+    dto.setUserId(userId);
+    dto.setNotificationType(type);
+    dto.setInAppEnabled(preferences.isInAppEnabled(type));
+    dto.setEmailEnabled(preferences.isEmailEnabled(type));
+    dto.setDigestFrequency(preferences.getDigestFrequency(type));
+    return dto;
+  }
+
   private NotificationPreferenceDTO toPreferenceDTO(NotificationPreference preference) {
     NotificationPreferenceDTO dto = new NotificationPreferenceDTO();
     dto.setId(preference.getId());
@@ -387,6 +609,7 @@ public class NotificationService {
     dto.setNotificationType(preference.getNotificationType());
     dto.setInAppEnabled(preference.isInAppEnabled());
     dto.setEmailEnabled(preference.isEmailEnabled());
+    dto.setDigestFrequency(preference.getDigestFrequency());
     return dto;
   }
 }
@@ -13,6 +13,7 @@ import com.todoapp.domain.model.RecurrencePattern;
 import com.todoapp.domain.model.Task;
 import com.todoapp.domain.repository.RecurrencePatternRepository;
 import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +26,7 @@ public class RecurrenceService {
 
   private final RecurrencePatternRepository recurrencePatternRepository;
   private final TaskRepository taskRepository;
+  private final SyncChangeLog syncChangeLog;
 
   /**
    * Generate the next task instance from a recurrence pattern.
@@ -65,6 +67,7 @@ public class RecurrenceService {
             .build();
 
     taskRepository.save(newInstance);
+    syncChangeLog.taskChanged(newInstance.getId(), templateTask.getUser().getId());
 
     // Update pattern state
     pattern.setGeneratedCount(pattern.getGeneratedCount() + 1);
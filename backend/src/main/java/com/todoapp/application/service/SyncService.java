@@ -0,0 +1,296 @@
+package com.todoapp.application.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.todoapp.application.dto.TaskResponseDTO;
+import com.todoapp.application.mapper.TaskMapper;
+import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.Comment;
+import com.todoapp.domain.model.SyncEntityType;
+import com.todoapp.domain.model.Tag;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskShare;
+import com.todoapp.domain.repository.CategoryRepository;
+import com.todoapp.domain.repository.CommentRepository;
+import com.todoapp.domain.repository.TagRepository;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+import com.todoapp.infrastructure.persistence.SyncChangeLog.SyncChange;
+import com.todoapp.infrastructure.persistence.SyncChangeLog.SyncState;
+
+/**
+ * Delta sync for offline and mobile clients.
+ *
+ * <p>A client passes the token of its last sync and receives every task, category, tag, comment and
+ * share that changed or disappeared since, oldest change first, together with the new token. Each
+ * entity appears once, with its current state or as a tombstone. A task tombstone also removes the
+ * task's comments and shares, and a category or tag tombstone removes the reference from the
+ * client's tasks. When the token is older than the pruned tombstones, the response is flagged as a
+ * reset: the client drops its local state and applies the response as a full snapshot.
+ *
+ * <p>The response is written while it is read: changes are fetched in chunks, the entities of a
+ * chunk are loaded with one query per type, and each chunk is flushed to the client before the next
+ * one is read. Every chunk is read and rendered in its own short read-only transaction and written
+ * after it ends, so a slow client never holds a database connection.
+ *
+ * <p>Tasks, comments and shares are only written while the user may still read the task; otherwise
+ * they go out as tombstones, even if the log has not caught up with a revoked share yet.
+ */
+@Service
+public class SyncService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
+
+  private final SyncChangeLog changeLog;
+  private final TaskRepository taskRepository;
+  private final CategoryRepository categoryRepository;
+  private final TagRepository tagRepository;
+  private final CommentRepository commentRepository;
+  private final TaskShareRepository taskShareRepository;
+  private final TaskMapper taskMapper;
+  private final TaskAccessResolver accessResolver;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate readOnlyTransaction;
+
+  @Value("${app.sync.max-page-size:2000}")
+  private int maxPageSize;
+
+  @Value("${app.sync.chunk-size:200}")
+  private int chunkSize;
+
+  public SyncService(
+      SyncChangeLog changeLog,
+      TaskRepository taskRepository,
+      CategoryRepository categoryRepository,
+      TagRepository tagRepository,
+      CommentRepository commentRepository,
+      TaskShareRepository taskShareRepository,
+      TaskMapper taskMapper,
+      TaskAccessResolver accessResolver,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager) {
+    this.changeLog = changeLog;
+    this.taskRepository = taskRepository;
+    this.categoryRepository = categoryRepository;
+    this.tagRepository = tagRepository;
+    this.commentRepository = commentRepository;
+    this.taskShareRepository = taskShareRepository;
+    this.taskMapper = taskMapper;
+    this.accessResolver = accessResolver;
+    this.objectMapper = objectMapper;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  /**
+   * Write the changes of a user since a token as one JSON object: {@code reset}, the {@code
+   * changes}, the new {@code token} and whether {@code hasMore} changes are waiting.
+   *
+   * @param userId The ID of the syncing user
+   * @param since The token of the client's last sync; 0 for a full snapshot
+   * @param limit The maximum number of changes
+   * @param out The response stream
+   * @throws IOException If the client went away
+   */
+  public void writeChanges(Long userId, long since, int limit, OutputStream out)
+      throws IOException {
+    SyncState state = changeLog.state(userId);
+    boolean reset = since < 0 || since > state.seq() || (since > 0 && since < state.horizon());
+    long token = reset ? 0 : since;
+    int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+    logger.debug("Syncing user ID: {} from token {} (reset: {})", userId, token, reset);
+
+    int written = 0;
+    try (JsonGenerator generator =
+        objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      // The container owns the response stream
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.writeStartObject();
+      generator.writeBooleanField("reset", reset);
+      generator.writeArrayFieldStart("changes");
+      while (written < pageSize) {
+        int size = Math.min(chunkSize, pageSize - written);
+        Chunk chunk = readChunk(userId, token, size);
+        if (chunk.count() == 0) {
+          break;
+        }
+        chunk.rendered().serialize(generator);
+        generator.flush();
+        token = chunk.lastSeq();
+        written += chunk.count();
+        if (chunk.count() < size) {
+          break;
+        }
+      }
+      generator.writeEndArray();
+      generator.writeNumberField("token", token);
+      generator.writeBooleanField("hasMore", token < state.seq());
+      generator.writeEndObject();
+    }
+    logger.debug("Synced {} changes to user ID: {}, token {}", written, userId, token);
+  }
+
+  /**
+   * Read the next chunk of changes and render it, in one read-only transaction. The rendered tokens
+   * are buffered so the chunk can be written to the client once the transaction has ended.
+   */
+  private Chunk readChunk(Long userId, long token, int size) {
+    return readOnlyTransaction.execute(
+        status -> {
+          List<SyncChange> changes = changeLog.changesSince(userId, token, size);
+          TokenBuffer rendered = new TokenBuffer(objectMapper, false);
+          if (changes.isEmpty()) {
+            return new Chunk(rendered, 0, token);
+          }
+          try {
+            writeChunk(rendered, userId, changes);
+          } catch (IOException e) {
+            // Not reachable for an in-memory buffer
+            throw new UncheckedIOException(e);
+          }
+          return new Chunk(rendered, changes.size(), changes.get(changes.size() - 1).seq());
+        });
+  }
+
+  private void writeChunk(JsonGenerator generator, Long userId, List<SyncChange> changes)
+      throws IOException {
+    Map<SyncEntityType, List<Long>> idsByType = new EnumMap<>(SyncEntityType.class);
+    for (SyncChange change : changes) {
+      if (!change.deleted()) {
+        idsByType.computeIfAbsent(change.type(), type -> new ArrayList<>()).add(change.entityId());
+      }
+    }
+
+    Map<Long, Task> tasks =
+        load(idsByType.get(SyncEntityType.TASK), taskRepository::findByIdIn, Task::getId);
+    Map<Long, Category> categories =
+        load(
+            idsByType.get(SyncEntityType.CATEGORY),
+            categoryRepository::findAllById,
+            Category::getId);
+    Map<Long, Tag> tags =
+        load(idsByType.get(SyncEntityType.TAG), tagRepository::findAllById, Tag::getId);
+    Map<Long, Comment> comments =
+        load(idsByType.get(SyncEntityType.COMMENT), commentRepository::findAllById, Comment::getId);
+    Map<Long, TaskShare> shares =
+        load(
+            idsByType.get(SyncEntityType.SHARE),
+            taskShareRepository::findAllById,
+            TaskShare::getId);
+
+    List<Long> taskIds = new ArrayList<>(tasks.keySet());
+    comments.values().forEach(comment -> taskIds.add(comment.getTask().getId()));
+    shares.values().forEach(share -> taskIds.add(share.getTask().getId()));
+    Set<Long> readable = accessResolver.filterReadable(taskIds, userId);
+    tasks.keySet().retainAll(readable);
+    comments.values().removeIf(comment -> !readable.contains(comment.getTask().getId()));
+    shares.values().removeIf(share -> !readable.contains(share.getTask().getId()));
+    Map<Long, Integer> subtaskProgress =
+        tasks.isEmpty()
+            ? Map.of()
+            : taskMapper.toSubtaskProgress(taskRepository.countSubtasksByParentIds(tasks.keySet()));
+    LocalDateTime now = LocalDateTime.now();
+
+    for (SyncChange change : changes) {
+      Object entity =
+          change.deleted()
+              ? null
+              : switch (change.type()) {
+                case TASK -> tasks.get(change.entityId());
+                case CATEGORY -> categories.get(change.entityId());
+                case TAG -> tags.get(change.entityId());
+                case COMMENT -> comments.get(change.entityId());
+                case SHARE -> shares.get(change.entityId());
+              };
+
+      generator.writeStartObject();
+      generator.writeNumberField("seq", change.seq());
+      generator.writeStringField("type", change.type().name());
+      generator.writeNumberField("id", change.entityId());
+      if (entity == null) {
+        // Deleted, removed together with its task, or no longer shared with the user
+        generator.writeBooleanField("deleted", true);
+      } else {
+        generator.writeFieldName("data");
+        if (entity instanceof Task task) {
+          TaskResponseDTO dto = taskMapper.toResponseDTO(task, now);
+          dto.setSubtaskProgress(subtaskProgress.getOrDefault(task.getId(), 0));
+          generator.writeObject(dto);
+        } else {
+          writeEntity(generator, entity);
+        }
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  private void writeEntity(JsonGenerator generator, Object entity) throws IOException {
+    generator.writeStartObject();
+    if (entity instanceof Category category) {
+      generator.writeStringField("name", category.getName());
+      writeOptional(generator, "color", category.getColor());
+      writeOptional(generator, "icon", category.getIcon());
+    } else if (entity instanceof Tag tag) {
+      generator.writeStringField("name", tag.getName());
+      writeOptional(generator, "color", tag.getColor());
+    } else if (entity instanceof Comment comment) {
+      // Foreign keys only, so the task and author are never loaded
+      generator.writeNumberField("taskId", comment.getTask().getId());
+      generator.writeNumberField("authorId", comment.getAuthor().getId());
+      generator.writeStringField("content", comment.getContent());
+      generator.writeBooleanField("edited", Boolean.TRUE.equals(comment.getIsEdited()));
+      generator.writeObjectField("createdAt", comment.getCreatedAt());
+      generator.writeObjectField("updatedAt", comment.getUpdatedAt());
+    } else if (entity instanceof TaskShare share) {
+      generator.writeNumberField("taskId", share.getTask().getId());
+      generator.writeNumberField("sharedWithUserId", share.getSharedWithUser().getId());
+      generator.writeNumberField("sharedByUserId", share.getSharedByUser().getId());
+      generator.writeStringField("permission", share.getPermissionLevel().name());
+      generator.writeObjectField("sharedAt", share.getSharedAt());
+    }
+    generator.writeEndObject();
+  }
+
+  private static void writeOptional(JsonGenerator generator, String field, String value)
+      throws IOException {
+    if (value != null) {
+      generator.writeStringField(field, value);
+    }
+  }
+
+  /** A rendered chunk of changes and the token after it. */
+  private record Chunk(TokenBuffer rendered, int count, long lastSeq) {}
+
+  private static <T> Map<Long, T> load(
+      List<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+    Map<Long, T> entities = new HashMap<>();
+    if (ids != null) {
+      for (T entity : loader.apply(ids)) {
+        entities.put(idOf.apply(entity), entity);
+      }
+    }
+    return entities;
+  }
+}
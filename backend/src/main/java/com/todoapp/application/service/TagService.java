@@ -7,20 +7,31 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.todoapp.application.dto.TagDTO;
+import com.todoapp.domain.model.SyncEntityType;
 import com.todoapp.domain.model.Tag;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.TagRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.ReferenceDataCacheInvalidator;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 
 @Service
 public class TagService {
 
   private final TagRepository tagRepository;
   private final UserRepository userRepository;
-
-  public TagService(TagRepository tagRepository, UserRepository userRepository) {
+  private final ReferenceDataCacheInvalidator cacheInvalidator;
+  private final SyncChangeLog syncChangeLog;
+
+  public TagService(
+      TagRepository tagRepository,
+      UserRepository userRepository,
+      ReferenceDataCacheInvalidator cacheInvalidator,
+      SyncChangeLog syncChangeLog) {
     this.tagRepository = tagRepository;
     this.userRepository = userRepository;
+    this.cacheInvalidator = cacheInvalidator;
+    this.syncChangeLog = syncChangeLog;
   }
 
   @Transactional
@@ -38,6 +49,8 @@ public class TagService {
     tag.setUser(user);
 
     Tag savedTag = tagRepository.save(tag);
+    cacheInvalidator.evict(Tag.class, savedTag.getId());
+    syncChangeLog.changed(SyncEntityType.TAG, savedTag.getId(), userId);
     return mapToDTO(savedTag);
   }
 
@@ -72,6 +85,8 @@ public class TagService {
     tag.setColor(tagDTO.getColor());
 
     Tag updatedTag = tagRepository.save(tag);
+    cacheInvalidator.evict(Tag.class, id);
+    syncChangeLog.changed(SyncEntityType.TAG, id, userId);
     return mapToDTO(updatedTag);
   }
 
@@ -83,6 +98,8 @@ public class TagService {
             .orElseThrow(() -> new RuntimeException("Tag not found"));
 
     tagRepository.delete(tag);
+    cacheInvalidator.evict(Tag.class, id);
+    syncChangeLog.deleted(SyncEntityType.TAG, id, userId);
   }
 
   private TagDTO mapToDTO(Tag tag) {
@@ -0,0 +1,410 @@
+package com.todoapp.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.todoapp.domain.model.PermissionLevel;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
+import com.todoapp.domain.repository.TaskRepository;
+
+/**
+ * Central answer to "what may user U do with tasks [..]". Access is resolved for any number of
+ * tasks with a single query that joins ownership and shares. Results are memoized for the current
+ * HTTP request and cached in a Redis hash per user, so repeated checks on the same tasks do not go
+ * back to the database.
+ *
+ * <p>Task ownership never changes, so only share changes affect cached entries. {@link
+ * TaskShareService} calls {@link #invalidate(Long, Long)} whenever a share is created, changed or
+ * revoked.
+ *
+ * <p>Each user also has a generation counter that every invalidation bumps. A lookup reads the
+ * generation before it queries the database and writes its result only if the generation is
+ * unchanged (compare-and-set in a Lua script), so a lookup that read a share before its revoke
+ * committed cannot cache the revoked grant again. Every entry carries its own expiry time, which
+ * later writes to the same hash never extend.
+ */
+@Service
+public class TaskAccessResolver {
+
+  private static final Logger logger = LoggerFactory.getLogger(TaskAccessResolver.class);
+
+  private static final String CACHE_KEY_PREFIX = "task-access::";
+  private static final String GENERATION_KEY_PREFIX = "task-access-generation::";
+
+  // Writes the entries only if no invalidation happened since the generation was read. The hash
+  // expiry only reclaims memory; each entry is checked against its own expiry time on read.
+  private static final RedisScript<Long> WRITE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end "
+              + "for i = 3, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+              + "if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) then "
+              + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) end "
+              + "return 1",
+          Long.class);
+  private static final String MEMO_ATTRIBUTE = TaskAccessResolver.class.getName() + ".memo";
+
+  private final TaskRepository taskRepository;
+  private final RedisTemplate<String, Object> redisTemplate;
+
+  @Value("${app.task-access.cache-ttl:15m}")
+  private Duration cacheTtl;
+
+  public TaskAccessResolver(
+      TaskRepository taskRepository, RedisTemplate<String, Object> redisTemplate) {
+    this.taskRepository = taskRepository;
+    this.redisTemplate = redisTemplate;
+  }
+
+  /**
+   * Resolve the access of a user to a task that is already loaded. Owners are recognised without
+   * any lookup.
+   *
+   * @param task The task
+   * @param userId The ID of the user
+   * @return The access level of the user
+   */
+  public TaskAccessLevel accessLevel(Task task, Long userId) {
+    if (isOwner(task, userId)) {
+      return TaskAccessLevel.OWNER;
+    }
+    return accessLevel(task.getId(), userId).orElse(TaskAccessLevel.NONE);
+  }
+
+  /**
+   * Resolve the access of a user to a task by ID.
+   *
+   * @param taskId The ID of the task
+   * @param userId The ID of the user
+   * @return The access level, or empty if the task does not exist
+   */
+  public Optional<TaskAccessLevel> accessLevel(Long taskId, Long userId) {
+    return Optional.ofNullable(accessLevels(List.of(taskId), userId).get(taskId));
+  }
+
+  /**
+   * Resolve the access of a user to several tasks at once.
+   *
+   * @param taskIds The IDs of the tasks
+   * @param userId The ID of the user
+   * @return Access level per task ID; tasks that do not exist are absent
+   */
+  public Map<Long, TaskAccessLevel> accessLevels(Collection<Long> taskIds, Long userId) {
+    Map<Long, TaskAccessLevel> result = new HashMap<>();
+    if (taskIds == null || taskIds.isEmpty()) {
+      return result;
+    }
+
+    Map<Long, TaskAccessLevel> memo = requestMemo(userId);
+    List<Long> pending = new ArrayList<>();
+    for (Long taskId : new LinkedHashSet<>(taskIds)) {
+      TaskAccessLevel level = memo != null ? memo.get(taskId) : null;
+      if (level != null) {
+        result.put(taskId, level);
+      } else {
+        pending.add(taskId);
+      }
+    }
+    if (pending.isEmpty()) {
+      return result;
+    }
+
+    Map<Long, TaskAccessLevel> cached = readCache(userId, pending);
+    result.putAll(cached);
+    pending.removeAll(cached.keySet());
+
+    if (!pending.isEmpty()) {
+      // Read before the database, so an invalidation in between makes the write a no-op
+      String generation = readGeneration(userId);
+      Map<Long, TaskAccessLevel> loaded = loadAccess(pending, userId);
+      result.putAll(loaded);
+      writeCache(userId, generation, loaded);
+    }
+
+    if (memo != null) {
+      memo.putAll(result);
+    }
+    return result;
+  }
+
+  /**
+   * Check whether a user owns a loaded task. Needs no lookup, since ownership is on the task row.
+   *
+   * @param task The task
+   * @param userId The ID of the user
+   * @return true if the user owns the task
+   */
+  public boolean isOwner(Task task, Long userId) {
+    return task.getUser() != null && task.getUser().getId().equals(userId);
+  }
+
+  /**
+   * Check whether a user may read a loaded task.
+   *
+   * @param task The task
+   * @param userId The ID of the user
+   * @return true if the user owns the task or it is shared with them
+   */
+  public boolean canRead(Task task, Long userId) {
+    return accessLevel(task, userId).canRead();
+  }
+
+  /**
+   * Check whether a user may edit a loaded task.
+   *
+   * @param task The task
+   * @param userId The ID of the user
+   * @return true if the user owns the task or it is shared with EDIT permission
+   */
+  public boolean canEdit(Task task, Long userId) {
+    return accessLevel(task, userId).canEdit();
+  }
+
+  /**
+   * Keep the tasks a user may read.
+   *
+   * @param taskIds The IDs of the tasks
+   * @param userId The ID of the user
+   * @return IDs of existing tasks the user may read
+   */
+  public Set<Long> filterReadable(Collection<Long> taskIds, Long userId) {
+    return filter(taskIds, userId, TaskAccessLevel::canRead);
+  }
+
+  /**
+   * Keep the tasks a user may edit.
+   *
+   * @param taskIds The IDs of the tasks
+   * @param userId The ID of the user
+   * @return IDs of existing tasks the user may edit
+   */
+  public Set<Long> filterEditable(Collection<Long> taskIds, Long userId) {
+    return filter(taskIds, userId, TaskAccessLevel::canEdit);
+  }
+
+  /**
+   * Keep the tasks a user owns.
+   *
+   * @param taskIds The IDs of the tasks
+   * @param userId The ID of the user
+   * @return IDs of existing tasks the user owns
+   */
+  public Set<Long> filterOwned(Collection<Long> taskIds, Long userId) {
+    return filter(taskIds, userId, TaskAccessLevel::isOwner);
+  }
+
+  /**
+   * Forget the cached access of a user to a task. The entry is dropped immediately and again after
+   * the surrounding transaction commits, so a concurrent request cannot re-cache the old value.
+   *
+   * @param taskId The ID of the task
+   * @param userId The ID of the user whose access changed
+   */
+  public void invalidate(Long taskId, Long userId) {
+    invalidate(List.of(taskId), List.of(userId));
+  }
+
+  /**
+   * Forget the cached access of several users to several tasks, e.g. after a bulk share. Each
+   * user's generation is bumped and the entries are dropped with one hash delete, immediately and
+   * again after commit.
+   *
+   * @param taskIds The IDs of the tasks
+   * @param userIds The IDs of the users whose access changed
+   */
+  public void invalidate(Collection<Long> taskIds, Collection<Long> userIds) {
+    if (taskIds.isEmpty() || userIds.isEmpty()) {
+      return;
+    }
+    for (Long userId : userIds) {
+      Map<Long, TaskAccessLevel> memo = requestMemo(userId);
+      if (memo != null) {
+        memo.keySet().removeAll(taskIds);
+      }
+    }
+    evict(taskIds, userIds);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              evict(taskIds, userIds);
+            }
+          });
+    }
+  }
+
+  private Set<Long> filter(
+      Collection<Long> taskIds, Long userId, Predicate<TaskAccessLevel> predicate) {
+    return accessLevels(taskIds, userId).entrySet().stream()
+        .filter(entry -> predicate.test(entry.getValue()))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+  }
+
+  private Map<Long, TaskAccessLevel> loadAccess(List<Long> taskIds, Long userId) {
+    Map<Long, TaskAccessLevel> levels = new HashMap<>();
+    for (Object[] row : taskRepository.findAccessRows(taskIds, userId)) {
+      Long taskId = (Long) row[0];
+      Long ownerId = (Long) row[1];
+      PermissionLevel permission = (PermissionLevel) row[2];
+      levels.put(
+          taskId,
+          userId.equals(ownerId)
+              ? TaskAccessLevel.OWNER
+              : TaskAccessLevel.fromPermission(permission));
+    }
+    logger.debug("Resolved access of user {} to {} tasks", userId, levels.size());
+    return levels;
+  }
+
+  private Map<Long, TaskAccessLevel> readCache(Long userId, List<Long> taskIds) {
+    Map<Long, TaskAccessLevel> cached = new HashMap<>();
+    try {
+      List<Object> fields = new ArrayList<>(taskIds.size());
+      taskIds.forEach(taskId -> fields.add(taskId.toString()));
+      List<Object> values = redisTemplate.opsForHash().multiGet(cacheKey(userId), fields);
+      if (values == null) {
+        return cached;
+      }
+      long now = System.currentTimeMillis();
+      for (int i = 0; i < taskIds.size() && i < values.size(); i++) {
+        TaskAccessLevel level =
+            values.get(i) != null ? decode(values.get(i).toString(), now) : null;
+        if (level != null) {
+          cached.put(taskIds.get(i), level);
+        }
+      }
+    } catch (RuntimeException e) {
+      // The cache is an optimisation only; fall back to the database
+      logger.debug("Task access cache read failed for user {}", userId, e);
+    }
+    return cached;
+  }
+
+  private String readGeneration(Long userId) {
+    try {
+      Object generation = redisTemplate.opsForValue().get(generationKey(userId));
+      return generation != null ? generation.toString() : "0";
+    } catch (RuntimeException e) {
+      logger.debug("Task access generation read failed for user {}", userId, e);
+      return null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeCache(Long userId, String generation, Map<Long, TaskAccessLevel> levels) {
+    if (levels.isEmpty() || generation == null) {
+      return;
+    }
+    try {
+      RedisSerializer<Object> valueSerializer =
+          (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+      String expiresAt = String.valueOf(System.currentTimeMillis() + cacheTtl.toMillis());
+      List<byte[]> args = new ArrayList<>(2 + levels.size() * 2);
+      args.add(bytes(generation));
+      args.add(bytes(String.valueOf(cacheTtl.toMillis())));
+      levels.forEach(
+          (taskId, level) -> {
+            args.add(bytes(taskId.toString()));
+            args.add(valueSerializer.serialize(level.name() + "@" + expiresAt));
+          });
+      Long written =
+          redisTemplate.execute(
+              WRITE_SCRIPT,
+              RedisSerializer.byteArray(),
+              new GenericToStringSerializer<>(Long.class),
+              List.of(cacheKey(userId), generationKey(userId)),
+              args.toArray());
+      if (written == null || written == 0) {
+        logger.debug("Skipped caching access of user {}: invalidated during the lookup", userId);
+      }
+    } catch (RuntimeException e) {
+      logger.debug("Task access cache write failed for user {}", userId, e);
+    }
+  }
+
+  private void evict(Collection<Long> taskIds, Collection<Long> userIds) {
+    Object[] fields = taskIds.stream().map(String::valueOf).toArray();
+    for (Long userId : userIds) {
+      try {
+        // Bump first: a lookup that writes after this point fails its compare-and-set
+        redisTemplate.opsForValue().increment(generationKey(userId));
+        redisTemplate.expire(generationKey(userId), cacheTtl);
+        redisTemplate.opsForHash().delete(cacheKey(userId), fields);
+      } catch (RuntimeException e) {
+        logger.warn(
+            "Failed to evict cached access of user {} to {} tasks", userId, taskIds.size(), e);
+      }
+    }
+  }
+
+  /** An entry is {@code LEVEL@expiresAtMillis}; expired or malformed entries are misses. */
+  private static TaskAccessLevel decode(String value, long now) {
+    int separator = value.indexOf('@');
+    if (separator < 0) {
+      return null;
+    }
+    try {
+      if (Long.parseLong(value.substring(separator + 1)) <= now) {
+        return null;
+      }
+      return TaskAccessLevel.valueOf(value.substring(0, separator));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Long, TaskAccessLevel> requestMemo(Long userId) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return null;
+    }
+    Map<Long, Map<Long, TaskAccessLevel>> memo =
+        (Map<Long, Map<Long, TaskAccessLevel>>)
+            attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (memo == null) {
+      memo = new HashMap<>();
+      attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+    }
+    return memo.computeIfAbsent(userId, id -> new HashMap<>());
+  }
+
+  private String cacheKey(Long userId) {
+    return CACHE_KEY_PREFIX + userId;
+  }
+
+  private String generationKey(Long userId) {
+    return GENERATION_KEY_PREFIX + userId;
+  }
+}
@@ -0,0 +1,295 @@
+package com.todoapp.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.todoapp.application.dto.TaskOrderPageDTO;
+import com.todoapp.application.dto.TaskResponseDTO;
+import com.todoapp.application.mapper.TaskMapper;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskRank;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+import com.todoapp.infrastructure.persistence.TaskPositionRebalancer;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ConflictException;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Manual order of task lists. A list is the tasks of one user under one parent, or at the top
+ * level, ordered by {@code position} (see {@link TaskRank}). Moving a task writes its own row only;
+ * lists that run out of room are renumbered by the {@link TaskPositionRebalancer}.
+ */
+@Service
+@Transactional
+public class TaskOrderService {
+
+  private static final Logger logger = LoggerFactory.getLogger(TaskOrderService.class);
+
+  private static final Pageable FIRST = PageRequest.of(0, 1);
+
+  private final TaskRepository taskRepository;
+  private final TaskMapper taskMapper;
+  private final TaskPositionRebalancer rebalancer;
+  private final SyncChangeLog syncChangeLog;
+
+  @Value("${app.task-ordering.max-page-size:200}")
+  private int maxPageSize;
+
+  public TaskOrderService(
+      TaskRepository taskRepository,
+      TaskMapper taskMapper,
+      TaskPositionRebalancer rebalancer,
+      SyncChangeLog syncChangeLog) {
+    this.taskRepository = taskRepository;
+    this.taskMapper = taskMapper;
+    this.rebalancer = rebalancer;
+    this.syncChangeLog = syncChangeLog;
+  }
+
+  /**
+   * Move a task between two tasks of its list. With only {@code afterId} the task goes directly
+   * after that task, with only {@code beforeId} directly before it, and without either to the top
+   * of the list. The move is a single-row update of the moved task; only when its new neighbours
+   * are adjacent is the list renumbered first.
+   *
+   * @param taskId The ID of the moved task
+   * @param afterId The ID of the task that should precede it, or null
+   * @param beforeId The ID of the task that should follow it, or null
+   * @param userId The ID of the user, who must own the list
+   * @return The moved task
+   */
+  public TaskResponseDTO moveTask(Long taskId, Long afterId, Long beforeId, Long userId) {
+    logger.debug(
+        "Moving task ID: {} after {} and before {} by user ID: {}",
+        taskId,
+        afterId,
+        beforeId,
+        userId);
+    if (taskId.equals(afterId) || taskId.equals(beforeId)) {
+      throw new IllegalArgumentException("A task cannot be moved next to itself");
+    }
+
+    Map<Long, OrderRow> rows = loadRows(taskId, afterId, beforeId);
+    OrderRow task = rows.get(taskId);
+    if (task == null) {
+      throw new ResourceNotFoundException("Task not found with ID: " + taskId);
+    }
+    if (!task.ownerId().equals(userId)) {
+      throw new IllegalArgumentException("Only the owner of a task can reorder it");
+    }
+
+    OptionalLong position = place(task, rows, afterId, beforeId);
+    if (position.isEmpty()) {
+      // The neighbours are adjacent, so the list needs room before the move
+      logger.info("No room between the neighbours of task ID: {}, renumbering its list", taskId);
+      rebalancer.rebalance(userId, task.parentId());
+      rows = loadRows(taskId, afterId, beforeId);
+      position = place(rows.get(taskId), rows, afterId, beforeId);
+      if (position.isEmpty()) {
+        throw new IllegalStateException("No room for task ID: " + taskId + " after renumbering");
+      }
+    }
+
+    taskRepository.updatePosition(taskId, position.getAsLong(), LocalDateTime.now());
+    syncChangeLog.taskChanged(taskId, userId);
+    Task moved =
+        taskRepository
+            .findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
+    logger.info("Task ID: {} moved to position {}", taskId, position.getAsLong());
+    return taskMapper.toResponseDTO(moved);
+  }
+
+  /**
+   * Get a page of a list in its manual order. Pages are addressed by keyset cursor, so deep pages
+   * cost the same as the first one.
+   *
+   * @param userId The ID of the user who owns the list
+   * @param parentTaskId The parent of the list, or null for top-level tasks
+   * @param cursor The cursor returned with the previous page, or null for the first page
+   * @param limit The page size
+   * @return The page and the cursor of the next one
+   */
+  public TaskOrderPageDTO getOrderedTasks(
+      Long userId, Long parentTaskId, String cursor, int limit) {
+    logger.debug("Fetching ordered tasks of user ID: {} under parent ID: {}", userId, parentTaskId);
+
+    int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+    // One extra row tells whether there is a next page
+    Pageable pageable = PageRequest.of(0, pageSize + 1);
+    OrderCursor start =
+        cursor == null || cursor.isBlank()
+            ? new OrderCursor(Long.MIN_VALUE, 0L)
+            : OrderCursor.decode(cursor);
+    List<Task> tasks =
+        parentTaskId == null
+            ? taskRepository.findRootOrderPage(userId, start.position(), start.id(), pageable)
+            : taskRepository.findChildOrderPage(
+                userId, parentTaskId, start.position(), start.id(), pageable);
+
+    String nextCursor = null;
+    if (tasks.size() > pageSize) {
+      tasks = tasks.subList(0, pageSize);
+      Task last = tasks.get(pageSize - 1);
+      nextCursor = new OrderCursor(last.getPosition(), last.getId()).encode();
+    }
+    // Subtask progress of the whole page from one grouped count
+    Map<Long, Integer> progress =
+        tasks.isEmpty()
+            ? Map.of()
+            : taskMapper.toSubtaskProgress(
+                taskRepository.countSubtasksByParentIds(tasks.stream().map(Task::getId).toList()));
+    LocalDateTime now = LocalDateTime.now();
+    return new TaskOrderPageDTO(
+        tasks.stream()
+            .map(
+                task -> {
+                  TaskResponseDTO dto = taskMapper.toResponseDTO(task, now);
+                  dto.setSubtaskProgress(progress.getOrDefault(task.getId(), 0));
+                  return dto;
+                })
+            .collect(Collectors.toList()),
+        nextCursor);
+  }
+
+  /**
+   * The new position of a task between its neighbours. Schedules a rebalance when the position
+   * leaves little room for later moves.
+   *
+   * @return The position, or empty if the neighbours are adjacent
+   */
+  private OptionalLong place(OrderRow task, Map<Long, OrderRow> rows, Long afterId, Long beforeId) {
+    OrderRow after = neighbour(task, rows, afterId);
+    OrderRow before = neighbour(task, rows, beforeId);
+
+    if (after == null && before == null) {
+      // The top of the list, without reading the list
+      return OptionalLong.of(TaskRank.forNewTask(Instant.now()));
+    }
+    if (after != null && before != null && !after.precedes(before)) {
+      throw new ConflictException(
+          "Task " + afterId + " no longer precedes task " + beforeId, toOrderPosition(rows));
+    }
+
+    Long lower = after != null ? after.position() : adjacentPosition(task, before, false);
+    Long upper = before != null ? before.position() : adjacentPosition(task, after, true);
+    OptionalLong position = TaskRank.between(lower, upper);
+    if (position.isPresent() && TaskRank.isCrowded(lower, position.getAsLong(), upper)) {
+      rebalancer.requestRebalance(task.ownerId(), task.parentId());
+    }
+    return position;
+  }
+
+  /** The position directly after (or before) a neighbour, skipping the moved task itself. */
+  private Long adjacentPosition(OrderRow task, OrderRow neighbour, boolean after) {
+    Long userId = task.ownerId();
+    List<Long> positions;
+    if (task.parentId() == null) {
+      positions =
+          after
+              ? taskRepository.findRootPositionsAfter(
+                  userId, neighbour.position(), neighbour.id(), task.id(), FIRST)
+              : taskRepository.findRootPositionsBefore(
+                  userId, neighbour.position(), neighbour.id(), task.id(), FIRST);
+    } else {
+      positions =
+          after
+              ? taskRepository.findChildPositionsAfter(
+                  userId, task.parentId(), neighbour.position(), neighbour.id(), task.id(), FIRST)
+              : taskRepository.findChildPositionsBefore(
+                  userId, task.parentId(), neighbour.position(), neighbour.id(), task.id(), FIRST);
+    }
+    return positions.isEmpty() ? null : positions.get(0);
+  }
+
+  private OrderRow neighbour(OrderRow task, Map<Long, OrderRow> rows, Long neighbourId) {
+    if (neighbourId == null) {
+      return null;
+    }
+    OrderRow neighbour = rows.get(neighbourId);
+    if (neighbour == null) {
+      throw new ResourceNotFoundException("Task not found with ID: " + neighbourId);
+    }
+    if (!neighbour.isSiblingOf(task)) {
+      throw new IllegalArgumentException(
+          "Task " + neighbourId + " is not in the same list as task " + task.id());
+    }
+    return neighbour;
+  }
+
+  private Map<Long, OrderRow> loadRows(Long taskId, Long afterId, Long beforeId) {
+    List<Long> ids = new ArrayList<>(List.of(taskId));
+    if (afterId != null) {
+      ids.add(afterId);
+    }
+    if (beforeId != null) {
+      ids.add(beforeId);
+    }
+    Map<Long, OrderRow> rows = new HashMap<>();
+    for (Object[] row : taskRepository.findOrderRows(ids)) {
+      OrderRow orderRow = new OrderRow((Long) row[0], (Long) row[1], (Long) row[2], (Long) row[3]);
+      rows.put(orderRow.id(), orderRow);
+    }
+    return rows;
+  }
+
+  private static Map<Long, Long> toOrderPosition(Map<Long, OrderRow> rows) {
+    Map<Long, Long> positions = new HashMap<>();
+    rows.values().forEach(row -> positions.put(row.id(), row.position()));
+    return positions;
+  }
+
+  /** Identity, list and position of one task. */
+  private record OrderRow(Long id, Long ownerId, Long parentId, Long position) {
+
+    boolean isSiblingOf(OrderRow other) {
+      return ownerId.equals(other.ownerId())
+          && (parentId == null ? other.parentId() == null : parentId.equals(other.parentId()));
+    }
+
+    boolean precedes(OrderRow other) {
+      int byPosition = position.compareTo(other.position());
+      return byPosition < 0 || (byPosition == 0 && id < other.id());
+    }
+  }
+
+  /** Keyset position of the last task of a page, encoded as an opaque string. */
+  private record OrderCursor(Long position, Long id) {
+
+    String encode() {
+      String raw = position + "|" + id;
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String cursor) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        return new OrderCursor(
+            Long.parseLong(raw.substring(0, separator)),
+            Long.parseLong(raw.substring(separator + 1)));
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException("Invalid task order cursor");
+      }
+    }
+  }
+}
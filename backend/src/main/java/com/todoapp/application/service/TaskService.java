@@ -1,16 +1,28 @@
 package com.todoapp.application.service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.todoapp.application.dto.TaskCreateDTO;
+import com.todoapp.application.dto.TaskDueFilter;
+import com.todoapp.application.dto.TaskDueFilter.DueRange;
+import com.todoapp.application.dto.TaskPatchDTO;
 import com.todoapp.application.dto.TaskResponseDTO;
 import com.todoapp.application.dto.TaskUpdateDTO;
 import com.todoapp.application.dto.TaskUpdateMessage;
@@ -20,6 +32,7 @@ import com.todoapp.domain.model.PermissionLevel;
 import com.todoapp.domain.model.RecurrencePattern;
 import com.todoapp.domain.model.Tag;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.TaskShare;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.CategoryRepository;
@@ -28,6 +41,8 @@ import com.todoapp.domain.repository.TagRepository;
 import com.todoapp.domain.repository.TaskRepository;
 import com.todoapp.domain.repository.TaskShareRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ConflictException;
 import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
 
 import jakarta.transaction.Transactional;
@@ -43,9 +58,11 @@ public class TaskService {
   private final CategoryRepository categoryRepository;
   private final TagRepository tagRepository;
   private final TaskShareRepository taskShareRepository;
+  private final TaskAccessResolver accessResolver;
   private final RecurrencePatternRepository recurrencePatternRepository;
   private final TaskMapper taskMapper;
   private final com.todoapp.presentation.websocket.TaskWebSocketHandler webSocketHandler;
+  private final SyncChangeLog syncChangeLog;
   private RecurrenceService recurrenceService; // Lazy injection to avoid circular dependency
 
   public TaskService(
@@ -54,17 +71,21 @@ public class TaskService {
       CategoryRepository categoryRepository,
       TagRepository tagRepository,
       TaskShareRepository taskShareRepository,
+      TaskAccessResolver accessResolver,
       RecurrencePatternRepository recurrencePatternRepository,
       TaskMapper taskMapper,
-      com.todoapp.presentation.websocket.TaskWebSocketHandler webSocketHandler) {
+      com.todoapp.presentation.websocket.TaskWebSocketHandler webSocketHandler,
+      SyncChangeLog syncChangeLog) {
     this.taskRepository = taskRepository;
     this.userRepository = userRepository;
     this.categoryRepository = categoryRepository;
     this.tagRepository = tagRepository;
     this.taskShareRepository = taskShareRepository;
+    this.accessResolver = accessResolver;
     this.recurrencePatternRepository = recurrencePatternRepository;
     this.taskMapper = taskMapper;
     this.webSocketHandler = webSocketHandler;
+    this.syncChangeLog = syncChangeLog;
   }
 
   /**
@@ -83,10 +104,8 @@ public class TaskService {
       throw new IllegalArgumentException("Description cannot be empty");
     }
 
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+    // Only the foreign key is needed, so the owner is referenced rather than loaded
+    User user = userRepository.getReferenceById(userId);
 
     Task task = taskMapper.toEntity(createDTO, user);
 
@@ -112,6 +131,7 @@ public class TaskService {
     }
 
     Task savedTask = taskRepository.save(task);
+    syncChangeLog.taskChanged(savedTask.getId(), userId);
 
     logger.info("Task created with ID: {} for user ID: {}", savedTask.getId(), userId);
 
@@ -129,7 +149,7 @@ public class TaskService {
     Page<Task> tasks = taskRepository.findByUserId(userId, pageable);
 
     logger.debug("Found {} tasks for user ID: {}", tasks.getTotalElements(), userId);
-    return tasks.map(taskMapper::toResponseDTO);
+    return toListing(tasks, LocalDateTime.now());
   }
 
   public TaskResponseDTO getTaskById(Long taskId, Long userId) {
@@ -140,7 +160,7 @@ public class TaskService {
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!hasTaskAccess(task, userId)) {
+    if (!accessResolver.canRead(task, userId)) {
       throw new IllegalArgumentException("User does not have access to this task");
     }
 
@@ -164,28 +184,31 @@ public class TaskService {
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!hasTaskAccess(task, userId)) {
+    if (!accessResolver.canRead(task, userId)) {
       throw new IllegalArgumentException("User does not have access to this task");
     }
 
     return task;
   }
 
-  private boolean hasTaskAccess(Task task, Long userId) {
-    if (task.getUser().getId().equals(userId)) {
-      return true;
+  private void requireReadAccess(Long taskId, Long userId) {
+    TaskAccessLevel level =
+        accessResolver
+            .accessLevel(taskId, userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
+    if (!level.canRead()) {
+      throw new IllegalArgumentException("User does not have access to this task");
     }
-    return taskShareRepository.findByTaskIdAndSharedWithUserId(task.getId(), userId).isPresent();
   }
 
-  private boolean hasEditPermission(Task task, Long userId) {
-    if (task.getUser().getId().equals(userId)) {
-      return true;
+  private void requireEditAccess(Long taskId, Long userId) {
+    TaskAccessLevel level =
+        accessResolver
+            .accessLevel(taskId, userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
+    if (!level.canEdit()) {
+      throw new IllegalArgumentException("User does not have edit permission for this task");
     }
-    return taskShareRepository
-        .findByTaskIdAndSharedWithUserId(task.getId(), userId)
-        .map(share -> share.getPermissionLevel() == PermissionLevel.EDIT)
-        .orElse(false);
   }
 
   public Page<TaskResponseDTO> searchTasks(
@@ -213,7 +236,7 @@ public class TaskService {
     }
 
     logger.debug("Search returned {} tasks", tasks.getTotalElements());
-    return tasks.map(taskMapper::toResponseDTO);
+    return toListing(tasks, LocalDateTime.now());
   }
 
   public Page<TaskResponseDTO> getTasksWithFilters(
@@ -237,47 +260,119 @@ public class TaskService {
     }
 
     logger.debug("Filter returned {} tasks", tasks.getTotalElements());
-    return tasks.map(taskMapper::toResponseDTO);
+    return toListing(tasks, LocalDateTime.now());
+  }
+
+  /**
+   * List a user's open tasks by due date, soonest first. The filter is resolved against one clock
+   * reading, which also decides the overdue flag of every listed task.
+   *
+   * @param userId The ID of the user
+   * @param filter The due-date filter; must be active
+   * @param searchTerm Optional case-insensitive description filter
+   * @param categoryId Optional category filter
+   * @param pageable Page number and size; tasks are always ordered by due date
+   * @return Page of open tasks with a due date in the filtered range
+   */
+  public Page<TaskResponseDTO> getTasksByDueDate(
+      Long userId, TaskDueFilter filter, String searchTerm, Long categoryId, Pageable pageable) {
+    if (!filter.isActive()) {
+      throw new IllegalArgumentException("A due date filter is required");
+    }
+    if (filter.dueAfter() != null
+        && filter.dueBefore() != null
+        && !filter.dueAfter().isBefore(filter.dueBefore())) {
+      throw new IllegalArgumentException("dueAfter must be before dueBefore");
+    }
+
+    Instant clock = Instant.now();
+    ZoneId storageZone = ZoneId.systemDefault();
+    LocalDateTime now = LocalDateTime.ofInstant(clock, storageZone);
+    DueRange range = filter.resolve(clock, storageZone);
+    logger.debug(
+        "Fetching tasks for user ID: {} due from {} before {}", userId, range.from(), range.to());
+
+    Pageable unsorted =
+        pageable.isPaged()
+            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+            : Pageable.unpaged();
+    if (range.isEmpty()) {
+      return Page.empty(unsorted);
+    }
+
+    String searchPattern =
+        searchTerm != null && !searchTerm.trim().isEmpty()
+            ? "%" + searchTerm.trim().toLowerCase() + "%"
+            : "%";
+    Page<Task> tasks;
+    if (range.from() == null) {
+      tasks =
+          taskRepository.findOpenDueBefore(userId, range.to(), categoryId, searchPattern, unsorted);
+    } else if (range.to() == null) {
+      tasks =
+          taskRepository.findOpenDueFrom(userId, range.from(), categoryId, searchPattern, unsorted);
+    } else {
+      tasks =
+          taskRepository.findOpenDueBetween(
+              userId, range.from(), range.to(), categoryId, searchPattern, unsorted);
+    }
+    return toListing(tasks, now);
   }
 
   public long getTaskCount(Long userId, Boolean isCompleted) {
     if (isCompleted != null) {
       return taskRepository.countByUserIdAndIsCompleted(userId, isCompleted);
     }
-    return taskRepository.findByUserId(userId, Pageable.unpaged()).getTotalElements();
+    return taskRepository.countByUserId(userId);
   }
 
-  public TaskResponseDTO toggleCompletion(Long taskId, Long userId) {
-    logger.debug("Toggling completion for task ID: {} by user ID: {}", taskId, userId);
+  /**
+   * Set the completion state of a task. Repeating the call changes nothing, so retries and
+   * concurrent clicks are safe. The state is written by a targeted update without loading the task
+   * first.
+   *
+   * @param taskId The ID of the task
+   * @param userId The ID of the editing user
+   * @param completed The requested completion state
+   * @return The task after the change
+   */
+  public TaskResponseDTO setCompletion(Long taskId, Long userId, boolean completed) {
+    logger.debug(
+        "Setting completion of task ID: {} to {} by user ID: {}", taskId, completed, userId);
+    requireEditAccess(taskId, userId);
 
+    LocalDateTime now = LocalDateTime.now();
+    int changed = taskRepository.updateCompletion(taskId, completed, completed ? now : null, now);
     Task task =
         taskRepository
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!hasEditPermission(task, userId)) {
-      throw new IllegalArgumentException("User does not have edit permission for this task");
-    }
-
-    if (task.getIsCompleted()) {
-      task.markIncomplete();
-      logger.info("Task ID: {} marked as incomplete", taskId);
-    } else {
-      task.markComplete();
-      logger.info("Task ID: {} marked as complete", taskId);
+    if (changed > 0) {
+      logger.info("Task ID: {} marked as {}", taskId, completed ? "complete" : "incomplete");
+      syncChangeLog.taskChanged(taskId, task.getUser().getId());
+      broadcastToTaskCollaborators(
+          task, TaskUpdateMessage.completed(taskId, userId, task.getIsCompleted()));
     }
-
-    Task savedTask = taskRepository.save(task);
-
-    // Broadcast WebSocket update to owner and collaborators
-    TaskUpdateMessage message =
-        TaskUpdateMessage.completed(savedTask.getId(), userId, savedTask.getIsCompleted());
-    broadcastToTaskCollaborators(savedTask, message);
-
-    return taskMapper.toResponseDTO(savedTask);
+    return taskMapper.toResponseDTO(task);
   }
 
   public TaskResponseDTO updateTask(Long taskId, TaskUpdateDTO updateDTO, Long userId) {
+    return updateTask(taskId, updateDTO, userId, null);
+  }
+
+  /**
+   * Update a task if it still has the version the client has seen.
+   *
+   * @param taskId The ID of the task
+   * @param updateDTO The changes
+   * @param userId The ID of the editing user
+   * @param expectedVersion The version from If-Match, or null to update any version
+   * @return The updated task
+   * @throws ConflictException if the task has another version; carries the current task
+   */
+  public TaskResponseDTO updateTask(
+      Long taskId, TaskUpdateDTO updateDTO, Long userId, Long expectedVersion) {
     logger.debug("Updating task ID: {} by user ID: {}", taskId, userId);
 
     Task task =
@@ -285,10 +380,16 @@ public class TaskService {
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!hasEditPermission(task, userId)) {
+    if (!accessResolver.canEdit(task, userId)) {
       throw new IllegalArgumentException("User does not have edit permission for this task");
     }
 
+    // A change between this read and the write is caught by the version check at flush
+    if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+      throw new ConflictException(
+          "Task was modified by someone else", taskMapper.toResponseDTO(task));
+    }
+
     if (updateDTO.getDescription() != null) {
       task.setDescription(updateDTO.getDescription());
     }
@@ -329,6 +430,7 @@ public class TaskService {
     }
 
     Task savedTask = taskRepository.save(task);
+    syncChangeLog.taskChanged(savedTask.getId(), savedTask.getUser().getId());
     logger.info("Task ID: {} updated successfully", taskId);
 
     // Broadcast WebSocket update to owner and collaborators
@@ -347,6 +449,64 @@ public class TaskService {
     return taskMapper.toResponseDTO(savedTask);
   }
 
+  /**
+   * Apply field-level changes to a task with one targeted update, without reading the task first.
+   * Fields that are not set keep their current value, so collaborators editing different fields do
+   * not overwrite each other.
+   *
+   * @param taskId The ID of the task
+   * @param patchDTO The changes
+   * @param userId The ID of the editing user
+   * @param expectedVersion The version from If-Match, or null to update any version
+   * @return The updated task
+   * @throws ConflictException if the task has another version; carries the current task
+   */
+  public TaskResponseDTO patchTask(
+      Long taskId, TaskPatchDTO patchDTO, Long userId, Long expectedVersion) {
+    logger.debug("Patching task ID: {} by user ID: {}", taskId, userId);
+    requireEditAccess(taskId, userId);
+
+    // The update bypasses entity validation
+    if (patchDTO.getDescription() != null && patchDTO.getDescription().trim().isEmpty()) {
+      throw new IllegalArgumentException("Description cannot be empty");
+    }
+
+    int updated =
+        taskRepository.patch(
+            taskId,
+            patchDTO.getDescription(),
+            patchDTO.getPriority(),
+            patchDTO.getDueDate(),
+            patchDTO.isClearDueDate(),
+            patchDTO.getEstimatedDurationMinutes(),
+            expectedVersion,
+            LocalDateTime.now());
+
+    Task task =
+        taskRepository
+            .findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
+    if (updated == 0) {
+      throw new ConflictException(
+          "Task was modified by someone else", taskMapper.toResponseDTO(task));
+    }
+    logger.info("Task ID: {} patched successfully", taskId);
+    syncChangeLog.taskChanged(taskId, task.getUser().getId());
+
+    broadcastToTaskCollaborators(
+        task,
+        TaskUpdateMessage.updated(
+            task.getId(),
+            userId,
+            task.getDescription(),
+            task.getIsCompleted(),
+            task.getPriority(),
+            task.getDueDate() != null
+                ? task.getDueDate().atZone(ZoneId.systemDefault()).toInstant()
+                : null));
+    return taskMapper.toResponseDTO(task);
+  }
+
   public void deleteTask(Long taskId, Long userId) {
     logger.debug("Deleting task ID: {} by user ID: {}", taskId, userId);
 
@@ -355,7 +515,7 @@ public class TaskService {
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!task.getUser().getId().equals(userId)) {
+    if (!accessResolver.isOwner(task, userId)) {
       throw new IllegalArgumentException("Only the task owner can delete the task");
     }
 
@@ -369,6 +529,7 @@ public class TaskService {
     TaskUpdateMessage message = TaskUpdateMessage.deleted(taskId, userId);
     broadcastToTaskCollaborators(task, message);
 
+    logDeletion(List.of(task));
     taskRepository.delete(task);
     logger.info("Task ID: {} deleted successfully", taskId);
   }
@@ -381,17 +542,125 @@ public class TaskService {
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!task.getUser().getId().equals(userId)) {
+    if (!accessResolver.canRead(task, userId)) {
       throw new IllegalArgumentException("User does not have access to this task");
     }
 
     return task.hasSubtasks();
   }
 
-  public List<Task> getSharedTasksForUser(Long userId) {
+  /**
+   * Get the tasks shared with a user, with the permission granted on each.
+   *
+   * @param userId The ID of the user
+   * @param pageable Pagination information
+   * @return Page of shared tasks, newest first
+   */
+  public Page<TaskResponseDTO> getSharedTasksForUser(Long userId, Pageable pageable) {
     logger.debug("Fetching shared tasks for user ID: {}", userId);
-    List<TaskShare> shares = taskShareRepository.findBySharedWithUserId(userId);
-    return shares.stream().map(TaskShare::getTask).collect(java.util.stream.Collectors.toList());
+    return getAccessibleTasks(userId, ListingScope.SHARED, null, null, null, null, pageable);
+  }
+
+  /**
+   * Get the tasks a user owns and the tasks shared with them as one page. Ownership and shares are
+   * resolved in the same query, so every task carries the caller's access level without further
+   * lookups.
+   *
+   * @param userId The ID of the user
+   * @param scope Whether to list owned tasks, shared tasks or both
+   * @param permission Only include shares with this permission (owned tasks are unaffected)
+   * @param searchTerm Optional case-insensitive description filter
+   * @param isCompleted Optional completion filter
+   * @param categoryId Optional category filter
+   * @param pageable Page number and size; tasks are always ordered newest first
+   * @return Page of tasks with the caller's access level set
+   */
+  public Page<TaskResponseDTO> getAccessibleTasks(
+      Long userId,
+      ListingScope scope,
+      PermissionLevel permission,
+      String searchTerm,
+      Boolean isCompleted,
+      Long categoryId,
+      Pageable pageable) {
+    logger.debug(
+        "Fetching {} tasks for user ID: {} (permission: {}, search: '{}', completed: {}, categoryId: {})",
+        scope,
+        userId,
+        permission,
+        searchTerm,
+        isCompleted,
+        categoryId);
+
+    String searchPattern =
+        searchTerm != null && !searchTerm.trim().isEmpty()
+            ? "%" + searchTerm.trim().toLowerCase() + "%"
+            : "%";
+    Pageable unsorted =
+        pageable.isPaged()
+            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+            : Pageable.unpaged();
+
+    Page<Object[]> rows =
+        taskRepository.findAccessibleTasks(
+            userId,
+            scope != ListingScope.SHARED,
+            scope != ListingScope.OWNED,
+            permission,
+            isCompleted,
+            categoryId,
+            searchPattern,
+            unsorted);
+
+    LocalDateTime now = LocalDateTime.now();
+    Map<Long, Integer> progress =
+        subtaskProgress(rows.getContent().stream().map(row -> ((Task) row[0]).getId()).toList());
+    return rows.map(
+        row -> {
+          Task task = (Task) row[0];
+          TaskResponseDTO dto = taskMapper.toResponseDTO(task, now);
+          dto.setSubtaskProgress(progress.getOrDefault(task.getId(), 0));
+          dto.setAccessLevel(
+              row[1] == null
+                  ? TaskAccessLevel.OWNER
+                  : TaskAccessLevel.fromPermission(PermissionLevel.valueOf((String) row[1])));
+          return dto;
+        });
+  }
+
+  /**
+   * Map a page of listed tasks. The subtask progress of the whole page comes from one grouped
+   * count, so the subtask collection of each task is never loaded.
+   */
+  private Page<TaskResponseDTO> toListing(Page<Task> tasks, LocalDateTime now) {
+    return new PageImpl<>(
+        toListing(tasks.getContent(), now), tasks.getPageable(), tasks.getTotalElements());
+  }
+
+  private List<TaskResponseDTO> toListing(List<Task> tasks, LocalDateTime now) {
+    Map<Long, Integer> progress = subtaskProgress(tasks.stream().map(Task::getId).toList());
+    return tasks.stream()
+        .map(
+            task -> {
+              TaskResponseDTO dto = taskMapper.toResponseDTO(task, now);
+              dto.setSubtaskProgress(progress.getOrDefault(task.getId(), 0));
+              return dto;
+            })
+        .toList();
+  }
+
+  private Map<Long, Integer> subtaskProgress(List<Long> taskIds) {
+    if (taskIds.isEmpty()) {
+      return Map.of();
+    }
+    return taskMapper.toSubtaskProgress(taskRepository.countSubtasksByParentIds(taskIds));
+  }
+
+  /** Which tasks a combined listing includes. */
+  public enum ListingScope {
+    ALL,
+    OWNED,
+    SHARED
   }
 
   public TaskResponseDTO createSubtask(Long parentTaskId, TaskCreateDTO createDTO, Long userId) {
@@ -409,14 +678,11 @@ public class TaskService {
                     new ResourceNotFoundException(
                         "Parent task not found with ID: " + parentTaskId));
 
-    if (!hasEditPermission(parentTask, userId)) {
+    if (!accessResolver.canEdit(parentTask, userId)) {
       throw new IllegalArgumentException("User does not have edit permission for the parent task");
     }
 
-    User user =
-        userRepository
-            .findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+    User user = userRepository.getReferenceById(userId);
 
     Task subtask = taskMapper.toEntity(createDTO, user);
 
@@ -445,6 +711,7 @@ public class TaskService {
     subtask.setParentTask(parentTask);
 
     Task savedSubtask = taskRepository.save(subtask);
+    syncChangeLog.taskChanged(savedSubtask.getId(), userId);
 
     logger.info(
         "Subtask created with ID: {} for parent task ID: {} at depth: {}",
@@ -457,24 +724,13 @@ public class TaskService {
   public List<TaskResponseDTO> getSubtasks(Long parentTaskId, Long userId) {
     logger.debug("Fetching subtasks for parent task ID: {} by user ID: {}", parentTaskId, userId);
 
-    Task parentTask =
-        taskRepository
-            .findById(parentTaskId)
-            .orElseThrow(
-                () ->
-                    new ResourceNotFoundException(
-                        "Parent task not found with ID: " + parentTaskId));
-
-    if (!hasTaskAccess(parentTask, userId)) {
-      throw new IllegalArgumentException("User does not have access to this task");
-    }
+    // Only the parent's access matters here, so the parent itself is not loaded
+    requireReadAccess(parentTaskId, userId);
 
-    List<Task> subtasks = taskRepository.findByParentTaskId(parentTaskId);
+    List<Task> subtasks = taskRepository.findByParentTaskIdInOrder(parentTaskId);
 
     logger.debug("Found {} subtasks for parent task ID: {}", subtasks.size(), parentTaskId);
-    return subtasks.stream()
-        .map(taskMapper::toResponseDTO)
-        .collect(java.util.stream.Collectors.toList());
+    return toListing(subtasks, LocalDateTime.now());
   }
 
   /**
@@ -487,20 +743,13 @@ public class TaskService {
   public RecurrencePattern getRecurrencePattern(Long taskId, Long userId) {
     logger.debug("Fetching recurrence pattern for task ID: {} by user ID: {}", taskId, userId);
 
-    Task task =
-        taskRepository
-            .findById(taskId)
-            .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
-
-    if (!hasTaskAccess(task, userId)) {
-      throw new IllegalArgumentException("User does not have access to this task");
-    }
+    requireReadAccess(taskId, userId);
 
     return recurrencePatternRepository.findByTaskId(taskId).orElse(null);
   }
 
   /**
-   * Batch complete multiple tasks.
+   * Batch complete multiple tasks. Tasks the user cannot edit are skipped.
    *
    * @param taskIds the list of task IDs to complete
    * @param userId the user ID
@@ -510,21 +759,23 @@ public class TaskService {
     logger.debug("Batch completing {} tasks for user ID: {}", taskIds.size(), userId);
 
     int completed = 0;
-    for (Long taskId : taskIds) {
+    Map<Long, List<Long>> completedByOwner = new LinkedHashMap<>();
+    for (Task task : loadAccessibleTasks(accessResolver.filterEditable(taskIds, userId))) {
       try {
-        Task task = taskRepository.findById(taskId).orElse(null);
-        if (task != null && task.getUser().getId().equals(userId)) {
-          if (!task.getIsCompleted()) {
-            task.markComplete();
-            taskRepository.save(task);
-            completed++;
-          }
+        if (!task.getIsCompleted()) {
+          task.markComplete();
+          taskRepository.save(task);
+          completedByOwner
+              .computeIfAbsent(task.getUser().getId(), id -> new ArrayList<>())
+              .add(task.getId());
+          completed++;
         }
       } catch (Exception e) {
-        logger.warn("Failed to complete task ID: {} - {}", taskId, e.getMessage());
+        logger.warn("Failed to complete task ID: {} - {}", task.getId(), e.getMessage());
       }
     }
 
+    completedByOwner.forEach((ownerId, ids) -> syncChangeLog.tasksChanged(ids, ownerId));
     logger.info("Batch completed {} tasks for user ID: {}", completed, userId);
   }
 
@@ -539,15 +790,14 @@ public class TaskService {
     logger.debug("Batch deleting {} tasks for user ID: {}", taskIds.size(), userId);
 
     int deleted = 0;
-    for (Long taskId : taskIds) {
+    List<Task> tasks = loadAccessibleTasks(accessResolver.filterOwned(taskIds, userId));
+    logDeletion(tasks);
+    for (Task task : tasks) {
       try {
-        Task task = taskRepository.findById(taskId).orElse(null);
-        if (task != null && task.getUser().getId().equals(userId)) {
-          taskRepository.delete(task);
-          deleted++;
-        }
+        taskRepository.delete(task);
+        deleted++;
       } catch (Exception e) {
-        logger.warn("Failed to delete task ID: {} - {}", taskId, e.getMessage());
+        logger.warn("Failed to delete task ID: {} - {}", task.getId(), e.getMessage());
       }
     }
 
@@ -579,19 +829,19 @@ public class TaskService {
     }
 
     int updated = 0;
-    for (Long taskId : taskIds) {
+    List<Long> updatedIds = new ArrayList<>();
+    for (Task task : loadAccessibleTasks(accessResolver.filterOwned(taskIds, userId))) {
       try {
-        Task task = taskRepository.findById(taskId).orElse(null);
-        if (task != null && task.getUser().getId().equals(userId)) {
-          task.setCategory(category);
-          taskRepository.save(task);
-          updated++;
-        }
+        task.setCategory(category);
+        taskRepository.save(task);
+        updatedIds.add(task.getId());
+        updated++;
       } catch (Exception e) {
-        logger.warn("Failed to update category for task ID: {} - {}", taskId, e.getMessage());
+        logger.warn("Failed to update category for task ID: {} - {}", task.getId(), e.getMessage());
       }
     }
 
+    syncChangeLog.tasksChanged(updatedIds, userId);
     logger.info("Batch updated category for {} tasks by user ID: {}", updated, userId);
   }
 
@@ -615,22 +865,57 @@ public class TaskService {
     }
 
     int updated = 0;
-    for (Long taskId : taskIds) {
+    List<Long> updatedIds = new ArrayList<>();
+    for (Task task : loadAccessibleTasks(accessResolver.filterOwned(taskIds, userId))) {
       try {
-        Task task = taskRepository.findById(taskId).orElse(null);
-        if (task != null && task.getUser().getId().equals(userId)) {
-          task.setTags(tags);
-          taskRepository.save(task);
-          updated++;
-        }
+        task.setTags(tags);
+        taskRepository.save(task);
+        updatedIds.add(task.getId());
+        updated++;
       } catch (Exception e) {
-        logger.warn("Failed to update tags for task ID: {} - {}", taskId, e.getMessage());
+        logger.warn("Failed to update tags for task ID: {} - {}", task.getId(), e.getMessage());
       }
     }
 
+    syncChangeLog.tasksChanged(updatedIds, userId);
     logger.info("Batch updated tags for {} tasks by user ID: {}", updated, userId);
   }
 
+  /**
+   * Log sync tombstones for tasks about to be deleted, including the subtasks removed with them.
+   * The whole subtree is resolved with one recursive query, and subtasks are grouped by their own
+   * owner.
+   *
+   * @param tasks the tasks to be deleted
+   */
+  private void logDeletion(Collection<Task> tasks) {
+    if (tasks.isEmpty()) {
+      return;
+    }
+    List<Long> rootIds = tasks.stream().map(Task::getId).toList();
+    Map<Long, List<Long>> idsByOwner = new LinkedHashMap<>();
+    for (Object[] row : taskRepository.findSubtreeOwners(rootIds)) {
+      idsByOwner
+          .computeIfAbsent(((Number) row[1]).longValue(), id -> new ArrayList<>())
+          .add(((Number) row[0]).longValue());
+    }
+    idsByOwner.forEach((ownerId, ids) -> syncChangeLog.tasksDeleted(ids, ownerId));
+  }
+
+  /**
+   * Load the tasks a batch operation may touch. Permissions have already been resolved for the
+   * whole batch, so this is a single fetch.
+   *
+   * @param taskIds IDs of tasks the user is allowed to modify
+   * @return the tasks
+   */
+  private List<Task> loadAccessibleTasks(Set<Long> taskIds) {
+    if (taskIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return taskRepository.findAllById(taskIds);
+  }
+
   /**
    * Broadcast WebSocket message to task owner and all collaborators
    *
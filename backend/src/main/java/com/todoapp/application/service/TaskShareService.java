@@ -1,22 +1,35 @@
 package com.todoapp.application.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.todoapp.application.dto.BulkShareDTO;
+import com.todoapp.application.dto.BulkShareResultDTO;
 import com.todoapp.application.dto.TaskShareDTO;
 import com.todoapp.domain.model.NotificationType;
+import com.todoapp.domain.model.PermissionLevel;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.TaskShare;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.TaskRepository;
 import com.todoapp.domain.repository.TaskShareRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
 
 @Service
@@ -29,16 +42,28 @@ public class TaskShareService {
   private final TaskRepository taskRepository;
   private final UserRepository userRepository;
   private final NotificationService notificationService;
+  private final TaskAccessResolver accessResolver;
+  private final SyncChangeLog syncChangeLog;
+
+  @Value("${app.task-share.bulk.max-tasks:5000}")
+  private int bulkMaxTasks;
+
+  @Value("${app.task-share.bulk.max-users:100}")
+  private int bulkMaxUsers;
 
   public TaskShareService(
       TaskShareRepository taskShareRepository,
       TaskRepository taskRepository,
       UserRepository userRepository,
-      NotificationService notificationService) {
+      NotificationService notificationService,
+      TaskAccessResolver accessResolver,
+      SyncChangeLog syncChangeLog) {
     this.taskShareRepository = taskShareRepository;
     this.taskRepository = taskRepository;
     this.userRepository = userRepository;
     this.notificationService = notificationService;
+    this.accessResolver = accessResolver;
+    this.syncChangeLog = syncChangeLog;
   }
 
   public TaskShareDTO shareTask(Long taskId, TaskShareDTO shareDTO, Long sharingUserId) {
@@ -59,7 +84,7 @@ public class TaskShareService {
             .orElseThrow(
                 () -> new ResourceNotFoundException("User not found with ID: " + sharingUserId));
 
-    if (!task.getUser().getId().equals(sharingUserId)) {
+    if (!accessResolver.isOwner(task, sharingUserId)) {
       throw new IllegalArgumentException("Only the task owner can share the task");
     }
 
@@ -92,6 +117,9 @@ public class TaskShareService {
     }
 
     TaskShare savedShare = taskShareRepository.save(taskShare);
+    accessResolver.invalidate(taskId, shareDTO.getSharedWithUserId());
+    syncChangeLog.shareChanged(
+        savedShare.getId(), taskId, task.getUser().getId(), shareDTO.getSharedWithUserId());
 
     // Send notification to the user the task is shared with
     if (!existingShare.isPresent()) {
@@ -106,6 +134,94 @@ public class TaskShareService {
     return toDTO(savedShare);
   }
 
+  /**
+   * Share many tasks with many users at once. New shares are inserted with one INSERT ... SELECT
+   * and existing shares get the new permission with one UPDATE. Each recipient receives a single
+   * digest notification for the tasks newly shared with them, and the access cache is invalidated
+   * once for all pairs.
+   *
+   * @param bulkShareDTO The tasks, users and permission
+   * @param sharingUserId The ID of the task owner
+   * @return Counts of shared tasks and created/updated shares
+   */
+  public BulkShareResultDTO bulkShare(BulkShareDTO bulkShareDTO, Long sharingUserId) {
+    bulkShareDTO.validate();
+
+    User sharingUser =
+        userRepository
+            .findById(sharingUserId)
+            .orElseThrow(
+                () -> new ResourceNotFoundException("User not found with ID: " + sharingUserId));
+
+    Set<Long> userIds = new LinkedHashSet<>(bulkShareDTO.getUserIds());
+    if (userIds.contains(sharingUserId)) {
+      throw new IllegalArgumentException("Cannot share task with yourself");
+    }
+    if (userIds.size() > bulkMaxUsers) {
+      throw new IllegalArgumentException(
+          "Cannot share with more than " + bulkMaxUsers + " users at once");
+    }
+    List<User> recipients = userRepository.findAllById(userIds);
+    if (recipients.size() != userIds.size()) {
+      throw new ResourceNotFoundException("One or more users not found");
+    }
+
+    Set<Long> taskIds = collectOwnedTaskIds(bulkShareDTO, sharingUserId);
+    if (taskIds.size() > bulkMaxTasks) {
+      throw new IllegalArgumentException(
+          "Cannot share more than " + bulkMaxTasks + " tasks at once");
+    }
+    if (taskIds.isEmpty()) {
+      logger.info("Bulk share by user ID {} selected no owned tasks", sharingUserId);
+      return new BulkShareResultDTO(0, userIds.size(), 0, 0);
+    }
+
+    // Tasks already shared with each recipient; only the rest is announced
+    Map<Long, Integer> alreadyShared = new HashMap<>();
+    for (Object[] pair : taskShareRepository.findSharePairs(taskIds, userIds)) {
+      alreadyShared.merge((Long) pair[1], 1, Integer::sum);
+    }
+
+    PermissionLevel permission = bulkShareDTO.getPermissionLevel();
+    int updated = taskShareRepository.updatePermissions(taskIds, userIds, permission);
+    int created =
+        taskShareRepository.insertMissingShares(
+            taskIds, userIds, sharingUserId, permission, LocalDateTime.now());
+    accessResolver.invalidate(taskIds, userIds);
+    syncChangeLog.sharesChanged(taskShareRepository.findShareRows(taskIds, userIds), sharingUserId);
+
+    logger.info(
+        "Bulk shared {} tasks with {} users by user ID {}: {} created, {} updated",
+        taskIds.size(),
+        userIds.size(),
+        sharingUserId,
+        created,
+        updated);
+
+    Task singleTask =
+        taskIds.size() == 1
+            ? taskRepository.findById(taskIds.iterator().next()).orElse(null)
+            : null;
+    List<User> notified =
+        recipients.stream()
+            .filter(recipient -> alreadyShared.getOrDefault(recipient.getId(), 0) < taskIds.size())
+            .collect(Collectors.toList());
+    if (!notified.isEmpty()) {
+      notificationService.createNotifications(
+          notified,
+          NotificationType.TASK_SHARED,
+          recipient ->
+              bulkShareMessage(
+                  singleTask,
+                  taskIds.size() - alreadyShared.getOrDefault(recipient.getId(), 0),
+                  sharingUser,
+                  permission),
+          singleTask);
+    }
+
+    return new BulkShareResultDTO(taskIds.size(), userIds.size(), created, updated);
+  }
+
   public void revokeShare(Long taskId, Long sharedWithUserId, Long userId) {
     logger.info(
         "Revoking share for task ID {} from user ID {} by user ID {}",
@@ -118,7 +234,7 @@ public class TaskShareService {
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!task.getUser().getId().equals(userId)) {
+    if (!accessResolver.isOwner(task, userId)) {
       throw new IllegalArgumentException("Only the task owner can revoke shares");
     }
 
@@ -128,12 +244,23 @@ public class TaskShareService {
             .orElseThrow(() -> new ResourceNotFoundException("Task share not found for this user"));
 
     taskShareRepository.delete(taskShare);
+    accessResolver.invalidate(taskId, sharedWithUserId);
+    syncChangeLog.shareDeleted(taskShare.getId(), taskId, task.getUser().getId(), sharedWithUserId);
     logger.info("Share revoked successfully");
   }
 
   @Transactional(readOnly = true)
-  public List<TaskShareDTO> getTaskShares(Long taskId) {
+  public List<TaskShareDTO> getTaskShares(Long taskId, Long userId) {
     logger.info("Fetching all shares for task ID {}", taskId);
+
+    TaskAccessLevel level =
+        accessResolver
+            .accessLevel(taskId, userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
+    if (!level.canRead()) {
+      throw new IllegalArgumentException("User does not have access to this task");
+    }
+
     List<TaskShare> shares = taskShareRepository.findByTaskId(taskId);
     return shares.stream().map(this::toDTO).collect(Collectors.toList());
   }
@@ -145,11 +272,63 @@ public class TaskShareService {
     return shares.stream().map(this::toDTO).collect(Collectors.toList());
   }
 
+  /**
+   * Find the users a user works with through shared tasks, e.g. to limit whom mention autocomplete
+   * reveals.
+   *
+   * @param userId The user ID
+   * @return The IDs of the connected users, without the user
+   */
+  @Transactional(readOnly = true)
+  public Set<Long> getCollaboratorIds(Long userId) {
+    Set<Long> collaborators = new HashSet<>(taskShareRepository.findConnectedUserIds(userId));
+    collaborators.remove(userId);
+    return collaborators;
+  }
+
   @Transactional(readOnly = true)
   public Optional<TaskShare> getTaskShareForUser(Long taskId, Long userId) {
     return taskShareRepository.findByTaskIdAndSharedWithUserId(taskId, userId);
   }
 
+  /**
+   * Resolve the owned tasks a bulk share applies to: the listed tasks and the category, plus their
+   * subtasks level by level when requested. Subtasks are bounded by the maximum nesting depth, so
+   * this takes at most a handful of queries.
+   */
+  private Set<Long> collectOwnedTaskIds(BulkShareDTO bulkShareDTO, Long ownerId) {
+    Set<Long> requested = new LinkedHashSet<>();
+    if (bulkShareDTO.getTaskIds() != null) {
+      requested.addAll(bulkShareDTO.getTaskIds());
+    }
+    Set<Long> taskIds = new LinkedHashSet<>(accessResolver.filterOwned(requested, ownerId));
+    if (bulkShareDTO.getCategoryId() != null) {
+      taskIds.addAll(
+          taskRepository.findIdsByUserIdAndCategoryId(ownerId, bulkShareDTO.getCategoryId()));
+    }
+
+    if (bulkShareDTO.isIncludeSubtasks()) {
+      List<Long> frontier = new ArrayList<>(taskIds);
+      while (!frontier.isEmpty() && taskIds.size() <= bulkMaxTasks) {
+        List<Long> children = taskRepository.findChildIds(ownerId, frontier);
+        frontier = children.stream().filter(taskIds::add).collect(Collectors.toList());
+      }
+    }
+    return taskIds;
+  }
+
+  private String bulkShareMessage(
+      Task singleTask, int taskCount, User sharingUser, PermissionLevel permission) {
+    if (singleTask != null) {
+      return String.format(
+          "Task '%s' has been shared with you by %s with %s permission",
+          singleTask.getDescription(), sharingUser.getEmail(), permission);
+    }
+    return String.format(
+        "%d tasks have been shared with you by %s with %s permission",
+        taskCount, sharingUser.getEmail(), permission);
+  }
+
   private TaskShareDTO toDTO(TaskShare taskShare) {
     TaskShareDTO dto = new TaskShareDTO();
     dto.setId(taskShare.getId());
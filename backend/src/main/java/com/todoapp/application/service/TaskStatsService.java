@@ -0,0 +1,90 @@
+package com.todoapp.application.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.todoapp.application.dto.TaskStatsDTO;
+import com.todoapp.application.dto.TaskStatsDTO.DailyCompletions;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.infrastructure.persistence.TaskStatsStore;
+import com.todoapp.infrastructure.persistence.TaskStatsStore.StoredStats;
+
+/**
+ * Dashboard numbers of a user's tasks, read from the counters that {@link TaskStatsStore} keeps per
+ * user instead of counting the tasks on every request.
+ */
+@Service
+public class TaskStatsService {
+
+  private static final Logger logger = LoggerFactory.getLogger(TaskStatsService.class);
+
+  private static final StoredStats NO_TASKS =
+      new StoredStats(0, 0, 0, 0, 0, 0, List.of(), List.of());
+
+  private final TaskStatsStore taskStatsStore;
+
+  @Value("${app.task-stats.history-days-max:365}")
+  private int historyDaysMax;
+
+  public TaskStatsService(TaskStatsStore taskStatsStore) {
+    this.taskStatsStore = taskStatsStore;
+  }
+
+  /**
+   * Get the dashboard numbers of a user.
+   *
+   * @param userId The user ID
+   * @param historyDays The number of days of completion history, today included
+   * @return The counters, overdue count and completion history
+   */
+  public TaskStatsDTO getStats(Long userId, int historyDays) {
+    if (historyDays < 1 || historyDays > historyDaysMax) {
+      throw new IllegalArgumentException(
+          "History days must be between 1 and " + historyDaysMax + ", got " + historyDays);
+    }
+    LocalDateTime now = LocalDateTime.now();
+    LocalDate since = now.toLocalDate().minusDays(historyDays - 1L);
+    logger.debug("Fetching task stats for user ID: {} since {}", userId, since);
+
+    StoredStats stats = taskStatsStore.find(userId, now, since).orElse(NO_TASKS);
+
+    Map<Priority, Long> openByPriority = new EnumMap<>(Priority.class);
+    openByPriority.put(Priority.LOW, stats.openLow());
+    openByPriority.put(Priority.MEDIUM, stats.openMedium());
+    openByPriority.put(Priority.HIGH, stats.openHigh());
+
+    return new TaskStatsDTO(
+        stats.total(),
+        stats.completed(),
+        stats.total() - stats.completed(),
+        stats.overdue(),
+        openByPriority,
+        stats.categories(),
+        fillDays(stats.history(), since, now.toLocalDate()),
+        now);
+  }
+
+  /** Turn the stored days with completions into one entry per day, with zero for the others. */
+  private static List<DailyCompletions> fillDays(
+      List<DailyCompletions> stored, LocalDate since, LocalDate today) {
+    Map<LocalDate, Long> byDate = new HashMap<>();
+    for (DailyCompletions day : stored) {
+      byDate.put(day.date(), day.completed());
+    }
+    List<DailyCompletions> days = new ArrayList<>();
+    for (LocalDate date = since; !date.isAfter(today); date = date.plusDays(1)) {
+      days.add(new DailyCompletions(date, byDate.getOrDefault(date, 0L)));
+    }
+    return days;
+  }
+}
@@ -1,21 +1,30 @@
 package com.todoapp.application.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todoapp.application.dto.TimeEntryDTO;
 import com.todoapp.application.mapper.TimeEntryMapper;
 import com.todoapp.domain.model.EntryType;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.TimeEntry;
 import com.todoapp.domain.repository.TaskRepository;
 import com.todoapp.domain.repository.TimeEntryRepository;
 import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +43,9 @@ public class TimeTrackingService {
   private final TimeEntryRepository timeEntryRepository;
   private final TaskRepository taskRepository;
   private final TimeEntryMapper timeEntryMapper;
+  private final TaskAccessResolver accessResolver;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
 
   /**
    * Start a timer for a task.
@@ -43,13 +55,13 @@ public class TimeTrackingService {
    * @param notes optional notes
    * @return the created time entry
    * @throws ResourceNotFoundException if task not found
-   * @throws IllegalArgumentException if user does not own task
+   * @throws IllegalArgumentException if user cannot edit the task
    * @throws IllegalStateException if an active timer already exists for this task
    */
   public TimeEntryDTO startTimer(Long taskId, Long userId, String notes) {
     log.debug("Starting timer for task ID: {} by user ID: {}", taskId, userId);
 
-    Task task = getTaskAndValidateOwnership(taskId, userId);
+    Task task = getTaskAndValidateEditAccess(taskId, userId);
 
     Optional<TimeEntry> activeTimer = timeEntryRepository.findActiveTimerForTask(taskId, userId);
     if (activeTimer.isPresent()) {
@@ -121,7 +133,7 @@ public class TimeTrackingService {
    * @param loggedAt when the time was logged (null for now)
    * @return the created time entry
    * @throws ResourceNotFoundException if task not found
-   * @throws IllegalArgumentException if user does not own task or duration is invalid
+   * @throws IllegalArgumentException if user cannot edit the task or duration is invalid
    */
   public TimeEntryDTO logManualTime(
       Long taskId, Long userId, Integer durationMinutes, String notes, LocalDateTime loggedAt) {
@@ -131,7 +143,7 @@ public class TimeTrackingService {
         userId,
         durationMinutes);
 
-    Task task = getTaskAndValidateOwnership(taskId, userId);
+    Task task = getTaskAndValidateEditAccess(taskId, userId);
 
     if (durationMinutes == null || durationMinutes <= 0) {
       throw new IllegalArgumentException("Duration must be positive");
@@ -169,7 +181,7 @@ public class TimeTrackingService {
   public List<TimeEntryDTO> getTimeEntriesForTask(Long taskId, Long userId) {
     log.debug("Fetching time entries for task ID: {} by user ID: {}", taskId, userId);
 
-    Task task = getTaskAndValidateAccess(taskId, userId);
+    validateReadAccess(taskId, userId);
 
     List<TimeEntry> entries = timeEntryRepository.findByTaskIdOrderByCreatedAtDesc(taskId);
 
@@ -189,7 +201,7 @@ public class TimeTrackingService {
   public Optional<TimeEntryDTO> getActiveTimer(Long taskId, Long userId) {
     log.debug("Checking for active timer on task ID: {} by user ID: {}", taskId, userId);
 
-    Task task = getTaskAndValidateAccess(taskId, userId);
+    validateReadAccess(taskId, userId);
 
     Optional<TimeEntry> activeTimer = timeEntryRepository.findActiveTimerForTask(taskId, userId);
 
@@ -262,6 +274,47 @@ public class TimeTrackingService {
     return entries.stream().map(timeEntryMapper::toDTO).collect(Collectors.toList());
   }
 
+  /**
+   * Write the time report of a user for a date range as JSON while the entries are read: the
+   * entries, the total minutes and the range. Entries are streamed from the database and detached
+   * once written, so a long report is never held in memory as a whole.
+   *
+   * @param userId the user ID
+   * @param startDate the start date
+   * @param endDate the end date
+   * @param out the response stream
+   * @throws IOException if the client went away
+   */
+  public void writeTimeReport(
+      Long userId, LocalDateTime startDate, LocalDateTime endDate, OutputStream out)
+      throws IOException {
+    log.debug("Writing time report for user ID: {} from {} to {}", userId, startDate, endDate);
+    int totalMinutes = getTotalTimeForUserInRange(userId, startDate, endDate);
+
+    int written = 0;
+    try (JsonGenerator generator =
+            objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        Stream<TimeEntry> entries =
+            timeEntryRepository.streamByUserIdAndDateRange(userId, startDate, endDate)) {
+      // The container owns the response stream
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("entries");
+      for (Iterator<TimeEntry> it = entries.iterator(); it.hasNext(); ) {
+        TimeEntry entry = it.next();
+        generator.writeObject(timeEntryMapper.toDTO(entry));
+        entityManager.detach(entry);
+        written++;
+      }
+      generator.writeEndArray();
+      generator.writeNumberField("totalMinutes", totalMinutes);
+      generator.writeObjectField("startDate", startDate);
+      generator.writeObjectField("endDate", endDate);
+      generator.writeEndObject();
+    }
+    log.debug("Wrote {} time entries for user ID: {}", written, userId);
+  }
+
   /**
    * Delete a time entry.
    *
@@ -319,29 +372,28 @@ public class TimeTrackingService {
     return timeEntryMapper.toDTO(savedEntry);
   }
 
-  private Task getTaskAndValidateOwnership(Long taskId, Long userId) {
+  private Task getTaskAndValidateEditAccess(Long taskId, Long userId) {
     Task task =
         taskRepository
             .findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!task.getUser().getId().equals(userId)) {
-      throw new IllegalArgumentException("User does not own this task");
+    // Logging time counts as editing, so collaborators with EDIT permission may track time too
+    if (!accessResolver.canEdit(task, userId)) {
+      throw new IllegalArgumentException("User does not have edit permission for this task");
     }
 
     return task;
   }
 
-  private Task getTaskAndValidateAccess(Long taskId, Long userId) {
-    Task task =
-        taskRepository
-            .findById(taskId)
+  private void validateReadAccess(Long taskId, Long userId) {
+    TaskAccessLevel access =
+        accessResolver
+            .accessLevel(taskId, userId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-    if (!task.getUser().getId().equals(userId)) {
+    if (!access.canRead()) {
       throw new IllegalArgumentException("User does not have access to this task");
     }
-
-    return task;
   }
 }
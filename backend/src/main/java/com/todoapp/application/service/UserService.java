@@ -1,5 +1,9 @@
 package com.todoapp.application.service;
 
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +22,8 @@ public class UserService {
 
   private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+  private static final int MAX_HANDLE_BASE_LENGTH = 30;
+
   @Autowired private UserRepository userRepository;
 
   @Autowired private PasswordEncoder passwordEncoder;
@@ -36,6 +42,7 @@ public class UserService {
     user.setEmail(registerDTO.getEmail());
     user.setPasswordHash(passwordEncoder.encode(registerDTO.getPassword()));
     user.setFullName(registerDTO.getFullName());
+    user.setUsername(freeUsername(registerDTO.getEmail()));
     user.setIsActive(true);
     user.setEmailVerified(false);
 
@@ -65,4 +72,33 @@ public class UserService {
         .findById(userId)
         .orElseThrow(() -> new RuntimeException("User not found"));
   }
+
+  /**
+   * Pick a free mention handle for a new user: the local part of the email reduced to letters,
+   * digits and underscores, with a number appended if it is taken. All taken candidates are read
+   * with one prefix query.
+   *
+   * @param email The email of the new user
+   * @return A handle no other user has
+   */
+  private String freeUsername(String email) {
+    String base =
+        email
+            .substring(0, Math.max(email.indexOf('@'), 0))
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("[^a-z0-9_]", "");
+    if (base.isEmpty()) {
+      base = "user";
+    }
+    if (base.length() > MAX_HANDLE_BASE_LENGTH) {
+      base = base.substring(0, MAX_HANDLE_BASE_LENGTH);
+    }
+
+    Set<String> taken = new HashSet<>(userRepository.findUsernamesStartingWith(base));
+    String candidate = base;
+    for (int suffix = 2; taken.contains(candidate); suffix++) {
+      candidate = base + suffix;
+    }
+    return candidate;
+  }
 }
@@ -0,0 +1,11 @@
+package com.todoapp.domain.event;
+
+import java.util.UUID;
+
+/**
+ * Published when the bytes of an asynchronous upload have been staged and its attachment row
+ * created, so the transfer to object storage can continue in the background.
+ *
+ * @param attachmentId The ID of the staged attachment
+ */
+public record AttachmentStagedEvent(UUID attachmentId) {}
@@ -0,0 +1,16 @@
+package com.todoapp.domain.event;
+
+import java.util.UUID;
+
+import com.todoapp.domain.model.VirusScanStatus;
+
+/**
+ * Published whenever a file attachment moves to a new upload or scan status.
+ *
+ * @param attachmentId The ID of the attachment
+ * @param taskId The ID of the task the attachment belongs to
+ * @param userId The ID of the uploading user
+ * @param status The new status
+ */
+public record AttachmentStatusChangedEvent(
+    UUID attachmentId, Long taskId, Long userId, VirusScanStatus status) {}
@@ -0,0 +1,9 @@
+package com.todoapp.domain.event;
+
+/**
+ * Published when an import file has been staged and its job created, so the import can run in the
+ * background.
+ *
+ * @param jobId The ID of the import job
+ */
+public record ImportJobCreatedEvent(Long jobId) {}
@@ -0,0 +1,23 @@
+package com.todoapp.domain.event;
+
+/**
+ * Published whenever the number of unread notifications of a user changes.
+ *
+ * @param userId The ID of the user
+ * @param delta The change in the unread count; ignored when {@code reset} is set
+ * @param reset Whether all notifications of the user are now read
+ */
+public record UnreadNotificationsChangedEvent(Long userId, long delta, boolean reset) {
+
+  public static UnreadNotificationsChangedEvent added(Long userId) {
+    return new UnreadNotificationsChangedEvent(userId, 1, false);
+  }
+
+  public static UnreadNotificationsChangedEvent removed(Long userId) {
+    return new UnreadNotificationsChangedEvent(userId, -1, false);
+  }
+
+  public static UnreadNotificationsChangedEvent cleared(Long userId) {
+    return new UnreadNotificationsChangedEvent(userId, 0, true);
+  }
+}
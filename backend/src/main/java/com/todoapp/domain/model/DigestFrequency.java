@@ -0,0 +1,29 @@
+package com.todoapp.domain.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/** How often notifications of a type are delivered to a user. */
+public enum DigestFrequency {
+  IMMEDIATE, // Every notification is delivered on its own
+  HOURLY, // Collected into one digest at the top of every hour
+  DAILY; // Collected into one digest per day
+
+  /**
+   * The end of the digest window a notification created at the given time falls into.
+   *
+   * @param now The time the notification is created
+   * @param dailyHour The hour of the day daily digests are delivered at
+   * @return The time the digest is due; {@code now} for immediate delivery
+   */
+  public LocalDateTime windowEnd(LocalDateTime now, int dailyHour) {
+    return switch (this) {
+      case IMMEDIATE -> now;
+      case HOURLY -> now.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+      case DAILY -> {
+        LocalDateTime today = now.toLocalDate().atTime(dailyHour, 0);
+        yield now.isBefore(today) ? today : today.plusDays(1);
+      }
+    };
+  }
+}
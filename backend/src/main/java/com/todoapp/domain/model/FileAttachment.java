@@ -46,6 +46,18 @@ public class FileAttachment {
   @Column(name = "scanned_at")
   private LocalDateTime scannedAt;
 
+  @Column(name = "claimed_at")
+  private LocalDateTime claimedAt;
+
+  @Column(name = "thumbnail_key", unique = true, length = 500)
+  private String thumbnailKey;
+
+  @Column(name = "thumbnail_generated_at")
+  private LocalDateTime thumbnailGeneratedAt;
+
+  @Column(name = "preview_requested_at")
+  private LocalDateTime previewRequestedAt;
+
   // Maximum file size: 25MB
   private static final long MAX_FILE_SIZE = 25 * 1024 * 1024;
 
@@ -131,7 +143,11 @@ public class FileAttachment {
 
   public void setScanStatus(VirusScanStatus scanStatus) {
     this.scanStatus = scanStatus;
-    if (scanStatus != VirusScanStatus.PENDING && this.scannedAt == null) {
+    if (scanStatus != VirusScanStatus.PENDING
+        && scanStatus != VirusScanStatus.STAGED
+        && scanStatus != VirusScanStatus.STORING
+        && scanStatus != VirusScanStatus.UPLOAD_FAILED
+        && this.scannedAt == null) {
       this.scannedAt = LocalDateTime.now();
     }
   }
@@ -152,6 +168,38 @@ public class FileAttachment {
     this.scannedAt = scannedAt;
   }
 
+  public LocalDateTime getClaimedAt() {
+    return claimedAt;
+  }
+
+  public void setClaimedAt(LocalDateTime claimedAt) {
+    this.claimedAt = claimedAt;
+  }
+
+  public String getThumbnailKey() {
+    return thumbnailKey;
+  }
+
+  public void setThumbnailKey(String thumbnailKey) {
+    this.thumbnailKey = thumbnailKey;
+  }
+
+  public LocalDateTime getThumbnailGeneratedAt() {
+    return thumbnailGeneratedAt;
+  }
+
+  public void setThumbnailGeneratedAt(LocalDateTime thumbnailGeneratedAt) {
+    this.thumbnailGeneratedAt = thumbnailGeneratedAt;
+  }
+
+  public LocalDateTime getPreviewRequestedAt() {
+    return previewRequestedAt;
+  }
+
+  public void setPreviewRequestedAt(LocalDateTime previewRequestedAt) {
+    this.previewRequestedAt = previewRequestedAt;
+  }
+
   // Business Methods
 
   /**
@@ -237,6 +285,15 @@ public class FileAttachment {
         || this.scanStatus == VirusScanStatus.SCAN_FAILED;
   }
 
+  /**
+   * Checks if a preview image has been generated for this attachment.
+   *
+   * @return true if a thumbnail is available, false otherwise
+   */
+  public boolean hasThumbnail() {
+    return this.thumbnailKey != null;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,155 @@
+package com.todoapp.domain.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.*;
+
+/**
+ * A background import of an exported task file. {@code processedRecords} is committed together with
+ * each imported chunk, so an interrupted job resumes after the last committed record.
+ */
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false, length = 20)
+  private ImportJobStatus status = ImportJobStatus.PENDING;
+
+  @Column(name = "file_name", length = 255)
+  private String fileName;
+
+  @Column(name = "total_records", nullable = false)
+  private long totalRecords;
+
+  @Column(name = "processed_records", nullable = false)
+  private long processedRecords;
+
+  @Column(name = "error_message", length = 1000)
+  private String errorMessage;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  /** Advanced with every chunk; a RUNNING job that stops advancing is picked up again. */
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+
+  // Constructors
+
+  public ImportJob() {}
+
+  public ImportJob(Long userId, String fileName) {
+    this.userId = userId;
+    this.fileName = fileName;
+    this.updatedAt = LocalDateTime.now();
+  }
+
+  // Getters and Setters
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public ImportJobStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(ImportJobStatus status) {
+    this.status = status;
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public void setFileName(String fileName) {
+    this.fileName = fileName;
+  }
+
+  public long getTotalRecords() {
+    return totalRecords;
+  }
+
+  public void setTotalRecords(long totalRecords) {
+    this.totalRecords = totalRecords;
+  }
+
+  public long getProcessedRecords() {
+    return processedRecords;
+  }
+
+  public void setProcessedRecords(long processedRecords) {
+    this.processedRecords = processedRecords;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public LocalDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(LocalDateTime updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  public LocalDateTime getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(LocalDateTime completedAt) {
+    this.completedAt = completedAt;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof ImportJob)) return false;
+    ImportJob that = (ImportJob) o;
+    return id != null && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
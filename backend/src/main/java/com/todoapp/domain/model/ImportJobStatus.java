@@ -0,0 +1,8 @@
+package com.todoapp.domain.model;
+
+public enum ImportJobStatus {
+  PENDING, // File staged, waiting for a worker
+  RUNNING, // Records are being imported
+  COMPLETED, // Every record was imported
+  FAILED // Stopped on an error; records imported so far are kept
+}
@@ -30,6 +30,9 @@ public class Notification {
   @JoinColumn(name = "related_task_id")
   private Task relatedTask;
 
+  @Column(name = "occurrence_count", nullable = false)
+  private int occurrenceCount = 1;
+
   @Column(name = "is_read", nullable = false)
   private boolean isRead = false;
 
@@ -89,6 +92,14 @@ public class Notification {
     this.relatedTask = relatedTask;
   }
 
+  public int getOccurrenceCount() {
+    return occurrenceCount;
+  }
+
+  public void setOccurrenceCount(int occurrenceCount) {
+    this.occurrenceCount = occurrenceCount;
+  }
+
   public boolean isRead() {
     return isRead;
   }
@@ -126,6 +137,16 @@ public class Notification {
     }
   }
 
+  /**
+   * Collapse a repeated event into this notification. The message is replaced with the latest one.
+   *
+   * @param message The message of the repeated event
+   */
+  public void recordRepeat(String message) {
+    setMessage(message);
+    this.occurrenceCount++;
+  }
+
   /**
    * Check if this notification is unread.
    *
@@ -0,0 +1,154 @@
+package com.todoapp.domain.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.*;
+
+/**
+ * A notification waiting to be delivered as part of a digest. Items reference the user and task by
+ * ID only, so flushing a window never loads the related entities one by one.
+ */
+@Entity
+@Table(name = "notification_digest_items")
+public class NotificationDigestItem {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "type", nullable = false, length = 50)
+  private NotificationType type;
+
+  @Column(name = "message", nullable = false, length = 500)
+  private String message;
+
+  @Column(name = "task_id")
+  private Long taskId;
+
+  @Column(name = "in_app_enabled", nullable = false)
+  private boolean inAppEnabled;
+
+  @Column(name = "email_enabled", nullable = false)
+  private boolean emailEnabled;
+
+  @Column(name = "deliver_at", nullable = false)
+  private LocalDateTime deliverAt;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  // Constructors
+
+  public NotificationDigestItem() {}
+
+  public NotificationDigestItem(
+      Long userId,
+      NotificationType type,
+      String message,
+      Long taskId,
+      boolean inAppEnabled,
+      boolean emailEnabled,
+      LocalDateTime deliverAt) {
+    this.userId = userId;
+    this.type = type;
+    this.message = message;
+    this.taskId = taskId;
+    this.inAppEnabled = inAppEnabled;
+    this.emailEnabled = emailEnabled;
+    this.deliverAt = deliverAt;
+  }
+
+  // Getters and Setters
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public NotificationType getType() {
+    return type;
+  }
+
+  public void setType(NotificationType type) {
+    this.type = type;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+
+  public Long getTaskId() {
+    return taskId;
+  }
+
+  public void setTaskId(Long taskId) {
+    this.taskId = taskId;
+  }
+
+  public boolean isInAppEnabled() {
+    return inAppEnabled;
+  }
+
+  public void setInAppEnabled(boolean inAppEnabled) {
+    this.inAppEnabled = inAppEnabled;
+  }
+
+  public boolean isEmailEnabled() {
+    return emailEnabled;
+  }
+
+  public void setEmailEnabled(boolean emailEnabled) {
+    this.emailEnabled = emailEnabled;
+  }
+
+  public LocalDateTime getDeliverAt() {
+    return deliverAt;
+  }
+
+  public void setDeliverAt(LocalDateTime deliverAt) {
+    this.deliverAt = deliverAt;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof NotificationDigestItem)) return false;
+    NotificationDigestItem that = (NotificationDigestItem) o;
+    return id != null && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
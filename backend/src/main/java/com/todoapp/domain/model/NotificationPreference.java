@@ -36,6 +36,10 @@ public class NotificationPreference {
   @Column(name = "email_enabled", nullable = false)
   private boolean emailEnabled = false;
 
+  @Enumerated(EnumType.STRING)
+  @Column(name = "digest_frequency", nullable = false, length = 20)
+  private DigestFrequency digestFrequency = DigestFrequency.IMMEDIATE;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -95,6 +99,14 @@ public class NotificationPreference {
     this.emailEnabled = emailEnabled;
   }
 
+  public DigestFrequency getDigestFrequency() {
+    return digestFrequency;
+  }
+
+  public void setDigestFrequency(DigestFrequency digestFrequency) {
+    this.digestFrequency = digestFrequency;
+  }
+
   public LocalDateTime getCreatedAt() {
     return createdAt;
   }
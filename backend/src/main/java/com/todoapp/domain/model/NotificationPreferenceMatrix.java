@@ -0,0 +1,159 @@
+package com.todoapp.domain.model;
+
+import java.util.Collection;
+
+/**
+ * All notification preferences of one user packed into a single {@code long}: four bits per {@link
+ * NotificationType}, one for in-app, one for email and two for the {@link DigestFrequency}. Types
+ * without a stored preference hold the defaults (in-app only, immediate delivery).
+ *
+ * <p>Instances are immutable, so one matrix can be shared by every reader of a cache.
+ */
+public final class NotificationPreferenceMatrix {
+
+  private static final int BITS_PER_TYPE = 4;
+  private static final long IN_APP = 0b0001;
+  private static final long EMAIL = 0b0010;
+  private static final int FREQUENCY_SHIFT = 2;
+  private static final long TYPE_MASK = 0b1111;
+
+  private static final NotificationPreferenceMatrix DEFAULTS;
+
+  static {
+    if (NotificationType.values().length * BITS_PER_TYPE > Long.SIZE
+        || DigestFrequency.values().length > 4) {
+      throw new IllegalStateException("Notification preferences no longer fit into a long");
+    }
+    long bits = 0;
+    for (NotificationType type : NotificationType.values()) {
+      bits |= IN_APP << shift(type);
+    }
+    DEFAULTS = new NotificationPreferenceMatrix(bits);
+  }
+
+  private final long bits;
+
+  private NotificationPreferenceMatrix(long bits) {
+    this.bits = bits;
+  }
+
+  /**
+   * The matrix of a user without stored preferences.
+   *
+   * @return The default matrix
+   */
+  public static NotificationPreferenceMatrix defaults() {
+    return DEFAULTS;
+  }
+
+  /**
+   * Build the matrix of a user from the stored preferences; missing types keep the defaults.
+   *
+   * @param preferences The stored preferences of one user
+   * @return The matrix
+   */
+  public static NotificationPreferenceMatrix of(Collection<NotificationPreference> preferences) {
+    NotificationPreferenceMatrix matrix = DEFAULTS;
+    for (NotificationPreference preference : preferences) {
+      matrix =
+          matrix.with(
+              preference.getNotificationType(),
+              preference.isInAppEnabled(),
+              preference.isEmailEnabled(),
+              preference.getDigestFrequency());
+    }
+    return matrix;
+  }
+
+  /**
+   * Restore a matrix from its packed form, e.g. as read from a cache.
+   *
+   * @param bits The packed preferences
+   * @return The matrix
+   */
+  public static NotificationPreferenceMatrix fromBits(long bits) {
+    return bits == DEFAULTS.bits ? DEFAULTS : new NotificationPreferenceMatrix(bits);
+  }
+
+  /**
+   * The packed form of the matrix.
+   *
+   * @return The packed preferences
+   */
+  public long toBits() {
+    return bits;
+  }
+
+  /**
+   * Return a copy with the preference of one type replaced.
+   *
+   * @param type The notification type
+   * @param inAppEnabled Whether in-app notifications are enabled
+   * @param emailEnabled Whether email notifications are enabled
+   * @param frequency How notifications of the type are delivered
+   * @return The new matrix
+   */
+  public NotificationPreferenceMatrix with(
+      NotificationType type,
+      boolean inAppEnabled,
+      boolean emailEnabled,
+      DigestFrequency frequency) {
+    long value =
+        (inAppEnabled ? IN_APP : 0)
+            | (emailEnabled ? EMAIL : 0)
+            | ((long) frequency.ordinal() << FREQUENCY_SHIFT);
+    return new NotificationPreferenceMatrix(
+        (bits & ~(TYPE_MASK << shift(type))) | (value << shift(type)));
+  }
+
+  public boolean isInAppEnabled(NotificationType type) {
+    return (value(type) & IN_APP) != 0;
+  }
+
+  public boolean isEmailEnabled(NotificationType type) {
+    return (value(type) & EMAIL) != 0;
+  }
+
+  public boolean isAnyEnabled(NotificationType type) {
+    return (value(type) & (IN_APP | EMAIL)) != 0;
+  }
+
+  public DigestFrequency getDigestFrequency(NotificationType type) {
+    return DigestFrequency.values()[(int) (value(type) >>> FREQUENCY_SHIFT)];
+  }
+
+  /**
+   * Check if notifications of a type are collected into digests.
+   *
+   * @param type The notification type
+   * @return true if delivery is hourly or daily
+   */
+  public boolean isDigest(NotificationType type) {
+    return getDigestFrequency(type) != DigestFrequency.IMMEDIATE;
+  }
+
+  private long value(NotificationType type) {
+    return (bits >>> shift(type)) & TYPE_MASK;
+  }
+
+  private static int shift(NotificationType type) {
+    return type.ordinal() * BITS_PER_TYPE;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof NotificationPreferenceMatrix)) return false;
+    return bits == ((NotificationPreferenceMatrix) o).bits;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(bits);
+  }
+
+  @Override
+  public String toString() {
+    return "NotificationPreferenceMatrix{" + Long.toHexString(bits) + "}";
+  }
+}
@@ -7,5 +7,6 @@ public enum NotificationType {
   TASK_COMMENTED, // New comment on task
   TASK_MENTIONED, // User was mentioned in comment
   TASK_ASSIGNED, // Task was assigned to user
-  REMINDER // General reminder
+  REMINDER, // General reminder
+  DIGEST // Digest of notifications collected over an hour or a day
 }
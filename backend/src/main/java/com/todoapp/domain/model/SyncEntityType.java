@@ -0,0 +1,10 @@
+package com.todoapp.domain.model;
+
+/** Kinds of entities delivered by delta sync. */
+public enum SyncEntityType {
+  TASK,
+  CATEGORY,
+  TAG,
+  COMMENT,
+  SHARE
+}
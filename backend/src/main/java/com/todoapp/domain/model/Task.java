@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -26,7 +27,10 @@ import lombok.NoArgsConstructor;
       @Index(name = "idx_tasks_priority", columnList = "priority"),
       @Index(name = "idx_tasks_due_date", columnList = "dueDate"),
       @Index(name = "idx_tasks_created_at", columnList = "createdAt"),
-      @Index(name = "idx_tasks_user_completed", columnList = "user_id, isCompleted")
+      @Index(name = "idx_tasks_user_completed", columnList = "user_id, isCompleted"),
+      @Index(
+          name = "idx_tasks_user_parent_position",
+          columnList = "user_id, parent_task_id, position, id")
     })
 @Data
 @NoArgsConstructor
@@ -73,8 +77,9 @@ public class Task {
   @Column(name = "completed_at")
   private LocalDateTime completedAt;
 
+  // Manual order within the parent's list; sparse rank keys, see TaskRank
   @Column(nullable = false)
-  private Integer position = 0;
+  private Long position = 0L;
 
   @Column(name = "estimated_duration_minutes")
   private Integer estimatedDurationMinutes;
@@ -87,6 +92,11 @@ public class Task {
   @Column(nullable = false)
   private Integer depth = 0;
 
+  // Concurrent edits of the same task fail instead of silently overwriting each other
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -95,6 +105,8 @@ public class Task {
   @Column(name = "updated_at", nullable = false)
   private LocalDateTime updatedAt;
 
+  // Tags of every task in a page are loaded together with one IN query
+  @BatchSize(size = 100)
   @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
   @JoinTable(
       name = "task_tags",
@@ -114,7 +126,7 @@ public class Task {
       priority = Priority.MEDIUM;
     }
     if (position == null) {
-      position = 0;
+      position = 0L;
     }
     if (depth == null) {
       depth = 0;
@@ -139,10 +151,18 @@ public class Task {
   }
 
   public boolean isOverdue() {
+    return isOverdue(LocalDateTime.now());
+  }
+
+  /**
+   * Whether the task is overdue at the given time. Listings pass the time of the request, so every
+   * task of a response is judged against the same clock as the query that selected it.
+   */
+  public boolean isOverdue(LocalDateTime now) {
     if (dueDate == null || isCompleted) {
       return false;
     }
-    return LocalDateTime.now().isAfter(dueDate);
+    return now.isAfter(dueDate);
   }
 
   public void markComplete() {
@@ -172,6 +192,10 @@ public class Task {
     if (parentTask == null) {
       return 0;
     }
+    // The stored depth is maintained by setParentTask; avoid walking lazy parents when it is set
+    if (depth != null && depth > 0) {
+      return depth;
+    }
     return parentTask.getDepth() + 1;
   }
 
@@ -189,7 +213,15 @@ public class Task {
     }
 
     long completedCount = subtasks.stream().filter(Task::getIsCompleted).count();
-    return (int) Math.round((completedCount * 100.0) / subtasks.size());
+    return subtaskProgress(completedCount, subtasks.size());
+  }
+
+  /** Completion percentage of a number of subtasks, rounded to the nearest integer. */
+  public static int subtaskProgress(long completedCount, long subtaskCount) {
+    if (subtaskCount == 0) {
+      return 0;
+    }
+    return (int) Math.round((completedCount * 100.0) / subtaskCount);
   }
 
   public boolean hasSubtasks() {
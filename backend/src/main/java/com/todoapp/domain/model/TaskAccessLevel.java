@@ -0,0 +1,28 @@
+package com.todoapp.domain.model;
+
+/** Effective access of a user to a task, combining ownership and shares. */
+public enum TaskAccessLevel {
+  NONE, // Neither owner nor shared with
+  VIEW, // Shared with VIEW permission
+  EDIT, // Shared with EDIT permission
+  OWNER; // Owns the task
+
+  public boolean canRead() {
+    return this != NONE;
+  }
+
+  public boolean canEdit() {
+    return this == EDIT || this == OWNER;
+  }
+
+  public boolean isOwner() {
+    return this == OWNER;
+  }
+
+  public static TaskAccessLevel fromPermission(PermissionLevel permissionLevel) {
+    if (permissionLevel == null) {
+      return NONE;
+    }
+    return permissionLevel == PermissionLevel.EDIT ? EDIT : VIEW;
+  }
+}
@@ -0,0 +1,76 @@
+package com.todoapp.domain.model;
+
+import java.time.Instant;
+import java.util.OptionalLong;
+
+/**
+ * Sparse rank keys for the manual order of tasks ({@code Task.position}). Siblings are ordered by
+ * position ascending, then ID. Positions are spaced apart, so moving a task between two neighbours
+ * only writes the midpoint of their positions to the moved task. Once the neighbours of a move are
+ * adjacent, the list has to be renumbered; a list that is getting close to that is queued for the
+ * background rebalancer.
+ *
+ * <p>All positions stay well within 2<sup>53</sup>, so they survive the round trip through a
+ * JavaScript number.
+ */
+public final class TaskRank {
+
+  /** Distance between neighbouring positions after a rebalance. */
+  public static final long GAP = 1L << 16;
+
+  /** Moves that leave a smaller distance to a neighbour queue the list for a rebalance. */
+  public static final long MIN_GAP = 1L << 5;
+
+  // Distance between tasks created one millisecond apart
+  private static final long NEW_TASK_SPACING = 1L << 10;
+
+  private TaskRank() {}
+
+  /**
+   * The position of a new task, at the top of its list. Derived from the creation time, so a task
+   * can be placed without reading its siblings: later tasks sort before earlier ones, and every
+   * derived position sorts before the positive positions a rebalance assigns.
+   *
+   * @param now The creation time
+   * @return The position
+   */
+  public static long forNewTask(Instant now) {
+    return -now.toEpochMilli() * NEW_TASK_SPACING;
+  }
+
+  /**
+   * The position between two neighbours.
+   *
+   * @param lower The position of the task before, or null at the top of the list
+   * @param upper The position of the task after, or null at the end of the list
+   * @return The position, or empty if the neighbours are adjacent and the list needs a rebalance
+   */
+  public static OptionalLong between(Long lower, Long upper) {
+    if (lower == null && upper == null) {
+      return OptionalLong.of(0);
+    }
+    if (lower == null) {
+      return OptionalLong.of(upper - GAP);
+    }
+    if (upper == null) {
+      return OptionalLong.of(lower + GAP);
+    }
+    if (upper - lower < 2) {
+      return OptionalLong.empty();
+    }
+    return OptionalLong.of(lower + (upper - lower) / 2);
+  }
+
+  /**
+   * Whether a position leaves too little room to one of its neighbours for further moves.
+   *
+   * @param lower The position of the task before, or null at the top of the list
+   * @param position The position
+   * @param upper The position of the task after, or null at the end of the list
+   * @return true if the list should be rebalanced
+   */
+  public static boolean isCrowded(Long lower, long position, Long upper) {
+    return (lower != null && position - lower < MIN_GAP)
+        || (upper != null && upper - position < MIN_GAP);
+  }
+}
@@ -2,6 +2,8 @@ package com.todoapp.domain.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -15,6 +17,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(
     name = "users",
     indexes = {
@@ -42,6 +46,11 @@ public class User {
   @Column(name = "password_hash", nullable = false, length = 255)
   private String passwordHash;
 
+  // Lower-case handle for @mentions; assigned on registration
+  @Size(max = 50, message = "Username must not exceed 50 characters")
+  @Column(unique = true, length = 50)
+  private String username;
+
   @Size(max = 255, message = "Full name must not exceed 255 characters")
   @Column(name = "full_name", length = 255)
   private String fullName;
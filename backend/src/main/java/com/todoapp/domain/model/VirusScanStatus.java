@@ -1,6 +1,9 @@
 package com.todoapp.domain.model;
 
 public enum VirusScanStatus {
+  STAGED, // Bytes accepted and staged locally, not yet in object storage
+  STORING, // Claimed by a worker that is copying the staged bytes to object storage
+  UPLOAD_FAILED, // Staged bytes could not be moved to object storage
   PENDING, // Awaiting virus scan
   SCANNING, // Scan in progress
   CLEAN, // No viruses detected
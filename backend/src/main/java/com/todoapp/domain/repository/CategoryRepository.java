@@ -3,16 +3,28 @@ package com.todoapp.domain.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.todoapp.domain.model.Category;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "reference-data-queries")
+  })
   List<Category> findByUserId(Long userId);
 
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "reference-data-queries")
+  })
   Optional<Category> findByIdAndUserId(Long id, Long userId);
 
   boolean existsByNameAndUserId(String name, Long userId);
@@ -1,27 +1,80 @@
 package com.todoapp.domain.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.todoapp.domain.model.Comment;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-  List<Comment> findByTaskIdOrderByCreatedAtDesc(Long taskId);
+  /**
+   * Find the comment IDs of several tasks in one query. Each row is {@code [taskId, commentId]}.
+   *
+   * @param taskIds The IDs of the tasks
+   * @return The comment IDs with their task
+   */
+  @Query("SELECT c.task.id, c.id FROM Comment c WHERE c.task.id IN :taskIds")
+  List<Object[]> findIdsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 
-  @Query("SELECT c FROM Comment c WHERE c.id = :id AND c.author.id = :authorId")
-  Optional<Comment> findByIdAndAuthorId(@Param("id") Long id, @Param("authorId") Long authorId);
+  /**
+   * Find the newest comments of a task. Served by idx_comments_task_created_desc.
+   *
+   * @param taskId The ID of the task
+   * @param pageable The page size; the page number must be 0
+   * @return The comments, newest first
+   */
+  @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId ORDER BY c.createdAt DESC, c.id DESC")
+  List<Comment> findThreadPage(@Param("taskId") Long taskId, Pageable pageable);
 
+  /**
+   * Find the comments of a task that are older than a keyset position. Served by
+   * idx_comments_task_created_desc.
+   *
+   * @param taskId The ID of the task
+   * @param createdAt The creation time of the last comment already returned
+   * @param id The ID of the last comment already returned
+   * @param pageable The page size; the page number must be 0
+   * @return The comments, newest first
+   */
   @Query(
-      "SELECT c FROM Comment c WHERE c.task.id = :taskId AND c.task.user.id = :userId ORDER BY c.createdAt DESC")
-  List<Comment> findByTaskIdAndTaskUserId(
-      @Param("taskId") Long taskId, @Param("userId") Long userId);
+      "SELECT c FROM Comment c WHERE c.task.id = :taskId AND (c.createdAt < :createdAt"
+          + " OR (c.createdAt = :createdAt AND c.id < :id)) ORDER BY c.createdAt DESC, c.id DESC")
+  List<Comment> findThreadPageBefore(
+      @Param("taskId") Long taskId,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("id") Long id,
+      Pageable pageable);
+
+  @Query("SELECT c FROM Comment c WHERE c.id = :id AND c.author.id = :authorId")
+  Optional<Comment> findByIdAndAuthorId(@Param("id") Long id, @Param("authorId") Long authorId);
 
   long countByTaskId(Long taskId);
+
+  /**
+   * Stream the comments on all tasks owned by a user for export. Rows are fetched from the cursor
+   * in batches and the entities are read-only. Must be consumed inside a transaction and closed.
+   *
+   * @param userId the task owner's ID
+   * @return stream of comments ordered by ID
+   */
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT c FROM Comment c WHERE c.task.user.id = :userId ORDER BY c.id")
+  Stream<Comment> streamForExport(@Param("userId") Long userId);
 }
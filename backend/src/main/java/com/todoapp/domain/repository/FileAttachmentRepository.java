@@ -1,13 +1,17 @@
 package com.todoapp.domain.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.todoapp.domain.model.FileAttachment;
 import com.todoapp.domain.model.Task;
@@ -49,6 +53,61 @@ public interface FileAttachmentRepository extends JpaRepository<FileAttachment,
    */
   List<FileAttachment> findByScanStatus(VirusScanStatus scanStatus);
 
+  /**
+   * Find asynchronous uploads the recovery sweep should look at: STAGED uploads older than the
+   * retry delay, and STORING uploads whose claim has expired because the worker died mid-transfer.
+   *
+   * @param stagedBefore The upper bound for the creation timestamp of STAGED uploads
+   * @param claimedBefore The upper bound for the claim timestamp of STORING uploads
+   * @return List of file attachments
+   */
+  @Query(
+      "SELECT fa FROM FileAttachment fa WHERE (fa.scanStatus = com.todoapp.domain.model.VirusScanStatus.STAGED AND fa.createdAt <"
+          + " :stagedBefore) OR (fa.scanStatus = com.todoapp.domain.model.VirusScanStatus.STORING AND fa.claimedAt < :claimedBefore)")
+  List<FileAttachment> findUnfinalizedUploads(
+      @Param("stagedBefore") LocalDateTime stagedBefore,
+      @Param("claimedBefore") LocalDateTime claimedBefore);
+
+  /**
+   * Claim a staged upload for transfer to object storage. Succeeds for STAGED rows and for STORING
+   * rows whose claim is older than {@code claimedBefore}; any other row is left untouched, so at
+   * most one worker holds the claim at a time.
+   *
+   * @param id The attachment ID
+   * @param claimedAt The claim timestamp to record
+   * @param claimedBefore Claims older than this are considered abandoned
+   * @return Number of rows updated (0 if another worker holds the claim or the upload is done)
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE FileAttachment fa SET fa.scanStatus = com.todoapp.domain.model.VirusScanStatus.STORING, fa.claimedAt = :claimedAt"
+          + " WHERE fa.id = :id AND (fa.scanStatus = com.todoapp.domain.model.VirusScanStatus.STAGED"
+          + " OR (fa.scanStatus = com.todoapp.domain.model.VirusScanStatus.STORING AND fa.claimedAt < :claimedBefore))")
+  int claimStagedUpload(
+      @Param("id") UUID id,
+      @Param("claimedAt") LocalDateTime claimedAt,
+      @Param("claimedBefore") LocalDateTime claimedBefore);
+
+  /**
+   * Move a claimed upload to its next status and release the claim. Only applies while the claim
+   * recorded by {@link #claimStagedUpload} is still the current one.
+   *
+   * @param id The attachment ID
+   * @param claimedAt The claim timestamp returned to the claiming worker
+   * @param scanStatus The status to move to
+   * @return Number of rows updated (0 if the claim was taken over)
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE FileAttachment fa SET fa.scanStatus = :scanStatus, fa.claimedAt = NULL"
+          + " WHERE fa.id = :id AND fa.scanStatus = com.todoapp.domain.model.VirusScanStatus.STORING AND fa.claimedAt = :claimedAt")
+  int releaseClaimedUpload(
+      @Param("id") UUID id,
+      @Param("claimedAt") LocalDateTime claimedAt,
+      @Param("scanStatus") VirusScanStatus scanStatus);
+
   /**
    * Find all file attachments for a specific user.
    *
@@ -86,6 +145,128 @@ public interface FileAttachmentRepository extends JpaRepository<FileAttachment,
   @Query("SELECT fa FROM FileAttachment fa WHERE fa.id = :id AND fa.user.id = :userId")
   Optional<FileAttachment> findByIdAndUserId(@Param("id") UUID id, @Param("userId") Long userId);
 
+  /**
+   * Record the generated preview image for an attachment without touching other columns.
+   *
+   * @param id The attachment ID
+   * @param thumbnailKey The storage key of the preview image
+   * @param generatedAt The generation timestamp
+   * @return Number of rows updated
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE FileAttachment fa SET fa.thumbnailKey = :thumbnailKey, "
+          + "fa.thumbnailGeneratedAt = :generatedAt WHERE fa.id = :id")
+  int updateThumbnail(
+      @Param("id") UUID id,
+      @Param("thumbnailKey") String thumbnailKey,
+      @Param("generatedAt") LocalDateTime generatedAt);
+
+  /**
+   * Find attachments whose preview was requested before the given time and has not been generated
+   * since, oldest request first.
+   *
+   * @param requestedBefore The upper bound for the request timestamp
+   * @param pageable The maximum number of rows to return
+   * @return The attachment IDs
+   */
+  @Query(
+      "SELECT fa.id FROM FileAttachment fa WHERE fa.previewRequestedAt < :requestedBefore"
+          + " ORDER BY fa.previewRequestedAt")
+  List<UUID> findPendingPreviewIds(
+      @Param("requestedBefore") LocalDateTime requestedBefore, Pageable pageable);
+
+  /**
+   * Renew a pending preview request that is older than {@code requestedBefore}, so only one sweep
+   * resubmits it.
+   *
+   * @param id The attachment ID
+   * @param requestedAt The new request timestamp
+   * @param requestedBefore Requests older than this may be renewed
+   * @return Number of rows updated (0 if the request was handled or renewed meanwhile)
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE FileAttachment fa SET fa.previewRequestedAt = :requestedAt"
+          + " WHERE fa.id = :id AND fa.previewRequestedAt < :requestedBefore")
+  int renewPreviewRequest(
+      @Param("id") UUID id,
+      @Param("requestedAt") LocalDateTime requestedAt,
+      @Param("requestedBefore") LocalDateTime requestedBefore);
+
+  /**
+   * Mark the preview request of an attachment as handled.
+   *
+   * @param id The attachment ID
+   * @return Number of rows updated
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE FileAttachment fa SET fa.previewRequestedAt = NULL WHERE fa.id = :id")
+  int clearPreviewRequest(@Param("id") UUID id);
+
+  /**
+   * Page through every storage key referenced by an attachment row (originals and thumbnails) in
+   * byte order, matching the order of a bucket listing. Uses keyset pagination so each call is an
+   * index range scan regardless of table size. Only keys in the byte-order range {@code [from,
+   * before)} are returned, so a reconciliation of one prefix reads only the keys under it.
+   *
+   * <p>Originals of uploads that are still staged, being stored or that failed to upload are left
+   * out: no object is guaranteed to exist for them, so they must not be reported as missing.
+   *
+   * @param after The last key of the previous page (empty string for the first page)
+   * @param from The first key of the range, inclusive
+   * @param before The end of the range, exclusive
+   * @param limit The maximum number of keys to return
+   * @return The next page of referenced storage keys
+   * @see #findReferencedStorageKeysFrom
+   */
+  @Query(
+      value =
+          "SELECT k FROM ("
+              + "SELECT storage_key AS k FROM file_attachments "
+              + "WHERE scan_status NOT IN ('STAGED', 'STORING', 'UPLOAD_FAILED') "
+              + "UNION ALL "
+              + "SELECT thumbnail_key AS k FROM file_attachments WHERE thumbnail_key IS NOT NULL"
+              + ") referenced "
+              + "WHERE k COLLATE \"C\" > :after "
+              + "AND k COLLATE \"C\" >= :from "
+              + "AND k COLLATE \"C\" < :before "
+              + "ORDER BY k COLLATE \"C\" "
+              + "LIMIT :limit",
+      nativeQuery = true)
+  List<String> findReferencedStorageKeysAfter(
+      @Param("after") String after,
+      @Param("from") String from,
+      @Param("before") String before,
+      @Param("limit") int limit);
+
+  /**
+   * Like {@link #findReferencedStorageKeysAfter}, for a range without an upper bound.
+   *
+   * @param after The last key of the previous page (empty string for the first page)
+   * @param from The first key of the range, inclusive
+   * @param limit The maximum number of keys to return
+   * @return The next page of referenced storage keys
+   */
+  @Query(
+      value =
+          "SELECT k FROM ("
+              + "SELECT storage_key AS k FROM file_attachments "
+              + "WHERE scan_status NOT IN ('STAGED', 'STORING', 'UPLOAD_FAILED') "
+              + "UNION ALL "
+              + "SELECT thumbnail_key AS k FROM file_attachments WHERE thumbnail_key IS NOT NULL"
+              + ") referenced "
+              + "WHERE k COLLATE \"C\" > :after "
+              + "AND k COLLATE \"C\" >= :from "
+              + "ORDER BY k COLLATE \"C\" "
+              + "LIMIT :limit",
+      nativeQuery = true)
+  List<String> findReferencedStorageKeysFrom(
+      @Param("after") String after, @Param("from") String from, @Param("limit") int limit);
+
   /**
    * Delete all file attachments for a specific task.
    *
@@ -0,0 +1,89 @@
+package com.todoapp.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.todoapp.domain.model.ImportJob;
+import com.todoapp.domain.model.ImportJobStatus;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+  /**
+   * Find an import job of a user.
+   *
+   * @param id the job ID
+   * @param userId the user ID
+   * @return optional import job
+   */
+  Optional<ImportJob> findByIdAndUserId(Long id, Long userId);
+
+  /**
+   * Find jobs in the given states that have not advanced since a point in time.
+   *
+   * @param statuses the job states
+   * @param updatedBefore the cutoff for the last progress
+   * @return list of stalled jobs, oldest first
+   */
+  List<ImportJob> findByStatusInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+      Collection<ImportJobStatus> statuses, LocalDateTime updatedBefore);
+
+  /**
+   * Take a job for processing. A PENDING job is always taken; a RUNNING job only once it has not
+   * advanced since {@code staleBefore}, so a job is worked on by one instance at a time.
+   *
+   * @return 1 if the job was taken, otherwise 0
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE ImportJob j SET j.status = com.todoapp.domain.model.ImportJobStatus.RUNNING,"
+          + " j.updatedAt = :now"
+          + " WHERE j.id = :id AND (j.status = com.todoapp.domain.model.ImportJobStatus.PENDING"
+          + " OR (j.status = com.todoapp.domain.model.ImportJobStatus.RUNNING"
+          + " AND j.updatedAt < :staleBefore))")
+  int claim(
+      @Param("id") Long id,
+      @Param("now") LocalDateTime now,
+      @Param("staleBefore") LocalDateTime staleBefore);
+
+  /**
+   * Move a RUNNING job to its final state.
+   *
+   * @return 1 if the job was finished, otherwise 0
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE ImportJob j SET j.status = :status, j.errorMessage = :errorMessage,"
+          + " j.updatedAt = :now, j.completedAt = :now"
+          + " WHERE j.id = :id AND j.status = com.todoapp.domain.model.ImportJobStatus.RUNNING")
+  int finish(
+      @Param("id") Long id,
+      @Param("status") ImportJobStatus status,
+      @Param("errorMessage") String errorMessage,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Put a FAILED job of a user back in the queue. It resumes from its checkpoint.
+   *
+   * @return 1 if the job was requeued, otherwise 0
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE ImportJob j SET j.status = com.todoapp.domain.model.ImportJobStatus.PENDING,"
+          + " j.errorMessage = NULL, j.completedAt = NULL, j.updatedAt = :now"
+          + " WHERE j.id = :id AND j.userId = :userId"
+          + " AND j.status = com.todoapp.domain.model.ImportJobStatus.FAILED")
+  int requeue(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
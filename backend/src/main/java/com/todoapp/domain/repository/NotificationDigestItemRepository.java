@@ -0,0 +1,71 @@
+package com.todoapp.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.todoapp.domain.model.NotificationDigestItem;
+import com.todoapp.domain.model.NotificationType;
+
+@Repository
+public interface NotificationDigestItemRepository
+    extends JpaRepository<NotificationDigestItem, Long> {
+
+  /**
+   * Check if a notification for the same task is already waiting for a digest.
+   *
+   * @param userId The ID of the recipient
+   * @param type The notification type
+   * @param taskId The ID of the related task
+   * @return true if a pending item exists
+   */
+  boolean existsByUserIdAndTypeAndTaskId(Long userId, NotificationType type, Long taskId);
+
+  /**
+   * Find users of a shard that have digest items due.
+   *
+   * @param now The current time
+   * @param shardCount The number of shards
+   * @param shard The shard, between 0 and shardCount - 1
+   * @param pageable Limits the number of users
+   * @return IDs of users with due items
+   */
+  @Query(
+      "SELECT DISTINCT i.userId FROM NotificationDigestItem i "
+          + "WHERE i.deliverAt <= :now AND MOD(i.userId, :shardCount) = :shard "
+          + "ORDER BY i.userId")
+  List<Long> findDueUserIds(
+      @Param("now") LocalDateTime now,
+      @Param("shardCount") int shardCount,
+      @Param("shard") int shard,
+      Pageable pageable);
+
+  /**
+   * Find the due digest items of several users, oldest first.
+   *
+   * @param userIds The IDs of the users
+   * @param now The current time
+   * @return The due items
+   */
+  List<NotificationDigestItem> findByUserIdInAndDeliverAtLessThanEqualOrderByCreatedAtAsc(
+      Collection<Long> userIds, LocalDateTime now);
+
+  /**
+   * Delete delivered digest items.
+   *
+   * @param ids The IDs of the items
+   * @return The number of deleted items
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM NotificationDigestItem i WHERE i.id IN :ids")
+  int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,5 +1,6 @@
 package com.todoapp.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -35,6 +36,15 @@ public interface NotificationPreferenceRepository
    */
   List<NotificationPreference> findByUser(User user);
 
+  /**
+   * Find all notification preferences of several users in one query.
+   *
+   * @param userIds The user IDs
+   * @return The notification preferences of the users
+   */
+  @Query("SELECT np FROM NotificationPreference np WHERE np.user.id IN :userIds")
+  List<NotificationPreference> findByUserIds(@Param("userIds") Collection<Long> userIds);
+
   /**
    * Find notification preference by user ID and notification type.
    *
@@ -1,6 +1,7 @@
 package com.todoapp.domain.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,8 +12,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.todoapp.domain.model.Notification;
+import com.todoapp.domain.model.NotificationType;
 import com.todoapp.domain.model.User;
 
 @Repository
@@ -43,6 +46,46 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
    */
   long countByUserAndIsReadFalse(User user);
 
+  /**
+   * Find a page of unread notifications for a user by ID, ordered by creation date descending. Does
+   * not need the user entity and runs no count query.
+   *
+   * @param userId The user ID
+   * @param pageable Pagination parameters
+   * @return Unread notifications of the requested page
+   */
+  List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+  /**
+   * Find the latest unread notification of a type for the same user and task created since the
+   * given time, which a repeated event is collapsed into.
+   *
+   * @param userId The user ID
+   * @param taskId The related task ID
+   * @param type The notification type
+   * @param since The start of the collapse window
+   * @param pageable Limits the result (the first row is used)
+   * @return Matching unread notifications, newest first
+   */
+  @Query(
+      "SELECT n FROM Notification n WHERE n.user.id = :userId AND n.relatedTask.id = :taskId "
+          + "AND n.type = :type AND n.isRead = false AND n.createdAt >= :since "
+          + "ORDER BY n.createdAt DESC")
+  List<Notification> findUnreadRepeats(
+      @Param("userId") Long userId,
+      @Param("taskId") Long taskId,
+      @Param("type") NotificationType type,
+      @Param("since") LocalDateTime since,
+      Pageable pageable);
+
+  /**
+   * Count unread notifications for a user by ID. Does not need the user entity.
+   *
+   * @param userId The user ID
+   * @return Number of unread notifications
+   */
+  long countByUserIdAndIsReadFalse(Long userId);
+
   /**
    * Find notifications by user ID and read status.
    *
@@ -57,23 +100,38 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
       @Param("userId") UUID userId, @Param("isRead") boolean isRead, Pageable pageable);
 
   /**
-   * Mark all unread notifications as read for a user.
+   * Mark all unread notifications as read for a user with a single UPDATE.
    *
    * @param userId The user ID
+   * @param readAt The time to record as read time
+   * @return Number of notifications marked as read
    */
   @Modifying
   @Query(
       "UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user.id = :userId AND n.isRead = false")
-  void markAllAsReadForUser(@Param("userId") UUID userId, @Param("readAt") LocalDateTime readAt);
+  int markAllAsReadForUser(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+  /**
+   * Count unread notifications for several users at once. Users without unread notifications are
+   * absent from the result.
+   *
+   * @param userIds The user IDs
+   * @return Rows of [user ID, unread count]
+   */
+  @Query(
+      "SELECT n.user.id, COUNT(n) FROM Notification n WHERE n.user.id IN :userIds AND n.isRead = false GROUP BY n.user.id")
+  List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
 
   /**
    * Delete old read notifications (cleanup).
    *
    * @param before Delete notifications read before this date
+   * @return Number of notifications deleted
    */
   @Modifying
+  @Transactional
   @Query("DELETE FROM Notification n WHERE n.isRead = true AND n.readAt < :before")
-  void deleteOldReadNotifications(@Param("before") LocalDateTime before);
+  int deleteOldReadNotifications(@Param("before") LocalDateTime before);
 
   /**
    * Find notifications by user and related task.
@@ -3,16 +3,28 @@ package com.todoapp.domain.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.todoapp.domain.model.Tag;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
 
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "reference-data-queries")
+  })
   List<Tag> findByUserId(Long userId);
 
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "reference-data-queries")
+  })
   Optional<Tag> findByIdAndUserId(Long id, Long userId);
 
   boolean existsByNameAndUserId(String name, Long userId);
@@ -21,5 +33,9 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
   void deleteByIdAndUserId(Long id, Long userId);
 
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "reference-data-queries")
+  })
   List<Tag> findByIdInAndUserId(List<Long> ids, Long userId);
 }
@@ -1,29 +1,54 @@
 package com.todoapp.domain.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.todoapp.domain.model.PermissionLevel;
+import com.todoapp.domain.model.Priority;
 import com.todoapp.domain.model.Task;
 
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repository for tasks.
+ *
+ * <p>Paged listings fetch the category with the page (entity graph). The tags of the whole page are
+ * loaded with one batched IN query ({@code @BatchSize} on {@code Task.tags}), and the subtask
+ * progress of the page comes from one grouped count ({@link #countSubtasksByParentIds}), so a page
+ * costs the page query, the count query, the tag query and the subtask count regardless of its
+ * size.
+ */
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+  @EntityGraph(attributePaths = "category")
   Page<Task> findByUserId(Long userId, Pageable pageable);
 
+  @EntityGraph(attributePaths = "category")
   Page<Task> findByUserIdAndIsCompleted(Long userId, Boolean isCompleted, Pageable pageable);
 
+  @EntityGraph(attributePaths = "category")
   @Query(
       "SELECT t FROM Task t WHERE t.user.id = :userId AND "
           + "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
   Page<Task> searchByUserIdAndDescription(
       @Param("userId") Long userId, @Param("searchTerm") String searchTerm, Pageable pageable);
 
+  @EntityGraph(attributePaths = "category")
   @Query(
       "SELECT t FROM Task t WHERE t.user.id = :userId AND t.isCompleted = :isCompleted AND "
           + "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
@@ -33,10 +58,14 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
       @Param("isCompleted") Boolean isCompleted,
       Pageable pageable);
 
+  long countByUserId(Long userId);
+
   long countByUserIdAndIsCompleted(Long userId, Boolean isCompleted);
 
+  @EntityGraph(attributePaths = "category")
   Page<Task> findByUserIdAndCategoryId(Long userId, Long categoryId, Pageable pageable);
 
+  @EntityGraph(attributePaths = "category")
   @Query(
       "SELECT DISTINCT t FROM Task t JOIN t.tags tag WHERE t.user.id = :userId AND tag.id IN :tagIds")
   Page<Task> findByUserIdAndTagIdsIn(
@@ -44,6 +73,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
       @Param("tagIds") java.util.List<Long> tagIds,
       Pageable pageable);
 
+  @EntityGraph(attributePaths = "category")
   @Query(
       "SELECT DISTINCT t FROM Task t LEFT JOIN t.tags tag WHERE t.user.id = :userId "
           + "AND (:categoryId IS NULL OR t.category.id = :categoryId) "
@@ -54,8 +84,63 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
       @Param("tagIds") java.util.List<Long> tagIds,
       Pageable pageable);
 
+  @EntityGraph(attributePaths = "category")
+  List<Task> findByIdIn(Collection<Long> ids);
+
   List<Task> findByParentTaskId(Long parentTaskId);
 
+  /**
+   * List a user's open tasks due before a time. The bound is a plain range predicate on the due
+   * date, so the query is a range scan of {@code idx_tasks_incomplete_due_date (user_id, due_date)}
+   * and returns the rows in index order.
+   *
+   * <p>The order is fixed to due date, so the pageable must be unsorted.
+   */
+  @EntityGraph(attributePaths = "category")
+  @Query(
+      "SELECT t FROM Task t WHERE t.user.id = :userId AND t.isCompleted = false"
+          + " AND t.dueDate IS NOT NULL AND t.dueDate < :before"
+          + " AND (:categoryId IS NULL OR t.category.id = :categoryId)"
+          + " AND LOWER(t.description) LIKE :searchPattern"
+          + " ORDER BY t.dueDate, t.id")
+  Page<Task> findOpenDueBefore(
+      @Param("userId") Long userId,
+      @Param("before") LocalDateTime before,
+      @Param("categoryId") Long categoryId,
+      @Param("searchPattern") String searchPattern,
+      Pageable pageable);
+
+  /** Like {@link #findOpenDueBefore}, for tasks due at or after a time. */
+  @EntityGraph(attributePaths = "category")
+  @Query(
+      "SELECT t FROM Task t WHERE t.user.id = :userId AND t.isCompleted = false"
+          + " AND t.dueDate IS NOT NULL AND t.dueDate >= :from"
+          + " AND (:categoryId IS NULL OR t.category.id = :categoryId)"
+          + " AND LOWER(t.description) LIKE :searchPattern"
+          + " ORDER BY t.dueDate, t.id")
+  Page<Task> findOpenDueFrom(
+      @Param("userId") Long userId,
+      @Param("from") LocalDateTime from,
+      @Param("categoryId") Long categoryId,
+      @Param("searchPattern") String searchPattern,
+      Pageable pageable);
+
+  /** Like {@link #findOpenDueBefore}, for tasks due in a half-open range. */
+  @EntityGraph(attributePaths = "category")
+  @Query(
+      "SELECT t FROM Task t WHERE t.user.id = :userId AND t.isCompleted = false"
+          + " AND t.dueDate IS NOT NULL AND t.dueDate >= :from AND t.dueDate < :before"
+          + " AND (:categoryId IS NULL OR t.category.id = :categoryId)"
+          + " AND LOWER(t.description) LIKE :searchPattern"
+          + " ORDER BY t.dueDate, t.id")
+  Page<Task> findOpenDueBetween(
+      @Param("userId") Long userId,
+      @Param("from") LocalDateTime from,
+      @Param("before") LocalDateTime before,
+      @Param("categoryId") Long categoryId,
+      @Param("searchPattern") String searchPattern,
+      Pageable pageable);
+
   @Query(
       "SELECT t FROM Task t WHERE t.isCompleted = false AND t.dueDate IS NOT NULL "
           + "AND t.dueDate > CURRENT_TIMESTAMP AND t.dueDate <= FUNCTION('TIMESTAMPADD', HOUR, 24, CURRENT_TIMESTAMP)")
@@ -65,4 +150,259 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
       "SELECT t FROM Task t WHERE t.isCompleted = false AND t.dueDate IS NOT NULL "
           + "AND t.dueDate < CURRENT_TIMESTAMP")
   List<Task> findOverdueTasks();
+
+  /**
+   * List the tasks a user owns together with the tasks shared with them, in one query. The task IDs
+   * come from a UNION of the user's own tasks and their shares, so each branch is served by its own
+   * index ({@code user_id} on tasks, {@code (shared_with_user_id, permission)} on shares). Each row
+   * is {@code [task, permissionLevel]}, where the permission is null for owned tasks.
+   *
+   * <p>The order is fixed to newest first, so the pageable must be unsorted.
+   */
+  @Query(
+      value =
+          "SELECT t, a.permission FROM ("
+              + " SELECT o.id AS taskId, CAST(NULL AS String) AS permission FROM Task o"
+              + " WHERE :includeOwned = true AND o.user.id = :userId"
+              + " UNION ALL"
+              + " SELECT s.task.id AS taskId, CAST(s.permissionLevel AS String) AS permission"
+              + " FROM TaskShare s WHERE :includeShared = true AND s.sharedWithUser.id = :userId"
+              + " AND (:permission IS NULL OR s.permissionLevel = :permission)"
+              + ") a JOIN Task t ON t.id = a.taskId LEFT JOIN FETCH t.category"
+              + " WHERE (:isCompleted IS NULL OR t.isCompleted = :isCompleted)"
+              + " AND (:categoryId IS NULL OR t.category.id = :categoryId)"
+              + " AND LOWER(t.description) LIKE :searchPattern"
+              + " ORDER BY t.createdAt DESC, t.id DESC",
+      countQuery =
+          "SELECT COUNT(a.taskId) FROM ("
+              + " SELECT o.id AS taskId FROM Task o"
+              + " WHERE :includeOwned = true AND o.user.id = :userId"
+              + " UNION ALL"
+              + " SELECT s.task.id AS taskId FROM TaskShare s"
+              + " WHERE :includeShared = true AND s.sharedWithUser.id = :userId"
+              + " AND (:permission IS NULL OR s.permissionLevel = :permission)"
+              + ") a JOIN Task t ON t.id = a.taskId"
+              + " WHERE (:isCompleted IS NULL OR t.isCompleted = :isCompleted)"
+              + " AND (:categoryId IS NULL OR t.category.id = :categoryId)"
+              + " AND LOWER(t.description) LIKE :searchPattern")
+  Page<Object[]> findAccessibleTasks(
+      @Param("userId") Long userId,
+      @Param("includeOwned") boolean includeOwned,
+      @Param("includeShared") boolean includeShared,
+      @Param("permission") PermissionLevel permission,
+      @Param("isCompleted") Boolean isCompleted,
+      @Param("categoryId") Long categoryId,
+      @Param("searchPattern") String searchPattern,
+      Pageable pageable);
+
+  @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId AND t.category.id = :categoryId")
+  List<Long> findIdsByUserIdAndCategoryId(
+      @Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+  @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId AND t.parentTask.id IN :parentIds")
+  List<Long> findChildIds(
+      @Param("userId") Long userId, @Param("parentIds") Collection<Long> parentIds);
+
+  /**
+   * Resolve ownership and share permission of a user for several tasks in one query. Each row is
+   * {@code [taskId, ownerId, permissionLevel]}, where the permission is null when the task is not
+   * shared with the user. Tasks that do not exist are absent from the result.
+   */
+  @Query(
+      "SELECT t.id, t.user.id, ts.permissionLevel FROM Task t LEFT JOIN TaskShare ts"
+          + " ON ts.task.id = t.id AND ts.sharedWithUser.id = :userId WHERE t.id IN :taskIds")
+  List<Object[]> findAccessRows(
+      @Param("taskIds") Collection<Long> taskIds, @Param("userId") Long userId);
+
+  /**
+   * Apply field-level changes to a task in one statement, without loading it. Null parameters keep
+   * the current value of their column. The version is incremented, and with an expected version the
+   * update only applies if the task still has it.
+   *
+   * @return The number of updated rows; 0 if the task does not exist or has another version
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Transactional
+  @Query(
+      "UPDATE Task t SET t.description = COALESCE(:description, t.description),"
+          + " t.priority = COALESCE(:priority, t.priority),"
+          + " t.dueDate = CASE WHEN :clearDueDate = true THEN NULL"
+          + " ELSE COALESCE(:dueDate, t.dueDate) END,"
+          + " t.estimatedDurationMinutes = COALESCE(:estimatedDurationMinutes,"
+          + " t.estimatedDurationMinutes),"
+          + " t.version = t.version + 1, t.updatedAt = :now"
+          + " WHERE t.id = :id AND (:expectedVersion IS NULL OR t.version = :expectedVersion)")
+  int patch(
+      @Param("id") Long id,
+      @Param("description") String description,
+      @Param("priority") Priority priority,
+      @Param("dueDate") LocalDateTime dueDate,
+      @Param("clearDueDate") boolean clearDueDate,
+      @Param("estimatedDurationMinutes") Integer estimatedDurationMinutes,
+      @Param("expectedVersion") Long expectedVersion,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Set the completion state of a task in one statement, without loading it. A task that is already
+   * in the requested state is left untouched, so repeating the call changes nothing.
+   *
+   * @return 1 if the state changed, otherwise 0
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Transactional
+  @Query(
+      "UPDATE Task t SET t.isCompleted = :completed, t.completedAt = :completedAt,"
+          + " t.version = t.version + 1, t.updatedAt = :now"
+          + " WHERE t.id = :id AND t.isCompleted <> :completed")
+  int updateCompletion(
+      @Param("id") Long id,
+      @Param("completed") boolean completed,
+      @Param("completedAt") LocalDateTime completedAt,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Resolve the owners of tasks and of all their descendants with one recursive query, e.g. to log
+   * what a delete removes through the subtask cascade. Each row is {@code [taskId, ownerId]}.
+   */
+  @Query(
+      value =
+          "WITH RECURSIVE subtree(id, user_id) AS ("
+              + " SELECT id, user_id FROM tasks WHERE id IN (:taskIds)"
+              + " UNION SELECT t.id, t.user_id FROM tasks t JOIN subtree s ON t.parent_task_id = s.id)"
+              + " SELECT id, user_id FROM subtree",
+      nativeQuery = true)
+  List<Object[]> findSubtreeOwners(@Param("taskIds") Collection<Long> taskIds);
+
+  /**
+   * Resolve owner, parent and position of several tasks in one query, e.g. a moved task and its new
+   * neighbours. Each row is {@code [taskId, ownerId, parentTaskId, position]}, where the parent is
+   * null for top-level tasks.
+   */
+  @Query("SELECT t.id, t.user.id, t.parentTask.id, t.position FROM Task t WHERE t.id IN :taskIds")
+  List<Object[]> findOrderRows(@Param("taskIds") Collection<Long> taskIds);
+
+  /**
+   * Find the positions of the top-level tasks of a user that follow a keyset position, in list
+   * order. Served by {@code idx_tasks_user_parent_position}.
+   */
+  @Query(
+      "SELECT t.position FROM Task t WHERE t.user.id = :userId AND t.parentTask IS NULL"
+          + " AND (t.position > :position OR (t.position = :position AND t.id > :id))"
+          + " AND t.id <> :excludedId ORDER BY t.position ASC, t.id ASC")
+  List<Long> findRootPositionsAfter(
+      @Param("userId") Long userId,
+      @Param("position") Long position,
+      @Param("id") Long id,
+      @Param("excludedId") Long excludedId,
+      Pageable pageable);
+
+  /**
+   * Find the positions of the top-level tasks of a user that precede a keyset position, nearest
+   * first.
+   */
+  @Query(
+      "SELECT t.position FROM Task t WHERE t.user.id = :userId AND t.parentTask IS NULL"
+          + " AND (t.position < :position OR (t.position = :position AND t.id < :id))"
+          + " AND t.id <> :excludedId ORDER BY t.position DESC, t.id DESC")
+  List<Long> findRootPositionsBefore(
+      @Param("userId") Long userId,
+      @Param("position") Long position,
+      @Param("id") Long id,
+      @Param("excludedId") Long excludedId,
+      Pageable pageable);
+
+  /** Find the positions of a user's subtasks of a parent that follow a keyset position. */
+  @Query(
+      "SELECT t.position FROM Task t WHERE t.user.id = :userId AND t.parentTask.id = :parentId"
+          + " AND (t.position > :position OR (t.position = :position AND t.id > :id))"
+          + " AND t.id <> :excludedId ORDER BY t.position ASC, t.id ASC")
+  List<Long> findChildPositionsAfter(
+      @Param("userId") Long userId,
+      @Param("parentId") Long parentId,
+      @Param("position") Long position,
+      @Param("id") Long id,
+      @Param("excludedId") Long excludedId,
+      Pageable pageable);
+
+  /** Find the positions of a user's subtasks of a parent that precede a keyset position. */
+  @Query(
+      "SELECT t.position FROM Task t WHERE t.user.id = :userId AND t.parentTask.id = :parentId"
+          + " AND (t.position < :position OR (t.position = :position AND t.id < :id))"
+          + " AND t.id <> :excludedId ORDER BY t.position DESC, t.id DESC")
+  List<Long> findChildPositionsBefore(
+      @Param("userId") Long userId,
+      @Param("parentId") Long parentId,
+      @Param("position") Long position,
+      @Param("id") Long id,
+      @Param("excludedId") Long excludedId,
+      Pageable pageable);
+
+  /**
+   * Find a page of a user's top-level tasks in list order, after a keyset position. Pass {@code
+   * Long.MIN_VALUE} as position for the first page.
+   */
+  @EntityGraph(attributePaths = "category")
+  @Query(
+      "SELECT t FROM Task t WHERE t.user.id = :userId AND t.parentTask IS NULL"
+          + " AND (t.position > :position OR (t.position = :position AND t.id > :id))"
+          + " ORDER BY t.position ASC, t.id ASC")
+  List<Task> findRootOrderPage(
+      @Param("userId") Long userId,
+      @Param("position") Long position,
+      @Param("id") Long id,
+      Pageable pageable);
+
+  /** Find a page of a user's subtasks of a parent in list order, after a keyset position. */
+  @EntityGraph(attributePaths = "category")
+  @Query(
+      "SELECT t FROM Task t WHERE t.user.id = :userId AND t.parentTask.id = :parentId"
+          + " AND (t.position > :position OR (t.position = :position AND t.id > :id))"
+          + " ORDER BY t.position ASC, t.id ASC")
+  List<Task> findChildOrderPage(
+      @Param("userId") Long userId,
+      @Param("parentId") Long parentId,
+      @Param("position") Long position,
+      @Param("id") Long id,
+      Pageable pageable);
+
+  @Query("SELECT t FROM Task t WHERE t.parentTask.id = :parentId ORDER BY t.position ASC, t.id ASC")
+  List<Task> findByParentTaskIdInOrder(@Param("parentId") Long parentId);
+
+  /**
+   * Count the subtasks of a page of tasks in one grouped query. Each row is {@code [parentId,
+   * subtaskCount, completedCount]}; tasks without subtasks have no row.
+   */
+  @Query(
+      "SELECT s.parentTask.id, COUNT(s), SUM(CASE WHEN s.isCompleted = true THEN 1 ELSE 0 END)"
+          + " FROM Task s WHERE s.parentTask.id IN :parentIds GROUP BY s.parentTask.id")
+  List<Object[]> countSubtasksByParentIds(@Param("parentIds") Collection<Long> parentIds);
+
+  /**
+   * Move a task to a new position in its list with one single-row statement. The version is
+   * incremented.
+   *
+   * @return 1 if the task was moved, 0 if it does not exist
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Transactional
+  @Query(
+      "UPDATE Task t SET t.position = :position, t.version = t.version + 1, t.updatedAt = :now"
+          + " WHERE t.id = :id")
+  int updatePosition(
+      @Param("id") Long id, @Param("position") Long position, @Param("now") LocalDateTime now);
+
+  /**
+   * Stream all tasks owned by a user for export, every parent before its subtasks. Rows are fetched
+   * from the cursor in batches and the entities are read-only. Must be consumed inside a
+   * transaction and closed.
+   *
+   * @param userId the user ID
+   * @return stream of tasks ordered by depth, then ID
+   */
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT t FROM Task t WHERE t.user.id = :userId ORDER BY t.depth, t.id")
+  Stream<Task> streamForExport(@Param("userId") Long userId);
 }
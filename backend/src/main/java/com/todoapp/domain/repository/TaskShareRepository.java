@@ -1,13 +1,17 @@
 package com.todoapp.domain.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.todoapp.domain.model.PermissionLevel;
 import com.todoapp.domain.model.TaskShare;
 
 @Repository
@@ -22,6 +26,9 @@ public interface TaskShareRepository extends JpaRepository<TaskShare, Long> {
   Optional<TaskShare> findByTaskIdAndSharedWithUserId(
       @Param("taskId") Long taskId, @Param("sharedWithUserId") Long sharedWithUserId);
 
+  @Query("SELECT ts.sharedWithUser.id FROM TaskShare ts WHERE ts.task.id = :taskId")
+  List<Long> findSharedWithUserIdsByTaskId(@Param("taskId") Long taskId);
+
   @Query("SELECT ts FROM TaskShare ts WHERE ts.sharedWithUser.id = :userId")
   List<TaskShare> findBySharedWithUserId(@Param("userId") Long userId);
 
@@ -39,4 +46,99 @@ public interface TaskShareRepository extends JpaRepository<TaskShare, Long> {
           + " :taskId AND ts.sharedWithUser.id = :userId")
   boolean existsByTaskIdAndSharedWithUserId(
       @Param("taskId") Long taskId, @Param("userId") Long userId);
+
+  /**
+   * Find which of the given task/user pairs are already shared. Each row is {@code [taskId,
+   * sharedWithUserId]}.
+   *
+   * @param taskIds The task IDs
+   * @param userIds The IDs of the users the tasks are shared with
+   * @return Existing share pairs
+   */
+  @Query(
+      "SELECT ts.task.id, ts.sharedWithUser.id FROM TaskShare ts WHERE ts.task.id IN :taskIds"
+          + " AND ts.sharedWithUser.id IN :userIds")
+  List<Object[]> findSharePairs(
+      @Param("taskIds") Collection<Long> taskIds, @Param("userIds") Collection<Long> userIds);
+
+  /**
+   * Find the shares between the given tasks and users. Each row is {@code [shareId, taskId,
+   * sharedWithUserId]}.
+   *
+   * @param taskIds The task IDs
+   * @param userIds The IDs of the users the tasks are shared with
+   * @return The matching shares
+   */
+  @Query(
+      "SELECT ts.id, ts.task.id, ts.sharedWithUser.id FROM TaskShare ts"
+          + " WHERE ts.task.id IN :taskIds AND ts.sharedWithUser.id IN :userIds")
+  List<Object[]> findShareRows(
+      @Param("taskIds") Collection<Long> taskIds, @Param("userIds") Collection<Long> userIds);
+
+  /**
+   * Find the users each of several tasks is shared with, in one query. Each row is {@code [taskId,
+   * sharedWithUserId]}.
+   *
+   * @param taskIds The task IDs
+   * @return The share pairs of the tasks
+   */
+  @Query("SELECT ts.task.id, ts.sharedWithUser.id FROM TaskShare ts WHERE ts.task.id IN :taskIds")
+  List<Object[]> findCollaborators(@Param("taskIds") Collection<Long> taskIds);
+
+  /**
+   * Find the users who share at least one task with a user: the recipients of the user's tasks, the
+   * owners of tasks shared with the user and the other recipients of those tasks.
+   *
+   * @param userId The user ID
+   * @return The IDs of the connected users, possibly including the user
+   */
+  @Query(
+      "SELECT ts.sharedWithUser.id FROM TaskShare ts WHERE ts.task.user.id = :userId"
+          + " UNION SELECT ts.task.user.id FROM TaskShare ts WHERE ts.sharedWithUser.id = :userId"
+          + " UNION SELECT other.sharedWithUser.id FROM TaskShare other WHERE other.task.id IN"
+          + " (SELECT ts.task.id FROM TaskShare ts WHERE ts.sharedWithUser.id = :userId)")
+  List<Long> findConnectedUserIds(@Param("userId") Long userId);
+
+  /**
+   * Change the permission of every existing share between the given tasks and users in one
+   * statement. Shares that already have the permission are left untouched.
+   *
+   * @param taskIds The task IDs
+   * @param userIds The IDs of the users the tasks are shared with
+   * @param permission The new permission level
+   * @return Number of shares updated
+   */
+  @Modifying
+  @Query(
+      "UPDATE TaskShare ts SET ts.permissionLevel = :permission WHERE ts.task.id IN :taskIds"
+          + " AND ts.sharedWithUser.id IN :userIds AND ts.permissionLevel <> :permission")
+  int updatePermissions(
+      @Param("taskIds") Collection<Long> taskIds,
+      @Param("userIds") Collection<Long> userIds,
+      @Param("permission") PermissionLevel permission);
+
+  /**
+   * Share every given task of an owner with every given user in one INSERT ... SELECT. Pairs that
+   * are already shared, tasks of other owners and the owner themselves are skipped.
+   *
+   * @param taskIds The task IDs
+   * @param userIds The IDs of the users to share with
+   * @param ownerId The ID of the task owner, recorded as the sharing user
+   * @param permission The permission level of the new shares
+   * @param sharedAt The share timestamp
+   * @return Number of shares created
+   */
+  @Modifying
+  @Query(
+      "INSERT INTO TaskShare (task, sharedWithUser, sharedByUser, permissionLevel, sharedAt)"
+          + " SELECT t, u, t.user, :permission, :sharedAt FROM Task t, User u"
+          + " WHERE t.id IN :taskIds AND t.user.id = :ownerId AND u.id IN :userIds"
+          + " AND u.id <> :ownerId AND NOT EXISTS (SELECT 1 FROM TaskShare ts"
+          + " WHERE ts.task.id = t.id AND ts.sharedWithUser.id = u.id)")
+  int insertMissingShares(
+      @Param("taskIds") Collection<Long> taskIds,
+      @Param("userIds") Collection<Long> userIds,
+      @Param("ownerId") Long ownerId,
+      @Param("permission") PermissionLevel permission,
+      @Param("sharedAt") LocalDateTime sharedAt);
 }
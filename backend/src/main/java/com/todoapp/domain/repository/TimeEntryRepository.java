@@ -3,14 +3,19 @@ package com.todoapp.domain.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.todoapp.domain.model.TimeEntry;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
 
@@ -53,6 +58,50 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
       @Param("startDate") LocalDateTime startDate,
       @Param("endDate") LocalDateTime endDate);
 
+  /**
+   * Stream the time entries of a user within a date range, in the order of {@link
+   * #findByUserIdAndDateRange}. Rows are fetched from the cursor in batches and the entities are
+   * read-only. Must be consumed inside a transaction and closed.
+   *
+   * @param userId the user ID
+   * @param startDate the start date
+   * @param endDate the end date
+   * @return stream of time entries
+   */
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(
+      """
+      SELECT te FROM TimeEntry te
+      WHERE te.user.id = :userId
+        AND (
+          (te.entryType = 'TIMER' AND te.startTime >= :startDate AND te.startTime < :endDate)
+          OR (te.entryType = 'MANUAL' AND te.loggedAt >= :startDate AND te.loggedAt < :endDate)
+        )
+      ORDER BY COALESCE(te.startTime, te.loggedAt) DESC
+      """)
+  Stream<TimeEntry> streamByUserIdAndDateRange(
+      @Param("userId") Long userId,
+      @Param("startDate") LocalDateTime startDate,
+      @Param("endDate") LocalDateTime endDate);
+
+  /**
+   * Stream the time entries on all tasks owned by a user for export. Rows are fetched from the
+   * cursor in batches and the entities are read-only. Must be consumed inside a transaction and
+   * closed.
+   *
+   * @param userId the task owner's ID
+   * @return stream of time entries ordered by ID
+   */
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT te FROM TimeEntry te WHERE te.task.user.id = :userId ORDER BY te.id")
+  Stream<TimeEntry> streamForExport(@Param("userId") Long userId);
+
   /**
    * Find the active (running) timer for a task and user.
    *
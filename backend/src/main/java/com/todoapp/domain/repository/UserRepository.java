@@ -1,8 +1,13 @@
 package com.todoapp.domain.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.todoapp.domain.model.User;
@@ -13,4 +18,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
 
   boolean existsByEmail(String email);
+
+  /**
+   * Find the users with any of the given handles.
+   *
+   * @param usernames The lower-case handles
+   * @return The users that exist
+   */
+  List<User> findByUsernameIn(Collection<String> usernames);
+
+  /**
+   * Find the handles that start with a prefix, to pick a free one for a new user.
+   *
+   * @param prefix The handle prefix
+   * @return The existing handles with that prefix
+   */
+  @Query("SELECT u.username FROM User u WHERE u.username LIKE CONCAT(:prefix, '%')")
+  List<String> findUsernamesStartingWith(@Param("prefix") String prefix);
+
+  /**
+   * Find the mention handles of users changed since a point in time.
+   *
+   * @param since The earliest update time to include
+   * @return Rows of [id, username, fullName, isActive, updatedAt]
+   */
+  @Query(
+      "SELECT u.id, u.username, u.fullName, u.isActive, u.updatedAt FROM User u "
+          + "WHERE u.updatedAt >= :since AND u.username IS NOT NULL")
+  List<Object[]> findMentionHandlesUpdatedSince(@Param("since") LocalDateTime since);
+
+  /**
+   * Find the email addresses of several users in one query.
+   *
+   * @param ids The user IDs
+   * @return Rows of [id, email]
+   */
+  @Query("SELECT u.id, u.email FROM User u WHERE u.id IN :ids")
+  List<Object[]> findEmailsByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,89 @@
+package com.todoapp.infrastructure.cache;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version of each task's comment thread, kept in Redis and used as the ETag of the thread.
+ *
+ * <p>A version is created on the first read after a change. It is the current time, so a new
+ * version is always greater than any earlier version of the same thread, even if Redis lost the key
+ * in between. A change removes the version once it is committed. Readers fetch the version before
+ * the comments, so a version never labels comments older than itself.
+ */
+@Component
+public class CommentThreadVersions {
+
+  private static final Logger logger = LoggerFactory.getLogger(CommentThreadVersions.class);
+
+  private static final String KEY_PREFIX = "comments:thread-version::";
+
+  private final StringRedisTemplate redisTemplate;
+
+  @Value("${app.comments.thread-version.ttl:24h}")
+  private Duration ttl;
+
+  public CommentThreadVersions(StringRedisTemplate redisTemplate) {
+    this.redisTemplate = redisTemplate;
+  }
+
+  /**
+   * Get the current version of a thread, creating it if needed.
+   *
+   * @param taskId The ID of the task
+   * @return The version, or null if Redis is unavailable
+   */
+  public String current(Long taskId) {
+    String key = KEY_PREFIX + taskId;
+    try {
+      String version = redisTemplate.opsForValue().get(key);
+      if (version != null) {
+        return version;
+      }
+      String created = Long.toString(System.currentTimeMillis());
+      if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, created, ttl))) {
+        return created;
+      }
+      // Another reader created it first
+      return redisTemplate.opsForValue().get(key);
+    } catch (Exception e) {
+      logger.warn("Cannot read comment thread version of task {}", taskId, e);
+      return null;
+    }
+  }
+
+  /**
+   * Invalidate the version of a thread. Inside a transaction this happens once the transaction
+   * commits.
+   *
+   * @param taskId The ID of the task
+   */
+  public void changed(Long taskId) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              invalidate(taskId);
+            }
+          });
+    } else {
+      invalidate(taskId);
+    }
+  }
+
+  private void invalidate(Long taskId) {
+    try {
+      redisTemplate.delete(KEY_PREFIX + taskId);
+    } catch (Exception e) {
+      logger.error("Failed to invalidate comment thread version of task {}", taskId, e);
+    }
+  }
+}
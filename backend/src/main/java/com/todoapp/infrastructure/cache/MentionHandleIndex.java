@@ -0,0 +1,212 @@
+package com.todoapp.infrastructure.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.todoapp.application.dto.MentionCandidateDTO;
+import com.todoapp.domain.repository.UserRepository;
+
+/**
+ * In-memory prefix index over the mention handles and full-name words of active users, so
+ * autocomplete never queries the database.
+ *
+ * <p>Entries live in a sorted concurrent map keyed by {@code token + '\0' + userId}. A prefix
+ * search is a range scan over that map, so it costs a logarithmic seek plus the results returned,
+ * and readers never block writers. A search limited to given users, such as a caller's
+ * collaborators, checks only the tokens of those users instead.
+ *
+ * <p>The index is loaded once at startup and then refreshed incrementally from the users changed
+ * since the previous refresh, which also picks up users registered on other nodes. Update times are
+ * set by the JVM of whichever node made the change and become visible only when its transaction
+ * commits, so each refresh reads again from a safety window before the newest update seen; the
+ * window must cover clock skew between nodes plus the longest user transaction.
+ */
+@Component
+public class MentionHandleIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(MentionHandleIndex.class);
+
+  private static final char SEPARATOR = '\0';
+
+  private final UserRepository userRepository;
+
+  private final ConcurrentSkipListMap<String, MentionCandidateDTO> entries =
+      new ConcurrentSkipListMap<>();
+  private final Map<Long, List<String>> keysByUser = new ConcurrentHashMap<>();
+
+  // Newest update time seen; re-indexing a user is idempotent, so re-reading rows is harmless
+  private volatile LocalDateTime watermark = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+  @Value("${app.mentions.index.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.mentions.index.refresh-overlap:5m}")
+  private Duration refreshOverlap = Duration.ofMinutes(5);
+
+  public MentionHandleIndex(UserRepository userRepository) {
+    this.userRepository = userRepository;
+  }
+
+  /** Load the index once the application has started. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (enabled) {
+      scheduledRefresh();
+    }
+  }
+
+  /** Pick up changed users on the configured interval. */
+  @Scheduled(fixedDelayString = "${app.mentions.index.refresh-interval-ms:30000}")
+  public void scheduledRefresh() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      refresh();
+    } catch (Exception e) {
+      logger.error("Mention handle index refresh failed", e);
+    }
+  }
+
+  /**
+   * Re-index every user changed since the previous refresh, less the safety window.
+   *
+   * @return The number of users re-indexed
+   */
+  public synchronized int refresh() {
+    LocalDateTime newWatermark = watermark;
+    List<Object[]> rows =
+        userRepository.findMentionHandlesUpdatedSince(watermark.minus(refreshOverlap));
+    for (Object[] row : rows) {
+      Long userId = (Long) row[0];
+      if (Boolean.TRUE.equals(row[3])) {
+        put(new MentionCandidateDTO(userId, (String) row[1], (String) row[2]));
+      } else {
+        remove(userId);
+      }
+      if (row[4] instanceof LocalDateTime updatedAt && updatedAt.isAfter(newWatermark)) {
+        newWatermark = updatedAt;
+      }
+    }
+    watermark = newWatermark;
+    logger.debug("Re-indexed {} mention handles", rows.size());
+    return rows.size();
+  }
+
+  /**
+   * Find users whose handle or a word of whose full name starts with a prefix. Results are ordered
+   * by the matching token.
+   *
+   * @param prefix The typed prefix, without the @
+   * @param limit The maximum number of users
+   * @return The matching users
+   */
+  public List<MentionCandidateDTO> search(String prefix, int limit) {
+    String normalized = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+    if (normalized.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    Map<Long, MentionCandidateDTO> matches = new LinkedHashMap<>();
+    for (MentionCandidateDTO candidate :
+        entries.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+      matches.putIfAbsent(candidate.id(), candidate);
+      if (matches.size() >= limit) {
+        break;
+      }
+    }
+    return new ArrayList<>(matches.values());
+  }
+
+  /**
+   * Find users among the given ones whose handle or a word of whose full name starts with a prefix.
+   * Results are ordered by the matching token, like {@link #search(String, int)}.
+   *
+   * @param prefix The typed prefix, without the @
+   * @param limit The maximum number of users
+   * @param userIds The users that may be returned
+   * @return The matching users
+   */
+  public List<MentionCandidateDTO> search(String prefix, int limit, Collection<Long> userIds) {
+    String normalized = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+    if (normalized.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    // First matching token of each user -> user
+    TreeMap<String, MentionCandidateDTO> matches = new TreeMap<>();
+    for (Long userId : userIds) {
+      List<String> keys = keysByUser.get(userId);
+      if (keys == null) {
+        continue;
+      }
+      keys.stream()
+          .filter(key -> key.startsWith(normalized))
+          .min(String::compareTo)
+          .ifPresent(
+              key -> {
+                MentionCandidateDTO candidate = entries.get(key);
+                if (candidate != null) {
+                  matches.put(key, candidate);
+                }
+              });
+    }
+    return matches.values().stream().limit(limit).toList();
+  }
+
+  /**
+   * Index a user, replacing any previous entries of the user.
+   *
+   * @param candidate The user
+   */
+  public void put(MentionCandidateDTO candidate) {
+    List<String> keys = new ArrayList<>();
+    keys.add(key(candidate.username(), candidate.id()));
+    if (candidate.fullName() != null) {
+      for (String word : candidate.fullName().toLowerCase(Locale.ROOT).split("\\s+")) {
+        if (!word.isEmpty()) {
+          keys.add(key(word, candidate.id()));
+        }
+      }
+    }
+
+    List<String> previous = keysByUser.put(candidate.id(), keys);
+    if (previous != null) {
+      previous.stream().filter(key -> !keys.contains(key)).forEach(entries::remove);
+    }
+    keys.forEach(key -> entries.put(key, candidate));
+  }
+
+  /**
+   * Remove a user from the index.
+   *
+   * @param userId The user ID
+   */
+  public void remove(Long userId) {
+    List<String> previous = keysByUser.remove(userId);
+    if (previous != null) {
+      previous.forEach(entries::remove);
+    }
+  }
+
+  private String key(String token, Long userId) {
+    return token.toLowerCase(Locale.ROOT) + SEPARATOR + userId;
+  }
+}
@@ -0,0 +1,285 @@
+package com.todoapp.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.todoapp.domain.model.NotificationPreference;
+import com.todoapp.domain.model.NotificationPreferenceMatrix;
+import com.todoapp.domain.repository.NotificationPreferenceRepository;
+
+/**
+ * Two-level cache of {@link NotificationPreferenceMatrix} per user, so sending a notification does
+ * not query the preferences table.
+ *
+ * <p>L1 is the {@code notification-preferences} heap cache of the application's JCache manager on
+ * each node, with a short time-to-live; L2 is a Redis key per user holding the packed matrix.
+ * Lookups for many users (fan-out) read L1, then all L2 misses with one MGET, then all remaining
+ * users with one query. When preferences change, the Redis key is deleted and the user is published
+ * on a Redis channel so every node drops its L1 entry, once right away and once after the change
+ * commits. The L1 time-to-live bounds the staleness if a message is lost.
+ *
+ * <p>Every eviction also bumps a per-user generation in Redis. A lookup reads the generation with
+ * the cached matrix and writes what it loaded from the database through a script that only stores
+ * it if the generation is unchanged, so a lookup that read the old preferences before the change
+ * committed cannot cache them after the eviction; it keeps them out of L1 as well.
+ */
+@Component
+public class NotificationPreferenceCache implements MessageListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(NotificationPreferenceCache.class);
+
+  public static final String EVICTION_CHANNEL = "notification-preference-evictions";
+
+  private static final String KEY_PREFIX = "notifications:preferences::";
+
+  private static final String GENERATION_KEY_PREFIX = "notifications:preferences-generation::";
+
+  /** The JCache region of the L1 cache, configured in {@code ehcache.xml}. */
+  public static final String LOCAL_CACHE = "notification-preferences";
+
+  /**
+   * Store loaded matrices whose generation has not moved since they were read. KEYS holds the value
+   * key and the generation key of each user, ARGV the time-to-live in milliseconds followed by the
+   * expected generation and the matrix of each user. Returns 1 or 0 per user.
+   */
+  private static final RedisScript<List> WRITE_SCRIPT =
+      new DefaultRedisScript<>(
+          "local written = {} "
+              + "for i = 1, #KEYS, 2 do "
+              + "  if (redis.call('GET', KEYS[i + 1]) or '0') == ARGV[i + 1] then "
+              + "    redis.call('SET', KEYS[i], ARGV[i + 2], 'PX', ARGV[1]) "
+              + "    table.insert(written, 1) "
+              + "  else "
+              + "    table.insert(written, 0) "
+              + "  end "
+              + "end "
+              + "return written",
+          List.class);
+
+  private final NotificationPreferenceRepository preferenceRepository;
+  private final StringRedisTemplate redisTemplate;
+  private final Cache<Long, Long> localCache;
+
+  @Value("${app.notifications.preferences.cache-ttl:1h}")
+  private Duration ttl;
+
+  public NotificationPreferenceCache(
+      NotificationPreferenceRepository preferenceRepository,
+      StringRedisTemplate redisTemplate,
+      CacheManager jCacheManager) {
+    this.preferenceRepository = preferenceRepository;
+    this.redisTemplate = redisTemplate;
+    this.localCache = jCacheManager.getCache(LOCAL_CACHE, Long.class, Long.class);
+    if (localCache == null) {
+      throw new IllegalStateException("Cache " + LOCAL_CACHE + " is not configured in ehcache.xml");
+    }
+  }
+
+  /**
+   * Get the preference matrix of a user.
+   *
+   * @param userId The ID of the user
+   * @return The preference matrix
+   */
+  public NotificationPreferenceMatrix get(Long userId) {
+    return getAll(List.of(userId)).get(userId);
+  }
+
+  /**
+   * Get the preference matrices of several users with at most one Redis round trip and one query.
+   *
+   * @param userIds The IDs of the users
+   * @return The preference matrix of every requested user
+   */
+  public Map<Long, NotificationPreferenceMatrix> getAll(Collection<Long> userIds) {
+    Map<Long, NotificationPreferenceMatrix> result = new HashMap<>();
+    Set<Long> missing = new LinkedHashSet<>();
+    for (Long userId : userIds) {
+      Long bits = localCache.get(userId);
+      if (bits != null) {
+        result.put(userId, NotificationPreferenceMatrix.fromBits(bits));
+      } else {
+        missing.add(userId);
+      }
+    }
+    if (missing.isEmpty()) {
+      return result;
+    }
+
+    Map<Long, String> generations = readFromRedis(missing, result);
+    if (missing.isEmpty()) {
+      return result;
+    }
+
+    Map<Long, List<NotificationPreference>> stored =
+        preferenceRepository.findByUserIds(missing).stream()
+            .collect(Collectors.groupingBy(preference -> preference.getUser().getId()));
+    Map<Long, NotificationPreferenceMatrix> loaded = new HashMap<>();
+    for (Long userId : missing) {
+      loaded.put(userId, NotificationPreferenceMatrix.of(stored.getOrDefault(userId, List.of())));
+    }
+    for (Long userId : writeToRedis(loaded, generations)) {
+      localCache.put(userId, loaded.get(userId).toBits());
+    }
+    result.putAll(loaded);
+    return result;
+  }
+
+  /**
+   * Drop the cached matrix of a user on all nodes and bump the user's generation. This happens
+   * immediately and again after the surrounding transaction commits, so a lookup that read the old
+   * preferences at any point before the commit fails its generation check and does not cache them.
+   *
+   * @param userId The ID of the user whose preferences changed
+   */
+  public void evict(Long userId) {
+    publishEviction(userId);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              publishEviction(userId);
+            }
+          });
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    try {
+      localCache.remove(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+    } catch (NumberFormatException e) {
+      logger.warn("Ignoring malformed notification preference eviction");
+    }
+  }
+
+  /**
+   * Read the cached matrices of the missing users into {@code result}, and their generations, with
+   * one MGET.
+   *
+   * @return The generation of every requested user, or null if Redis could not be read
+   */
+  private Map<Long, String> readFromRedis(
+      Set<Long> missing, Map<Long, NotificationPreferenceMatrix> result) {
+    List<Long> userIds = new ArrayList<>(missing);
+    List<String> keys = new ArrayList<>(userIds.size() * 2);
+    userIds.forEach(userId -> keys.add(key(userId)));
+    userIds.forEach(userId -> keys.add(generationKey(userId)));
+    List<String> cached;
+    try {
+      cached = redisTemplate.opsForValue().multiGet(keys);
+    } catch (RuntimeException e) {
+      logger.debug("Notification preference cache read failed", e);
+      return null;
+    }
+    if (cached == null || cached.size() != keys.size()) {
+      return null;
+    }
+    Map<Long, String> generations = new HashMap<>();
+    for (int i = 0; i < userIds.size(); i++) {
+      Long userId = userIds.get(i);
+      String generation = cached.get(userIds.size() + i);
+      generations.put(userId, generation != null ? generation : "0");
+      if (cached.get(i) == null) {
+        continue;
+      }
+      try {
+        long bits = Long.parseLong(cached.get(i));
+        localCache.put(userId, bits);
+        result.put(userId, NotificationPreferenceMatrix.fromBits(bits));
+        missing.remove(userId);
+      } catch (NumberFormatException e) {
+        logger.warn("Ignoring malformed cached preferences of user {}", userId);
+      }
+    }
+    return generations;
+  }
+
+  /**
+   * Store loaded matrices in Redis unless the user's preferences changed since their generation was
+   * read.
+   *
+   * @return The users whose matrix may be kept in L1: those written to Redis, or every user when
+   *     Redis is unavailable, in which case the L1 time-to-live bounds the staleness
+   */
+  @SuppressWarnings("unchecked")
+  private Collection<Long> writeToRedis(
+      Map<Long, NotificationPreferenceMatrix> loaded, Map<Long, String> generations) {
+    if (generations == null) {
+      return loaded.keySet();
+    }
+    List<Long> userIds = new ArrayList<>(loaded.keySet());
+    List<String> keys = new ArrayList<>(userIds.size() * 2);
+    List<String> args = new ArrayList<>(userIds.size() * 2 + 1);
+    args.add(String.valueOf(ttl.toMillis()));
+    for (Long userId : userIds) {
+      keys.add(key(userId));
+      keys.add(generationKey(userId));
+      args.add(generations.get(userId));
+      args.add(String.valueOf(loaded.get(userId).toBits()));
+    }
+    List<Long> written;
+    try {
+      written = redisTemplate.execute(WRITE_SCRIPT, keys, args.toArray());
+    } catch (RuntimeException e) {
+      logger.debug("Notification preference cache write failed", e);
+      return loaded.keySet();
+    }
+    List<Long> current = new ArrayList<>();
+    for (int i = 0; i < userIds.size(); i++) {
+      if (written != null && i < written.size() && written.get(i) == 1L) {
+        current.add(userIds.get(i));
+      } else {
+        logger.debug("Preferences of user {} changed during lookup, not caching", userIds.get(i));
+      }
+    }
+    return current;
+  }
+
+  private void publishEviction(Long userId) {
+    // Drop this node's entry even if the message never comes back
+    localCache.remove(userId);
+    try {
+      // Bumped before the delete, so a lookup that read the old generation cannot write back
+      redisTemplate.opsForValue().increment(generationKey(userId));
+      redisTemplate.expire(generationKey(userId), ttl);
+      redisTemplate.delete(key(userId));
+      redisTemplate.convertAndSend(EVICTION_CHANNEL, userId.toString());
+    } catch (RuntimeException e) {
+      logger.warn("Failed to evict cached notification preferences of user {}", userId, e);
+    }
+  }
+
+  private String generationKey(Long userId) {
+    return GENERATION_KEY_PREFIX + userId;
+  }
+
+  private String key(Long userId) {
+    return KEY_PREFIX + userId;
+  }
+}
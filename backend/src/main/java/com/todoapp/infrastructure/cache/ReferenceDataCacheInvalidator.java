@@ -0,0 +1,120 @@
+package com.todoapp.infrastructure.cache;
+
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.Tag;
+import com.todoapp.domain.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the Hibernate second-level cache for reference data (categories, tags, users) consistent
+ * across nodes. Hibernate already evicts entities and stale query results on the node that made the
+ * change; the other nodes only learn about it through this invalidator.
+ *
+ * <p>After a write commits, the changed entity is published on a Redis channel. Every node,
+ * including the sender, evicts the entity and the cached reference-data queries when the message
+ * arrives. If Redis is unavailable the region TTL in {@code ehcache.xml} bounds the staleness.
+ */
+@Component
+public class ReferenceDataCacheInvalidator implements MessageListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCacheInvalidator.class);
+
+  public static final String EVICTION_CHANNEL = "reference-data-evictions";
+  public static final String QUERY_REGION = "reference-data-queries";
+
+  private static final Map<String, Class<?>> CACHED_TYPES =
+      Map.of(
+          Category.class.getSimpleName(), Category.class,
+          Tag.class.getSimpleName(), Tag.class,
+          User.class.getSimpleName(), User.class);
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final RedisTemplate<String, Object> redisTemplate;
+
+  public ReferenceDataCacheInvalidator(
+      EntityManagerFactory entityManagerFactory, RedisTemplate<String, Object> redisTemplate) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.redisTemplate = redisTemplate;
+  }
+
+  /**
+   * Evict a cached entity on all nodes once the surrounding transaction commits, or immediately
+   * when there is no transaction.
+   *
+   * @param entityType The entity class (Category, Tag or User)
+   * @param id The ID of the changed entity
+   */
+  public void evict(Class<?> entityType, Long id) {
+    if (!CACHED_TYPES.containsValue(entityType)) {
+      throw new IllegalArgumentException("Not a cached reference type: " + entityType.getName());
+    }
+    String payload = entityType.getSimpleName() + ":" + id;
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              publish(payload);
+            }
+          });
+    } else {
+      publish(payload);
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+    if (payload != null) {
+      evictLocally(payload.toString());
+    }
+  }
+
+  /**
+   * Evict an entity and the cached reference-data queries from this node's cache.
+   *
+   * @param payload The eviction message, in the form {@code EntityName:id}
+   */
+  public void evictLocally(String payload) {
+    int separator = payload.indexOf(':');
+    Class<?> entityType = separator > 0 ? CACHED_TYPES.get(payload.substring(0, separator)) : null;
+    if (entityType == null) {
+      logger.warn("Ignoring malformed reference-data eviction: {}", payload);
+      return;
+    }
+
+    try {
+      Long id = Long.valueOf(payload.substring(separator + 1));
+      entityManagerFactory.getCache().evict(entityType, id);
+      entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(QUERY_REGION);
+      logger.debug("Evicted {} {} from the second-level cache", entityType.getSimpleName(), id);
+    } catch (NumberFormatException e) {
+      logger.warn("Ignoring malformed reference-data eviction: {}", payload);
+    }
+  }
+
+  private void publish(String payload) {
+    // The committing node has already been updated by Hibernate; make sure it is consistent even
+    // if the message never comes back
+    evictLocally(payload);
+    try {
+      redisTemplate.convertAndSend(EVICTION_CHANNEL, payload);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to publish reference-data eviction {}", payload, e);
+    }
+  }
+}
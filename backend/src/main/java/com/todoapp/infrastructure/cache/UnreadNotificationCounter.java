@@ -0,0 +1,263 @@
+package com.todoapp.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.todoapp.domain.event.UnreadNotificationsChangedEvent;
+import com.todoapp.domain.repository.NotificationRepository;
+import com.todoapp.presentation.websocket.NotificationWebSocketHandler;
+
+/**
+ * Per-user unread notification counter kept in Redis, so the notification badge never queries
+ * Postgres once the counter exists.
+ *
+ * <p>A counter is created from the database on the first read and then adjusted after every
+ * committed change. Adjustments never create a counter, so a missing one is always rebuilt from the
+ * database rather than from a partial delta. Every change is pushed to the user over STOMP. A
+ * periodic reconciliation compares the counters with the database and repairs any drift, e.g. from
+ * an adjustment lost while Redis was unavailable.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+
+  private static final String KEY_PREFIX = "notifications:unread::";
+  private static final String RECONCILE_LOCK_KEY = "notifications:unread:reconcile-lock";
+
+  // Adjusts an existing counter only and never lets it go below zero
+  private static final RedisScript<Long> ADJUST_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('EXISTS', KEYS[1]) == 0 then return nil end "
+              + "local value = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+              + "if value < 0 then redis.call('SET', KEYS[1], 0, 'KEEPTTL') value = 0 end "
+              + "return value",
+          Long.class);
+
+  // Replaces a counter only if it still holds the value the database count was compared with
+  private static final RedisScript<Long> REPLACE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+              + "redis.call('SET', KEYS[1], ARGV[2], 'KEEPTTL') return 1 end "
+              + "return 0",
+          Long.class);
+
+  // Releases the reconciliation lock only while this node still holds it
+  private static final RedisScript<Long> RELEASE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+              + "return 0",
+          Long.class);
+
+  // Identifies this node as the holder of the reconciliation lock
+  private final String lockToken = UUID.randomUUID().toString();
+
+  private final StringRedisTemplate redisTemplate;
+  private final NotificationRepository notificationRepository;
+  private final NotificationWebSocketHandler webSocketHandler;
+
+  @Value("${app.notifications.unread-counter.ttl:24h}")
+  private Duration ttl;
+
+  @Value("${app.notifications.unread-counter.reconciliation.enabled:true}")
+  private boolean reconciliationEnabled;
+
+  @Value("${app.notifications.unread-counter.reconciliation.batch-size:500}")
+  private int batchSize;
+
+  @Value("${app.notifications.unread-counter.reconciliation.lock-ttl:10m}")
+  private Duration lockTtl;
+
+  public UnreadNotificationCounter(
+      StringRedisTemplate redisTemplate,
+      NotificationRepository notificationRepository,
+      NotificationWebSocketHandler webSocketHandler) {
+    this.redisTemplate = redisTemplate;
+    this.notificationRepository = notificationRepository;
+    this.webSocketHandler = webSocketHandler;
+  }
+
+  /**
+   * Get the unread notification count of a user. Falls back to the database when the counter does
+   * not exist yet or Redis is unavailable.
+   *
+   * @param userId The ID of the user
+   * @return The number of unread notifications
+   */
+  public long getUnreadCount(Long userId) {
+    String key = key(userId);
+    try {
+      String cached = redisTemplate.opsForValue().get(key);
+      if (cached != null) {
+        return Long.parseLong(cached);
+      }
+    } catch (RuntimeException e) {
+      logger.debug("Unread counter read failed for user {}", userId, e);
+      return notificationRepository.countByUserIdAndIsReadFalse(userId);
+    }
+
+    long count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+    try {
+      // Never overwrite a counter another request created in the meantime
+      redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), ttl);
+    } catch (RuntimeException e) {
+      logger.debug("Unread counter write failed for user {}", userId, e);
+    }
+    return count;
+  }
+
+  /**
+   * Apply a committed change to the counter and push the new count to the user.
+   *
+   * @param event The change
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUnreadNotificationsChanged(UnreadNotificationsChangedEvent event) {
+    Long userId = event.userId();
+    Long count = null;
+    try {
+      if (event.reset()) {
+        redisTemplate.opsForValue().set(key(userId), "0", ttl);
+        count = 0L;
+      } else {
+        count =
+            redisTemplate.execute(
+                ADJUST_SCRIPT, List.of(key(userId)), String.valueOf(event.delta()));
+      }
+    } catch (RuntimeException e) {
+      // Reconciliation repairs the counter once Redis is back
+      logger.warn("Failed to update unread counter of user {}", userId, e);
+    }
+
+    if (count == null) {
+      count = getUnreadCount(userId);
+    }
+    webSocketHandler.sendUnreadCount(userId, count);
+  }
+
+  /** Reconcile the counters with the database on the configured interval. */
+  @Scheduled(
+      fixedDelayString = "${app.notifications.unread-counter.reconciliation.interval-ms:300000}")
+  public void scheduledReconciliation() {
+    if (!reconciliationEnabled) {
+      return;
+    }
+    try {
+      reconcile();
+    } catch (Exception e) {
+      logger.error("Unread counter reconciliation failed", e);
+    }
+  }
+
+  /**
+   * Compare every existing counter with the database and replace the ones that drifted. Only one
+   * node reconciles at a time.
+   *
+   * @return The number of counters that were corrected
+   */
+  public int reconcile() {
+    Boolean locked =
+        redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY, lockToken, lockTtl);
+    if (!Boolean.TRUE.equals(locked)) {
+      logger.debug("Unread counter reconciliation is running on another node");
+      return 0;
+    }
+
+    int corrected = 0;
+    try {
+      ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+      List<String> batch = new ArrayList<>(batchSize);
+      try (Cursor<String> keys = redisTemplate.scan(options)) {
+        while (keys.hasNext()) {
+          batch.add(keys.next());
+          if (batch.size() >= batchSize) {
+            corrected += reconcileBatch(batch);
+            batch.clear();
+          }
+        }
+      }
+      if (!batch.isEmpty()) {
+        corrected += reconcileBatch(batch);
+      }
+    } finally {
+      redisTemplate.execute(RELEASE_SCRIPT, List.of(RECONCILE_LOCK_KEY), lockToken);
+    }
+
+    logger.info("Unread counter reconciliation corrected {} counters", corrected);
+    return corrected;
+  }
+
+  private int reconcileBatch(List<String> keys) {
+    // Read the counters before counting, so a change in between makes the replace a no-op
+    List<String> cached = redisTemplate.opsForValue().multiGet(keys);
+    if (cached == null) {
+      return 0;
+    }
+
+    Map<Long, String> counters = new HashMap<>();
+    for (int i = 0; i < keys.size() && i < cached.size(); i++) {
+      Long userId = parseUserId(keys.get(i));
+      if (userId != null && cached.get(i) != null) {
+        counters.put(userId, cached.get(i));
+      }
+    }
+    if (counters.isEmpty()) {
+      return 0;
+    }
+
+    Map<Long, Long> actual = new HashMap<>();
+    for (Object[] row : notificationRepository.countUnreadByUserIds(counters.keySet())) {
+      actual.put((Long) row[0], (Long) row[1]);
+    }
+
+    int corrected = 0;
+    for (Map.Entry<Long, String> counter : counters.entrySet()) {
+      Long userId = counter.getKey();
+      String expected = String.valueOf(actual.getOrDefault(userId, 0L));
+      if (expected.equals(counter.getValue())) {
+        continue;
+      }
+      Long replaced =
+          redisTemplate.execute(REPLACE_SCRIPT, List.of(key(userId)), counter.getValue(), expected);
+      if (replaced != null && replaced == 1) {
+        logger.debug(
+            "Corrected unread counter of user {} from {} to {}",
+            userId,
+            counter.getValue(),
+            expected);
+        webSocketHandler.sendUnreadCount(userId, Long.parseLong(expected));
+        corrected++;
+      }
+    }
+    return corrected;
+  }
+
+  private Long parseUserId(String key) {
+    try {
+      return Long.valueOf(key.substring(KEY_PREFIX.length()));
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private String key(Long userId) {
+    return KEY_PREFIX + userId;
+  }
+}
@@ -0,0 +1,78 @@
+package com.todoapp.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Default executor of the application and the executor of MVC async requests. The dedicated
+ * preview, upload and import executors keep Boot from creating the default one, so it is defined
+ * here; in virtual-thread mode it gives each task a virtual thread under a concurrency limit,
+ * otherwise it is a bounded pool with a queue.
+ *
+ * <p>MVC async requests write the streamed sync, export and time report responses. A stream holds
+ * its thread until the client has read the whole body, so they get their own executor instead of
+ * sharing the small default pool, where a few slow downloads would queue every other stream and
+ * {@code @Async} task behind them. Streams always run on virtual threads, whatever the thread mode
+ * of the rest of the application: they mostly wait on the client socket, and database access is
+ * still bounded by the connection pool. The streaming concurrency limit caps the responses in
+ * flight; once it is reached, new stream requests wait for a slot before their headers are written
+ * rather than being rejected half-way.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+  @Value("${app.async.pool-size:8}")
+  private int poolSize;
+
+  @Value("${app.async.queue-capacity:1000}")
+  private int queueCapacity;
+
+  @Value("${app.async.concurrency-limit:500}")
+  private int concurrencyLimit;
+
+  @Value("${app.async.streaming.concurrency-limit:200}")
+  private int streamingConcurrencyLimit;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
+  @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    if (virtualThreads) {
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-");
+      executor.setVirtualThreads(true);
+      executor.setConcurrencyLimit(concurrencyLimit);
+      executor.setTaskTerminationTimeout(30_000);
+      return executor;
+    }
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("task-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    return executor;
+  }
+
+  @Bean(name = "streamingExecutor")
+  public AsyncTaskExecutor streamingExecutor() {
+    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("stream-");
+    executor.setVirtualThreads(true);
+    executor.setConcurrencyLimit(streamingConcurrencyLimit);
+    executor.setTaskTerminationTimeout(30_000);
+    return executor;
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(streamingExecutor());
+  }
+}
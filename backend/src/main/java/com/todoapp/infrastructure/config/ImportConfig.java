@@ -0,0 +1,43 @@
+package com.todoapp.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor configuration for background imports. An import is a long run of database batches, so
+ * the pool is small to leave connections to request threads. When the queue is full the job simply
+ * stays PENDING and is picked up by the recovery sweep in {@link
+ * com.todoapp.application.service.DataImportService}.
+ */
+@Configuration
+public class ImportConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(ImportConfig.class);
+
+  @Value("${app.import.async.threads:2}")
+  private int threads;
+
+  @Value("${app.import.async.queue-capacity:100}")
+  private int queueCapacity;
+
+  @Bean(name = "importExecutor")
+  public ThreadPoolTaskExecutor importExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("import-");
+    executor.setRejectedExecutionHandler(
+        (task, pool) ->
+            logger.warn(
+                "Import queue full ({} pending), leaving job for recovery sweep",
+                pool.getQueue().size()));
+    // Running jobs resume from their checkpoint after a restart
+    executor.setWaitForTasksToCompleteOnShutdown(false);
+    return executor;
+  }
+}
@@ -0,0 +1,45 @@
+package com.todoapp.infrastructure.config;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * The application's JCache (Ehcache) manager, configured by {@code ehcache.xml}. Hibernate's
+ * second-level cache regions and the node-local caches of the application, such as the notification
+ * preference cache, live in this one manager, so every heap cache is sized in one file and reported
+ * through the same statistics. Hibernate is handed the manager instead of creating its own from the
+ * same file.
+ */
+@Configuration
+public class JCacheConfig {
+
+  @Value(
+      "${spring.jpa.properties.hibernate.javax.cache.provider:org.ehcache.jsr107.EhcacheCachingProvider}")
+  private String provider;
+
+  @Value("${spring.jpa.properties.hibernate.javax.cache.uri:ehcache.xml}")
+  private String configLocation;
+
+  @Bean(destroyMethod = "close")
+  public CacheManager jCacheManager() throws IOException, URISyntaxException {
+    CachingProvider cachingProvider = Caching.getCachingProvider(provider);
+    return cachingProvider.getCacheManager(
+        new ClassPathResource(configLocation).getURL().toURI(), getClass().getClassLoader());
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer jCacheManagerCustomizer(CacheManager jCacheManager) {
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, jCacheManager);
+  }
+}
@@ -1,20 +1,25 @@
 package com.todoapp.infrastructure.config;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import io.minio.BucketExistsArgs;
-import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
 
+/**
+ * MinIO client configuration. All storage calls share one OkHttp client so connections are reused
+ * across uploads and downloads instead of each request paying for a new TCP/TLS handshake. Bucket
+ * bootstrap happens once at startup in {@link
+ * com.todoapp.infrastructure.storage.FileStorageService#initializeBucket()}.
+ */
 @Configuration
 public class MinIOConfig {
 
-  private static final Logger logger = LoggerFactory.getLogger(MinIOConfig.class);
-
   @Value("${app.minio.endpoint}")
   private String endpoint;
 
@@ -24,29 +29,43 @@ public class MinIOConfig {
   @Value("${app.minio.secret-key}")
   private String secretKey;
 
-  @Value("${app.minio.bucket}")
-  private String bucket;
+  @Value("${app.minio.region:us-east-1}")
+  private String region;
+
+  @Value("${app.minio.connect-timeout:5s}")
+  private Duration connectTimeout;
+
+  @Value("${app.minio.read-timeout:60s}")
+  private Duration readTimeout;
+
+  @Value("${app.minio.write-timeout:60s}")
+  private Duration writeTimeout;
+
+  @Value("${app.minio.pool.max-idle-connections:16}")
+  private int maxIdleConnections;
+
+  @Value("${app.minio.pool.keep-alive:5m}")
+  private Duration keepAlive;
+
+  @Bean
+  public OkHttpClient minioHttpClient() {
+    return new OkHttpClient.Builder()
+        .connectionPool(
+            new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+        .connectTimeout(connectTimeout)
+        .readTimeout(readTimeout)
+        .writeTimeout(writeTimeout)
+        .retryOnConnectionFailure(true)
+        .build();
+  }
 
   @Bean
-  public MinioClient minioClient() {
-    try {
-      MinioClient minioClient =
-          MinioClient.builder().endpoint(endpoint).credentials(accessKey, secretKey).build();
-
-      boolean bucketExists =
-          minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build());
-
-      if (!bucketExists) {
-        minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
-        logger.info("MinIO bucket '{}' created successfully", bucket);
-      } else {
-        logger.info("MinIO bucket '{}' already exists", bucket);
-      }
-
-      return minioClient;
-    } catch (Exception e) {
-      logger.error("Failed to initialize MinIO client", e);
-      throw new RuntimeException("Failed to initialize MinIO client", e);
-    }
+  public MinioClient minioClient(OkHttpClient minioHttpClient) {
+    return MinioClient.builder()
+        .endpoint(endpoint)
+        .region(region)
+        .credentials(accessKey, secretKey)
+        .httpClient(minioHttpClient)
+        .build();
   }
 }
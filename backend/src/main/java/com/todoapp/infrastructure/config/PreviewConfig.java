@@ -0,0 +1,44 @@
+package com.todoapp.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor configuration for attachment preview generation. Decoding images and rendering PDFs is
+ * CPU and memory heavy, so it runs on a small dedicated pool with a bounded queue. When the queue
+ * is full new requests are dropped rather than blocking the virus scan consumer that triggers them;
+ * the preview request stays recorded on the attachment and the recovery sweep in {@code
+ * AttachmentPreviewService} submits it again later.
+ */
+@Configuration
+public class PreviewConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(PreviewConfig.class);
+
+  @Value("${app.preview.threads:2}")
+  private int threads;
+
+  @Value("${app.preview.queue-capacity:100}")
+  private int queueCapacity;
+
+  @Bean(name = "previewExecutor")
+  public ThreadPoolTaskExecutor previewExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("preview-");
+    executor.setRejectedExecutionHandler(
+        (task, pool) ->
+            logger.warn(
+                "Preview queue full ({} pending), deferring thumbnail generation to recovery",
+                pool.getQueue().size()));
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    return executor;
+  }
+}
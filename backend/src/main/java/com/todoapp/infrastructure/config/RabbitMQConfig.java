@@ -5,10 +5,13 @@ import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -18,6 +21,9 @@ public class RabbitMQConfig {
   public static final String EMAIL_QUEUE = "email.queue";
   public static final String EMAIL_EXCHANGE = "email.exchange";
   public static final String EMAIL_ROUTING_KEY = "email.routing.key";
+  public static final String EMAIL_DEAD_LETTER_EXCHANGE = EMAIL_EXCHANGE + ".dlx";
+  public static final String EMAIL_RETRY_QUEUE = "email.retry.queue";
+  public static final String EMAIL_PARKING_QUEUE = "email.parking.queue";
 
   public static final String VIRUS_SCAN_QUEUE = "virus-scan.queue";
   public static final String VIRUS_SCAN_EXCHANGE = "virus-scan.exchange";
@@ -46,7 +52,7 @@ public class RabbitMQConfig {
   @Bean
   public Queue emailQueue() {
     return QueueBuilder.durable(EMAIL_QUEUE)
-        .withArgument("x-dead-letter-exchange", EMAIL_EXCHANGE + ".dlx")
+        .withArgument("x-dead-letter-exchange", EMAIL_DEAD_LETTER_EXCHANGE)
         .withArgument("x-message-ttl", 3600000)
         .build();
   }
@@ -61,6 +67,64 @@ public class RabbitMQConfig {
     return BindingBuilder.bind(emailQueue).to(emailExchange).with(EMAIL_ROUTING_KEY);
   }
 
+  @Bean
+  public DirectExchange emailDeadLetterExchange() {
+    return new DirectExchange(EMAIL_DEAD_LETTER_EXCHANGE);
+  }
+
+  /**
+   * Delay queue for failed and rate-limited emails. Messages wait here for the retry delay and are
+   * then dead-lettered back to the email exchange.
+   */
+  @Bean
+  public Queue emailRetryQueue(
+      @Value("${app.email.delivery.retry-delay-ms:60000}") long retryDelayMs) {
+    return QueueBuilder.durable(EMAIL_RETRY_QUEUE)
+        .withArgument("x-message-ttl", retryDelayMs)
+        .withArgument("x-dead-letter-exchange", EMAIL_EXCHANGE)
+        .withArgument("x-dead-letter-routing-key", EMAIL_ROUTING_KEY)
+        .build();
+  }
+
+  @Bean
+  public Binding emailRetryBinding(Queue emailRetryQueue, DirectExchange emailDeadLetterExchange) {
+    return BindingBuilder.bind(emailRetryQueue).to(emailDeadLetterExchange).with(EMAIL_ROUTING_KEY);
+  }
+
+  /** Emails that failed permanently or ran out of attempts, kept for inspection. */
+  @Bean
+  public Queue emailParkingQueue() {
+    return QueueBuilder.durable(EMAIL_PARKING_QUEUE).build();
+  }
+
+  /**
+   * Listener factory for email delivery. Consumers receive up to {@code batch-size} messages at a
+   * time and acknowledge them together; the number of consumers bounds the concurrent SMTP
+   * connections.
+   */
+  @Bean
+  public SimpleRabbitListenerContainerFactory emailListenerContainerFactory(
+      SimpleRabbitListenerContainerFactoryConfigurer configurer,
+      ConnectionFactory connectionFactory,
+      @Value("${app.email.delivery.batch-size:50}") int batchSize,
+      @Value("${app.email.delivery.receive-timeout-ms:1000}") long receiveTimeoutMs,
+      @Value("${app.email.delivery.concurrency:2}") int concurrency,
+      @Value("${app.email.delivery.max-concurrency:4}") int maxConcurrency) {
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    configurer.configure(factory, connectionFactory);
+    factory.setBatchListener(true);
+    factory.setConsumerBatchEnabled(true);
+    factory.setBatchSize(batchSize);
+    factory.setPrefetchCount(batchSize * 2);
+    factory.setReceiveTimeout(receiveTimeoutMs);
+    factory.setConcurrentConsumers(concurrency);
+    factory.setMaxConcurrentConsumers(maxConcurrency);
+    // Failed emails are retried individually through the retry queue; a listener retry would
+    // resend the whole batch
+    factory.setAdviceChain();
+    return factory;
+  }
+
   @Bean
   public Queue virusScanQueue() {
     return QueueBuilder.durable(VIRUS_SCAN_QUEUE)
@@ -1,16 +1,21 @@
 package com.todoapp.infrastructure.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.infrastructure.cache.NotificationPreferenceCache;
+import com.todoapp.infrastructure.cache.ReferenceDataCacheInvalidator;
 
 @Configuration
 public class RedisConfig implements CachingConfigurer {
@@ -36,4 +41,34 @@ public class RedisConfig implements CachingConfigurer {
     template.afterPropertiesSet();
     return template;
   }
+
+  /** Delivers second-level cache evictions published by other nodes. */
+  @Bean
+  @ConditionalOnProperty(
+      name = "app.reference-cache.cross-node-eviction.enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public RedisMessageListenerContainer referenceDataEvictionListenerContainer(
+      RedisConnectionFactory connectionFactory, ReferenceDataCacheInvalidator invalidator) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(
+        invalidator, new ChannelTopic(ReferenceDataCacheInvalidator.EVICTION_CHANNEL));
+    return container;
+  }
+
+  /** Delivers notification preference evictions published by other nodes. */
+  @Bean
+  @ConditionalOnProperty(
+      name = "app.notifications.preferences.cross-node-eviction.enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public RedisMessageListenerContainer notificationPreferenceEvictionListenerContainer(
+      RedisConnectionFactory connectionFactory, NotificationPreferenceCache preferenceCache) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(
+        preferenceCache, new ChannelTopic(NotificationPreferenceCache.EVICTION_CHANNEL));
+    return container;
+  }
 }
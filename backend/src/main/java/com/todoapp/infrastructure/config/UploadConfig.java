@@ -0,0 +1,50 @@
+package com.todoapp.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor configuration for finalizing asynchronous uploads. Transfers to object storage run on
+ * this pool instead of servlet threads. When the queue is full the upload simply stays STAGED and
+ * is picked up by the recovery sweep in {@link
+ * com.todoapp.application.service.AttachmentUploadFinalizer}. Transfers are I/O bound, so in
+ * virtual-thread mode the workers are virtual threads; the pool size still caps concurrent uploads.
+ */
+@Configuration
+public class UploadConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(UploadConfig.class);
+
+  @Value("${app.file-upload.async.threads:4}")
+  private int threads;
+
+  @Value("${app.file-upload.async.queue-capacity:500}")
+  private int queueCapacity;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
+  @Bean(name = "uploadExecutor")
+  public ThreadPoolTaskExecutor uploadExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("upload-");
+    if (virtualThreads) {
+      executor.setThreadFactory(Thread.ofVirtual().name("upload-", 1).factory());
+    }
+    executor.setRejectedExecutionHandler(
+        (task, pool) ->
+            logger.warn(
+                "Upload queue full ({} pending), leaving upload for recovery sweep",
+                pool.getQueue().size()));
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(60);
+    return executor;
+  }
+}
@@ -0,0 +1,212 @@
+package com.todoapp.infrastructure.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.infrastructure.config.RabbitMQConfig;
+import com.todoapp.infrastructure.messaging.EmailTemplateRenderer.RenderedEmail;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Delivers queued notification emails.
+ *
+ * <p>Messages arrive from {@code email.queue} in batches that are acknowledged together. All emails
+ * of a batch go out over a single SMTP connection, and the listener concurrency bounds the number
+ * of open connections. Each recipient domain has its own rate limit; emails over the limit wait in
+ * the retry queue instead of blocking the consumer. Failed emails are retried through the retry
+ * queue (a dead-letter delay queue) up to the configured number of attempts and then parked in
+ * {@code email.parking.queue}. Emails that can never be sent, such as unreadable payloads or
+ * invalid addresses, are parked immediately.
+ */
+@Service
+public class EmailDeliveryService {
+
+  private static final Logger logger = LoggerFactory.getLogger(EmailDeliveryService.class);
+
+  static final String ATTEMPT_HEADER = "x-email-attempt";
+
+  private final JavaMailSender mailSender;
+  private final EmailTemplateRenderer templateRenderer;
+  private final RabbitTemplate rabbitTemplate;
+  private final ObjectMapper objectMapper;
+
+  private final Map<String, Bucket> domainLimits = new ConcurrentHashMap<>();
+
+  @Value("${app.email.from-address:noreply@example.com}")
+  private String fromAddress;
+
+  @Value("${app.email.from-name:TODO App}")
+  private String fromName;
+
+  @Value("${app.email.delivery.max-attempts:5}")
+  private int maxAttempts;
+
+  @Value("${app.email.rate-limit.per-domain-per-minute:120}")
+  private long perDomainPerMinute;
+
+  public EmailDeliveryService(
+      JavaMailSender mailSender,
+      EmailTemplateRenderer templateRenderer,
+      RabbitTemplate rabbitTemplate,
+      ObjectMapper objectMapper) {
+    this.mailSender = mailSender;
+    this.templateRenderer = templateRenderer;
+    this.rabbitTemplate = rabbitTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Deliver a batch of queued emails. Every message is either sent, scheduled for retry or parked,
+   * and the batch is acknowledged. Only a broker failure while re-queueing rejects the batch, which
+   * the broker then dead-letters to the retry queue.
+   *
+   * @param messages The queued messages
+   */
+  @RabbitListener(
+      queues = RabbitMQConfig.EMAIL_QUEUE,
+      containerFactory = "emailListenerContainerFactory")
+  public void deliverBatch(List<Message> messages) {
+    Map<MimeMessage, Message> outgoing = new LinkedHashMap<>();
+
+    for (Message message : messages) {
+      EmailMessage email;
+      try {
+        email = objectMapper.readValue(message.getBody(), EmailMessage.class);
+      } catch (Exception e) {
+        logger.error("Unreadable email message, parking it", e);
+        park(message);
+        continue;
+      }
+
+      if (!tryAcquire(email.recipientDomain())) {
+        // Not a failure, so the attempt count is kept
+        logger.debug("Rate limit reached for domain {}, delaying email", email.recipientDomain());
+        retryLater(message, attempt(message));
+        continue;
+      }
+
+      try {
+        outgoing.put(toMimeMessage(email), message);
+      } catch (Exception e) {
+        logger.error("Cannot build email {}, parking it", email.notificationId(), e);
+        park(message);
+      }
+    }
+
+    if (!outgoing.isEmpty()) {
+      send(outgoing);
+    }
+  }
+
+  private void send(Map<MimeMessage, Message> outgoing) {
+    try {
+      // One connection for the whole batch
+      mailSender.send(outgoing.keySet().toArray(new MimeMessage[0]));
+      logger.info("Sent {} notification emails", outgoing.size());
+    } catch (MailSendException e) {
+      Map<Object, Exception> failed = e.getFailedMessages();
+      if (failed.isEmpty()) {
+        // The connection itself failed, so nothing was sent
+        logger.warn("Email batch of {} failed", outgoing.size(), e);
+        outgoing.values().forEach(this::retryOrPark);
+        return;
+      }
+      logger.warn("{} of {} emails failed", failed.size(), outgoing.size());
+      failed.keySet().stream()
+          .map(outgoing::get)
+          .filter(message -> message != null)
+          .forEach(this::retryOrPark);
+    } catch (MailException e) {
+      logger.warn("Email batch of {} failed", outgoing.size(), e);
+      outgoing.values().forEach(this::retryOrPark);
+    }
+  }
+
+  private MimeMessage toMimeMessage(EmailMessage email) throws Exception {
+    RenderedEmail rendered = templateRenderer.render(email);
+    MimeMessage mimeMessage = mailSender.createMimeMessage();
+    MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, StandardCharsets.UTF_8.name());
+    helper.setFrom(fromAddress, fromName);
+    helper.setTo(email.recipient());
+    helper.setSubject(rendered.subject());
+    helper.setText(rendered.body());
+    return mimeMessage;
+  }
+
+  private boolean tryAcquire(String domain) {
+    return domainLimits
+        .computeIfAbsent(
+            domain,
+            key ->
+                Bucket.builder()
+                    .addLimit(
+                        Bandwidth.classic(
+                            perDomainPerMinute,
+                            Refill.greedy(perDomainPerMinute, Duration.ofMinutes(1))))
+                    .build())
+        .tryConsume(1);
+  }
+
+  private void retryOrPark(Message message) {
+    int nextAttempt = attempt(message) + 1;
+    if (nextAttempt >= maxAttempts) {
+      logger.error("Email failed {} times, parking it", nextAttempt);
+      park(message);
+    } else {
+      retryLater(message, nextAttempt);
+    }
+  }
+
+  private void retryLater(Message message, int attempt) {
+    message.getMessageProperties().setHeader(ATTEMPT_HEADER, attempt);
+    rabbitTemplate.send(
+        RabbitMQConfig.EMAIL_DEAD_LETTER_EXCHANGE, RabbitMQConfig.EMAIL_ROUTING_KEY, message);
+  }
+
+  private void park(Message message) {
+    rabbitTemplate.send("", RabbitMQConfig.EMAIL_PARKING_QUEUE, message);
+  }
+
+  /**
+   * The number of failed delivery attempts of a message. Counts the attempts recorded by this
+   * service and the times the broker dead-lettered the message from the email queue.
+   */
+  private int attempt(Message message) {
+    Object header = message.getMessageProperties().getHeader(ATTEMPT_HEADER);
+    int attempts = header instanceof Number number ? number.intValue() : 0;
+
+    List<Map<String, ?>> deaths = message.getMessageProperties().getXDeathHeader();
+    if (deaths == null) {
+      return attempts;
+    }
+    for (Map<String, ?> death : deaths) {
+      if (RabbitMQConfig.EMAIL_QUEUE.equals(death.get("queue"))
+          && "rejected".equals(String.valueOf(death.get("reason")))
+          && death.get("count") instanceof Number count) {
+        attempts += count.intValue();
+      }
+    }
+    return attempts;
+  }
+}
@@ -0,0 +1,55 @@
+package com.todoapp.infrastructure.messaging;
+
+import java.util.UUID;
+
+import com.todoapp.domain.model.Notification;
+import com.todoapp.domain.model.NotificationType;
+import com.todoapp.domain.model.Task;
+
+/**
+ * Payload of a notification email on {@code email.queue}. Carries everything needed to render and
+ * send the email, so delivery never reads the database.
+ *
+ * @param notificationId The notification the email belongs to
+ * @param recipient The recipient address
+ * @param type The notification type, which selects the subject template
+ * @param message The notification message
+ * @param taskDescription The related task's description, or null
+ * @param taskDueDate The related task's due date, or null
+ */
+public record EmailMessage(
+    UUID notificationId,
+    String recipient,
+    NotificationType type,
+    String message,
+    String taskDescription,
+    String taskDueDate) {
+
+  /**
+   * Build the payload for a notification. Must be called while the notification's user and task can
+   * still be loaded.
+   *
+   * @param notification The notification
+   * @return The email payload
+   */
+  public static EmailMessage of(Notification notification) {
+    Task task = notification.getRelatedTask();
+    return new EmailMessage(
+        notification.getId(),
+        notification.getUser().getEmail(),
+        notification.getType(),
+        notification.getMessage(),
+        task != null ? task.getDescription() : null,
+        task != null && task.getDueDate() != null ? task.getDueDate().toString() : null);
+  }
+
+  /**
+   * The lower-cased domain of the recipient address, used for per-domain rate limiting.
+   *
+   * @return The recipient domain, or an empty string if the address has none
+   */
+  public String recipientDomain() {
+    int at = recipient == null ? -1 : recipient.lastIndexOf('@');
+    return at < 0 ? "" : recipient.substring(at + 1).toLowerCase();
+  }
+}
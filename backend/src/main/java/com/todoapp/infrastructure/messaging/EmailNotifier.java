@@ -2,128 +2,68 @@ package com.todoapp.infrastructure.messaging;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.todoapp.domain.model.Notification;
+import com.todoapp.infrastructure.config.RabbitMQConfig;
 
+/**
+ * Queues notification emails for delivery. Emails are rendered and sent by {@link
+ * EmailDeliveryService}, so callers (requests, due-date sweeps) never wait for SMTP.
+ */
 @Service
 public class EmailNotifier {
 
   private static final Logger logger = LoggerFactory.getLogger(EmailNotifier.class);
 
-  private static final String EMAIL_QUEUE = "email-notification-queue";
+  private final RabbitTemplate rabbitTemplate;
 
-  /**
-   * Send notification email to user.
-   *
-   * <p>Note: This is a simulated implementation. In production, this would integrate with an email
-   * service like SendGrid, AWS SES, or SMTP server.
-   *
-   * @param notification The notification to send
-   */
-  public void sendNotificationEmail(Notification notification) {
-    try {
-      String userEmail = notification.getUser().getEmail();
-      String subject = getEmailSubject(notification);
-      String body = getEmailBody(notification);
-
-      logger.info(
-          "Sending email notification to: {}, subject: {}, type: {}",
-          userEmail,
-          subject,
-          notification.getType());
-
-      // In production, implement actual email sending logic here
-      // Example: emailService.send(userEmail, subject, body);
-
-      // For now, just log the email details
-      logger.debug("Email body: {}", body);
-
-    } catch (Exception e) {
-      logger.error("Failed to send email notification", e);
-      throw new RuntimeException("Email sending failed", e);
-    }
-  }
-
-  /**
-   * Process email notifications from RabbitMQ queue. This method is a consumer that processes email
-   * notifications asynchronously.
-   *
-   * @param notificationId The notification ID
-   */
-  @RabbitListener(queues = EMAIL_QUEUE)
-  public void processEmailNotification(String notificationId) {
-    try {
-      logger.info("Processing email notification from queue: {}", notificationId);
-
-      // In production:
-      // 1. Fetch notification from database
-      // 2. Send email via email service
-      // 3. Update notification status
-
-      logger.info("Email notification processed: {}", notificationId);
-
-    } catch (Exception e) {
-      logger.error("Error processing email notification: {}", notificationId, e);
-    }
+  public EmailNotifier(RabbitTemplate rabbitTemplate) {
+    this.rabbitTemplate = rabbitTemplate;
   }
 
   /**
-   * Get email subject based on notification type.
+   * Queue a notification email to its user. Inside a transaction the email is queued once the
+   * transaction commits, so a rolled-back notification is never emailed.
    *
-   * @param notification The notification
-   * @return Email subject
+   * @param notification The notification to send
    */
-  private String getEmailSubject(Notification notification) {
-    return switch (notification.getType()) {
-      case TASK_DUE_SOON -> "Task Due Soon: " + getTaskDescription(notification);
-      case TASK_OVERDUE -> "Task Overdue: " + getTaskDescription(notification);
-      case TASK_SHARED -> "Task Shared With You: " + getTaskDescription(notification);
-      case TASK_COMMENTED -> "New Comment on Task: " + getTaskDescription(notification);
-      case TASK_MENTIONED -> "You Were Mentioned in a Comment";
-      case TASK_ASSIGNED -> "Task Assigned to You: " + getTaskDescription(notification);
-      case REMINDER -> "Reminder: " + getTaskDescription(notification);
-    };
+  public void sendNotificationEmail(Notification notification) {
+    // Resolve user and task now; they cannot be loaded after the transaction ends
+    sendEmail(EmailMessage.of(notification));
   }
 
   /**
-   * Get email body based on notification.
+   * Queue an email, e.g. a digest that has no notification of its own. Inside a transaction the
+   * email is queued once the transaction commits.
    *
-   * @param notification The notification
-   * @return Email body
+   * @param message The email payload
    */
-  private String getEmailBody(Notification notification) {
-    StringBuilder body = new StringBuilder();
-    body.append("Hello,\n\n");
-    body.append(notification.getMessage());
-    body.append("\n\n");
-
-    if (notification.getRelatedTask() != null) {
-      body.append("Task: ").append(notification.getRelatedTask().getDescription()).append("\n");
-      if (notification.getRelatedTask().getDueDate() != null) {
-        body.append("Due Date: ").append(notification.getRelatedTask().getDueDate()).append("\n");
-      }
-      body.append("\n");
+  public void sendEmail(EmailMessage message) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              publish(message);
+            }
+          });
+    } else {
+      publish(message);
     }
-
-    body.append("Click here to view details in the application.\n\n");
-    body.append("Best regards,\n");
-    body.append("TODO App Team");
-
-    return body.toString();
   }
 
-  /**
-   * Get task description from notification.
-   *
-   * @param notification The notification
-   * @return Task description or empty string
-   */
-  private String getTaskDescription(Notification notification) {
-    if (notification.getRelatedTask() != null) {
-      return notification.getRelatedTask().getDescription();
+  private void publish(EmailMessage message) {
+    try {
+      rabbitTemplate.convertAndSend(
+          RabbitMQConfig.EMAIL_EXCHANGE, RabbitMQConfig.EMAIL_ROUTING_KEY, message);
+      logger.debug(
+          "Queued email notification {} of type {}", message.notificationId(), message.type());
+    } catch (Exception e) {
+      logger.error("Failed to queue email notification {}", message.notificationId(), e);
     }
-    return "";
   }
 }
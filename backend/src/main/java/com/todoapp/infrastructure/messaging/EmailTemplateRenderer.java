@@ -0,0 +1,135 @@
+package com.todoapp.infrastructure.messaging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.todoapp.domain.model.NotificationType;
+
+/**
+ * Renders notification emails from the templates under {@code classpath:email/}.
+ *
+ * <p>Templates are parsed once at startup into literal and placeholder parts, so rendering is a
+ * single pass that appends the parts to a builder. Placeholders are written as {@code {{name}}};
+ * unknown placeholders render as an empty string. A missing subject template fails startup rather
+ * than the first email of that type.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+  private static final String SUBJECTS_TEMPLATE = "email/subjects.properties";
+  private static final String BODY_TEMPLATE = "email/notification-body.txt";
+
+  private final Map<NotificationType, CompiledTemplate> subjects =
+      new EnumMap<>(NotificationType.class);
+  private final CompiledTemplate body;
+
+  public EmailTemplateRenderer() {
+    Properties subjectTemplates = new Properties();
+    try (InputStream in = new ClassPathResource(SUBJECTS_TEMPLATE).getInputStream()) {
+      subjectTemplates.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to load " + SUBJECTS_TEMPLATE, e);
+    }
+    for (NotificationType type : NotificationType.values()) {
+      String template = subjectTemplates.getProperty(type.name());
+      if (template == null) {
+        throw new IllegalStateException("No email subject template for " + type);
+      }
+      subjects.put(type, CompiledTemplate.compile(template));
+    }
+
+    try (InputStream in = new ClassPathResource(BODY_TEMPLATE).getInputStream()) {
+      body = CompiledTemplate.compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to load " + BODY_TEMPLATE, e);
+    }
+  }
+
+  /**
+   * Render the subject and body of a notification email.
+   *
+   * @param message The email payload
+   * @return The rendered email
+   */
+  public RenderedEmail render(EmailMessage message) {
+    String task = message.taskDescription() != null ? message.taskDescription() : "";
+
+    StringBuilder taskDetails = new StringBuilder();
+    if (message.taskDescription() != null) {
+      taskDetails.append("Task: ").append(message.taskDescription()).append("\n");
+      if (message.taskDueDate() != null) {
+        taskDetails.append("Due Date: ").append(message.taskDueDate()).append("\n");
+      }
+      taskDetails.append("\n");
+    }
+
+    Map<String, String> variables =
+        Map.of(
+            "task",
+            task,
+            "message",
+            message.message() != null ? message.message() : "",
+            "taskDetails",
+            taskDetails.toString());
+    return new RenderedEmail(
+        subjects.get(message.type()).render(variables), body.render(variables));
+  }
+
+  /**
+   * A rendered email.
+   *
+   * @param subject The subject line
+   * @param body The plain-text body
+   */
+  public record RenderedEmail(String subject, String body) {}
+
+  /** A template split into literal text and placeholder names. */
+  private static final class CompiledTemplate {
+
+    private final List<String> literals;
+    private final List<String> placeholders;
+
+    private CompiledTemplate(List<String> literals, List<String> placeholders) {
+      this.literals = literals;
+      this.placeholders = placeholders;
+    }
+
+    static CompiledTemplate compile(String template) {
+      List<String> literals = new ArrayList<>();
+      List<String> placeholders = new ArrayList<>();
+      int position = 0;
+      while (true) {
+        int start = template.indexOf("{{", position);
+        int end = start < 0 ? -1 : template.indexOf("}}", start + 2);
+        if (end < 0) {
+          literals.add(template.substring(position));
+          break;
+        }
+        literals.add(template.substring(position, start));
+        placeholders.add(template.substring(start + 2, end).trim());
+        position = end + 2;
+      }
+      // literals always has one more entry than placeholders
+      return new CompiledTemplate(List.copyOf(literals), List.copyOf(placeholders));
+    }
+
+    String render(Map<String, String> variables) {
+      StringBuilder out = new StringBuilder();
+      for (int i = 0; i < placeholders.size(); i++) {
+        out.append(literals.get(i)).append(variables.getOrDefault(placeholders.get(i), ""));
+      }
+      return out.append(literals.get(placeholders.size())).toString();
+    }
+  }
+}
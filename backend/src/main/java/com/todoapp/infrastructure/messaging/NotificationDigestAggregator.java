@@ -0,0 +1,251 @@
+package com.todoapp.infrastructure.messaging;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.todoapp.application.service.NotificationService;
+import com.todoapp.domain.model.NotificationDigestItem;
+import com.todoapp.domain.model.NotificationType;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.NotificationDigestItemRepository;
+import com.todoapp.domain.repository.UserRepository;
+
+/**
+ * Delivers buffered notifications as digests: one in-app notification and one email per user and
+ * window instead of one per event.
+ *
+ * <p>Users are split into shards by ID. Every flush walks all shards starting at a random one and
+ * skips shards another node holds the Redis lock of, so nodes share the work without coordinating
+ * otherwise. Each user's digest is delivered and its items deleted in one transaction; a failed
+ * user keeps its items and is retried on the next flush. The items are deleted before the digest is
+ * sent, so if a flush outlives its lock and another node gets to the same items, only the node that
+ * deleted all of them delivers.
+ */
+@Service
+public class NotificationDigestAggregator {
+
+  private static final Logger logger = LoggerFactory.getLogger(NotificationDigestAggregator.class);
+
+  private static final String SHARD_LOCK_PREFIX = "notifications:digest:shard-lock::";
+
+  // Releases a lock only while it still holds this flush's token, not one taken over after expiry
+  private static final RedisScript<Long> RELEASE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+              + "return 0",
+          Long.class);
+
+  private final NotificationDigestItemRepository digestItemRepository;
+  private final UserRepository userRepository;
+  private final NotificationService notificationService;
+  private final StringRedisTemplate redisTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${app.notifications.digest.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.notifications.digest.shards:16}")
+  private int shardCount;
+
+  @Value("${app.notifications.digest.batch-size:200}")
+  private int batchSize;
+
+  @Value("${app.notifications.digest.max-items:50}")
+  private int maxItems;
+
+  @Value("${app.notifications.digest.lock-ttl:5m}")
+  private Duration lockTtl;
+
+  public NotificationDigestAggregator(
+      NotificationDigestItemRepository digestItemRepository,
+      UserRepository userRepository,
+      NotificationService notificationService,
+      StringRedisTemplate redisTemplate,
+      TransactionTemplate transactionTemplate) {
+    this.digestItemRepository = digestItemRepository;
+    this.userRepository = userRepository;
+    this.notificationService = notificationService;
+    this.redisTemplate = redisTemplate;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  /** Deliver the digests that are due on the configured interval. */
+  @Scheduled(fixedDelayString = "${app.notifications.digest.flush-interval-ms:60000}")
+  public void scheduledFlush() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      flush(LocalDateTime.now());
+    } catch (Exception e) {
+      logger.error("Notification digest flush failed", e);
+    }
+  }
+
+  /**
+   * Deliver every digest that is due in the shards this node can lock.
+   *
+   * @param now The current time
+   * @return The number of digests delivered
+   */
+  public int flush(LocalDateTime now) {
+    int delivered = 0;
+    String token = UUID.randomUUID().toString();
+    int start = ThreadLocalRandom.current().nextInt(shardCount);
+    for (int i = 0; i < shardCount; i++) {
+      int shard = (start + i) % shardCount;
+      String lockKey = SHARD_LOCK_PREFIX + shard;
+      Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl);
+      if (!Boolean.TRUE.equals(locked)) {
+        logger.debug("Digest shard {} is being flushed on another node", shard);
+        continue;
+      }
+      try {
+        delivered += flushShard(shard, now);
+      } finally {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+      }
+    }
+
+    if (delivered > 0) {
+      logger.info("Delivered {} notification digests", delivered);
+    }
+    return delivered;
+  }
+
+  private int flushShard(int shard, LocalDateTime now) {
+    int delivered = 0;
+    while (true) {
+      List<Long> userIds =
+          digestItemRepository.findDueUserIds(now, shardCount, shard, PageRequest.of(0, batchSize));
+      if (userIds.isEmpty()) {
+        return delivered;
+      }
+
+      Map<Long, List<NotificationDigestItem>> itemsByUser =
+          digestItemRepository
+              .findByUserIdInAndDeliverAtLessThanEqualOrderByCreatedAtAsc(userIds, now)
+              .stream()
+              .collect(
+                  Collectors.groupingBy(
+                      NotificationDigestItem::getUserId, LinkedHashMap::new, Collectors.toList()));
+      Map<Long, User> users =
+          userRepository.findAllById(userIds).stream()
+              .collect(Collectors.toMap(User::getId, Function.identity()));
+
+      int deliveredInBatch = 0;
+      for (Map.Entry<Long, List<NotificationDigestItem>> entry : itemsByUser.entrySet()) {
+        User user = users.get(entry.getKey());
+        if (user == null) {
+          // Deleted users lose their items through the foreign key
+          continue;
+        }
+        try {
+          transactionTemplate.executeWithoutResult(status -> deliver(user, entry.getValue()));
+          deliveredInBatch++;
+        } catch (RuntimeException e) {
+          logger.error("Failed to deliver notification digest to user {}", user.getId(), e);
+        }
+      }
+
+      delivered += deliveredInBatch;
+      if (deliveredInBatch == 0) {
+        // Only failures left in this shard; they are retried on the next flush
+        return delivered;
+      }
+    }
+  }
+
+  private void deliver(User user, List<NotificationDigestItem> items) {
+    // Claim the items first; the rows stay locked until commit, so a second node finds them gone
+    int deleted =
+        digestItemRepository.deleteByIds(
+            items.stream().map(NotificationDigestItem::getId).collect(Collectors.toList()));
+    if (deleted != items.size()) {
+      throw new IllegalStateException(
+          "Digest items of user "
+              + user.getId()
+              + " were delivered concurrently ("
+              + deleted
+              + " of "
+              + items.size()
+              + " left)");
+    }
+
+    boolean inApp = items.stream().anyMatch(NotificationDigestItem::isInAppEnabled);
+    boolean email = items.stream().anyMatch(NotificationDigestItem::isEmailEnabled);
+    String summary = summarize(items);
+
+    notificationService.createDigestNotification(
+        user, summary, renderDetails(summary, items), inApp, email);
+  }
+
+  /**
+   * Summarize a digest in one line, e.g. "You have 3 new notifications: 2 due soon, 1 mention".
+   *
+   * @param items The items of the digest
+   * @return The summary, short enough for a notification message
+   */
+  String summarize(List<NotificationDigestItem> items) {
+    Map<NotificationType, Integer> counts = new EnumMap<>(NotificationType.class);
+    items.forEach(item -> counts.merge(item.getType(), 1, Integer::sum));
+
+    List<String> parts = new ArrayList<>();
+    counts.forEach((type, count) -> parts.add(count + " " + label(type, count)));
+    String summary =
+        String.format(
+            "You have %d new notification%s: %s",
+            items.size(), items.size() == 1 ? "" : "s", String.join(", ", parts));
+    return summary.length() > 500 ? summary.substring(0, 497) + "..." : summary;
+  }
+
+  /**
+   * Render the full digest text: the summary followed by one line per notification.
+   *
+   * @param summary The summary line
+   * @param items The items of the digest, oldest first
+   * @return The digest text
+   */
+  String renderDetails(String summary, List<NotificationDigestItem> items) {
+    StringBuilder details = new StringBuilder(summary).append("\n\n");
+    items.stream()
+        .limit(maxItems)
+        .forEach(item -> details.append("- ").append(item.getMessage()).append("\n"));
+    if (items.size() > maxItems) {
+      details.append("...and ").append(items.size() - maxItems).append(" more\n");
+    }
+    return details.toString();
+  }
+
+  private String label(NotificationType type, int count) {
+    return switch (type) {
+      case TASK_DUE_SOON -> "due soon";
+      case TASK_OVERDUE -> "overdue";
+      case TASK_SHARED -> count == 1 ? "shared task" : "shared tasks";
+      case TASK_COMMENTED -> count == 1 ? "comment" : "comments";
+      case TASK_MENTIONED -> count == 1 ? "mention" : "mentions";
+      case TASK_ASSIGNED -> count == 1 ? "assignment" : "assignments";
+      case REMINDER, DIGEST -> count == 1 ? "reminder" : "reminders";
+    };
+  }
+}
@@ -1,15 +1,18 @@
 package com.todoapp.infrastructure.messaging;
 
 import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.todoapp.domain.event.AttachmentStatusChangedEvent;
 import com.todoapp.domain.model.FileAttachment;
 import com.todoapp.domain.model.VirusScanStatus;
 import com.todoapp.domain.repository.FileAttachmentRepository;
@@ -25,14 +28,17 @@ public class VirusScanService {
   private final RabbitTemplate rabbitTemplate;
   private final FileAttachmentRepository fileAttachmentRepository;
   private final FileStorageService fileStorageService;
+  private final ApplicationEventPublisher eventPublisher;
 
   public VirusScanService(
       RabbitTemplate rabbitTemplate,
       FileAttachmentRepository fileAttachmentRepository,
-      FileStorageService fileStorageService) {
+      FileStorageService fileStorageService,
+      ApplicationEventPublisher eventPublisher) {
     this.rabbitTemplate = rabbitTemplate;
     this.fileAttachmentRepository = fileAttachmentRepository;
     this.fileStorageService = fileStorageService;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -56,10 +62,12 @@ public class VirusScanService {
    * <p>Note: In a real production environment, this would integrate with a virus scanning solution
    * like ClamAV. For this implementation, we perform a basic simulation.
    *
+   * <p>Each status update is saved in its own transaction so SCANNING is visible to clients while
+   * the scan runs, and every transition is published for status push.
+   *
    * @param attachmentIdStr The attachment ID as a string
    */
   @RabbitListener(queues = VIRUS_SCAN_QUEUE)
-  @Transactional
   public void processVirusScan(String attachmentIdStr) {
     try {
       UUID attachmentId = UUID.fromString(attachmentIdStr);
@@ -73,7 +81,8 @@ public class VirusScanService {
 
       // Update status to SCANNING
       attachment.setScanStatus(VirusScanStatus.SCANNING);
-      fileAttachmentRepository.save(attachment);
+      attachment = fileAttachmentRepository.save(attachment);
+      publishStatusChange(attachment);
 
       // Perform virus scan
       boolean isClean = performVirusScan(attachment);
@@ -81,13 +90,18 @@ public class VirusScanService {
       // Update scan status based on result
       if (isClean) {
         attachment.setScanStatus(VirusScanStatus.CLEAN);
+        // Recorded with the status so a preview job dropped by a full queue is retried later
+        attachment.setPreviewRequestedAt(LocalDateTime.now());
         logger.info("File attachment is clean: {}", attachmentId);
       } else {
         attachment.setScanStatus(VirusScanStatus.INFECTED);
         logger.warn("File attachment is infected: {}", attachmentId);
       }
 
-      fileAttachmentRepository.save(attachment);
+      attachment = fileAttachmentRepository.save(attachment);
+
+      // Downstream work (status push, preview generation) reacts to the final status
+      publishStatusChange(attachment);
 
     } catch (Exception e) {
       logger.error("Error processing virus scan: {}", attachmentIdStr, e);
@@ -100,7 +114,7 @@ public class VirusScanService {
             .ifPresent(
                 attachment -> {
                   attachment.setScanStatus(VirusScanStatus.SCAN_FAILED);
-                  fileAttachmentRepository.save(attachment);
+                  publishStatusChange(fileAttachmentRepository.save(attachment));
                 });
       } catch (Exception ex) {
         logger.error("Failed to update scan status to FAILED: {}", attachmentIdStr, ex);
@@ -175,8 +189,18 @@ public class VirusScanService {
     // Reset status to PENDING and queue for scanning
     attachment.setScanStatus(VirusScanStatus.PENDING);
     fileAttachmentRepository.save(attachment);
+    publishStatusChange(attachment);
 
     queueForScanning(attachmentId);
     logger.info("File attachment queued for re-scanning: {}", attachmentId);
   }
+
+  private void publishStatusChange(FileAttachment attachment) {
+    eventPublisher.publishEvent(
+        new AttachmentStatusChangedEvent(
+            attachment.getId(),
+            attachment.getTask().getId(),
+            attachment.getUser().getId(),
+            attachment.getScanStatus()));
+  }
 }
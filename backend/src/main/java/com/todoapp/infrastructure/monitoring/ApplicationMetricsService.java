@@ -1,5 +1,7 @@
 package com.todoapp.infrastructure.monitoring;
 
+import java.time.Duration;
+
 import org.springframework.stereotype.Service;
 
 import io.micrometer.core.instrument.Counter;
@@ -174,6 +176,34 @@ public class ApplicationMetricsService {
     fileUploadFailureCounter.increment();
   }
 
+  // Storage metrics
+  public Timer.Sample startStorageOperationTimer() {
+    return Timer.start(meterRegistry);
+  }
+
+  public void recordStorageOperation(Timer.Sample sample, String operation, boolean success) {
+    String outcome = success ? "success" : "error";
+    sample.stop(
+        Timer.builder("storage.operation.time")
+            .description("Latency of object storage operations")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry));
+    if (!success) {
+      meterRegistry.counter("storage.operation.errors", "operation", operation).increment();
+    }
+  }
+
+  // Virtual thread metrics
+  public void recordVirtualThreadPinned(Duration duration, String site) {
+    Timer.builder("jvm.virtual.thread.pinned")
+        .description("Time virtual threads spent pinned to their carrier thread")
+        .tag("site", site)
+        .register(meterRegistry)
+        .record(duration);
+  }
+
   // Comment metrics
   public void recordCommentCreated() {
     commentCreatedCounter.increment();
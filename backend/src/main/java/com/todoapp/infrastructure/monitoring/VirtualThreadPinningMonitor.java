@@ -0,0 +1,148 @@
+package com.todoapp.infrastructure.monitoring;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically because they block
+ * inside a {@code synchronized} block or a native frame. Pinned threads hold a carrier for the
+ * whole blocking call, so a few hot sites can starve the carrier pool.
+ *
+ * <p>Pinning events are read from an in-process JFR stream. Each site is logged with its stack the
+ * first time it is seen and counted in the {@code jvm.virtual.thread.pinned} timer afterwards. The
+ * monitor only runs in virtual-thread mode.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final String APPLICATION_PACKAGE = "com.todoapp.";
+  private static final String UNKNOWN_SITE = "unknown";
+
+  // Bounds the set of sites already logged with a full stack
+  private static final int MAX_REPORTED_SITES = 1000;
+
+  private final ApplicationMetricsService metricsService;
+  private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+  private volatile RecordingStream recordingStream;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreadsEnabled;
+
+  @Value("${app.virtual-threads.pinning-diagnostics.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.virtual-threads.pinning-diagnostics.threshold-ms:20}")
+  private long thresholdMs;
+
+  @Value("${app.virtual-threads.pinning-diagnostics.stack-depth:8}")
+  private int stackDepth;
+
+  public VirtualThreadPinningMonitor(ApplicationMetricsService metricsService) {
+    this.metricsService = metricsService;
+  }
+
+  /** Start streaming pinning events once the application is up. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!virtualThreadsEnabled || !enabled) {
+      return;
+    }
+
+    try {
+      RecordingStream stream = new RecordingStream();
+      stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+      stream.onEvent(PINNED_EVENT, this::onPinnedEvent);
+      stream.startAsync();
+      recordingStream = stream;
+      logger.info("Virtual thread pinning diagnostics enabled (threshold {} ms)", thresholdMs);
+    } catch (Exception e) {
+      // JFR can be unavailable on stripped-down runtimes; diagnostics are optional
+      logger.warn("Could not start virtual thread pinning diagnostics", e);
+    }
+  }
+
+  /** Stop the event stream on shutdown. */
+  @EventListener(ContextClosedEvent.class)
+  public void stop() {
+    RecordingStream stream = recordingStream;
+    if (stream != null) {
+      recordingStream = null;
+      stream.close();
+    }
+  }
+
+  /**
+   * Record a pinned interval.
+   *
+   * @param duration How long the virtual thread was pinned
+   * @param frames The stack of the pinned thread, innermost frame first
+   */
+  public void recordPinning(Duration duration, List<String> frames) {
+    String site = resolveSite(frames);
+    metricsService.recordVirtualThreadPinned(duration, site);
+
+    if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(site)) {
+      logger.warn(
+          "Virtual thread pinned for {} ms at {}\n\t{}",
+          duration.toMillis(),
+          site,
+          String.join("\n\t", frames));
+    } else {
+      logger.debug("Virtual thread pinned for {} ms at {}", duration.toMillis(), site);
+    }
+  }
+
+  private void onPinnedEvent(RecordedEvent event) {
+    recordPinning(event.getDuration(), describeStack(event.getStackTrace()));
+  }
+
+  private List<String> describeStack(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return List.of();
+    }
+    return stackTrace.getFrames().stream()
+        .filter(RecordedFrame::isJavaFrame)
+        .limit(stackDepth)
+        .map(
+            frame ->
+                frame.getMethod().getType().getName()
+                    + "."
+                    + frame.getMethod().getName()
+                    + ":"
+                    + frame.getLineNumber())
+        .toList();
+  }
+
+  /**
+   * Use the innermost application frame as the site, so pinning inside a library is attributed to
+   * the code that called it. Line numbers are dropped to keep the metric tag stable.
+   */
+  private String resolveSite(List<String> frames) {
+    String site =
+        frames.stream()
+            .filter(frame -> frame.startsWith(APPLICATION_PACKAGE))
+            .findFirst()
+            .orElse(frames.isEmpty() ? UNKNOWN_SITE : frames.get(0));
+    int lineSeparator = site.lastIndexOf(':');
+    return lineSeparator > 0 ? site.substring(0, lineSeparator) : site;
+  }
+}
@@ -0,0 +1,387 @@
+package com.todoapp.infrastructure.persistence;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.todoapp.application.dto.ExportRecord;
+import com.todoapp.application.dto.ExportRecord.CategoryRecord;
+import com.todoapp.application.dto.ExportRecord.CommentRecord;
+import com.todoapp.application.dto.ExportRecord.TagRecord;
+import com.todoapp.application.dto.ExportRecord.TaskRecord;
+import com.todoapp.application.dto.ExportRecord.TimeEntryRecord;
+import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.EntryType;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.domain.model.SyncEntityType;
+import com.todoapp.domain.model.Tag;
+import com.todoapp.infrastructure.cache.ReferenceDataCacheInvalidator;
+
+/**
+ * Writes one chunk of an import with batched JDBC statements.
+ *
+ * <p>Entities use IDENTITY keys, which keep Hibernate from batching inserts, so the chunk is
+ * written here instead: task and comment IDs are drawn from their sequences in one query up front,
+ * so the created rows can be logged for delta sync, and tasks, tag links, comments and time entries
+ * are then each inserted with a single batch. Categories and tags are merged by name with the
+ * user's existing ones. The IDs of the file are mapped to the created rows in {@code
+ * import_id_map}, so later chunks, and a resumed job, can resolve parents and references. The chunk
+ * is written in the caller's transaction together with the job's checkpoint.
+ *
+ * <p>Hibernate does not see these statements, so the cached categories and tags of the user are
+ * evicted on every node through {@link ReferenceDataCacheInvalidator} once the chunk commits.
+ */
+@Component
+public class ImportChunkWriter {
+
+  private static final Logger logger = LoggerFactory.getLogger(ImportChunkWriter.class);
+
+  private static final String UPSERT_CATEGORY_SQL =
+      "INSERT INTO categories (user_id, name, color, icon) VALUES (?, ?, ?, ?)"
+          + " ON CONFLICT (user_id, name) DO UPDATE SET name = EXCLUDED.name RETURNING id";
+
+  private static final String UPSERT_TAG_SQL =
+      "INSERT INTO tags (user_id, name, color) VALUES (?, ?, ?)"
+          + " ON CONFLICT (user_id, name) DO UPDATE SET name = EXCLUDED.name RETURNING id";
+
+  private static final String NEXT_TASK_IDS_SQL =
+      "SELECT nextval('tasks_id_seq') FROM generate_series(1, ?)";
+
+  private static final String INSERT_TASK_SQL =
+      "INSERT INTO tasks (id, user_id, parent_task_id, category_id, description, is_completed,"
+          + " priority, due_date, completed_at, position, estimated_duration_minutes,"
+          + " actual_duration_minutes, depth, created_at, updated_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, CAST(? AS priority_level), ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_TASK_TAG_SQL =
+      "INSERT INTO task_tags (task_id, tag_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+  private static final String NEXT_COMMENT_IDS_SQL =
+      "SELECT nextval('comments_id_seq') FROM generate_series(1, ?)";
+
+  private static final String INSERT_COMMENT_SQL =
+      "INSERT INTO comments (id, task_id, author_id, content, is_edited, created_at, updated_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_TIME_ENTRY_SQL =
+      "INSERT INTO time_entries (task_id, user_id, entry_type, start_time, end_time,"
+          + " duration_minutes, notes)"
+          + " VALUES (?, ?, CAST(? AS entry_type), ?, ?, ?, ?)";
+
+  private static final String INSERT_ID_MAP_SQL =
+      "INSERT INTO import_id_map (job_id, entity_type, source_id, target_id) VALUES (?, ?, ?, ?)"
+          + " ON CONFLICT DO NOTHING";
+
+  private static final String ADVANCE_JOB_SQL =
+      "UPDATE import_jobs SET processed_records = ?, updated_at = ?"
+          + " WHERE id = ? AND status = 'RUNNING' AND processed_records = ?";
+
+  /** Depth limit of {@code tasks_depth_check}. */
+  private static final int MAX_DEPTH = 5;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final SyncChangeLog syncChangeLog;
+  private final ReferenceDataCacheInvalidator cacheInvalidator;
+
+  public ImportChunkWriter(
+      JdbcTemplate jdbcTemplate,
+      SyncChangeLog syncChangeLog,
+      ReferenceDataCacheInvalidator cacheInvalidator) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.syncChangeLog = syncChangeLog;
+    this.cacheInvalidator = cacheInvalidator;
+  }
+
+  /**
+   * Import a chunk of records and move the job's checkpoint past it. Must be called inside a
+   * transaction. The checkpoint is moved first: the job row stays locked until the transaction
+   * ends, so a second worker on the same job waits and then finds the checkpoint moved.
+   *
+   * @param jobId The ID of the import job
+   * @param userId The importing user, who owns every created row
+   * @param processed The job's checkpoint before the chunk
+   * @param records The records of the chunk, in file order
+   * @return false, with nothing written, if the job is no longer RUNNING or its checkpoint was
+   *     moved by another worker
+   */
+  public boolean write(Long jobId, Long userId, long processed, List<ExportRecord> records) {
+    int advanced =
+        jdbcTemplate.update(
+            ADVANCE_JOB_SQL,
+            processed + records.size(),
+            Timestamp.valueOf(LocalDateTime.now()),
+            jobId,
+            processed);
+    if (advanced == 0) {
+      return false;
+    }
+
+    List<CategoryRecord> categories = new ArrayList<>();
+    List<TagRecord> tags = new ArrayList<>();
+    List<TaskRecord> tasks = new ArrayList<>();
+    List<CommentRecord> comments = new ArrayList<>();
+    List<TimeEntryRecord> timeEntries = new ArrayList<>();
+    for (ExportRecord record : records) {
+      switch (record) {
+        case CategoryRecord category -> categories.add(category);
+        case TagRecord tag -> tags.add(tag);
+        case TaskRecord task -> tasks.add(task);
+        case CommentRecord comment -> comments.add(comment);
+        case TimeEntryRecord entry -> timeEntries.add(entry);
+      }
+    }
+
+    List<Object[]> mappings = new ArrayList<>();
+    for (CategoryRecord category : categories) {
+      Long id =
+          jdbcTemplate.queryForObject(
+              UPSERT_CATEGORY_SQL,
+              Long.class,
+              userId,
+              category.name(),
+              category.color(),
+              category.icon());
+      addMapping(mappings, jobId, SyncEntityType.CATEGORY, category.id(), id);
+      syncChangeLog.changed(SyncEntityType.CATEGORY, id, userId);
+      cacheInvalidator.evict(Category.class, id);
+    }
+    for (TagRecord tag : tags) {
+      Long id =
+          jdbcTemplate.queryForObject(UPSERT_TAG_SQL, Long.class, userId, tag.name(), tag.color());
+      addMapping(mappings, jobId, SyncEntityType.TAG, tag.id(), id);
+      syncChangeLog.changed(SyncEntityType.TAG, id, userId);
+      cacheInvalidator.evict(Tag.class, id);
+    }
+    // Mapped before the tasks, which may refer to them
+    if (!mappings.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_ID_MAP_SQL, mappings);
+      mappings.clear();
+    }
+
+    Map<Long, Long> taskIds = new HashMap<>();
+    if (!tasks.isEmpty()) {
+      insertTasks(jobId, userId, tasks, taskIds, mappings);
+    }
+    if (!comments.isEmpty() || !timeEntries.isEmpty()) {
+      Set<Long> referenced = new HashSet<>();
+      comments.forEach(comment -> addIfPresent(referenced, comment.taskId()));
+      timeEntries.forEach(entry -> addIfPresent(referenced, entry.taskId()));
+      referenced.removeAll(taskIds.keySet());
+      taskIds.putAll(lookup(jobId, SyncEntityType.TASK, referenced));
+      insertComments(userId, comments, taskIds);
+      insertTimeEntries(userId, timeEntries, taskIds);
+    }
+
+    if (!mappings.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_ID_MAP_SQL, mappings);
+    }
+    return true;
+  }
+
+  private void insertTasks(
+      Long jobId,
+      Long userId,
+      List<TaskRecord> tasks,
+      Map<Long, Long> taskIds,
+      List<Object[]> mappings) {
+    Set<Long> parents = new HashSet<>();
+    Set<Long> categories = new HashSet<>();
+    Set<Long> tags = new HashSet<>();
+    for (TaskRecord task : tasks) {
+      addIfPresent(parents, task.parentId());
+      addIfPresent(categories, task.categoryId());
+      if (task.tagIds() != null) {
+        task.tagIds().forEach(tagId -> addIfPresent(tags, tagId));
+      }
+    }
+    Map<Long, Long> categoryIds = lookup(jobId, SyncEntityType.CATEGORY, categories);
+    Map<Long, Long> tagIds = lookup(jobId, SyncEntityType.TAG, tags);
+    Map<Long, Long> parentIds = lookup(jobId, SyncEntityType.TASK, parents);
+    Map<Long, Integer> depths = parentIds.isEmpty() ? new HashMap<>() : depths(parentIds.values());
+
+    List<Long> ids = jdbcTemplate.queryForList(NEXT_TASK_IDS_SQL, Long.class, tasks.size());
+    List<Object[]> rows = new ArrayList<>(tasks.size());
+    List<Object[]> tagRows = new ArrayList<>();
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    for (int i = 0; i < tasks.size(); i++) {
+      TaskRecord task = tasks.get(i);
+      Long id = ids.get(i);
+      // Parents come first in the file, so a parent in an earlier chunk is already mapped
+      Long parentId = null;
+      if (task.parentId() != null) {
+        parentId = taskIds.getOrDefault(task.parentId(), parentIds.get(task.parentId()));
+        if (parentId == null) {
+          logger.debug("Parent of task {} not in import, importing at top level", task.id());
+        }
+      }
+      int depth = parentId != null ? depths.getOrDefault(parentId, 0) + 1 : 0;
+      if (depth > MAX_DEPTH) {
+        throw new IllegalArgumentException(
+            "Task " + task.id() + " is nested deeper than " + MAX_DEPTH + " levels");
+      }
+      depths.put(id, depth);
+      if (task.id() != null) {
+        taskIds.put(task.id(), id);
+        mappings.add(new Object[] {jobId, SyncEntityType.TASK.name(), task.id(), id});
+      }
+
+      rows.add(
+          new Object[] {
+            id,
+            userId,
+            parentId,
+            task.categoryId() != null ? categoryIds.get(task.categoryId()) : null,
+            task.description(),
+            task.completed(),
+            (task.priority() != null ? task.priority() : Priority.MEDIUM).name(),
+            timestamp(task.dueDate()),
+            task.completed() ? timestamp(task.completedAt()) : null,
+            task.position() != null ? task.position() : 0L,
+            task.estimatedDurationMinutes(),
+            task.actualDurationMinutes(),
+            depth,
+            task.createdAt() != null ? timestamp(task.createdAt()) : now,
+            now
+          });
+      if (task.tagIds() != null) {
+        for (Long tagId : task.tagIds()) {
+          Long target = tagIds.get(tagId);
+          if (target != null) {
+            tagRows.add(new Object[] {id, target});
+          }
+        }
+      }
+    }
+
+    jdbcTemplate.batchUpdate(INSERT_TASK_SQL, rows);
+    if (!tagRows.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_TASK_TAG_SQL, tagRows);
+    }
+    syncChangeLog.tasksChanged(ids, userId);
+  }
+
+  private void insertComments(Long userId, List<CommentRecord> comments, Map<Long, Long> taskIds) {
+    List<Object[]> rows = new ArrayList<>(comments.size());
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    for (CommentRecord comment : comments) {
+      Long taskId = taskIds.get(comment.taskId());
+      if (taskId == null) {
+        logger.debug(
+            "Task {} of comment {} not in import, skipping", comment.taskId(), comment.id());
+        continue;
+      }
+      Timestamp createdAt = comment.createdAt() != null ? timestamp(comment.createdAt()) : now;
+      // Comments are attributed to the importing user
+      rows.add(
+          new Object[] {
+            null, taskId, userId, comment.content(), comment.edited(), createdAt, createdAt
+          });
+    }
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    List<Long> ids = jdbcTemplate.queryForList(NEXT_COMMENT_IDS_SQL, Long.class, rows.size());
+    List<Object[]> changes = new ArrayList<>(rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] row = rows.get(i);
+      row[0] = ids.get(i);
+      changes.add(new Object[] {row[0], row[1]});
+    }
+    jdbcTemplate.batchUpdate(INSERT_COMMENT_SQL, rows);
+    syncChangeLog.commentsChanged(changes, userId);
+  }
+
+  private void insertTimeEntries(
+      Long userId, List<TimeEntryRecord> entries, Map<Long, Long> taskIds) {
+    List<Object[]> rows = new ArrayList<>(entries.size());
+    for (TimeEntryRecord entry : entries) {
+      Long taskId = taskIds.get(entry.taskId());
+      LocalDateTime start = entry.startTime() != null ? entry.startTime() : entry.loggedAt();
+      if (taskId == null || start == null) {
+        logger.debug("Skipping time entry {} without task or start", entry.id());
+        continue;
+      }
+      rows.add(
+          new Object[] {
+            taskId,
+            userId,
+            (entry.entryType() != null ? entry.entryType() : EntryType.MANUAL).name(),
+            timestamp(start),
+            timestamp(entry.endTime()),
+            entry.durationMinutes(),
+            entry.notes()
+          });
+    }
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_TIME_ENTRY_SQL, rows);
+    }
+  }
+
+  /** Resolve IDs of the file to the rows created for them by earlier chunks of the job. */
+  private Map<Long, Long> lookup(Long jobId, SyncEntityType type, Collection<Long> sourceIds) {
+    if (sourceIds.isEmpty()) {
+      return new HashMap<>();
+    }
+    List<Object> args = new ArrayList<>(sourceIds.size() + 2);
+    args.add(jobId);
+    args.add(type.name());
+    args.addAll(sourceIds);
+    Map<Long, Long> ids = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT source_id, target_id FROM import_id_map WHERE job_id = ? AND entity_type = ?"
+            + " AND source_id IN ("
+            + placeholders(sourceIds.size())
+            + ")",
+        rs -> {
+          ids.put(rs.getLong(1), rs.getLong(2));
+        },
+        args.toArray());
+    return ids;
+  }
+
+  private Map<Long, Integer> depths(Collection<Long> taskIds) {
+    Map<Long, Integer> depths = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT id, depth FROM tasks WHERE id IN (" + placeholders(taskIds.size()) + ")",
+        rs -> {
+          depths.put(rs.getLong(1), rs.getInt(2));
+        },
+        taskIds.toArray());
+    return depths;
+  }
+
+  private static String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+
+  private static void addMapping(
+      List<Object[]> mappings, Long jobId, SyncEntityType type, Long sourceId, Long targetId) {
+    // Records without an ID cannot be referred to, so there is nothing to map
+    if (sourceId != null) {
+      mappings.add(new Object[] {jobId, type.name(), sourceId, targetId});
+    }
+  }
+
+  private static void addIfPresent(Set<Long> ids, Long id) {
+    if (id != null) {
+      ids.add(id);
+    }
+  }
+
+  private static Timestamp timestamp(LocalDateTime value) {
+    return value != null ? Timestamp.valueOf(value) : null;
+  }
+}
@@ -0,0 +1,179 @@
+package com.todoapp.infrastructure.persistence;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.todoapp.domain.repository.NotificationRepository;
+
+/**
+ * Retention for the month-partitioned {@code notifications} table (see V16).
+ *
+ * <p>Each run creates the partitions for the coming months, which are also ensured at startup since
+ * the table has no default partition (see V26), and drops every monthly partition older than the
+ * retention period. An expired partition is first detached concurrently, which only takes a SHARE
+ * UPDATE EXCLUSIVE lock on {@code notifications}, and then dropped as a standalone table. Dropping
+ * a partition removes its rows without leaving dead tuples behind, so expired notifications never
+ * cause vacuum work. Read notifications are additionally deleted after a shorter period; those rows
+ * only live in the recent partitions. Every step is idempotent, so concurrent runs on several nodes
+ * are harmless. Unread counters of affected users are repaired by the unread counter
+ * reconciliation.
+ */
+@Service
+public class NotificationRetentionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+  private static final Pattern PARTITION_NAME = Pattern.compile("notifications_p(\\d{6})");
+  private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+  private static final String LIST_PARTITIONS_SQL =
+      "SELECT c.relname FROM pg_inherits i "
+          + "JOIN pg_class c ON c.oid = i.inhrelid "
+          + "JOIN pg_class p ON p.oid = i.inhparent "
+          + "WHERE p.relname = 'notifications' ORDER BY c.relname";
+
+  // A concurrent detach interrupted midway leaves its partition pending until it is finalized
+  private static final String DETACH_PENDING_SQL =
+      "SELECT i.inhdetachpending FROM pg_inherits i "
+          + "JOIN pg_class c ON c.oid = i.inhrelid "
+          + "JOIN pg_class p ON p.oid = i.inhparent "
+          + "WHERE p.relname = 'notifications' AND c.relname = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NotificationRepository notificationRepository;
+
+  @Value("${app.notifications.retention.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.notifications.retention.months:6}")
+  private int retentionMonths;
+
+  @Value("${app.notifications.retention.read-days:30}")
+  private int readRetentionDays;
+
+  @Value("${app.notifications.retention.premake-months:3}")
+  private int premakeMonths;
+
+  public NotificationRetentionService(
+      JdbcTemplate jdbcTemplate, NotificationRepository notificationRepository) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.notificationRepository = notificationRepository;
+  }
+
+  /** Make sure the current and upcoming months have partitions before notifications are written. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensurePartitionsOnStartup() {
+    try {
+      logger.info(
+          "Notification partitions ensured: {}",
+          createUpcomingPartitions(YearMonth.from(LocalDate.now())));
+    } catch (Exception e) {
+      logger.error("Failed to ensure notification partitions", e);
+    }
+  }
+
+  /** Run retention on the configured schedule. Runs daily at 03:15 by default. */
+  @Scheduled(cron = "${app.notifications.retention.cron:0 15 3 * * *}")
+  public void scheduledRetention() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      runRetention(LocalDate.now());
+    } catch (Exception e) {
+      logger.error("Notification retention failed", e);
+    }
+  }
+
+  /**
+   * Create upcoming partitions, drop expired ones and delete old read notifications.
+   *
+   * @param today The current date
+   * @return The outcome of the run
+   */
+  public RetentionResult runRetention(LocalDate today) {
+    List<String> created = createUpcomingPartitions(YearMonth.from(today));
+    List<String> dropped = dropExpiredPartitions(YearMonth.from(today));
+    int deleted =
+        notificationRepository.deleteOldReadNotifications(
+            today.minusDays(readRetentionDays).atStartOfDay());
+
+    logger.info(
+        "Notification retention finished: partitions ensured={}, dropped={}, read notifications deleted={}",
+        created,
+        dropped,
+        deleted);
+    return new RetentionResult(created, dropped, deleted);
+  }
+
+  private List<String> createUpcomingPartitions(YearMonth current) {
+    List<String> partitions = new ArrayList<>();
+    for (int i = 0; i <= premakeMonths; i++) {
+      String name =
+          jdbcTemplate.queryForObject(
+              "SELECT create_notification_partition(?)",
+              String.class,
+              current.plusMonths(i).atDay(1));
+      partitions.add(name);
+    }
+    return partitions;
+  }
+
+  private List<String> dropExpiredPartitions(YearMonth current) {
+    YearMonth oldestKept = current.minusMonths(retentionMonths);
+    List<String> dropped = new ArrayList<>();
+
+    for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class)) {
+      Matcher matcher = PARTITION_NAME.matcher(partition);
+      if (!matcher.matches()) {
+        continue;
+      }
+      YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_MONTH);
+      if (month.isBefore(oldestKept)) {
+        // The name is validated above, so it is safe to use as an identifier
+        detachPartition(partition);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+        logger.info("Dropped expired notification partition {}", partition);
+        dropped.add(partition);
+      }
+    }
+    return dropped;
+  }
+
+  /**
+   * Detach a partition without blocking reads and writes on {@code notifications}. DETACH
+   * CONCURRENTLY cannot run inside a transaction block, so this must not be called from a
+   * transactional method; a detach that an earlier run left pending is finalized instead.
+   */
+  private void detachPartition(String partition) {
+    Boolean pending = jdbcTemplate.queryForObject(DETACH_PENDING_SQL, Boolean.class, partition);
+    String mode = Boolean.TRUE.equals(pending) ? "FINALIZE" : "CONCURRENTLY";
+    jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + partition + " " + mode);
+  }
+
+  /**
+   * Outcome of a retention run.
+   *
+   * @param ensuredPartitions The partitions that exist for the current and upcoming months
+   * @param droppedPartitions The expired partitions that were dropped
+   * @param deletedReadNotifications The number of old read notifications deleted
+   */
+  public record RetentionResult(
+      List<String> ensuredPartitions,
+      List<String> droppedPartitions,
+      int deletedReadNotifications) {}
+}
@@ -0,0 +1,465 @@
+package com.todoapp.infrastructure.persistence;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.todoapp.domain.model.SyncEntityType;
+import com.todoapp.domain.repository.CommentRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
+
+/**
+ * Change log behind delta sync (see V21).
+ *
+ * <p>Every user has a sequence of change tokens, and the log keeps one row per user and visible
+ * entity with the token of the entity's latest change. A deletion turns the row into a tombstone.
+ * Changes of a task, and of its comments, are logged for the owner and every user the task is
+ * shared with.
+ *
+ * <p>Changes are collected during the transaction and written just before it commits: the users are
+ * processed in ID order, and bumping a user's sequence locks the user's sequence row until the
+ * commit. Tokens of a user therefore become visible in order, so a reader that has seen token
+ * {@code n} never misses a change below {@code n}. Tombstones are pruned after the retention
+ * period; the highest pruned token becomes the user's horizon, and clients with an older token have
+ * to start over.
+ */
+@Service
+public class SyncChangeLog {
+
+  private static final Logger logger = LoggerFactory.getLogger(SyncChangeLog.class);
+
+  private static final String BUMP_SEQUENCE_SQL =
+      "INSERT INTO sync_sequences (user_id, seq) VALUES (?, ?) ON CONFLICT (user_id)"
+          + " DO UPDATE SET seq = sync_sequences.seq + EXCLUDED.seq RETURNING seq";
+
+  private static final String UPSERT_CHANGE_SQL =
+      "INSERT INTO sync_changes (user_id, entity_type, entity_id, seq, deleted, changed_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (user_id, entity_type, entity_id)"
+          + " DO UPDATE SET seq = EXCLUDED.seq, deleted = EXCLUDED.deleted,"
+          + " changed_at = EXCLUDED.changed_at";
+
+  private static final String LIVE_TASK_COMMENTS_SQL =
+      "SELECT entity_id FROM sync_changes WHERE user_id = ? AND entity_type = 'COMMENT'"
+          + " AND NOT deleted AND entity_id IN (SELECT id FROM comments WHERE task_id = ?)";
+
+  private static final String STATE_SQL =
+      "SELECT seq, horizon FROM sync_sequences WHERE user_id = ?";
+
+  private static final String CHANGES_SQL =
+      "SELECT entity_type, entity_id, seq, deleted FROM sync_changes"
+          + " WHERE user_id = ? AND seq > ? ORDER BY seq LIMIT ?";
+
+  private static final String PRUNE_SQL =
+      "WITH pruned AS ("
+          + " DELETE FROM sync_changes WHERE deleted AND changed_at < ? RETURNING user_id, seq"
+          + "), horizons AS ("
+          + " UPDATE sync_sequences s SET horizon = GREATEST(s.horizon, p.max_seq)"
+          + " FROM (SELECT user_id, MAX(seq) AS max_seq FROM pruned GROUP BY user_id) p"
+          + " WHERE s.user_id = p.user_id"
+          + ") SELECT COUNT(*) FROM pruned";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TaskShareRepository taskShareRepository;
+  private final CommentRepository commentRepository;
+
+  @Value("${app.sync.tombstone-retention.enabled:true}")
+  private boolean pruneEnabled;
+
+  @Value("${app.sync.tombstone-retention.days:30}")
+  private int retentionDays;
+
+  public SyncChangeLog(
+      JdbcTemplate jdbcTemplate,
+      TaskShareRepository taskShareRepository,
+      CommentRepository commentRepository) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.taskShareRepository = taskShareRepository;
+    this.commentRepository = commentRepository;
+  }
+
+  /**
+   * Log a change of an entity that only its owner sees, such as a category or tag.
+   *
+   * @param type The entity type
+   * @param entityId The entity ID
+   * @param userId The owner
+   */
+  public void changed(SyncEntityType type, Long entityId, Long userId) {
+    PendingChanges pending = pending();
+    pending.add(userId, type, entityId, false);
+    pending.done();
+  }
+
+  /**
+   * Log the deletion of an entity that only its owner sees.
+   *
+   * @param type The entity type
+   * @param entityId The entity ID
+   * @param userId The owner
+   */
+  public void deleted(SyncEntityType type, Long entityId, Long userId) {
+    PendingChanges pending = pending();
+    pending.add(userId, type, entityId, true);
+    pending.done();
+  }
+
+  /**
+   * Log a change of a task for its owner and collaborators. The collaborators are resolved once for
+   * all changed tasks when the transaction commits.
+   *
+   * @param taskId The task ID
+   * @param ownerId The owner of the task
+   */
+  public void taskChanged(Long taskId, Long ownerId) {
+    PendingChanges pending = pending();
+    pending.addShared(ownerId, SyncEntityType.TASK, taskId, taskId, false);
+    pending.done();
+  }
+
+  /**
+   * Log changes of several tasks of one owner.
+   *
+   * @param taskIds The task IDs
+   * @param ownerId The owner of the tasks
+   */
+  public void tasksChanged(Collection<Long> taskIds, Long ownerId) {
+    PendingChanges pending = pending();
+    taskIds.forEach(
+        taskId -> pending.addShared(ownerId, SyncEntityType.TASK, taskId, taskId, false));
+    pending.done();
+  }
+
+  /**
+   * Log tombstones for deleted tasks. Must be called before the tasks are deleted, since their
+   * collaborators are resolved right away. A task tombstone also stands for the task's comments and
+   * shares, which are deleted with it.
+   *
+   * @param taskIds The task IDs
+   * @param ownerId The owner of the tasks
+   */
+  public void tasksDeleted(Collection<Long> taskIds, Long ownerId) {
+    if (taskIds.isEmpty()) {
+      return;
+    }
+    PendingChanges pending = pending();
+    for (Long taskId : taskIds) {
+      pending.add(ownerId, SyncEntityType.TASK, taskId, true);
+    }
+    for (Object[] row : taskShareRepository.findCollaborators(taskIds)) {
+      pending.add((Long) row[1], SyncEntityType.TASK, (Long) row[0], true);
+    }
+    pending.done();
+  }
+
+  /**
+   * Log a change or deletion of a comment for the task's owner and collaborators.
+   *
+   * @param commentId The comment ID
+   * @param taskId The task the comment belongs to
+   * @param ownerId The owner of the task
+   * @param deleted Whether the comment was deleted
+   */
+  public void commentChanged(Long commentId, Long taskId, Long ownerId, boolean deleted) {
+    PendingChanges pending = pending();
+    pending.addShared(ownerId, SyncEntityType.COMMENT, commentId, taskId, deleted);
+    pending.done();
+  }
+
+  /**
+   * Log new comments on tasks of one owner, e.g. after an import. The collaborators of all tasks
+   * are resolved together when the transaction commits.
+   *
+   * @param comments Rows of {@code [commentId, taskId]}
+   * @param ownerId The owner of the tasks
+   */
+  public void commentsChanged(Collection<Object[]> comments, Long ownerId) {
+    PendingChanges pending = pending();
+    for (Object[] comment : comments) {
+      pending.addShared(
+          ownerId, SyncEntityType.COMMENT, (Long) comment[0], (Long) comment[1], false);
+    }
+    pending.done();
+  }
+
+  /**
+   * Log a new or changed share. The owner and the recipient see the share, and the recipient also
+   * gets the task, which is now visible to them or has a new access level, and its comments.
+   *
+   * @param shareId The share ID
+   * @param taskId The shared task
+   * @param ownerId The owner of the task
+   * @param sharedWithUserId The recipient
+   */
+  public void shareChanged(Long shareId, Long taskId, Long ownerId, Long sharedWithUserId) {
+    sharesChanged(List.<Object[]>of(new Object[] {shareId, taskId, sharedWithUserId}), ownerId);
+  }
+
+  /**
+   * Log new or changed shares of one owner, e.g. after a bulk share. The comments of all shared
+   * tasks are read with one query.
+   *
+   * @param shares Rows of {@code [shareId, taskId, sharedWithUserId]}
+   * @param ownerId The owner of the tasks
+   */
+  public void sharesChanged(Collection<Object[]> shares, Long ownerId) {
+    if (shares.isEmpty()) {
+      return;
+    }
+    Set<Long> taskIds = new HashSet<>();
+    shares.forEach(share -> taskIds.add((Long) share[1]));
+    Map<Long, List<Long>> commentIds = new HashMap<>();
+    for (Object[] row : commentRepository.findIdsByTaskIds(taskIds)) {
+      commentIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+    }
+
+    PendingChanges pending = pending();
+    for (Object[] share : shares) {
+      Long shareId = (Long) share[0];
+      Long taskId = (Long) share[1];
+      Long sharedWithUserId = (Long) share[2];
+      pending.add(ownerId, SyncEntityType.SHARE, shareId, false);
+      pending.add(sharedWithUserId, SyncEntityType.SHARE, shareId, false);
+      pending.add(sharedWithUserId, SyncEntityType.TASK, taskId, false);
+      for (Long commentId : commentIds.getOrDefault(taskId, List.of())) {
+        pending.add(sharedWithUserId, SyncEntityType.COMMENT, commentId, false);
+      }
+    }
+    pending.done();
+  }
+
+  /**
+   * Log a revoked share. The recipient also gets tombstones for the task they no longer see and for
+   * the task's comments they have been sent, so a full resync cannot bring the comments back.
+   *
+   * @param shareId The share ID
+   * @param taskId The shared task
+   * @param ownerId The owner of the task
+   * @param sharedWithUserId The former recipient
+   */
+  public void shareDeleted(Long shareId, Long taskId, Long ownerId, Long sharedWithUserId) {
+    PendingChanges pending = pending();
+    pending.add(ownerId, SyncEntityType.SHARE, shareId, true);
+    pending.add(sharedWithUserId, SyncEntityType.SHARE, shareId, true);
+    pending.add(sharedWithUserId, SyncEntityType.TASK, taskId, true);
+    for (Long commentId :
+        jdbcTemplate.queryForList(LIVE_TASK_COMMENTS_SQL, Long.class, sharedWithUserId, taskId)) {
+      pending.add(sharedWithUserId, SyncEntityType.COMMENT, commentId, true);
+    }
+    pending.done();
+  }
+
+  /**
+   * The latest token and the horizon of a user.
+   *
+   * @param userId The user ID
+   * @return The state; zero for users without any change
+   */
+  public SyncState state(Long userId) {
+    List<SyncState> states =
+        jdbcTemplate.query(
+            STATE_SQL, (rs, rowNum) -> new SyncState(rs.getLong(1), rs.getLong(2)), userId);
+    return states.isEmpty() ? new SyncState(0, 0) : states.get(0);
+  }
+
+  /**
+   * Read the changes of a user after a token, oldest first.
+   *
+   * @param userId The user ID
+   * @param since The token the client has seen
+   * @param limit The maximum number of changes
+   * @return The changes
+   */
+  public List<SyncChange> changesSince(Long userId, long since, int limit) {
+    return jdbcTemplate.query(
+        CHANGES_SQL,
+        (rs, rowNum) ->
+            new SyncChange(
+                SyncEntityType.valueOf(rs.getString(1)),
+                rs.getLong(2),
+                rs.getLong(3),
+                rs.getBoolean(4)),
+        userId,
+        since,
+        limit);
+  }
+
+  /** Prune old tombstones on the configured schedule. Runs daily at 04:15 by default. */
+  @Scheduled(cron = "${app.sync.tombstone-retention.cron:0 15 4 * * *}")
+  public void scheduledPrune() {
+    if (!pruneEnabled) {
+      return;
+    }
+    try {
+      pruneTombstones(LocalDateTime.now().minusDays(retentionDays));
+    } catch (Exception e) {
+      logger.error("Sync tombstone pruning failed", e);
+    }
+  }
+
+  /**
+   * Delete the tombstones older than a cutoff and move the horizons of the affected users.
+   *
+   * @param cutoff Tombstones written before this time are deleted
+   * @return The number of deleted tombstones
+   */
+  public long pruneTombstones(LocalDateTime cutoff) {
+    Long pruned = jdbcTemplate.queryForObject(PRUNE_SQL, Long.class, Timestamp.valueOf(cutoff));
+    logger.info("Pruned {} sync tombstones older than {}", pruned, cutoff);
+    return pruned != null ? pruned : 0;
+  }
+
+  private PendingChanges pending() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      // Without a transaction the changes are written right away
+      PendingChanges immediate = new PendingChanges();
+      immediate.immediate = true;
+      return immediate;
+    }
+    PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      PendingChanges created = new PendingChanges();
+      TransactionSynchronizationManager.bindResource(this, created);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+              created.flush();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(SyncChangeLog.this);
+            }
+          });
+      pending = created;
+    }
+    return pending;
+  }
+
+  /** The changes of one transaction that are not written yet. */
+  private final class PendingChanges {
+
+    // User ID -> (entity -> deleted); users in ID order, so sequence rows are locked in order
+    private final Map<Long, Map<EntityKey, Boolean>> byUser = new TreeMap<>();
+
+    // Task-scoped changes whose collaborators are resolved on flush
+    private final Map<EntityKey, SharedChange> shared = new LinkedHashMap<>();
+
+    private boolean immediate;
+
+    void add(Long userId, SyncEntityType type, Long entityId, boolean deleted) {
+      byUser
+          .computeIfAbsent(userId, id -> new LinkedHashMap<>())
+          .put(new EntityKey(type, entityId), deleted);
+    }
+
+    void addShared(Long ownerId, SyncEntityType type, Long entityId, Long taskId, boolean deleted) {
+      shared.put(new EntityKey(type, entityId), new SharedChange(ownerId, taskId, deleted));
+    }
+
+    /** End of one logged operation; written now when there is no transaction to wait for. */
+    void done() {
+      if (immediate) {
+        flush();
+      }
+    }
+
+    void flush() {
+      resolveCollaborators();
+      if (byUser.isEmpty()) {
+        return;
+      }
+      Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+      List<Object[]> rows = new ArrayList<>();
+      for (Map.Entry<Long, Map<EntityKey, Boolean>> entry : byUser.entrySet()) {
+        Long userId = entry.getKey();
+        Map<EntityKey, Boolean> changes = entry.getValue();
+        Long last =
+            jdbcTemplate.queryForObject(BUMP_SEQUENCE_SQL, Long.class, userId, changes.size());
+        long seq = last - changes.size();
+        for (Map.Entry<EntityKey, Boolean> change : changes.entrySet()) {
+          rows.add(
+              new Object[] {
+                userId,
+                change.getKey().type().name(),
+                change.getKey().id(),
+                ++seq,
+                change.getValue(),
+                now
+              });
+        }
+      }
+      jdbcTemplate.batchUpdate(UPSERT_CHANGE_SQL, rows);
+      logger.debug("Logged {} sync changes for {} users", rows.size(), byUser.size());
+      byUser.clear();
+    }
+
+    private void resolveCollaborators() {
+      if (shared.isEmpty()) {
+        return;
+      }
+      Set<Long> taskIds = new HashSet<>();
+      shared.values().forEach(change -> taskIds.add(change.taskId()));
+      Map<Long, List<Long>> collaborators = new LinkedHashMap<>();
+      for (Object[] row : taskShareRepository.findCollaborators(taskIds)) {
+        collaborators.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+      }
+
+      Map<EntityKey, SharedChange> resolved = new LinkedHashMap<>(shared);
+      shared.clear();
+      resolved.forEach(
+          (key, change) -> {
+            record(change.ownerId(), key, change.deleted());
+            for (Long userId : collaborators.getOrDefault(change.taskId(), List.of())) {
+              record(userId, key, change.deleted());
+            }
+          });
+    }
+
+    private void record(Long userId, EntityKey key, boolean deleted) {
+      // A tombstone logged in the same transaction wins over an earlier change
+      byUser
+          .computeIfAbsent(userId, id -> new LinkedHashMap<>())
+          .merge(key, deleted, Boolean::logicalOr);
+    }
+  }
+
+  private record EntityKey(SyncEntityType type, Long id) {}
+
+  private record SharedChange(Long ownerId, Long taskId, boolean deleted) {}
+
+  /**
+   * The latest token and the horizon of a user.
+   *
+   * @param seq The latest token
+   * @param horizon The highest pruned tombstone; older tokens need a full resync
+   */
+  public record SyncState(long seq, long horizon) {}
+
+  /**
+   * The latest change of one entity for a user.
+   *
+   * @param type The entity type
+   * @param entityId The entity ID
+   * @param seq The change token
+   * @param deleted Whether the entity is gone
+   */
+  public record SyncChange(SyncEntityType type, long entityId, long seq, boolean deleted) {}
+}
@@ -0,0 +1,162 @@
+package com.todoapp.infrastructure.persistence;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.todoapp.domain.model.TaskRank;
+
+/**
+ * Renumbers task lists whose positions ran out of room (see {@link TaskRank}).
+ *
+ * <p>A list is the tasks of one user under one parent, or at the top level. Moves that leave a
+ * crowded gap queue their list in a Redis set, and each run pops a batch of lists and spreads their
+ * positions {@link TaskRank#GAP} apart again, keeping the order. Popping is atomic, so every queued
+ * list is renumbered by one node only. A list is renumbered with a single statement, and tasks that
+ * already sit at their target position are not written; the renumbered tasks are logged for sync.
+ */
+@Service
+public class TaskPositionRebalancer {
+
+  private static final Logger logger = LoggerFactory.getLogger(TaskPositionRebalancer.class);
+
+  static final String QUEUE_KEY = "tasks:rebalance-queue";
+
+  private static final String ROOT = "root";
+
+  private static final String RENUMBER_ROOT_SQL =
+      "UPDATE tasks t SET position = r.rn * ?, version = t.version + 1 FROM ("
+          + " SELECT id, ROW_NUMBER() OVER (ORDER BY position, id) AS rn FROM tasks"
+          + " WHERE user_id = ? AND parent_task_id IS NULL"
+          + ") r WHERE t.id = r.id AND t.position <> r.rn * ? RETURNING t.id";
+
+  private static final String RENUMBER_CHILDREN_SQL =
+      "UPDATE tasks t SET position = r.rn * ?, version = t.version + 1 FROM ("
+          + " SELECT id, ROW_NUMBER() OVER (ORDER BY position, id) AS rn FROM tasks"
+          + " WHERE user_id = ? AND parent_task_id = ?"
+          + ") r WHERE t.id = r.id AND t.position <> r.rn * ? RETURNING t.id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final StringRedisTemplate redisTemplate;
+  private final SyncChangeLog syncChangeLog;
+
+  @Value("${app.task-ordering.rebalance.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.task-ordering.rebalance.batch-size:50}")
+  private int batchSize;
+
+  public TaskPositionRebalancer(
+      JdbcTemplate jdbcTemplate, StringRedisTemplate redisTemplate, SyncChangeLog syncChangeLog) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.redisTemplate = redisTemplate;
+    this.syncChangeLog = syncChangeLog;
+  }
+
+  /**
+   * Queue a list for the next run. Inside a transaction the list is queued once the transaction
+   * commits, so the rebalancer sees the move that crowded it.
+   *
+   * @param userId The owner of the list
+   * @param parentTaskId The parent of the list, or null for top-level tasks
+   */
+  public void requestRebalance(Long userId, Long parentTaskId) {
+    String member = userId + ":" + (parentTaskId != null ? parentTaskId : ROOT);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              enqueue(member);
+            }
+          });
+    } else {
+      enqueue(member);
+    }
+  }
+
+  /** Renumber the queued lists on the configured interval. */
+  @Scheduled(fixedDelayString = "${app.task-ordering.rebalance.interval-ms:60000}")
+  public void scheduledRebalance() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      rebalanceQueued();
+    } catch (Exception e) {
+      logger.error("Task position rebalance failed", e);
+    }
+  }
+
+  /**
+   * Pop one batch of queued lists and renumber them.
+   *
+   * @return The number of lists that were renumbered
+   */
+  public int rebalanceQueued() {
+    List<String> members = redisTemplate.opsForSet().pop(QUEUE_KEY, batchSize);
+    if (members == null || members.isEmpty()) {
+      return 0;
+    }
+
+    int rebalanced = 0;
+    for (String member : members) {
+      try {
+        int separator = member.indexOf(':');
+        Long userId = Long.valueOf(member.substring(0, separator));
+        String parent = member.substring(separator + 1);
+        rebalance(userId, ROOT.equals(parent) ? null : Long.valueOf(parent));
+        rebalanced++;
+      } catch (Exception e) {
+        logger.warn("Failed to rebalance task list {}", member, e);
+      }
+    }
+    logger.info("Rebalanced {} task lists", rebalanced);
+    return rebalanced;
+  }
+
+  /**
+   * Renumber one list now. Joins the caller's transaction, if any.
+   *
+   * @param userId The owner of the list
+   * @param parentTaskId The parent of the list, or null for top-level tasks
+   * @return The number of tasks that got a new position
+   */
+  public int rebalance(Long userId, Long parentTaskId) {
+    List<Long> updated =
+        parentTaskId == null
+            ? jdbcTemplate.queryForList(
+                RENUMBER_ROOT_SQL, Long.class, TaskRank.GAP, userId, TaskRank.GAP)
+            : jdbcTemplate.queryForList(
+                RENUMBER_CHILDREN_SQL,
+                Long.class,
+                TaskRank.GAP,
+                userId,
+                parentTaskId,
+                TaskRank.GAP);
+    syncChangeLog.tasksChanged(updated, userId);
+    logger.debug(
+        "Renumbered {} tasks of user ID: {} under parent ID: {}",
+        updated.size(),
+        userId,
+        parentTaskId);
+    return updated.size();
+  }
+
+  private void enqueue(String member) {
+    try {
+      redisTemplate.opsForSet().add(QUEUE_KEY, member);
+    } catch (Exception e) {
+      // The list is queued again by the next crowded move
+      logger.warn("Failed to queue task list {} for rebalancing", member, e);
+    }
+  }
+}
@@ -0,0 +1,294 @@
+package com.todoapp.infrastructure.persistence;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.application.dto.TaskStatsDTO.CategoryStats;
+import com.todoapp.application.dto.TaskStatsDTO.DailyCompletions;
+
+/**
+ * Reads and reconciles the task counters behind the dashboard (see V23).
+ *
+ * <p>Triggers on the tasks table keep one counter row per user, one row per user and category, and
+ * one row per user and day of completion, in the transaction of every task write. Reading the
+ * dashboard is a single statement on the user's counter row; only the overdue count depends on the
+ * time of the request, so it is counted from the partial index on open tasks with a due date. Every
+ * insert, delete and counted update of a user's tasks upserts that user's counter row, so
+ * concurrent task writes of one user wait for each other until commit; writes of different users do
+ * not.
+ *
+ * <p>The reconciliation recomputes the counters from the tasks in batches of users and repairs any
+ * drift, e.g. from writes while the triggers were disabled. A batch locks its counter rows first:
+ * every trigger updates the user's counter row before the category and history rows, so the
+ * recomputation neither misses a concurrent write nor overwrites one. Finally, the counters of
+ * deleted users are removed.
+ */
+@Service
+public class TaskStatsStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(TaskStatsStore.class);
+
+  private static final TypeReference<List<CategoryStats>> CATEGORY_LIST = new TypeReference<>() {};
+
+  private static final TypeReference<List<DailyCompletions>> HISTORY_LIST =
+      new TypeReference<>() {};
+
+  private static final String STATS_SQL =
+      "SELECT s.total_count, s.completed_count,"
+          + " s.open_high_count, s.open_medium_count, s.open_low_count,"
+          + " (SELECT COUNT(*) FROM tasks t WHERE t.user_id = s.user_id AND t.is_completed = FALSE"
+          + "  AND t.due_date IS NOT NULL AND t.due_date < ?) AS overdue_count,"
+          + " (SELECT COALESCE(json_agg(json_build_object('categoryId', c.id, 'name', c.name,"
+          + "  'color', c.color, 'total', cs.total_count, 'completed', cs.completed_count)"
+          + "  ORDER BY c.name), '[]'::json)"
+          + "  FROM task_category_stats cs JOIN categories c ON c.id = cs.category_id"
+          + "  WHERE cs.user_id = s.user_id) AS categories,"
+          + " (SELECT COALESCE(json_agg(json_build_object('date', h.bucket,"
+          + "  'completed', h.completed_count) ORDER BY h.bucket), '[]'::json)"
+          + "  FROM task_completion_history h"
+          + "  WHERE h.user_id = s.user_id AND h.bucket >= ?) AS history"
+          + " FROM task_stats s WHERE s.user_id = ?";
+
+  private static final String LOCK_BATCH_SQL =
+      "SELECT user_id FROM task_stats WHERE user_id > ? ORDER BY user_id LIMIT ? FOR UPDATE";
+
+  private static final String RECONCILE_COUNTERS_SQL =
+      "UPDATE task_stats s SET total_count = a.total_count, completed_count = a.completed_count,"
+          + " open_high_count = a.open_high_count, open_medium_count = a.open_medium_count,"
+          + " open_low_count = a.open_low_count, updated_at = CURRENT_TIMESTAMP"
+          + " FROM (SELECT s2.user_id, COUNT(t.id) AS total_count,"
+          + "  COUNT(t.id) FILTER (WHERE t.is_completed) AS completed_count,"
+          + "  COUNT(t.id) FILTER (WHERE NOT t.is_completed AND t.priority = 'HIGH')"
+          + "   AS open_high_count,"
+          + "  COUNT(t.id) FILTER (WHERE NOT t.is_completed AND t.priority = 'MEDIUM')"
+          + "   AS open_medium_count,"
+          + "  COUNT(t.id) FILTER (WHERE NOT t.is_completed AND t.priority = 'LOW')"
+          + "   AS open_low_count"
+          + "  FROM task_stats s2 LEFT JOIN tasks t ON t.user_id = s2.user_id"
+          + "  WHERE s2.user_id BETWEEN ? AND ? GROUP BY s2.user_id) a"
+          + " WHERE s.user_id = a.user_id AND (s.total_count, s.completed_count,"
+          + "  s.open_high_count, s.open_medium_count, s.open_low_count)"
+          + "  IS DISTINCT FROM (a.total_count, a.completed_count,"
+          + "  a.open_high_count, a.open_medium_count, a.open_low_count)";
+
+  private static final String RECONCILE_CATEGORIES_SQL =
+      "WITH actual AS ("
+          + " SELECT user_id, category_id, COUNT(*) AS total_count,"
+          + "  COUNT(*) FILTER (WHERE is_completed) AS completed_count"
+          + " FROM tasks WHERE user_id BETWEEN ? AND ? AND category_id IS NOT NULL"
+          + "  AND user_id IN (SELECT user_id FROM task_stats WHERE user_id BETWEEN ? AND ?)"
+          + " GROUP BY user_id, category_id"
+          + "), removed AS ("
+          + " DELETE FROM task_category_stats cs WHERE cs.user_id BETWEEN ? AND ?"
+          + "  AND cs.user_id IN (SELECT user_id FROM task_stats WHERE user_id BETWEEN ? AND ?)"
+          + "  AND NOT EXISTS (SELECT 1 FROM actual a"
+          + "   WHERE a.user_id = cs.user_id AND a.category_id = cs.category_id)"
+          + " RETURNING 1"
+          + "), upserted AS ("
+          + " INSERT INTO task_category_stats AS cs (user_id, category_id, total_count,"
+          + "  completed_count) SELECT * FROM actual"
+          + " ON CONFLICT (user_id, category_id) DO UPDATE SET"
+          + "  total_count = EXCLUDED.total_count, completed_count = EXCLUDED.completed_count"
+          + " WHERE (cs.total_count, cs.completed_count)"
+          + "  IS DISTINCT FROM (EXCLUDED.total_count, EXCLUDED.completed_count)"
+          + " RETURNING 1"
+          + ") SELECT (SELECT COUNT(*) FROM removed) + (SELECT COUNT(*) FROM upserted)";
+
+  private static final String RECONCILE_HISTORY_SQL =
+      "WITH actual AS ("
+          + " SELECT user_id, CAST(completed_at AS DATE) AS bucket, COUNT(*) AS completed_count"
+          + " FROM tasks WHERE user_id BETWEEN ? AND ? AND is_completed"
+          + "  AND completed_at IS NOT NULL"
+          + "  AND user_id IN (SELECT user_id FROM task_stats WHERE user_id BETWEEN ? AND ?)"
+          + " GROUP BY user_id, CAST(completed_at AS DATE)"
+          + "), removed AS ("
+          + " DELETE FROM task_completion_history h WHERE h.user_id BETWEEN ? AND ?"
+          + "  AND h.user_id IN (SELECT user_id FROM task_stats WHERE user_id BETWEEN ? AND ?)"
+          + "  AND NOT EXISTS (SELECT 1 FROM actual a"
+          + "   WHERE a.user_id = h.user_id AND a.bucket = h.bucket)"
+          + " RETURNING 1"
+          + "), upserted AS ("
+          + " INSERT INTO task_completion_history AS h (user_id, bucket, completed_count)"
+          + " SELECT * FROM actual"
+          + " ON CONFLICT (user_id, bucket) DO UPDATE SET"
+          + "  completed_count = EXCLUDED.completed_count"
+          + " WHERE h.completed_count <> EXCLUDED.completed_count"
+          + " RETURNING 1"
+          + ") SELECT (SELECT COUNT(*) FROM removed) + (SELECT COUNT(*) FROM upserted)";
+
+  private static final String MISSING_COUNTERS_SQL =
+      "INSERT INTO task_stats (user_id) SELECT DISTINCT t.user_id FROM tasks t"
+          + " WHERE NOT EXISTS (SELECT 1 FROM task_stats s WHERE s.user_id = t.user_id)"
+          + " ON CONFLICT (user_id) DO NOTHING";
+
+  private static final List<String> DELETE_ORPHANS_SQL =
+      List.of(
+          "DELETE FROM task_category_stats cs"
+              + " WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = cs.user_id)",
+          "DELETE FROM task_completion_history h"
+              + " WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = h.user_id)",
+          "DELETE FROM task_stats s"
+              + " WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = s.user_id)");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.task-stats.reconciliation.enabled:true}")
+  private boolean reconciliationEnabled;
+
+  @Value("${app.task-stats.reconciliation.batch-size:500}")
+  private int batchSize;
+
+  public TaskStatsStore(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Read the counters of a user.
+   *
+   * @param userId The user ID
+   * @param now Tasks due before this time are overdue
+   * @param historySince The first day of completion history to include
+   * @return The counters, or empty if the user never had a task
+   */
+  public Optional<StoredStats> find(Long userId, LocalDateTime now, LocalDate historySince) {
+    List<StoredStats> stats =
+        jdbcTemplate.query(
+            STATS_SQL,
+            (rs, rowNum) ->
+                new StoredStats(
+                    rs.getLong("total_count"),
+                    rs.getLong("completed_count"),
+                    rs.getLong("open_high_count"),
+                    rs.getLong("open_medium_count"),
+                    rs.getLong("open_low_count"),
+                    rs.getLong("overdue_count"),
+                    parse(rs.getString("categories"), CATEGORY_LIST),
+                    parse(rs.getString("history"), HISTORY_LIST)),
+            Timestamp.valueOf(now),
+            Date.valueOf(historySince),
+            userId);
+    return stats.stream().findFirst();
+  }
+
+  /** Reconcile the counters with the tasks on the configured schedule. */
+  @Scheduled(cron = "${app.task-stats.reconciliation.cron:0 45 3 * * *}")
+  public void scheduledReconcile() {
+    if (!reconciliationEnabled) {
+      return;
+    }
+    try {
+      reconcile();
+    } catch (Exception e) {
+      logger.error("Task stats reconciliation failed", e);
+    }
+  }
+
+  /**
+   * Recompute the counters of all users, one transaction per batch, and remove the counters of
+   * deleted users.
+   *
+   * @return The number of counter rows that were corrected
+   */
+  public long reconcile() {
+    long corrected = jdbcTemplate.update(MISSING_COUNTERS_SQL);
+    long lastUserId = 0;
+    while (true) {
+      long after = lastUserId;
+      BatchResult batch = transactionTemplate.execute(status -> reconcileBatch(after));
+      if (batch == null || batch.lastUserId() == null) {
+        break;
+      }
+      corrected += batch.corrected();
+      lastUserId = batch.lastUserId();
+    }
+    long removed = 0;
+    for (String sql : DELETE_ORPHANS_SQL) {
+      removed += jdbcTemplate.update(sql);
+    }
+    logger.info(
+        "Task stats reconciliation corrected {} rows and removed {} rows of deleted users",
+        corrected,
+        removed);
+    return corrected;
+  }
+
+  private BatchResult reconcileBatch(long afterUserId) {
+    List<Long> userIds =
+        jdbcTemplate.queryForList(LOCK_BATCH_SQL, Long.class, afterUserId, batchSize);
+    if (userIds.isEmpty()) {
+      return new BatchResult(null, 0);
+    }
+    Long from = userIds.get(0);
+    Long to = userIds.get(userIds.size() - 1);
+
+    long corrected = jdbcTemplate.update(RECONCILE_COUNTERS_SQL, from, to);
+    corrected += count(RECONCILE_CATEGORIES_SQL, from, to);
+    corrected += count(RECONCILE_HISTORY_SQL, from, to);
+    if (corrected > 0) {
+      logger.warn("Corrected {} drifted task stats rows of users {} to {}", corrected, from, to);
+    }
+    return new BatchResult(to, corrected);
+  }
+
+  /** Run a reconciliation statement whose user range is bound four times. */
+  private long count(String sql, Long from, Long to) {
+    Long count =
+        jdbcTemplate.queryForObject(sql, Long.class, from, to, from, to, from, to, from, to);
+    return count != null ? count : 0;
+  }
+
+  private <T> List<T> parse(String json, TypeReference<List<T>> type) {
+    try {
+      return objectMapper.readValue(json, type);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Malformed task stats", e);
+    }
+  }
+
+  private record BatchResult(Long lastUserId, long corrected) {}
+
+  /**
+   * Stored counters of a user.
+   *
+   * @param total The number of tasks
+   * @param completed The number of completed tasks
+   * @param openHigh The number of open tasks with high priority
+   * @param openMedium The number of open tasks with medium priority
+   * @param openLow The number of open tasks with low priority
+   * @param overdue The number of open tasks due before the requested time
+   * @param categories Task counts per category, by category name
+   * @param history Completed tasks per day since the requested day, oldest first; days without
+   *     completions are left out
+   */
+  public record StoredStats(
+      long total,
+      long completed,
+      long openHigh,
+      long openMedium,
+      long openLow,
+      long overdue,
+      List<CategoryStats> categories,
+      List<DailyCompletions> history) {}
+}
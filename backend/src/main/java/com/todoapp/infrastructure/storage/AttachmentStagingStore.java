@@ -0,0 +1,87 @@
+package com.todoapp.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Local disk staging area for asynchronous uploads. Bytes are written here before the request is
+ * acknowledged and moved to object storage in the background. Staged files are named after the
+ * attachment ID, so a staged upload can be found again after a restart. When several instances run,
+ * the staging directory must be on a volume they all share.
+ */
+@Component
+public class AttachmentStagingStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(AttachmentStagingStore.class);
+
+  private final Path stagingDir;
+
+  public AttachmentStagingStore(
+      @Value("${app.file-upload.staging-dir:${java.io.tmpdir}/todoapp-staging}")
+          String stagingDir) {
+    this.stagingDir = Paths.get(stagingDir);
+  }
+
+  /**
+   * Stage the content of an uploaded file.
+   *
+   * @param attachmentId The ID of the attachment the content belongs to
+   * @param file The uploaded file
+   * @throws IOException if the content cannot be written
+   */
+  public void stage(UUID attachmentId, MultipartFile file) throws IOException {
+    Files.createDirectories(stagingDir);
+    Path target = pathFor(attachmentId);
+    // transferTo moves the container's temp file when possible instead of copying it
+    file.transferTo(target);
+    logger.debug("Staged upload for attachment {} at {}", attachmentId, target);
+  }
+
+  /**
+   * Check whether staged content exists for an attachment.
+   *
+   * @param attachmentId The ID of the attachment
+   * @return true if staged content is present
+   */
+  public boolean exists(UUID attachmentId) {
+    return Files.exists(pathFor(attachmentId));
+  }
+
+  /**
+   * Open the staged content of an attachment.
+   *
+   * @param attachmentId The ID of the attachment
+   * @return InputStream of the staged content
+   * @throws IOException if the content cannot be read
+   */
+  public InputStream open(UUID attachmentId) throws IOException {
+    return Files.newInputStream(pathFor(attachmentId));
+  }
+
+  /**
+   * Remove the staged content of an attachment, ignoring missing files.
+   *
+   * @param attachmentId The ID of the attachment
+   */
+  public void delete(UUID attachmentId) {
+    try {
+      Files.deleteIfExists(pathFor(attachmentId));
+    } catch (IOException e) {
+      logger.warn("Failed to delete staged upload for attachment {}", attachmentId, e);
+    }
+  }
+
+  private Path pathFor(UUID attachmentId) {
+    return stagingDir.resolve(attachmentId.toString());
+  }
+}
@@ -1,18 +1,32 @@
 package com.todoapp.infrastructure.storage;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import com.todoapp.infrastructure.monitoring.ApplicationMetricsService;
+
+import io.micrometer.core.instrument.Timer;
 import io.minio.*;
 import io.minio.errors.*;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
 
 @Service
 public class FileStorageService {
@@ -20,15 +34,69 @@ public class FileStorageService {
   private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 
   private final MinioClient minioClient;
+  private final ApplicationMetricsService metricsService;
 
-  @Value("${minio.bucket-name:task-attachments}")
+  @Value("${app.minio.bucket}")
   private String bucketName;
 
+  // Multipart part size for uploads; 0 or less lets the client derive it from the object size
+  @Value("${app.minio.part-size:10485760}")
+  private long partSize;
+
+  @Value("${app.minio.bootstrap.max-attempts:5}")
+  private int bootstrapMaxAttempts;
+
+  @Value("${app.minio.bootstrap.backoff-ms:2000}")
+  private long bootstrapBackoffMs;
+
+  // Set once the bucket is known to exist so uploads skip the bucketExists round trip
+  private volatile boolean bucketReady;
+
+  private final ReentrantLock bucketLock = new ReentrantLock();
+
   // Maximum file size: 25MB
   private static final long MAX_FILE_SIZE = 25 * 1024 * 1024;
 
-  public FileStorageService(MinioClient minioClient) {
+  // S3 error code for an object that does not exist
+  private static final String NO_SUCH_KEY = "NoSuchKey";
+
+  public FileStorageService(MinioClient minioClient, ApplicationMetricsService metricsService) {
     this.minioClient = minioClient;
+    this.metricsService = metricsService;
+  }
+
+  /**
+   * Check and create the bucket once at startup, retrying with linear backoff so the application
+   * can start while MinIO is still coming up. If every attempt fails, the check is retried on the
+   * first upload instead.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void initializeBucket() {
+    int attempts = Math.max(1, bootstrapMaxAttempts);
+    for (int attempt = 1; attempt <= attempts; attempt++) {
+      try {
+        ensureBucketExists();
+        return;
+      } catch (RuntimeException e) {
+        logger.warn(
+            "Bucket bootstrap attempt {}/{} failed for {}: {}",
+            attempt,
+            attempts,
+            bucketName,
+            e.getMessage());
+      }
+
+      if (attempt < attempts) {
+        try {
+          Thread.sleep(bootstrapBackoffMs * attempt);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+    logger.error(
+        "Bucket {} could not be verified at startup, will retry on first upload", bucketName);
   }
 
   /**
@@ -47,20 +115,39 @@ public class FileStorageService {
 
     // Generate unique storage key
     String storageKey = generateStorageKey(fileName);
+    storeFile(storageKey, inputStream, contentType, fileSize);
+    return storageKey;
+  }
 
-    try {
-      // Ensure bucket exists
-      ensureBucketExists();
+  /**
+   * Upload file content under a storage key reserved earlier with {@link
+   * #generateStorageKey(String)}, e.g. when the attachment row is created before the bytes reach
+   * storage.
+   *
+   * @param storageKey The storage key (object name) to write
+   * @param inputStream The file content as input stream
+   * @param contentType The MIME type of the file
+   * @param fileSize The size of the file in bytes
+   * @throws RuntimeException if upload fails
+   */
+  public void storeFile(
+      String storageKey, InputStream inputStream, String contentType, long fileSize) {
+    validateUploadParameters(storageKey, inputStream, fileSize);
 
+    // No-op once the bucket has been verified
+    ensureBucketExists();
+
+    Timer.Sample sample = metricsService.startStorageOperationTimer();
+    try {
       // Upload file to MinIO
       minioClient.putObject(
           PutObjectArgs.builder().bucket(bucketName).object(storageKey).stream(
-                  inputStream, fileSize, -1)
+                  inputStream, fileSize, effectivePartSize())
               .contentType(contentType)
               .build());
 
+      metricsService.recordStorageOperation(sample, "upload", true);
       logger.info("File uploaded successfully: {}", storageKey);
-      return storageKey;
 
     } catch (ErrorResponseException
         | InsufficientDataException
@@ -71,11 +158,69 @@ public class FileStorageService {
         | NoSuchAlgorithmException
         | ServerException
         | XmlParserException e) {
-      logger.error("Failed to upload file: {}", fileName, e);
+      metricsService.recordStorageOperation(sample, "upload", false);
+      logger.error("Failed to upload file: {}", storageKey, e);
       throw new RuntimeException("Failed to upload file: " + e.getMessage(), e);
     }
   }
 
+  /**
+   * Store a derived object (e.g. a preview image) under a caller-chosen key.
+   *
+   * @param storageKey The storage key (object name) to write
+   * @param content The object content
+   * @param contentType The MIME type of the object
+   * @throws RuntimeException if upload fails
+   */
+  public void uploadObject(String storageKey, byte[] content, String contentType) {
+    if (storageKey == null || storageKey.trim().isEmpty()) {
+      throw new IllegalArgumentException("Storage key cannot be null or empty");
+    }
+    if (content == null || content.length == 0) {
+      throw new IllegalArgumentException("Content cannot be empty");
+    }
+
+    Timer.Sample sample = metricsService.startStorageOperationTimer();
+    try {
+      minioClient.putObject(
+          PutObjectArgs.builder().bucket(bucketName).object(storageKey).stream(
+                  new ByteArrayInputStream(content), content.length, -1)
+              .contentType(contentType)
+              .build());
+
+      metricsService.recordStorageOperation(sample, "upload", true);
+      logger.info("Object uploaded successfully: {}", storageKey);
+
+    } catch (ErrorResponseException
+        | InsufficientDataException
+        | InternalException
+        | InvalidKeyException
+        | InvalidResponseException
+        | IOException
+        | NoSuchAlgorithmException
+        | ServerException
+        | XmlParserException e) {
+      metricsService.recordStorageOperation(sample, "upload", false);
+      logger.error("Failed to upload object: {}", storageKey, e);
+      throw new RuntimeException("Failed to upload object: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Build the key of a derived object stored next to an original file, e.g. {@code
+   * uploads/ab12cd34/<uuid>.pdf} becomes {@code uploads/ab12cd34/<uuid>.thumb.jpg}.
+   *
+   * @param storageKey The storage key of the original file
+   * @param suffix The suffix identifying the derivative (including extension)
+   * @return The derived storage key
+   */
+  public String generateDerivativeKey(String storageKey, String suffix) {
+    int slashIndex = storageKey.lastIndexOf('/');
+    int dotIndex = storageKey.lastIndexOf('.');
+    String base = dotIndex > slashIndex + 1 ? storageKey.substring(0, dotIndex) : storageKey;
+    return base + suffix;
+  }
+
   /**
    * Download a file from MinIO storage.
    *
@@ -84,11 +229,13 @@ public class FileStorageService {
    * @throws RuntimeException if download fails
    */
   public InputStream downloadFile(String storageKey) {
+    Timer.Sample sample = metricsService.startStorageOperationTimer();
     try {
       InputStream stream =
           minioClient.getObject(
               GetObjectArgs.builder().bucket(bucketName).object(storageKey).build());
 
+      metricsService.recordStorageOperation(sample, "download", true);
       logger.info("File downloaded successfully: {}", storageKey);
       return stream;
 
@@ -101,6 +248,7 @@ public class FileStorageService {
         | NoSuchAlgorithmException
         | ServerException
         | XmlParserException e) {
+      metricsService.recordStorageOperation(sample, "download", false);
       logger.error("Failed to download file: {}", storageKey, e);
       throw new RuntimeException("Failed to download file: " + e.getMessage(), e);
     }
@@ -113,10 +261,12 @@ public class FileStorageService {
    * @throws RuntimeException if deletion fails
    */
   public void deleteFile(String storageKey) {
+    Timer.Sample sample = metricsService.startStorageOperationTimer();
     try {
       minioClient.removeObject(
           RemoveObjectArgs.builder().bucket(bucketName).object(storageKey).build());
 
+      metricsService.recordStorageOperation(sample, "delete", true);
       logger.info("File deleted successfully: {}", storageKey);
 
     } catch (ErrorResponseException
@@ -128,39 +278,183 @@ public class FileStorageService {
         | NoSuchAlgorithmException
         | ServerException
         | XmlParserException e) {
+      metricsService.recordStorageOperation(sample, "delete", false);
       logger.error("Failed to delete file: {}", storageKey, e);
       throw new RuntimeException("Failed to delete file: " + e.getMessage(), e);
     }
   }
 
   /**
-   * Check if a file exists in MinIO storage.
+   * Check if a file exists in MinIO storage. Only a NoSuchKey answer means the file is missing; any
+   * other error is a failed check, not an absent file.
    *
    * @param storageKey The storage key (object name) of the file
-   * @return true if the file exists, false otherwise
+   * @return true if the file exists, false if storage reports no such key
+   * @throws RuntimeException if the check fails
    */
   public boolean fileExists(String storageKey) {
+    Timer.Sample sample = metricsService.startStorageOperationTimer();
     try {
       minioClient.statObject(
           StatObjectArgs.builder().bucket(bucketName).object(storageKey).build());
+      metricsService.recordStorageOperation(sample, "stat", true);
       return true;
-    } catch (Exception e) {
-      return false;
+    } catch (ErrorResponseException e) {
+      if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+        // A missing object is an expected answer, not a storage failure
+        metricsService.recordStorageOperation(sample, "stat", true);
+        return false;
+      }
+      metricsService.recordStorageOperation(sample, "stat", false);
+      logger.error("Failed to check file: {}", storageKey, e);
+      throw new RuntimeException("Failed to check file: " + e.getMessage(), e);
+    } catch (InsufficientDataException
+        | InternalException
+        | InvalidKeyException
+        | InvalidResponseException
+        | IOException
+        | NoSuchAlgorithmException
+        | ServerException
+        | XmlParserException e) {
+      metricsService.recordStorageOperation(sample, "stat", false);
+      logger.error("Failed to check file: {}", storageKey, e);
+      throw new RuntimeException("Failed to check file: " + e.getMessage(), e);
     }
   }
 
-  /** Ensure the bucket exists, creating it if necessary. */
+  /**
+   * Lazily list all objects under a prefix in lexicographic (UTF-8 byte) order. MinIO returns the
+   * listing in pages, so only one page is held in memory at a time regardless of bucket size.
+   *
+   * @param prefix The key prefix to list
+   * @return Iterator over the stored objects
+   * @throws RuntimeException if a listing page cannot be fetched
+   */
+  public Iterator<StoredObject> listObjects(String prefix) {
+    Iterator<Result<Item>> results =
+        minioClient
+            .listObjects(
+                ListObjectsArgs.builder().bucket(bucketName).prefix(prefix).recursive(true).build())
+            .iterator();
+
+    return new Iterator<>() {
+      private StoredObject next;
+
+      @Override
+      public boolean hasNext() {
+        while (next == null && results.hasNext()) {
+          Item item = readResult(results.next());
+          if (!item.isDir()) {
+            next = new StoredObject(item.objectName(), item.size(), item.lastModified());
+          }
+        }
+        return next != null;
+      }
+
+      @Override
+      public StoredObject next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        StoredObject current = next;
+        next = null;
+        return current;
+      }
+    };
+  }
+
+  /**
+   * Delete a batch of objects with a single multi-object delete request.
+   *
+   * @param storageKeys The storage keys to delete (at most 1000 per request)
+   * @return The keys that could not be deleted
+   */
+  public List<String> deleteObjects(List<String> storageKeys) {
+    List<String> failed = new ArrayList<>();
+    if (storageKeys.isEmpty()) {
+      return failed;
+    }
+
+    List<DeleteObject> objects = new ArrayList<>(storageKeys.size());
+    for (String storageKey : storageKeys) {
+      objects.add(new DeleteObject(storageKey));
+    }
+
+    // The delete request is only sent once the result iterable is consumed
+    Timer.Sample sample = metricsService.startStorageOperationTimer();
+    try {
+      for (Result<DeleteError> result :
+          minioClient.removeObjects(
+              RemoveObjectsArgs.builder().bucket(bucketName).objects(objects).build())) {
+        DeleteError error = readResult(result);
+        logger.warn("Failed to delete object {}: {}", error.objectName(), error.message());
+        failed.add(error.objectName());
+      }
+    } catch (RuntimeException e) {
+      metricsService.recordStorageOperation(sample, "batch_delete", false);
+      throw e;
+    }
+    metricsService.recordStorageOperation(sample, "batch_delete", failed.isEmpty());
+
+    logger.info(
+        "Deleted {} objects ({} failed)", storageKeys.size() - failed.size(), failed.size());
+    return failed;
+  }
+
+  /**
+   * Ensure the bucket exists, creating it if necessary. The check only hits MinIO until it first
+   * succeeds; after that the result is cached for the lifetime of the application. A lock is used
+   * instead of a synchronized block so a virtual thread waiting on MinIO does not pin its carrier.
+   */
   private void ensureBucketExists() {
+    if (bucketReady) {
+      return;
+    }
+    bucketLock.lock();
     try {
-      boolean found =
-          minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
-      if (!found) {
-        minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
-        logger.info("Bucket created: {}", bucketName);
+      if (bucketReady) {
+        return;
       }
-    } catch (Exception e) {
-      logger.error("Failed to ensure bucket exists: {}", bucketName, e);
-      throw new RuntimeException("Failed to ensure bucket exists", e);
+      Timer.Sample sample = metricsService.startStorageOperationTimer();
+      try {
+        boolean found =
+            minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
+        if (!found) {
+          minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+          logger.info("Bucket created: {}", bucketName);
+        } else {
+          logger.info("Bucket verified: {}", bucketName);
+        }
+        metricsService.recordStorageOperation(sample, "bucket_bootstrap", true);
+        bucketReady = true;
+      } catch (Exception e) {
+        metricsService.recordStorageOperation(sample, "bucket_bootstrap", false);
+        logger.error("Failed to ensure bucket exists: {}", bucketName, e);
+        throw new RuntimeException("Failed to ensure bucket exists", e);
+      }
+    } finally {
+      bucketLock.unlock();
+    }
+  }
+
+  private long effectivePartSize() {
+    return partSize > 0 ? partSize : -1;
+  }
+
+  private <T> T readResult(Result<T> result) {
+    try {
+      return result.get();
+    } catch (ErrorResponseException
+        | InsufficientDataException
+        | InternalException
+        | InvalidKeyException
+        | InvalidResponseException
+        | IOException
+        | NoSuchAlgorithmException
+        | ServerException
+        | XmlParserException e) {
+      logger.error("Failed to read storage response from bucket: {}", bucketName, e);
+      throw new RuntimeException("Failed to read storage response: " + e.getMessage(), e);
     }
   }
 
@@ -170,7 +464,7 @@ public class FileStorageService {
    * @param fileName The original file name
    * @return The generated storage key
    */
-  private String generateStorageKey(String fileName) {
+  public String generateStorageKey(String fileName) {
     String sanitizedFileName = sanitizeFileName(fileName);
     String extension = getFileExtension(sanitizedFileName);
     String uniqueId = UUID.randomUUID().toString();
@@ -0,0 +1,129 @@
+package com.todoapp.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local disk area for uploaded import files. An upload is copied here as it arrives, then attached
+ * to its import job and kept, named after the job ID, until the job finishes, so an interrupted job
+ * can be resumed after a restart. When several instances run, the directory must be on a volume
+ * they all share.
+ */
+@Component
+public class ImportFileStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(ImportFileStore.class);
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path importDir;
+
+  public ImportFileStore(
+      @Value("${app.import.staging-dir:${java.io.tmpdir}/todoapp-imports}") String importDir) {
+    this.importDir = Paths.get(importDir);
+  }
+
+  /**
+   * Write an uploaded import file to a temporary file, copying it as it arrives.
+   *
+   * @param content The request body
+   * @param maxBytes The largest accepted file
+   * @return The temporary file, to be attached to a job or discarded
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if the file is larger than {@code maxBytes}
+   */
+  public Path receive(InputStream content, long maxBytes) throws IOException {
+    Files.createDirectories(importDir);
+    Path target = importDir.resolve("upload-" + UUID.randomUUID() + ".part");
+    long size = 0;
+    try (OutputStream out = Files.newOutputStream(target)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      for (int read = content.read(buffer); read >= 0; read = content.read(buffer)) {
+        size += read;
+        if (size > maxBytes) {
+          throw new IllegalArgumentException(
+              "Import file exceeds the maximum size of " + maxBytes + " bytes");
+        }
+        out.write(buffer, 0, read);
+      }
+    } catch (IOException | RuntimeException e) {
+      discard(target);
+      throw e;
+    }
+    logger.debug("Received import file of {} bytes at {}", size, target);
+    return target;
+  }
+
+  /**
+   * Make a received file the file of an import job.
+   *
+   * @param received The file returned by {@link #receive}
+   * @param jobId The ID of the import job
+   * @throws IOException if the file cannot be moved
+   */
+  public void attach(Path received, Long jobId) throws IOException {
+    Files.move(received, pathFor(jobId), StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Remove a received file that was not attached to a job.
+   *
+   * @param received The file returned by {@link #receive}
+   */
+  public void discard(Path received) {
+    try {
+      Files.deleteIfExists(received);
+    } catch (IOException e) {
+      logger.warn("Failed to delete received import file {}", received, e);
+    }
+  }
+
+  /**
+   * Check whether the file of an import job is present.
+   *
+   * @param jobId The ID of the import job
+   * @return true if the file is present
+   */
+  public boolean exists(Long jobId) {
+    return Files.exists(pathFor(jobId));
+  }
+
+  /**
+   * Open the file of an import job.
+   *
+   * @param jobId The ID of the import job
+   * @return InputStream of the file
+   * @throws IOException if the file cannot be read
+   */
+  public InputStream open(Long jobId) throws IOException {
+    return Files.newInputStream(pathFor(jobId));
+  }
+
+  /**
+   * Remove the file of an import job, ignoring missing files.
+   *
+   * @param jobId The ID of the import job
+   */
+  public void delete(Long jobId) {
+    try {
+      Files.deleteIfExists(pathFor(jobId));
+    } catch (IOException e) {
+      logger.warn("Failed to delete import file for job {}", jobId, e);
+    }
+  }
+
+  private Path pathFor(Long jobId) {
+    return importDir.resolve("import-" + jobId + ".ndjson");
+  }
+}
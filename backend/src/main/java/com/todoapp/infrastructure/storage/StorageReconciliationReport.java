@@ -0,0 +1,163 @@
+package com.todoapp.infrastructure.storage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a storage reconciliation run. Counters cover the whole bucket; the key lists only keep
+ * a bounded sample so a report stays small however many orphans are found.
+ */
+public class StorageReconciliationReport {
+
+  private final boolean dryRun;
+  private final int sampleSize;
+  private final LocalDateTime startedAt;
+  private Duration duration = Duration.ZERO;
+
+  private long objectsScanned;
+  private long referencedKeysScanned;
+  private long matchedKeys;
+  private long orphanedObjects;
+  private long orphanedBytes;
+  private long skippedRecentObjects;
+  private long missingObjects;
+  private long deletedObjects;
+  private long failedDeletes;
+  private boolean deleteLimitReached;
+
+  private final List<String> orphanedSample = new ArrayList<>();
+  private final List<String> missingSample = new ArrayList<>();
+
+  public StorageReconciliationReport(boolean dryRun, int sampleSize) {
+    this.dryRun = dryRun;
+    this.sampleSize = sampleSize;
+    this.startedAt = LocalDateTime.now();
+  }
+
+  void recordObjectScanned() {
+    objectsScanned++;
+  }
+
+  void recordReferencedKeyScanned() {
+    referencedKeysScanned++;
+  }
+
+  void recordMatch() {
+    matchedKeys++;
+  }
+
+  void recordOrphan(StoredObject object) {
+    orphanedObjects++;
+    orphanedBytes += object.size();
+    if (orphanedSample.size() < sampleSize) {
+      orphanedSample.add(object.key());
+    }
+  }
+
+  void recordSkippedRecent() {
+    skippedRecentObjects++;
+  }
+
+  void recordMissing(String storageKey) {
+    missingObjects++;
+    if (missingSample.size() < sampleSize) {
+      missingSample.add(storageKey);
+    }
+  }
+
+  void recordDeleted(long deleted, long failed) {
+    deletedObjects += deleted;
+    failedDeletes += failed;
+  }
+
+  void markDeleteLimitReached() {
+    deleteLimitReached = true;
+  }
+
+  void finish() {
+    duration = Duration.between(startedAt, LocalDateTime.now());
+  }
+
+  public boolean isDryRun() {
+    return dryRun;
+  }
+
+  public LocalDateTime getStartedAt() {
+    return startedAt;
+  }
+
+  public Duration getDuration() {
+    return duration;
+  }
+
+  public long getObjectsScanned() {
+    return objectsScanned;
+  }
+
+  public long getReferencedKeysScanned() {
+    return referencedKeysScanned;
+  }
+
+  public long getMatchedKeys() {
+    return matchedKeys;
+  }
+
+  public long getOrphanedObjects() {
+    return orphanedObjects;
+  }
+
+  public long getOrphanedBytes() {
+    return orphanedBytes;
+  }
+
+  public long getSkippedRecentObjects() {
+    return skippedRecentObjects;
+  }
+
+  public long getMissingObjects() {
+    return missingObjects;
+  }
+
+  public long getDeletedObjects() {
+    return deletedObjects;
+  }
+
+  public long getFailedDeletes() {
+    return failedDeletes;
+  }
+
+  public boolean isDeleteLimitReached() {
+    return deleteLimitReached;
+  }
+
+  public List<String> getOrphanedSample() {
+    return Collections.unmodifiableList(orphanedSample);
+  }
+
+  public List<String> getMissingSample() {
+    return Collections.unmodifiableList(missingSample);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "StorageReconciliationReport{dryRun=%s, objectsScanned=%d, referencedKeys=%d, matched=%d, "
+            + "orphaned=%d (%d bytes), skippedRecent=%d, missing=%d, deleted=%d, failed=%d, "
+            + "deleteLimitReached=%s, duration=%s}",
+        dryRun,
+        objectsScanned,
+        referencedKeysScanned,
+        matchedKeys,
+        orphanedObjects,
+        orphanedBytes,
+        skippedRecentObjects,
+        missingObjects,
+        deletedObjects,
+        failedDeletes,
+        deleteLimitReached,
+        duration);
+  }
+}
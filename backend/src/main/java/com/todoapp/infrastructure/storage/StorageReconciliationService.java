@@ -0,0 +1,317 @@
+package com.todoapp.infrastructure.storage;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.todoapp.domain.repository.FileAttachmentRepository;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+
+/**
+ * Reconciles the attachment bucket with the {@code file_attachments} table.
+ *
+ * <p>Both sides are restricted to the configured key prefix and streamed in byte order (the bucket
+ * listing page by page, the table through keyset pagination) and merge-joined, so memory use stays
+ * constant however many objects the bucket holds. Objects with no referencing row are orphans and
+ * are deleted in rate-limited batches; rows whose object is missing are only reported, since
+ * removing them would hide data loss from users. Uploads that are staged, being stored or failed
+ * have no object to miss and are not referenced, so a leftover object of a failed upload is an
+ * orphan like any other. Objects younger than the configured minimum age are never deleted, which
+ * protects uploads whose row has not been committed yet.
+ */
+@Service
+public class StorageReconciliationService {
+
+  private static final Logger logger = LoggerFactory.getLogger(StorageReconciliationService.class);
+
+  // S3 multi-object delete accepts at most 1000 keys per request
+  private static final int MAX_DELETE_BATCH_SIZE = 1000;
+
+  private final FileStorageService fileStorageService;
+  private final FileAttachmentRepository fileAttachmentRepository;
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+
+  @Value("${app.storage.reconciliation.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.storage.reconciliation.dry-run:true}")
+  private boolean dryRun;
+
+  @Value("${app.storage.reconciliation.prefix:uploads/}")
+  private String prefix;
+
+  @Value("${app.storage.reconciliation.min-object-age-hours:24}")
+  private long minObjectAgeHours;
+
+  @Value("${app.storage.reconciliation.page-size:1000}")
+  private int pageSize;
+
+  @Value("${app.storage.reconciliation.delete-batch-size:500}")
+  private int deleteBatchSize;
+
+  @Value("${app.storage.reconciliation.max-deletes-per-second:200}")
+  private long maxDeletesPerSecond;
+
+  @Value("${app.storage.reconciliation.max-deletes-per-run:100000}")
+  private long maxDeletesPerRun;
+
+  @Value("${app.storage.reconciliation.report-sample-size:100}")
+  private int reportSampleSize;
+
+  public StorageReconciliationService(
+      FileStorageService fileStorageService, FileAttachmentRepository fileAttachmentRepository) {
+    this.fileStorageService = fileStorageService;
+    this.fileAttachmentRepository = fileAttachmentRepository;
+  }
+
+  /** Run reconciliation on the configured schedule. Runs daily at 03:30 by default. */
+  @Scheduled(cron = "${app.storage.reconciliation.cron:0 30 3 * * *}")
+  public void scheduledReconciliation() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      reconcile(dryRun);
+    } catch (Exception e) {
+      logger.error("Storage reconciliation failed", e);
+    }
+  }
+
+  /**
+   * Merge the bucket listing with the referenced keys and collect (and optionally delete) orphans.
+   *
+   * @param dryRun If true, orphans are only reported and nothing is deleted
+   * @return The reconciliation report
+   * @throws IllegalStateException if a reconciliation is already running
+   */
+  public StorageReconciliationReport reconcile(boolean dryRun) {
+    if (!running.compareAndSet(false, true)) {
+      throw new IllegalStateException("Storage reconciliation is already running");
+    }
+
+    try {
+      logger.info("Starting storage reconciliation (dryRun={}, prefix={})", dryRun, prefix);
+
+      StorageReconciliationReport report =
+          new StorageReconciliationReport(dryRun, reportSampleSize);
+      ZonedDateTime cutoff = ZonedDateTime.now().minusHours(minObjectAgeHours);
+      OrphanDeleter deleter = new OrphanDeleter(dryRun, report);
+
+      Iterator<StoredObject> objects = fileStorageService.listObjects(prefix);
+      // Rows under other prefixes have no object in this listing and must not count as missing
+      Iterator<String> referencedKeys = new ReferencedKeyIterator(prefix, prefixEnd(prefix));
+
+      StoredObject object = nextOrNull(objects);
+      String referencedKey = nextOrNull(referencedKeys);
+
+      while (object != null || referencedKey != null) {
+        int comparison;
+        if (object == null) {
+          comparison = 1;
+        } else if (referencedKey == null) {
+          comparison = -1;
+        } else {
+          comparison = compareKeys(object.key(), referencedKey);
+        }
+
+        if (comparison == 0) {
+          report.recordObjectScanned();
+          report.recordReferencedKeyScanned();
+          report.recordMatch();
+          object = nextOrNull(objects);
+          referencedKey = nextOrNull(referencedKeys);
+        } else if (comparison < 0) {
+          report.recordObjectScanned();
+          if (object.lastModified() != null && object.lastModified().isAfter(cutoff)) {
+            report.recordSkippedRecent();
+          } else {
+            report.recordOrphan(object);
+            deleter.add(object.key());
+          }
+          object = nextOrNull(objects);
+        } else {
+          report.recordReferencedKeyScanned();
+          report.recordMissing(referencedKey);
+          referencedKey = nextOrNull(referencedKeys);
+        }
+      }
+
+      deleter.flush();
+      report.finish();
+
+      logger.info("Storage reconciliation finished: {}", report);
+      if (!report.getOrphanedSample().isEmpty()) {
+        logger.info("Sample of orphaned objects: {}", report.getOrphanedSample());
+      }
+      if (!report.getMissingSample().isEmpty()) {
+        logger.warn("Sample of attachments with missing objects: {}", report.getMissingSample());
+      }
+      return report;
+
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /**
+   * Compare keys by Unicode code point, which matches the UTF-8 byte order used by both the bucket
+   * listing and the {@code COLLATE "C"} database ordering ({@link String#compareTo} differs for
+   * characters outside the Basic Multilingual Plane).
+   */
+  private static int compareKeys(String left, String right) {
+    int i = 0;
+    int j = 0;
+    while (i < left.length() && j < right.length()) {
+      int a = left.codePointAt(i);
+      int b = right.codePointAt(j);
+      if (a != b) {
+        return Integer.compare(a, b);
+      }
+      i += Character.charCount(a);
+      j += Character.charCount(b);
+    }
+    return Integer.compare(left.length() - i, right.length() - j);
+  }
+
+  /**
+   * The first key in byte order after every key that starts with the prefix, or an empty string
+   * when there is none (empty prefix, or a prefix of only maximal code points). Surrogate code
+   * points are skipped, since they cannot be encoded in a key.
+   */
+  private static String prefixEnd(String prefix) {
+    int end = prefix.length();
+    while (end > 0) {
+      int last = prefix.codePointBefore(end);
+      int start = end - Character.charCount(last);
+      if (last < Character.MAX_CODE_POINT) {
+        int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+        return prefix.substring(0, start) + new String(Character.toChars(next));
+      }
+      end = start;
+    }
+    return "";
+  }
+
+  private static <T> T nextOrNull(Iterator<T> iterator) {
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  /** Pages through referenced storage keys in a range, holding a single page in memory. */
+  private class ReferencedKeyIterator implements Iterator<String> {
+
+    private final String from;
+    private final String before;
+    private List<String> page = List.of();
+    private int position;
+    private String lastKey = "";
+    private boolean exhausted;
+
+    ReferencedKeyIterator(String from, String before) {
+      this.from = from;
+      this.before = before;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (position < page.size()) {
+        return true;
+      }
+      if (exhausted) {
+        return false;
+      }
+      page =
+          before.isEmpty()
+              ? fileAttachmentRepository.findReferencedStorageKeysFrom(lastKey, from, pageSize)
+              : fileAttachmentRepository.findReferencedStorageKeysAfter(
+                  lastKey, from, before, pageSize);
+      position = 0;
+      if (page.size() < pageSize) {
+        exhausted = true;
+      }
+      if (!page.isEmpty()) {
+        lastKey = page.get(page.size() - 1);
+      }
+      return !page.isEmpty();
+    }
+
+    @Override
+    public String next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return page.get(position++);
+    }
+  }
+
+  /** Buffers orphan keys and deletes them in batches, throttled by a token bucket. */
+  private class OrphanDeleter {
+
+    private final boolean dryRun;
+    private final StorageReconciliationReport report;
+    private final List<String> batch;
+    private final int batchSize;
+    private final Bucket rateLimit;
+    private long queued;
+
+    OrphanDeleter(boolean dryRun, StorageReconciliationReport report) {
+      this.dryRun = dryRun;
+      this.report = report;
+      this.batchSize = Math.max(1, Math.min(deleteBatchSize, MAX_DELETE_BATCH_SIZE));
+      this.batch = new ArrayList<>(batchSize);
+      long capacity = Math.max(maxDeletesPerSecond, batchSize);
+      this.rateLimit =
+          Bucket.builder()
+              .addLimit(
+                  Bandwidth.classic(
+                      capacity, Refill.greedy(maxDeletesPerSecond, Duration.ofSeconds(1))))
+              .build();
+    }
+
+    void add(String storageKey) {
+      if (dryRun) {
+        return;
+      }
+      if (queued >= maxDeletesPerRun) {
+        report.markDeleteLimitReached();
+        return;
+      }
+      batch.add(storageKey);
+      queued++;
+      if (batch.size() >= batchSize) {
+        flush();
+      }
+    }
+
+    void flush() {
+      if (batch.isEmpty()) {
+        return;
+      }
+      try {
+        rateLimit.asBlocking().consume(batch.size());
+        List<String> failed = fileStorageService.deleteObjects(List.copyOf(batch));
+        report.recordDeleted(batch.size() - failed.size(), failed.size());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Storage reconciliation interrupted", e);
+      } catch (RuntimeException e) {
+        logger.error("Failed to delete batch of {} orphaned objects", batch.size(), e);
+        report.recordDeleted(0, batch.size());
+      }
+      batch.clear();
+    }
+  }
+}
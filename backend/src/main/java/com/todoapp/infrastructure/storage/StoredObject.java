@@ -0,0 +1,12 @@
+package com.todoapp.infrastructure.storage;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Metadata of an object stored in the attachment bucket, as returned by a bucket listing.
+ *
+ * @param key The storage key (object name)
+ * @param size The object size in bytes
+ * @param lastModified The last modification time reported by storage
+ */
+public record StoredObject(String key, long size, ZonedDateTime lastModified) {}
@@ -0,0 +1,209 @@
+package com.todoapp.infrastructure.storage;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders small JPEG previews for image and PDF attachments.
+ *
+ * <p>Memory use per generation is bounded: images are decoded with source subsampling so the
+ * decoded raster is at most about twice the thumbnail size, images whose header declares more than
+ * {@code app.preview.max-source-pixels} are rejected before decoding, and PDFs are spooled to a
+ * temp file and parsed from there with a capped main-memory buffer that also spills to temp files.
+ */
+@Component
+public class ThumbnailGenerator {
+
+  private static final Logger logger = LoggerFactory.getLogger(ThumbnailGenerator.class);
+
+  public static final String THUMBNAIL_CONTENT_TYPE = "image/jpeg";
+
+  private static final String PDF_MIME_TYPE = "application/pdf";
+
+  @Value("${app.preview.thumbnail-size:256}")
+  private int thumbnailSize;
+
+  @Value("${app.preview.max-source-pixels:50000000}")
+  private long maxSourcePixels;
+
+  @Value("${app.preview.pdf-max-main-memory-bytes:16777216}")
+  private long pdfMaxMainMemoryBytes;
+
+  /**
+   * Check whether a preview can be generated for the given MIME type.
+   *
+   * @param mimeType The MIME type of the source file
+   * @return true if the type is a supported image or a PDF
+   */
+  public boolean supports(String mimeType) {
+    if (mimeType == null) {
+      return false;
+    }
+    String normalized = mimeType.toLowerCase();
+    if (normalized.equals(PDF_MIME_TYPE)) {
+      return true;
+    }
+    return normalized.startsWith("image/")
+        && ImageIO.getImageReadersByMIMEType(normalized).hasNext();
+  }
+
+  /**
+   * Generate a JPEG thumbnail for the given source content.
+   *
+   * @param source The source file content
+   * @param mimeType The MIME type of the source file
+   * @return The encoded JPEG bytes, or empty if the source could not be rendered
+   * @throws IOException if reading the source fails
+   */
+  public Optional<byte[]> generate(InputStream source, String mimeType) throws IOException {
+    if (!supports(mimeType)) {
+      return Optional.empty();
+    }
+
+    BufferedImage rendered =
+        PDF_MIME_TYPE.equalsIgnoreCase(mimeType) ? renderPdfFirstPage(source) : readImage(source);
+
+    if (rendered == null) {
+      return Optional.empty();
+    }
+
+    return Optional.of(encodeJpeg(scaleToFit(rendered)));
+  }
+
+  /**
+   * Decode an image using source subsampling so large images never materialize at full size.
+   *
+   * @param source The image content
+   * @return The decoded (subsampled) image, or null if the image is unreadable or too large
+   */
+  private BufferedImage readImage(InputStream source) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+      if (input == null) {
+        return null;
+      }
+
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        return null;
+      }
+
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+
+        if ((long) width * height > maxSourcePixels) {
+          logger.warn(
+              "Skipping thumbnail for image of {}x{} pixels (limit: {})",
+              width,
+              height,
+              maxSourcePixels);
+          return null;
+        }
+
+        int step = Math.max(1, Math.max(width, height) / (thumbnailSize * 2));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * Render the first page of a PDF at a resolution matching the thumbnail size. The source is
+   * copied to a temp file first so the parser reads it through a small window instead of holding
+   * the whole document on the heap.
+   *
+   * @param source The PDF content
+   * @return The rendered page, or null if the document has no pages
+   */
+  private BufferedImage renderPdfFirstPage(InputStream source) throws IOException {
+    Path spool = Files.createTempFile("thumbnail-source-", ".pdf");
+    try {
+      Files.copy(source, spool, StandardCopyOption.REPLACE_EXISTING);
+      try (PDDocument document =
+          Loader.loadPDF(
+              new RandomAccessReadBufferedFile(spool),
+              MemoryUsageSetting.setupMixed(pdfMaxMainMemoryBytes).streamCache)) {
+        if (document.getNumberOfPages() == 0) {
+          return null;
+        }
+
+        PDRectangle mediaBox = document.getPage(0).getMediaBox();
+        float longestSide = Math.max(mediaBox.getWidth(), mediaBox.getHeight());
+        float scale = longestSide > 0 ? thumbnailSize / longestSide : 1f;
+
+        return new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+      }
+    } finally {
+      Files.deleteIfExists(spool);
+    }
+  }
+
+  /**
+   * Scale an image down so its longest side matches the thumbnail size, flattening any alpha
+   * channel onto a white background.
+   *
+   * @param image The source image
+   * @return The scaled RGB image
+   */
+  private BufferedImage scaleToFit(BufferedImage image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    double ratio = Math.min(1.0, (double) thumbnailSize / Math.max(width, height));
+    int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+    int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+    BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = scaled.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.setColor(Color.WHITE);
+      graphics.fillRect(0, 0, targetWidth, targetHeight);
+      graphics.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+    } finally {
+      graphics.dispose();
+    }
+    return scaled;
+  }
+
+  private byte[] encodeJpeg(BufferedImage image) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    if (!ImageIO.write(image, "jpg", output)) {
+      throw new IOException("No JPEG writer available");
+    }
+    return output.toByteArray();
+  }
+}
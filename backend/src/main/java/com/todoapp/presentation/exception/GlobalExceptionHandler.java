@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -95,6 +97,54 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
   }
 
+  /**
+   * Writes reference their owner by ID without loading it, so a reference to a row that was deleted
+   * in the meantime surfaces as a constraint violation rather than a lookup failure.
+   */
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(
+      DataIntegrityViolationException ex, WebRequest request) {
+    ErrorResponse errorResponse =
+        new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Conflict",
+            "The request conflicts with the current state of the data",
+            request.getDescription(false));
+
+    return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(ConflictException.class)
+  public ResponseEntity<ConflictResponse> handleConflictException(
+      ConflictException ex, WebRequest request) {
+    ConflictResponse conflictResponse =
+        new ConflictResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Conflict",
+            ex.getMessage(),
+            request.getDescription(false),
+            ex.getCurrent());
+
+    return new ResponseEntity<>(conflictResponse, HttpStatus.CONFLICT);
+  }
+
+  /** A versioned entity was changed by someone else between reading and writing it. */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+      OptimisticLockingFailureException ex, WebRequest request) {
+    ErrorResponse errorResponse =
+        new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Conflict",
+            "The resource was modified concurrently; reload it and retry",
+            request.getDescription(false));
+
+    return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, WebRequest request) {
     ErrorResponse errorResponse =
@@ -111,6 +161,15 @@ public class GlobalExceptionHandler {
   public record ErrorResponse(
       LocalDateTime timestamp, int status, String error, String message, String path) {}
 
+  /** A 409 body that carries the current state of the resource, so clients can merge and retry. */
+  public record ConflictResponse(
+      LocalDateTime timestamp,
+      int status,
+      String error,
+      String message,
+      String path,
+      Object current) {}
+
   public static class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
       super(message);
@@ -128,4 +187,18 @@ public class GlobalExceptionHandler {
       super(message);
     }
   }
+
+  /** The request was based on a stale version of a resource. */
+  public static class ConflictException extends RuntimeException {
+    private final transient Object current;
+
+    public ConflictException(String message, Object current) {
+      super(message);
+      this.current = current;
+    }
+
+    public Object getCurrent() {
+      return current;
+    }
+  }
 }
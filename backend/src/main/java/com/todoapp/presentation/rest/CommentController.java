@@ -1,14 +1,14 @@
 package com.todoapp.presentation.rest;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.todoapp.application.dto.CommentDTO;
+import com.todoapp.application.dto.CommentPageDTO;
 import com.todoapp.application.service.CommentService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -62,21 +62,39 @@ public class CommentController {
   @GetMapping("/tasks/{taskId}/comments")
   @Operation(
       summary = "Get task comments",
-      description = "Retrieves all comments for a specific task")
+      description =
+          "Retrieves a page of a task's comments, newest first. Send the returned nextCursor to get"
+              + " older comments, and the ETag in If-None-Match to skip unchanged threads")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Comments retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Thread not modified"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "404", description = "Task not found")
       })
-  public ResponseEntity<List<CommentDTO>> getTaskComments(
+  public ResponseEntity<CommentPageDTO> getTaskComments(
       @PathVariable Long taskId,
+      @Parameter(description = "Cursor of the page to fetch; omit for the newest comments")
+          @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int limit,
       @Parameter(description = "User ID (temporary - will be from JWT)")
           @RequestHeader(value = "X-User-Id", defaultValue = "1")
-          Long userId) {
+          Long userId,
+      WebRequest webRequest) {
     logger.info("Fetching comments for task ID: {} by user ID: {}", taskId, userId);
-    List<CommentDTO> comments = commentService.getCommentsByTaskId(taskId, userId);
-    return ResponseEntity.ok(comments);
+    String eTag = commentService.getThreadETag(taskId, userId);
+    if (eTag != null && webRequest.checkNotModified(eTag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    CommentPageDTO page = commentService.getCommentThread(taskId, userId, cursor, limit);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (eTag != null) {
+      response.eTag(eTag);
+    }
+    return response.body(page);
   }
 
   @PutMapping("/comments/{id}")
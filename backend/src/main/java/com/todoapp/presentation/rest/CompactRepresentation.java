@@ -0,0 +1,38 @@
+package com.todoapp.presentation.rest;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * The compact representation of task lists, which clients select with the Accept header. It is
+ * JSON, so the Jackson converter writes it, and responses are compressed like other JSON.
+ */
+final class CompactRepresentation {
+
+  static final String MEDIA_TYPE_VALUE = "application/vnd.todoapp.compact+json";
+
+  static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+  private CompactRepresentation() {}
+
+  /**
+   * Whether a request asks for the compact representation. Wildcards do not count, so clients that
+   * accept anything keep getting the full representation.
+   *
+   * @param accept The Accept header, or null
+   * @return True if the compact media type is listed
+   */
+  static boolean isAccepted(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return false;
+    }
+    try {
+      List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+      return mediaTypes.stream().anyMatch(MEDIA_TYPE::equalsTypeAndSubtype);
+    } catch (InvalidMediaTypeException e) {
+      return false;
+    }
+  }
+}
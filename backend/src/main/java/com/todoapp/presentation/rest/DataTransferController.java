@@ -0,0 +1,139 @@
+package com.todoapp.presentation.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.todoapp.application.dto.ImportJobDTO;
+import com.todoapp.application.service.DataExportService;
+import com.todoapp.application.service.DataImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/data")
+@Tag(name = "Data Transfer", description = "Bulk export and import of a user's data")
+public class DataTransferController {
+
+  private static final Logger logger = LoggerFactory.getLogger(DataTransferController.class);
+
+  private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+  private final DataExportService dataExportService;
+  private final DataImportService dataImportService;
+
+  public DataTransferController(
+      DataExportService dataExportService, DataImportService dataImportService) {
+    this.dataExportService = dataExportService;
+    this.dataImportService = dataImportService;
+  }
+
+  @GetMapping("/export")
+  @Operation(
+      summary = "Export data",
+      description =
+          "Streams all categories, tags, tasks, subtasks, comments and time entries of the user."
+              + " NDJSON has one record per line and can be imported again; CSV lists the tasks"
+              + " only, for spreadsheets.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Export file"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+      })
+  public ResponseEntity<StreamingResponseBody> export(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Export format") @RequestParam(defaultValue = "NDJSON")
+          DataExportService.Format format) {
+    logger.info("Exporting data of user ID: {} as {}", userId, format);
+    boolean csv = format == DataExportService.Format.CSV;
+    StreamingResponseBody body = out -> dataExportService.export(userId, format, out);
+    return ResponseEntity.ok()
+        .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename(csv ? "tasks-export.csv" : "tasks-export.ndjson")
+                .build()
+                .toString())
+        .body(body);
+  }
+
+  @PostMapping(value = "/imports", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(
+      summary = "Import data",
+      description =
+          "Uploads an NDJSON export as the request body and imports it in the background. Poll"
+              + " the returned job for progress.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "202", description = "Import job created"),
+        @ApiResponse(responseCode = "400", description = "Empty, invalid or too large file"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+      })
+  public ResponseEntity<ImportJobDTO> startImport(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Name of the uploaded file") @RequestParam(required = false)
+          String fileName,
+      InputStream body)
+      throws IOException {
+    logger.info("Starting import for user ID: {}", userId);
+    ImportJobDTO job = dataImportService.startImport(userId, fileName, body);
+    return ResponseEntity.accepted().body(job);
+  }
+
+  @GetMapping("/imports/{jobId}")
+  @Operation(summary = "Get import progress", description = "Returns the state of an import job")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Import job"),
+        @ApiResponse(responseCode = "404", description = "Import job not found")
+      })
+  public ResponseEntity<ImportJobDTO> getImport(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Import job ID") @PathVariable Long jobId) {
+    return ResponseEntity.ok(dataImportService.getJob(userId, jobId));
+  }
+
+  @PostMapping("/imports/{jobId}/resume")
+  @Operation(
+      summary = "Resume import",
+      description = "Restarts a failed import job after its last imported record")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "202", description = "Import job requeued"),
+        @ApiResponse(responseCode = "404", description = "Import job not found"),
+        @ApiResponse(responseCode = "409", description = "Import job has not failed")
+      })
+  public ResponseEntity<ImportJobDTO> resumeImport(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Import job ID") @PathVariable Long jobId) {
+    logger.info("Resuming import job {} for user ID: {}", jobId, userId);
+    return ResponseEntity.accepted().body(dataImportService.resumeImport(userId, jobId));
+  }
+}
@@ -1,13 +1,18 @@
 package com.todoapp.presentation.rest;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -43,8 +48,13 @@ public class FileAttachmentController {
   /**
    * Upload a file attachment for a task.
    *
+   * <p>With {@code async=true} the request returns 202 as soon as the bytes are staged; the
+   * transfer to storage and the virus scan continue in the background and status changes are pushed
+   * to {@code /user/queue/attachment-status}.
+   *
    * @param taskId The ID of the task
    * @param file The file to upload
+   * @param async Whether to acknowledge before the file reaches storage
    * @param currentUser The authenticated user
    * @return The created file attachment
    */
@@ -58,16 +68,34 @@ public class FileAttachmentController {
       responseCode = "201",
       description = "File attachment created successfully",
       content = @Content(schema = @Schema(implementation = FileAttachmentDTO.class)))
+  @ApiResponse(
+      responseCode = "202",
+      description = "File accepted and staged; storage and scanning continue in the background",
+      content = @Content(schema = @Schema(implementation = FileAttachmentDTO.class)))
   @ApiResponse(responseCode = "400", description = "Invalid request or file too large")
   @ApiResponse(responseCode = "403", description = "User does not have access to this task")
   @ApiResponse(responseCode = "404", description = "Task not found")
   public ResponseEntity<FileAttachmentDTO> uploadAttachment(
       @Parameter(description = "ID of the task") @PathVariable Long taskId,
       @Parameter(description = "File to upload") @RequestParam("file") MultipartFile file,
+      @Parameter(description = "Acknowledge once staged instead of after storage")
+          @RequestParam(value = "async", defaultValue = "false")
+          boolean async,
       @AuthenticationPrincipal UserPrincipal currentUser) {
 
     logger.info(
-        "Uploading file attachment for task: {} by user: {}", taskId, currentUser.getUserId());
+        "Uploading file attachment for task: {} by user: {} (async: {})",
+        taskId,
+        currentUser.getUserId(),
+        async);
+
+    if (async) {
+      FileAttachmentDTO attachment =
+          fileAttachmentService.uploadFileAsync(taskId, currentUser.getUserId(), file);
+      return ResponseEntity.accepted()
+          .location(URI.create("/api/v1/attachments/" + attachment.getId()))
+          .body(attachment);
+    }
 
     FileAttachmentDTO attachment =
         fileAttachmentService.uploadFile(taskId, currentUser.getUserId(), file);
@@ -148,6 +176,53 @@ public class FileAttachmentController {
     return ResponseEntity.ok().headers(headers).body(resource);
   }
 
+  /**
+   * Download the preview image of a file attachment. Previews never change once generated, so the
+   * response is cacheable indefinitely and conditional requests are answered without touching
+   * storage.
+   *
+   * @param id The ID of the attachment
+   * @param ifNoneMatch The ETag the client already holds, if any
+   * @param currentUser The authenticated user
+   * @return The JPEG preview, or 304 if the client copy is current
+   * @throws IOException if the stored preview cannot be opened
+   */
+  @GetMapping("/attachments/{id}/thumbnail")
+  @Operation(
+      summary = "Get attachment preview",
+      description = "Download the thumbnail generated for an image or PDF attachment")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Preview image",
+      content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE))
+  @ApiResponse(responseCode = "304", description = "Preview not modified")
+  @ApiResponse(responseCode = "403", description = "User does not have access to this attachment")
+  @ApiResponse(responseCode = "404", description = "Attachment or preview not found")
+  public ResponseEntity<Resource> getAttachmentThumbnail(
+      @Parameter(description = "ID of the attachment") @PathVariable UUID id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @AuthenticationPrincipal UserPrincipal currentUser)
+      throws IOException {
+
+    InputStreamSource thumbnail = fileAttachmentService.getThumbnail(id, currentUser.getUserId());
+
+    String etag = "\"" + id + "-thumb\"";
+    CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
+    if (etag.equals(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(cacheControl)
+          .build();
+    }
+
+    return ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(cacheControl)
+        .contentType(MediaType.IMAGE_JPEG)
+        .body(new InputStreamResource(thumbnail.getInputStream()));
+  }
+
   /**
    * Delete a file attachment.
    *
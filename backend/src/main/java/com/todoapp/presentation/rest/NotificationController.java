@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.todoapp.application.dto.NotificationDTO;
@@ -40,17 +41,24 @@ public class NotificationController {
 
   @GetMapping
   @Operation(
-      summary = "Get all unread notifications",
-      description = "Retrieves all unread notifications for the authenticated user")
+      summary = "Get unread notifications",
+      description =
+          "Retrieves a page of unread notifications for the authenticated user, newest first."
+              + " The page size is capped")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
       })
   public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(
-      @Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
-    logger.info("Fetching unread notifications for user ID: {}", userId);
-    List<NotificationDTO> notifications = notificationService.getUnreadNotifications(userId);
+      @Parameter(hidden = true) @RequestAttribute("userId") Long userId,
+      @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0")
+          int page,
+      @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+    logger.info(
+        "Fetching unread notifications for user ID: {} (page: {}, size: {})", userId, page, size);
+    List<NotificationDTO> notifications =
+        notificationService.getUnreadNotifications(userId, page, size);
     return ResponseEntity.ok(notifications);
   }
 
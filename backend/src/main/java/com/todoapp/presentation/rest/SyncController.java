@@ -0,0 +1,60 @@
+package com.todoapp.presentation.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.todoapp.application.service.SyncService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+@Tag(name = "Sync", description = "Incremental sync for offline and mobile clients")
+public class SyncController {
+
+  private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+
+  private final SyncService syncService;
+
+  public SyncController(SyncService syncService) {
+    this.syncService = syncService;
+  }
+
+  @GetMapping
+  @Operation(
+      summary = "Sync changes",
+      description =
+          "Streams the tasks, categories, tags, comments and shares that changed or were deleted"
+              + " since the given token, oldest first, followed by the new token. Pass 0 for a full"
+              + " snapshot. A response flagged 'reset' replaces the client's local state.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Changes since the token"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+      })
+  public ResponseEntity<StreamingResponseBody> sync(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Token returned by the previous sync")
+          @RequestParam(defaultValue = "0")
+          long since,
+      @Parameter(description = "Maximum number of changes") @RequestParam(defaultValue = "500")
+          int limit) {
+    logger.info("Syncing user ID: {} since token {}", userId, since);
+    StreamingResponseBody body = out -> syncService.writeChanges(userId, since, limit, out);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+}
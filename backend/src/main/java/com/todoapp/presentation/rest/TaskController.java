@@ -1,30 +1,48 @@
 package com.todoapp.presentation.rest;
 
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todoapp.application.dto.RecurrencePatternDTO;
 import com.todoapp.application.dto.TaskCreateDTO;
+import com.todoapp.application.dto.TaskDueFilter;
+import com.todoapp.application.dto.TaskDueFilter.DueWindow;
+import com.todoapp.application.dto.TaskOrderPageDTO;
+import com.todoapp.application.dto.TaskPatchDTO;
 import com.todoapp.application.dto.TaskResponseDTO;
+import com.todoapp.application.dto.TaskStatsDTO;
 import com.todoapp.application.dto.TaskUpdateDTO;
 import com.todoapp.application.mapper.TaskMapper;
 import com.todoapp.application.service.RecurrenceService;
+import com.todoapp.application.service.TaskOrderService;
 import com.todoapp.application.service.TaskService;
+import com.todoapp.application.service.TaskStatsService;
+import com.todoapp.domain.model.PermissionLevel;
 import com.todoapp.domain.model.RecurrencePattern;
 import com.todoapp.domain.model.Task;
 import com.todoapp.infrastructure.security.UserPrincipal;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ConflictException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -43,14 +61,25 @@ public class TaskController {
   private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
 
   private final TaskService taskService;
+  private final TaskOrderService taskOrderService;
   private final RecurrenceService recurrenceService;
+  private final TaskStatsService taskStatsService;
   private final TaskMapper taskMapper;
+  private final ObjectMapper objectMapper;
 
   public TaskController(
-      TaskService taskService, RecurrenceService recurrenceService, TaskMapper taskMapper) {
+      TaskService taskService,
+      TaskOrderService taskOrderService,
+      RecurrenceService recurrenceService,
+      TaskStatsService taskStatsService,
+      TaskMapper taskMapper,
+      ObjectMapper objectMapper) {
     this.taskService = taskService;
+    this.taskOrderService = taskOrderService;
     this.recurrenceService = recurrenceService;
+    this.taskStatsService = taskStatsService;
     this.taskMapper = taskMapper;
+    this.objectMapper = objectMapper;
   }
 
   @PostMapping
@@ -78,13 +107,20 @@ public class TaskController {
   }
 
   @GetMapping
-  @Operation(summary = "Get user tasks", description = "Retrieves paginated list of user's tasks")
+  @Operation(
+      summary = "Get user tasks",
+      description =
+          "Retrieves paginated list of user's tasks. Send Accept: "
+              + CompactRepresentation.MEDIA_TYPE_VALUE
+              + " for the compact representation, which lists categories and tags once per page."
+              + " Due date filters list open tasks soonest first.")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid due date filter"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
       })
-  public ResponseEntity<Page<TaskResponseDTO>> getUserTasks(
+  public ResponseEntity<?> getUserTasks(
       @Parameter(description = "User ID (temporary - will be from JWT)")
           @RequestHeader(value = "X-User-Id", defaultValue = "1")
           Long userId,
@@ -102,7 +138,26 @@ public class TaskController {
           Long categoryId,
       @Parameter(description = "Filter by tag IDs (comma-separated)")
           @RequestParam(required = false)
-          java.util.List<Long> tagIds) {
+          java.util.List<Long> tagIds,
+      @Parameter(description = "Only open tasks due before this time")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime dueBefore,
+      @Parameter(description = "Only open tasks due at or after this time")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime dueAfter,
+      @Parameter(description = "Only open tasks whose due date has passed")
+          @RequestParam(defaultValue = "false")
+          boolean overdue,
+      @Parameter(description = "Only open tasks due today or this week, in the given time zone")
+          @RequestParam(required = false)
+          DueWindow dueWithin,
+      @Parameter(description = "IANA time zone of the caller for dueWithin, e.g. Europe/Berlin")
+          @RequestParam(required = false)
+          String timeZone,
+      @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+          String accept) {
     logger.info(
         "Fetching tasks for user ID: {} (page: {}, size: {}, search: {}, completed: {}, categoryId: {}, tagIds: {})",
         userId,
@@ -113,6 +168,21 @@ public class TaskController {
         categoryId,
         tagIds);
 
+    TaskDueFilter dueFilter =
+        new TaskDueFilter(dueAfter, dueBefore, overdue, dueWithin, timeZone(timeZone));
+    if (dueFilter.isActive()) {
+      if (Boolean.TRUE.equals(completed)) {
+        throw new IllegalArgumentException("Due date filters only list open tasks");
+      }
+      if (tagIds != null && !tagIds.isEmpty()) {
+        throw new IllegalArgumentException("Due date filters cannot be combined with tags");
+      }
+      return listResponse(
+          taskService.getTasksByDueDate(
+              userId, dueFilter, search, categoryId, PageRequest.of(page, size)),
+          accept);
+    }
+
     Sort sort =
         Sort.by(Sort.Direction.fromString(sortDirection), sortBy != null ? sortBy : "createdAt");
     Pageable pageable = PageRequest.of(page, size, sort);
@@ -126,7 +196,7 @@ public class TaskController {
       tasks = taskService.getUserTasks(userId, pageable);
     }
 
-    return ResponseEntity.ok(tasks);
+    return listResponse(tasks, accept);
   }
 
   @GetMapping("/{id}")
@@ -147,10 +217,17 @@ public class TaskController {
       @PathVariable Long id,
       @Parameter(description = "User ID (temporary - will be from JWT)")
           @RequestHeader(value = "X-User-Id", defaultValue = "1")
-          Long userId) {
+          Long userId,
+      WebRequest webRequest) {
     logger.info("Fetching task ID: {} for user ID: {}", id, userId);
     TaskResponseDTO task = taskService.getTaskById(id, userId);
-    return ResponseEntity.ok(task);
+    if (task.getVersion() != null) {
+      String eTag = eTag(task);
+      if (webRequest.checkNotModified(eTag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+      }
+    }
+    return withETag(task);
   }
 
   @GetMapping("/count")
@@ -167,6 +244,28 @@ public class TaskController {
     return ResponseEntity.ok(count);
   }
 
+  @GetMapping("/stats")
+  @Operation(
+      summary = "Get task statistics",
+      description =
+          "Retrieves the dashboard numbers of the user's tasks in one call: totals, open tasks per"
+              + " priority, overdue tasks, counts per category and completions per day")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid number of history days")
+      })
+  public ResponseEntity<TaskStatsDTO> getTaskStats(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Days of completion history, today included")
+          @RequestParam(defaultValue = "30")
+          int days) {
+    logger.info("Getting task stats for user ID: {}", userId);
+    return ResponseEntity.ok(taskStatsService.getStats(userId, days));
+  }
+
   @PutMapping("/{id}")
   @Operation(summary = "Update task", description = "Updates an existing task")
   @ApiResponses(
@@ -180,17 +279,63 @@ public class TaskController {
                     schema = @Schema(implementation = TaskResponseDTO.class))),
         @ApiResponse(responseCode = "404", description = "Task not found"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
-        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Task was modified by someone else; the body carries the current task")
       })
   public ResponseEntity<TaskResponseDTO> updateTask(
       @PathVariable Long id,
       @Valid @RequestBody TaskUpdateDTO updateDTO,
+      @Parameter(description = "ETag of the version the changes are based on")
+          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+          String ifMatch,
       @Parameter(description = "User ID (temporary - will be from JWT)")
           @RequestHeader(value = "X-User-Id", defaultValue = "1")
           Long userId) {
     logger.info("Updating task ID: {} for user ID: {}", id, userId);
-    TaskResponseDTO task = taskService.updateTask(id, updateDTO, userId);
-    return ResponseEntity.ok(task);
+    try {
+      return withETag(taskService.updateTask(id, updateDTO, userId, parseIfMatch(ifMatch)));
+    } catch (OptimisticLockingFailureException e) {
+      // Lost the race between reading and writing the task
+      throw new ConflictException(
+          "Task was modified by someone else", taskService.getTaskById(id, userId));
+    }
+  }
+
+  @PatchMapping("/{id}")
+  @Operation(
+      summary = "Patch task",
+      description =
+          "Changes only the given fields of a task with one targeted update. Send If-Match to apply"
+              + " the changes only to the version you have seen")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Task updated successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskResponseDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Task not found"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Task was modified by someone else; the body carries the current task")
+      })
+  public ResponseEntity<TaskResponseDTO> patchTask(
+      @PathVariable Long id,
+      @Valid @RequestBody TaskPatchDTO patchDTO,
+      @Parameter(description = "ETag of the version the changes are based on")
+          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+          String ifMatch,
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId) {
+    logger.info("Patching task ID: {} for user ID: {}", id, userId);
+    return withETag(taskService.patchTask(id, patchDTO, userId, parseIfMatch(ifMatch)));
   }
 
   @DeleteMapping("/{id}")
@@ -231,8 +376,7 @@ public class TaskController {
           @RequestHeader(value = "X-User-Id", defaultValue = "1")
           Long userId) {
     logger.info("Marking task ID: {} as complete for user ID: {}", id, userId);
-    TaskResponseDTO task = taskService.toggleCompletion(id, userId);
-    return ResponseEntity.ok(task);
+    return withETag(taskService.setCompletion(id, userId, true));
   }
 
   @PatchMapping("/{id}/uncomplete")
@@ -255,28 +399,137 @@ public class TaskController {
           @RequestHeader(value = "X-User-Id", defaultValue = "1")
           Long userId) {
     logger.info("Marking task ID: {} as incomplete for user ID: {}", id, userId);
-    TaskResponseDTO task = taskService.toggleCompletion(id, userId);
-    return ResponseEntity.ok(task);
+    return withETag(taskService.setCompletion(id, userId, false));
+  }
+
+  @PostMapping("/{id}/move")
+  @Operation(
+      summary = "Move a task",
+      description =
+          "Moves a task between two tasks of its list. With only 'after' the task goes directly"
+              + " after that task, with only 'before' directly before it, and without either to the"
+              + " top of the list.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Task moved",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Neighbours are not in the task's list"),
+        @ApiResponse(responseCode = "404", description = "Task not found"),
+        @ApiResponse(
+            responseCode = "409",
+            description = "The neighbours are no longer in the given order"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+      })
+  public ResponseEntity<TaskResponseDTO> moveTask(
+      @PathVariable Long id,
+      @Parameter(description = "ID of the task that should precede the moved task")
+          @RequestParam(required = false)
+          Long after,
+      @Parameter(description = "ID of the task that should follow the moved task")
+          @RequestParam(required = false)
+          Long before,
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId) {
+    logger.info(
+        "Moving task ID: {} (after: {}, before: {}) for user ID: {}", id, after, before, userId);
+    return withETag(taskOrderService.moveTask(id, after, before, userId));
+  }
+
+  @GetMapping("/ordered")
+  @Operation(
+      summary = "Get tasks in manual order",
+      description =
+          "Retrieves one list of the user's tasks in its manual order: the top-level tasks, or the"
+              + " subtasks of a parent. Pages are addressed by the cursor returned with the previous"
+              + " page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+      })
+  public ResponseEntity<TaskOrderPageDTO> getOrderedTasks(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Parent task ID; omit for top-level tasks")
+          @RequestParam(required = false)
+          Long parentTaskId,
+      @Parameter(description = "Cursor of the next page") @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int limit) {
+    logger.info("Fetching ordered tasks for user ID: {} (parent: {})", userId, parentTaskId);
+    return ResponseEntity.ok(taskOrderService.getOrderedTasks(userId, parentTaskId, cursor, limit));
   }
 
   @GetMapping("/shared-with-me")
   @Operation(
       summary = "Get shared tasks",
-      description = "Get all tasks that have been shared with the current user")
+      description = "Get a paginated list of the tasks that have been shared with the current user")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Shared tasks retrieved successfully"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
       })
-  public ResponseEntity<List<TaskResponseDTO>> getSharedTasks(
+  public ResponseEntity<?> getSharedTasks(
       @Parameter(description = "User ID (temporary - will be from JWT)")
           @RequestHeader(value = "X-User-Id", defaultValue = "1")
-          Long userId) {
-    logger.info("Fetching shared tasks for user ID: {}", userId);
-    List<Task> sharedTasks = taskService.getSharedTasksForUser(userId);
-    List<TaskResponseDTO> taskDTOs =
-        sharedTasks.stream().map(taskMapper::toResponseDTO).collect(Collectors.toList());
-    return ResponseEntity.ok(taskDTOs);
+          Long userId,
+      @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0")
+          int page,
+      @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+      @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+          String accept) {
+    logger.info("Fetching shared tasks for user ID: {} (page: {}, size: {})", userId, page, size);
+    return listResponse(
+        taskService.getSharedTasksForUser(userId, PageRequest.of(page, size)), accept);
+  }
+
+  @GetMapping("/accessible")
+  @Operation(
+      summary = "Get owned and shared tasks",
+      description =
+          "Retrieves a paginated list of the user's own tasks together with the tasks shared with"
+              + " them, newest first. Each task carries the user's access level. Supports the"
+              + " compact representation like the task list.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+      })
+  public ResponseEntity<?> getAccessibleTasks(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0")
+          int page,
+      @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+      @Parameter(description = "Which tasks to include (ALL, OWNED, SHARED)")
+          @RequestParam(defaultValue = "ALL")
+          TaskService.ListingScope scope,
+      @Parameter(description = "Only include shares with this permission (VIEW, EDIT)")
+          @RequestParam(required = false)
+          PermissionLevel permission,
+      @Parameter(description = "Search term for filtering") @RequestParam(required = false)
+          String search,
+      @Parameter(description = "Filter by completion status") @RequestParam(required = false)
+          Boolean completed,
+      @Parameter(description = "Filter by category ID") @RequestParam(required = false)
+          Long categoryId,
+      @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+          String accept) {
+    logger.info(
+        "Fetching {} tasks for user ID: {} (page: {}, size: {})", scope, userId, page, size);
+    Page<TaskResponseDTO> tasks =
+        taskService.getAccessibleTasks(
+            userId, scope, permission, search, completed, categoryId, PageRequest.of(page, size));
+    return listResponse(tasks, accept);
   }
 
   @GetMapping("/{id}/subtasks")
@@ -533,4 +786,88 @@ public class TaskController {
                 "Batch operation %s completed successfully",
                 batchOperationDTO.getOperationType())));
   }
+
+  /**
+   * The caller's time zone for due-date windows.
+   *
+   * @param timeZone An IANA zone ID, or null for the server's zone
+   * @return The zone
+   */
+  private static ZoneId timeZone(String timeZone) {
+    if (timeZone == null || timeZone.isBlank()) {
+      return ZoneId.systemDefault();
+    }
+    try {
+      return ZoneId.of(timeZone.trim());
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Invalid time zone: " + timeZone);
+    }
+  }
+
+  /**
+   * The ETag of a task response: the version, which If-Match compares, followed by a hash of the
+   * representation. The overdue flag, subtask progress and category change without a new version,
+   * so the version alone cannot validate a cached GET.
+   */
+  private String eTag(TaskResponseDTO task) {
+    try {
+      return "\""
+          + task.getVersion()
+          + "-"
+          + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(task))
+          + "\"";
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to serialize task " + task.getId(), e);
+    }
+  }
+
+  private ResponseEntity<TaskResponseDTO> withETag(TaskResponseDTO task) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (task.getVersion() != null) {
+      response.eTag(eTag(task));
+    }
+    return response.body(task);
+  }
+
+  /**
+   * A page of tasks in the representation the client asked for. The response varies by Accept, so
+   * caches keep the representations apart.
+   *
+   * @param tasks The page of tasks
+   * @param accept The Accept header, or null
+   * @return The full page, or the compact page if the client accepts it
+   */
+  private ResponseEntity<?> listResponse(Page<TaskResponseDTO> tasks, String accept) {
+    if (CompactRepresentation.isAccepted(accept)) {
+      return ResponseEntity.ok()
+          .contentType(CompactRepresentation.MEDIA_TYPE)
+          .varyBy(HttpHeaders.ACCEPT)
+          .body(taskMapper.toCompactPage(tasks));
+    }
+    return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(tasks);
+  }
+
+  /**
+   * The task version an If-Match header asks for. The hash part of the ETag is ignored, so a client
+   * may send back either the ETag or the bare version.
+   *
+   * @param ifMatch The header value
+   * @return The version, or null if there is no header or it matches any version
+   */
+  private static Long parseIfMatch(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String value = ifMatch.trim();
+    if (value.startsWith("W/")) {
+      value = value.substring(2);
+    }
+    value = value.replace("\"", "");
+    int hash = value.indexOf('-');
+    try {
+      return Long.parseLong(hash < 0 ? value : value.substring(0, hash));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+    }
+  }
 }
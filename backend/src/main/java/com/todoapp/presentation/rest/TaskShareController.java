@@ -8,6 +8,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.todoapp.application.dto.BulkShareDTO;
+import com.todoapp.application.dto.BulkShareResultDTO;
 import com.todoapp.application.dto.TaskShareDTO;
 import com.todoapp.application.service.TaskShareService;
 
@@ -59,6 +61,34 @@ public class TaskShareController {
     return ResponseEntity.status(HttpStatus.CREATED).body(createdShare);
   }
 
+  @PostMapping("/share/bulk")
+  @Operation(
+      summary = "Share tasks in bulk",
+      description =
+          "Share many tasks, a category or whole subtrees with many users in one operation. Each"
+              + " user receives one notification.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tasks shared successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = BulkShareResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+      })
+  public ResponseEntity<BulkShareResultDTO> bulkShare(
+      @Valid @RequestBody BulkShareDTO bulkShareDTO,
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId) {
+    logger.info("Bulk sharing tasks by user ID: {}", userId);
+    return ResponseEntity.ok(taskShareService.bulkShare(bulkShareDTO, userId));
+  }
+
   @DeleteMapping("/{taskId}/share/{sharedWithUserId}")
   @Operation(summary = "Revoke task share", description = "Revoke task access from a user")
   @ApiResponses(
@@ -88,6 +118,7 @@ public class TaskShareController {
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Shares retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "No access to the task"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "404", description = "Task not found")
       })
@@ -97,7 +128,7 @@ public class TaskShareController {
           @RequestHeader(value = "X-User-Id", defaultValue = "1")
           Long userId) {
     logger.info("Fetching shares for task ID: {}", taskId);
-    List<TaskShareDTO> shares = taskShareService.getTaskShares(taskId);
+    List<TaskShareDTO> shares = taskShareService.getTaskShares(taskId, userId);
     return ResponseEntity.ok(shares);
   }
 }
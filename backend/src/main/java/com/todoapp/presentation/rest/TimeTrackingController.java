@@ -7,9 +7,11 @@ import java.util.Optional;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.todoapp.application.dto.TimeEntryDTO;
 import com.todoapp.application.service.TimeTrackingService;
@@ -207,7 +209,7 @@ public class TimeTrackingController {
             description = "Report generated successfully",
             content = @Content(schema = @Schema(implementation = TimeReportResponse.class)))
       })
-  public ResponseEntity<TimeReportResponse> getTimeReport(
+  public ResponseEntity<StreamingResponseBody> getTimeReport(
       @Parameter(description = "Start date (ISO format)")
           @RequestParam
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
@@ -218,21 +220,11 @@ public class TimeTrackingController {
           LocalDateTime endDate,
       @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
-    List<TimeEntryDTO> entries =
-        timeTrackingService.getTimeEntriesForUserInRange(
-            userPrincipal.getUserId(), startDate, endDate);
-
-    int totalTime =
-        timeTrackingService.getTotalTimeForUserInRange(
-            userPrincipal.getUserId(), startDate, endDate);
-
-    TimeReportResponse response = new TimeReportResponse();
-    response.setEntries(entries);
-    response.setTotalMinutes(totalTime);
-    response.setStartDate(startDate);
-    response.setEndDate(endDate);
-
-    return ResponseEntity.ok(response);
+    // Written while the entries are read; the body has the shape of TimeReportResponse
+    Long userId = userPrincipal.getUserId();
+    StreamingResponseBody body =
+        out -> timeTrackingService.writeTimeReport(userId, startDate, endDate, out);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
   }
 
   @DeleteMapping("/time-entries/{id}")
@@ -0,0 +1,63 @@
+package com.todoapp.presentation.rest;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.todoapp.application.dto.MentionCandidateDTO;
+import com.todoapp.application.service.TaskShareService;
+import com.todoapp.infrastructure.cache.MentionHandleIndex;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@Tag(name = "Users", description = "User directory endpoints")
+public class UserController {
+
+  private final MentionHandleIndex mentionHandleIndex;
+  private final TaskShareService taskShareService;
+
+  @Value("${app.mentions.autocomplete.max-results:20}")
+  private int maxResults;
+
+  public UserController(MentionHandleIndex mentionHandleIndex, TaskShareService taskShareService) {
+    this.mentionHandleIndex = mentionHandleIndex;
+    this.taskShareService = taskShareService;
+  }
+
+  @GetMapping("/mentions")
+  @Operation(
+      summary = "Autocomplete mentions",
+      description =
+          "Finds users whose handle or name starts with the typed prefix, among the users who"
+              + " share at least one task with the caller")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Matching users"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+      })
+  public ResponseEntity<List<MentionCandidateDTO>> autocompleteMentions(
+      @Parameter(description = "User ID (temporary - will be from JWT)")
+          @RequestHeader(value = "X-User-Id", defaultValue = "1")
+          Long userId,
+      @Parameter(description = "Typed prefix, without the @") @RequestParam String prefix,
+      @Parameter(description = "Maximum number of users") @RequestParam(defaultValue = "10")
+          int limit) {
+    // Only people the caller already works with can be mentioned usefully, so nobody else's
+    // handle or name is revealed
+    return ResponseEntity.ok(
+        mentionHandleIndex.search(
+            prefix, Math.min(limit, maxResults), taskShareService.getCollaboratorIds(userId)));
+  }
+}
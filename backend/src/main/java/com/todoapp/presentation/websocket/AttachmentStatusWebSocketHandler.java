@@ -0,0 +1,41 @@
+package com.todoapp.presentation.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.todoapp.application.dto.AttachmentStatusMessage;
+import com.todoapp.domain.event.AttachmentStatusChangedEvent;
+
+@Component
+public class AttachmentStatusWebSocketHandler {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(AttachmentStatusWebSocketHandler.class);
+
+  private final SimpMessagingTemplate messagingTemplate;
+
+  public AttachmentStatusWebSocketHandler(SimpMessagingTemplate messagingTemplate) {
+    this.messagingTemplate = messagingTemplate;
+  }
+
+  /**
+   * Push an attachment status change to the uploading user once the change is committed.
+   *
+   * @param event The status change event
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onAttachmentStatusChanged(AttachmentStatusChangedEvent event) {
+    try {
+      messagingTemplate.convertAndSendToUser(
+          event.userId().toString(),
+          "/queue/attachment-status",
+          AttachmentStatusMessage.of(event.attachmentId(), event.taskId(), event.status()));
+    } catch (Exception e) {
+      logger.error("Failed to push status for attachment: {}", event.attachmentId(), e);
+    }
+  }
+}
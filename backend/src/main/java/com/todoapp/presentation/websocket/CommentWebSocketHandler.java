@@ -0,0 +1,61 @@
+package com.todoapp.presentation.websocket;
+
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.todoapp.application.dto.CommentThreadMessage;
+
+@Component
+public class CommentWebSocketHandler {
+
+  private static final Logger logger = LoggerFactory.getLogger(CommentWebSocketHandler.class);
+
+  private final SimpMessagingTemplate messagingTemplate;
+
+  public CommentWebSocketHandler(SimpMessagingTemplate messagingTemplate) {
+    this.messagingTemplate = messagingTemplate;
+  }
+
+  /**
+   * Push a comment thread change to the readers of the task. Inside a transaction the change is
+   * pushed once the transaction commits, so a rolled-back comment is never shown.
+   *
+   * @param userIds The IDs of the users who can read the task
+   * @param message The change
+   */
+  public void sendCommentUpdate(Collection<Long> userIds, CommentThreadMessage message) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              send(userIds, message);
+            }
+          });
+    } else {
+      send(userIds, message);
+    }
+  }
+
+  private void send(Collection<Long> userIds, CommentThreadMessage message) {
+    for (Long userId : userIds) {
+      try {
+        messagingTemplate.convertAndSendToUser(
+            userId.toString(), "/queue/comment-updates", message);
+      } catch (Exception e) {
+        logger.error(
+            "Failed to push comment {} of task {} to user {}",
+            message.commentId(),
+            message.taskId(),
+            userId,
+            e);
+      }
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.todoapp.presentation.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import com.todoapp.application.dto.UnreadCountMessage;
+
+@Component
+public class NotificationWebSocketHandler {
+
+  private static final Logger logger = LoggerFactory.getLogger(NotificationWebSocketHandler.class);
+
+  private final SimpMessagingTemplate messagingTemplate;
+
+  public NotificationWebSocketHandler(SimpMessagingTemplate messagingTemplate) {
+    this.messagingTemplate = messagingTemplate;
+  }
+
+  /**
+   * Push the current unread notification count to all sessions of a user.
+   *
+   * @param userId The ID of the user
+   * @param unreadCount The unread notification count
+   */
+  public void sendUnreadCount(Long userId, long unreadCount) {
+    try {
+      messagingTemplate.convertAndSendToUser(
+          userId.toString(),
+          "/queue/notifications/unread-count",
+          UnreadCountMessage.of(unreadCount));
+    } catch (Exception e) {
+      logger.error("Failed to push unread notification count to user: {}", userId, e);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+-- V14__add_file_attachment_thumbnails.sql
+-- Track preview derivatives (image thumbnails, PDF first-page renders) stored next to attachments
+
+ALTER TABLE file_attachments ADD COLUMN thumbnail_key VARCHAR(500);
+ALTER TABLE file_attachments ADD COLUMN thumbnail_generated_at TIMESTAMP;
+
+CREATE UNIQUE INDEX idx_file_attachments_thumbnail_key ON file_attachments(thumbnail_key) WHERE thumbnail_key IS NOT NULL;
+
+COMMENT ON COLUMN file_attachments.thumbnail_key IS 'Key of the generated preview image in MinIO (null until generated)';
+COMMENT ON COLUMN file_attachments.thumbnail_generated_at IS 'Timestamp when the preview image was generated';
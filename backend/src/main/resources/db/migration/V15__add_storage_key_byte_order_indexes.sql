@@ -0,0 +1,9 @@
+-- V15__add_storage_key_byte_order_indexes.sql
+-- Byte-ordered key indexes so storage reconciliation can page through referenced keys in the same
+-- order as a MinIO bucket listing without sorting the whole table
+
+CREATE INDEX idx_file_attachments_storage_key_c ON file_attachments(storage_key COLLATE "C");
+CREATE INDEX idx_file_attachments_thumbnail_key_c ON file_attachments(thumbnail_key COLLATE "C") WHERE thumbnail_key IS NOT NULL;
+
+COMMENT ON INDEX idx_file_attachments_storage_key_c IS 'Byte-order keyset pagination for storage reconciliation';
+COMMENT ON INDEX idx_file_attachments_thumbnail_key_c IS 'Byte-order keyset pagination for storage reconciliation';
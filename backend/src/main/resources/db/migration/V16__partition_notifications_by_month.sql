@@ -0,0 +1,75 @@
+-- V16__partition_notifications_by_month.sql
+-- Range-partition notifications by creation month so retention drops whole partitions instead of
+-- deleting rows (no dead tuples, no vacuum), and collapse repeated notifications into one row
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+
+-- The partition key must be part of the primary key
+CREATE TABLE notifications (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id BIGINT NOT NULL,
+    task_id BIGINT,
+    type VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    occurrence_count INTEGER NOT NULL DEFAULT 1,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    read_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_notifications PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_notifications_task FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
+    CONSTRAINT chk_notifications_occurrence_count CHECK (occurrence_count >= 1)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside the pre-created months; the retention job creates months ahead so it stays empty
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+-- Creates the partition holding the given month (idempotent) and returns its name
+CREATE OR REPLACE FUNCTION create_notification_partition(p_month DATE) RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name TEXT := 'notifications_p' || to_char(p_month, 'YYYYMM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+        v_name, v_start, v_end);
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    v_month DATE;
+BEGIN
+    FOR v_month IN
+        SELECT generate_series(
+            date_trunc('month', LEAST(COALESCE(MIN(created_at), CURRENT_TIMESTAMP), CURRENT_TIMESTAMP)),
+            date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months',
+            INTERVAL '1 month')::DATE
+        FROM notifications_legacy
+    LOOP
+        PERFORM create_notification_partition(v_month);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO notifications (id, user_id, task_id, type, title, message, is_read, read_at, created_at)
+SELECT id, user_id, task_id, type, title, message, is_read, read_at, created_at
+FROM notifications_legacy;
+
+DROP TABLE notifications_legacy;
+
+-- Indexes on the parent are created on every partition, including future ones
+CREATE INDEX idx_notifications_user_unread_created ON notifications(user_id, created_at DESC) WHERE is_read = FALSE;
+CREATE INDEX idx_notifications_user_created ON notifications(user_id, created_at DESC);
+CREATE INDEX idx_notifications_unread_repeat ON notifications(user_id, task_id, type) WHERE is_read = FALSE;
+CREATE INDEX idx_notifications_task_id ON notifications(task_id);
+CREATE INDEX idx_notifications_read_at ON notifications(read_at) WHERE is_read = TRUE;
+
+COMMENT ON TABLE notifications IS 'User notifications for various events, range-partitioned by created_at month';
+COMMENT ON COLUMN notifications.occurrence_count IS 'Number of repeated events collapsed into this unread notification';
+COMMENT ON INDEX idx_notifications_unread_repeat IS 'Lookup of an unread notification to collapse a repeat into';
+COMMENT ON INDEX idx_notifications_read_at IS 'Scheduled cleanup of old read notifications';
+COMMENT ON FUNCTION create_notification_partition(DATE) IS 'Creates the monthly notifications partition for the given date';
@@ -0,0 +1,29 @@
+-- V17__add_notification_digests.sql
+-- Per-type digest delivery: notifications are collected and delivered once per hour or day
+
+ALTER TABLE notification_preferences
+    ADD COLUMN digest_frequency VARCHAR(20) NOT NULL DEFAULT 'IMMEDIATE',
+    ADD CONSTRAINT chk_notification_preferences_digest_frequency
+        CHECK (digest_frequency IN ('IMMEDIATE', 'HOURLY', 'DAILY'));
+
+CREATE TABLE notification_digest_items (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    task_id BIGINT,
+    in_app_enabled BOOLEAN NOT NULL,
+    email_enabled BOOLEAN NOT NULL,
+    deliver_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_notification_digest_items_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- The flush looks up due items by time, then reads them per user
+CREATE INDEX idx_notification_digest_items_due ON notification_digest_items(deliver_at, user_id);
+CREATE INDEX idx_notification_digest_items_user_task ON notification_digest_items(user_id, type, task_id);
+
+COMMENT ON COLUMN notification_preferences.digest_frequency IS 'IMMEDIATE, HOURLY or DAILY delivery';
+COMMENT ON TABLE notification_digest_items IS 'Notifications waiting to be delivered in a digest';
+COMMENT ON COLUMN notification_digest_items.task_id IS 'Related task; not a foreign key, so deleting a task keeps its pending items';
+COMMENT ON COLUMN notification_digest_items.deliver_at IS 'End of the digest window the item belongs to';
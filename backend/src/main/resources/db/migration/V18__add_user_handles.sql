@@ -0,0 +1,41 @@
+-- V18__add_user_handles.sql
+-- Unique @mention handle per user
+
+ALTER TABLE users ADD COLUMN username VARCHAR(50);
+
+-- Backfill from the local part of the email
+UPDATE users
+SET username = LEFT(LOWER(REGEXP_REPLACE(SPLIT_PART(email, '@', 1), '[^A-Za-z0-9_]', '', 'g')), 30);
+UPDATE users SET username = 'user' || id WHERE username = '';
+
+-- The oldest user keeps a clashing handle; the others get their ID appended, plus a counter when
+-- that is taken as well (e.g. 'bob' next to an existing 'bob_5')
+DO $$
+DECLARE
+    v_user RECORD;
+    v_candidate TEXT;
+    v_counter INTEGER;
+BEGIN
+    FOR v_user IN
+        SELECT u.id, u.username FROM users u
+        WHERE EXISTS (SELECT 1 FROM users o WHERE o.username = u.username AND o.id < u.id)
+        ORDER BY u.id
+    LOOP
+        v_candidate := v_user.username || '_' || v_user.id;
+        v_counter := 1;
+        WHILE EXISTS (SELECT 1 FROM users WHERE username = v_candidate) LOOP
+            v_candidate := v_user.username || '_' || v_user.id || '_' || v_counter;
+            v_counter := v_counter + 1;
+        END LOOP;
+        UPDATE users SET username = v_candidate WHERE id = v_user.id;
+    END LOOP;
+END;
+$$;
+
+ALTER TABLE users ADD CONSTRAINT users_username_unique UNIQUE (username);
+ALTER TABLE users ADD CONSTRAINT users_username_check CHECK (username ~ '^[a-z0-9_]{1,50}$');
+
+-- Prefix lookups (LIKE 'handle%') when picking a free handle for a new user
+CREATE INDEX idx_users_username_prefix ON users(username text_pattern_ops);
+
+COMMENT ON COLUMN users.username IS 'Lower-case handle used for @mentions';
@@ -0,0 +1,3 @@
+-- Optimistic locking for tasks: every update increments the version, and conditional
+-- updates (If-Match) only apply to the version the client has seen
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,20 @@
+-- V20__add_task_ordering.sql
+-- Manual task order with sparse rank keys: a move writes one row, and lists are only
+-- renumbered when the gap between two neighbours runs out
+
+ALTER TABLE tasks ALTER COLUMN position TYPE BIGINT;
+
+-- Spread existing lists out, keeping the newest-first order they were shown in
+UPDATE tasks t
+SET position = ranked.rn * 65536
+FROM (
+    SELECT id,
+           ROW_NUMBER() OVER (PARTITION BY user_id, parent_task_id ORDER BY created_at DESC, id DESC) AS rn
+    FROM tasks
+) ranked
+WHERE t.id = ranked.id;
+
+-- Ordered listing of one list with keyset paging, and neighbour lookups for moves
+CREATE INDEX idx_tasks_user_parent_position ON tasks(user_id, parent_task_id, position, id);
+
+COMMENT ON COLUMN tasks.position IS 'Sparse rank key of the task within its parent''s list, ascending';
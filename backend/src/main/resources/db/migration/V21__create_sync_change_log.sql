@@ -0,0 +1,58 @@
+-- V21__create_sync_change_log.sql
+-- Change log behind delta sync: one row per user and visible entity, carrying the user's
+-- sequence number of the entity's latest change, or a tombstone once it is gone
+
+CREATE TABLE sync_sequences (
+    user_id BIGINT PRIMARY KEY,
+    seq BIGINT NOT NULL DEFAULT 0,
+    horizon BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_sync_sequences_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE sync_changes (
+    user_id BIGINT NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, entity_type, entity_id),
+    CONSTRAINT fk_sync_changes_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Reading the changes of a user after a token
+CREATE UNIQUE INDEX idx_sync_changes_user_seq ON sync_changes(user_id, seq);
+
+-- Pruning old tombstones
+CREATE INDEX idx_sync_changes_tombstones ON sync_changes(changed_at) WHERE deleted;
+
+-- Seed the log with everything each user can see, so a sync from token 0 is a full snapshot.
+-- Reference data comes first and parent tasks before their subtasks.
+INSERT INTO sync_changes (user_id, entity_type, entity_id, seq)
+SELECT user_id, entity_type, entity_id,
+       ROW_NUMBER() OVER (
+           PARTITION BY user_id
+           ORDER BY CASE entity_type
+                        WHEN 'CATEGORY' THEN 1 WHEN 'TAG' THEN 2 WHEN 'TASK' THEN 3
+                        WHEN 'SHARE' THEN 4 ELSE 5 END,
+                    entity_id)
+FROM (
+    SELECT user_id, 'CATEGORY' AS entity_type, id AS entity_id FROM categories
+    UNION SELECT user_id, 'TAG', id FROM tags
+    UNION SELECT user_id, 'TASK', id FROM tasks
+    UNION SELECT shared_with_user_id, 'TASK', task_id FROM task_shares
+    UNION SELECT owner_user_id, 'SHARE', id FROM task_shares
+    UNION SELECT shared_with_user_id, 'SHARE', id FROM task_shares
+    UNION SELECT t.user_id, 'COMMENT', c.id FROM comments c JOIN tasks t ON t.id = c.task_id
+    UNION SELECT s.shared_with_user_id, 'COMMENT', c.id
+          FROM comments c JOIN task_shares s ON s.task_id = c.task_id
+) visible;
+
+INSERT INTO sync_sequences (user_id, seq)
+SELECT u.id, COALESCE(MAX(c.seq), 0)
+FROM users u LEFT JOIN sync_changes c ON c.user_id = u.id
+GROUP BY u.id;
+
+COMMENT ON TABLE sync_changes IS 'Latest change per user and entity for delta sync; deleted rows are tombstones';
+COMMENT ON COLUMN sync_sequences.seq IS 'Last change token handed out to the user';
+COMMENT ON COLUMN sync_sequences.horizon IS 'Highest pruned tombstone; older tokens need a full resync';
@@ -0,0 +1,36 @@
+-- V22__create_import_jobs.sql
+-- Background imports of exported task data: one row per import with its progress checkpoint,
+-- and the mapping from exported IDs to the rows created for them
+
+CREATE TABLE import_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    file_name VARCHAR(255),
+    total_records BIGINT NOT NULL DEFAULT 0,
+    processed_records BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+    CONSTRAINT fk_import_jobs_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT chk_import_jobs_status CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX idx_import_jobs_user ON import_jobs(user_id, created_at DESC);
+
+-- Recovery sweep over unfinished jobs
+CREATE INDEX idx_import_jobs_unfinished ON import_jobs(updated_at)
+    WHERE status IN ('PENDING', 'RUNNING');
+
+CREATE TABLE import_id_map (
+    job_id BIGINT NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    source_id BIGINT NOT NULL,
+    target_id BIGINT NOT NULL,
+    PRIMARY KEY (job_id, entity_type, source_id),
+    CONSTRAINT fk_import_id_map_job FOREIGN KEY (job_id) REFERENCES import_jobs(id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE import_jobs IS 'Background imports; processed_records is the resume checkpoint';
+COMMENT ON TABLE import_id_map IS 'IDs in the imported file mapped to the rows created for them';
@@ -0,0 +1,167 @@
+-- V23__create_task_stats.sql
+-- Dashboard counters per user, kept up to date by statement-level triggers on tasks, so every
+-- write path (JPA, bulk updates, JDBC import, cascades) adjusts them in its own transaction.
+-- Tables have no foreign keys: the triggers also run while a user's tasks are cascade-deleted,
+-- and the periodic reconciliation removes what is left of deleted users.
+
+CREATE TABLE task_stats (
+    user_id BIGINT PRIMARY KEY,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    open_high_count BIGINT NOT NULL DEFAULT 0,
+    open_medium_count BIGINT NOT NULL DEFAULT 0,
+    open_low_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE task_category_stats (
+    user_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, category_id)
+);
+
+-- Completed tasks per day of completion
+CREATE TABLE task_completion_history (
+    user_id BIGINT NOT NULL,
+    bucket DATE NOT NULL,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, bucket)
+);
+
+-- One signed task row version: +1 for a new version, -1 for an old one
+CREATE TYPE task_stats_delta AS (
+    user_id BIGINT,
+    category_id BIGINT,
+    priority priority_level,
+    is_completed BOOLEAN,
+    completed_at TIMESTAMP,
+    sign INT
+);
+
+CREATE FUNCTION apply_task_stats(deltas task_stats_delta[]) RETURNS VOID AS $$
+BEGIN
+    IF cardinality(deltas) = 0 THEN
+        RETURN;
+    END IF;
+
+    -- Users in ID order, so concurrent statements lock counter rows in the same order
+    INSERT INTO task_stats AS s (user_id, total_count, completed_count,
+                                 open_high_count, open_medium_count, open_low_count, updated_at)
+    SELECT d.user_id,
+           SUM(d.sign),
+           COALESCE(SUM(d.sign) FILTER (WHERE d.is_completed), 0),
+           COALESCE(SUM(d.sign) FILTER (WHERE NOT d.is_completed AND d.priority = 'HIGH'), 0),
+           COALESCE(SUM(d.sign) FILTER (WHERE NOT d.is_completed AND d.priority = 'MEDIUM'), 0),
+           COALESCE(SUM(d.sign) FILTER (WHERE NOT d.is_completed AND d.priority = 'LOW'), 0),
+           CURRENT_TIMESTAMP
+    FROM unnest(deltas) d
+    GROUP BY d.user_id
+    ORDER BY d.user_id
+    ON CONFLICT (user_id) DO UPDATE SET
+        total_count = s.total_count + EXCLUDED.total_count,
+        completed_count = s.completed_count + EXCLUDED.completed_count,
+        open_high_count = s.open_high_count + EXCLUDED.open_high_count,
+        open_medium_count = s.open_medium_count + EXCLUDED.open_medium_count,
+        open_low_count = s.open_low_count + EXCLUDED.open_low_count,
+        updated_at = EXCLUDED.updated_at;
+
+    INSERT INTO task_category_stats AS s (user_id, category_id, total_count, completed_count)
+    SELECT d.user_id, d.category_id, SUM(d.sign),
+           COALESCE(SUM(d.sign) FILTER (WHERE d.is_completed), 0)
+    FROM unnest(deltas) d
+    WHERE d.category_id IS NOT NULL
+    GROUP BY d.user_id, d.category_id
+    ORDER BY d.user_id, d.category_id
+    ON CONFLICT (user_id, category_id) DO UPDATE SET
+        total_count = s.total_count + EXCLUDED.total_count,
+        completed_count = s.completed_count + EXCLUDED.completed_count;
+
+    INSERT INTO task_completion_history AS h (user_id, bucket, completed_count)
+    SELECT d.user_id, CAST(d.completed_at AS DATE), SUM(d.sign)
+    FROM unnest(deltas) d
+    WHERE d.is_completed AND d.completed_at IS NOT NULL
+    GROUP BY d.user_id, CAST(d.completed_at AS DATE)
+    ORDER BY 1, 2
+    ON CONFLICT (user_id, bucket) DO UPDATE SET
+        completed_count = h.completed_count + EXCLUDED.completed_count;
+
+    -- Drop rows that no longer count anything, such as the categories tasks just left
+    DELETE FROM task_category_stats s
+    USING (SELECT DISTINCT user_id, category_id FROM unnest(deltas)) d
+    WHERE s.user_id = d.user_id AND s.category_id = d.category_id AND s.total_count = 0;
+
+    DELETE FROM task_completion_history h
+    USING (SELECT DISTINCT user_id, CAST(completed_at AS DATE) AS bucket FROM unnest(deltas)
+           WHERE is_completed AND completed_at IS NOT NULL) d
+    WHERE h.user_id = d.user_id AND h.bucket = d.bucket AND h.completed_count = 0;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables are only declared for the events that have them, and PL/pgSQL plans each
+-- branch on first use, so one function serves all three triggers
+CREATE FUNCTION task_stats_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM apply_task_stats(ARRAY(
+            SELECT ROW(n.user_id, n.category_id, n.priority, n.is_completed, n.completed_at, 1)::task_stats_delta
+            FROM new_rows n));
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM apply_task_stats(ARRAY(
+            SELECT ROW(o.user_id, o.category_id, o.priority, o.is_completed, o.completed_at, -1)::task_stats_delta
+            FROM old_rows o));
+    ELSE
+        -- Only updates of counted columns; edits and moves leave the counters alone
+        PERFORM apply_task_stats(ARRAY(
+            SELECT ROW(v.user_id, v.category_id, v.priority, v.is_completed, v.completed_at, v.sign)::task_stats_delta
+            FROM new_rows n
+            JOIN old_rows o ON o.id = n.id
+            CROSS JOIN LATERAL (VALUES
+                (o.user_id, o.category_id, o.priority, o.is_completed, o.completed_at, -1),
+                (n.user_id, n.category_id, n.priority, n.is_completed, n.completed_at, 1)
+            ) AS v(user_id, category_id, priority, is_completed, completed_at, sign)
+            WHERE (n.user_id, n.category_id, n.priority, n.is_completed, n.completed_at)
+                  IS DISTINCT FROM (o.user_id, o.category_id, o.priority, o.is_completed, o.completed_at)));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_stats_insert
+    AFTER INSERT ON tasks REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION task_stats_trigger();
+
+CREATE TRIGGER trg_tasks_stats_update
+    AFTER UPDATE ON tasks REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION task_stats_trigger();
+
+CREATE TRIGGER trg_tasks_stats_delete
+    AFTER DELETE ON tasks REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION task_stats_trigger();
+
+-- Seed the counters from the existing tasks
+INSERT INTO task_stats (user_id, total_count, completed_count,
+                        open_high_count, open_medium_count, open_low_count)
+SELECT u.id,
+       COUNT(t.id),
+       COUNT(t.id) FILTER (WHERE t.is_completed),
+       COUNT(t.id) FILTER (WHERE NOT t.is_completed AND t.priority = 'HIGH'),
+       COUNT(t.id) FILTER (WHERE NOT t.is_completed AND t.priority = 'MEDIUM'),
+       COUNT(t.id) FILTER (WHERE NOT t.is_completed AND t.priority = 'LOW')
+FROM users u LEFT JOIN tasks t ON t.user_id = u.id
+GROUP BY u.id;
+
+INSERT INTO task_category_stats (user_id, category_id, total_count, completed_count)
+SELECT user_id, category_id, COUNT(*), COUNT(*) FILTER (WHERE is_completed)
+FROM tasks WHERE category_id IS NOT NULL
+GROUP BY user_id, category_id;
+
+INSERT INTO task_completion_history (user_id, bucket, completed_count)
+SELECT user_id, CAST(completed_at AS DATE), COUNT(*)
+FROM tasks WHERE is_completed AND completed_at IS NOT NULL
+GROUP BY user_id, CAST(completed_at AS DATE);
+
+COMMENT ON TABLE task_stats IS 'Per-user task counters maintained by trigger; reconciled periodically';
+COMMENT ON TABLE task_category_stats IS 'Per-user, per-category task counters maintained by trigger';
+COMMENT ON TABLE task_completion_history IS 'Existing completed tasks per user and day of completion';
@@ -0,0 +1,11 @@
+-- V24__add_attachment_upload_claims.sql
+-- Staged uploads are claimed (scan_status STORING) before their bytes are copied to object
+-- storage, so only one worker transfers a file and the recovery sweep can tell an active transfer
+-- from an abandoned one by the age of its claim
+
+ALTER TABLE file_attachments ADD COLUMN claimed_at TIMESTAMP;
+
+CREATE INDEX idx_file_attachments_unfinalized ON file_attachments(created_at)
+    WHERE scan_status IN ('STAGED', 'STORING');
+
+COMMENT ON COLUMN file_attachments.claimed_at IS 'When a worker claimed the staged upload for storage';
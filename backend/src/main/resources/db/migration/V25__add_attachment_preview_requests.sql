@@ -0,0 +1,11 @@
+-- V25__add_attachment_preview_requests.sql
+-- A clean scan records that a preview is wanted; the mark is cleared once generation has run. A
+-- job dropped by the full preview queue therefore leaves its mark behind, and the recovery sweep
+-- finds it through the partial index
+
+ALTER TABLE file_attachments ADD COLUMN preview_requested_at TIMESTAMP;
+
+CREATE INDEX idx_file_attachments_preview_requested ON file_attachments(preview_requested_at)
+    WHERE preview_requested_at IS NOT NULL;
+
+COMMENT ON COLUMN file_attachments.preview_requested_at IS 'When preview generation was requested and has not run yet';
@@ -0,0 +1,67 @@
+-- V26__drain_default_notification_partition.sql
+-- Creating a month partition failed while the default partition held rows for that month, and
+-- retention could only drop partitions with an ACCESS EXCLUSIVE lock on notifications, because
+-- DETACH PARTITION CONCURRENTLY is not allowed while a default partition exists. The function now
+-- moves matching rows out of the default partition before attaching the new month, and the default
+-- partition is drained into month partitions and dropped. Months are created ahead by the retention
+-- job and on application startup.
+
+-- Creates the partition holding the given month (idempotent) and returns its name. Rows of that
+-- month still in a default partition are moved into the new partition before it is attached.
+CREATE OR REPLACE FUNCTION create_notification_partition(p_month DATE) RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name TEXT := 'notifications_p' || to_char(p_month, 'YYYYMM');
+    v_default REGCLASS := to_regclass('notifications_default');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN v_name;
+    END IF;
+
+    IF v_default IS NULL THEN
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+            v_name, v_start, v_end);
+        RETURN v_name;
+    END IF;
+
+    -- Blocks inserts into the default partition until the new month is attached, and serializes
+    -- concurrent callers, so the re-check below sees a partition created meanwhile
+    EXECUTE format('LOCK TABLE %s IN SHARE ROW EXCLUSIVE MODE', v_default);
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN v_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE notifications INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM %s WHERE created_at >= %L AND created_at < %L RETURNING *) '
+            || 'INSERT INTO %I SELECT * FROM moved',
+        v_default, v_start, v_end, v_name);
+    EXECUTE format(
+        'ALTER TABLE notifications ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        v_name, v_start, v_end);
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    v_month DATE;
+BEGIN
+    IF to_regclass('notifications_default') IS NULL THEN
+        RETURN;
+    END IF;
+
+    FOR v_month IN
+        SELECT DISTINCT date_trunc('month', created_at)::DATE FROM notifications_default
+    LOOP
+        PERFORM create_notification_partition(v_month);
+    END LOOP;
+
+    ALTER TABLE notifications DETACH PARTITION notifications_default;
+    DROP TABLE notifications_default;
+END;
+$$;
+
+COMMENT ON FUNCTION create_notification_partition(DATE) IS 'Creates the monthly notifications partition for the given date, moving its rows out of a default partition';
@@ -0,0 +1,106 @@
+package com.todoapp.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.todoapp.domain.model.NotificationType;
+import com.todoapp.infrastructure.config.RabbitMQConfig;
+import com.todoapp.infrastructure.messaging.EmailDeliveryService;
+import com.todoapp.infrastructure.messaging.EmailMessage;
+import com.todoapp.infrastructure.messaging.EmailTemplateRenderer;
+
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Runs {@link EmailDeliveryService} against an in-process SMTP server, so batching and rendering
+ * are verified over real SMTP rather than against a mocked mail sender.
+ */
+@DisplayName("Email delivery Integration Tests")
+public class EmailDeliveryIntegrationTest {
+
+  @RegisterExtension
+  static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private RabbitTemplate rabbitTemplate;
+  private EmailDeliveryService deliveryService;
+
+  @BeforeEach
+  public void setUp() {
+    JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    mailSender.setHost("localhost");
+    mailSender.setPort(greenMail.getSmtp().getPort());
+
+    rabbitTemplate = mock(RabbitTemplate.class);
+    deliveryService =
+        new EmailDeliveryService(
+            mailSender, new EmailTemplateRenderer(), rabbitTemplate, objectMapper);
+    ReflectionTestUtils.setField(deliveryService, "fromAddress", "noreply@example.com");
+    ReflectionTestUtils.setField(deliveryService, "fromName", "TODO App");
+    ReflectionTestUtils.setField(deliveryService, "maxAttempts", 3);
+    ReflectionTestUtils.setField(deliveryService, "perDomainPerMinute", 100L);
+  }
+
+  @Test
+  @DisplayName("Should deliver a batch of notification emails over SMTP")
+  public void shouldDeliverBatch() throws Exception {
+    deliveryService.deliverBatch(
+        List.of(
+            message("alice@example.com", NotificationType.TASK_DUE_SOON),
+            message("bob@example.org", NotificationType.TASK_SHARED),
+            message("carol@example.net", NotificationType.REMINDER)));
+
+    assertThat(greenMail.waitForIncomingEmail(5000, 3)).isTrue();
+    MimeMessage[] received = greenMail.getReceivedMessages();
+    assertThat(received).hasSize(3);
+    assertThat(received[0].getSubject()).isEqualTo("Task Due Soon: Write report");
+    assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("alice@example.com");
+    assertThat(received[1].getSubject()).isEqualTo("Task Shared With You: Write report");
+    verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class));
+  }
+
+  @Test
+  @DisplayName("Should schedule a retry when the SMTP server is unreachable")
+  public void shouldRetryWhenServerUnreachable() throws Exception {
+    greenMail.stop();
+    try {
+      Message queued = message("alice@example.com", NotificationType.TASK_OVERDUE);
+
+      deliveryService.deliverBatch(List.of(queued));
+
+      verify(rabbitTemplate)
+          .send(
+              RabbitMQConfig.EMAIL_DEAD_LETTER_EXCHANGE, RabbitMQConfig.EMAIL_ROUTING_KEY, queued);
+    } finally {
+      greenMail.start();
+    }
+  }
+
+  private Message message(String recipient, NotificationType type) throws Exception {
+    EmailMessage email =
+        new EmailMessage(
+            UUID.randomUUID(), recipient, type, "Something happened", "Write report", null);
+    return new Message(objectMapper.writeValueAsBytes(email), new MessageProperties());
+  }
+}
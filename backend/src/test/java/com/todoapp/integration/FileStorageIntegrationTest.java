@@ -0,0 +1,124 @@
+package com.todoapp.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.todoapp.infrastructure.monitoring.ApplicationMetricsService;
+import com.todoapp.infrastructure.storage.FileStorageService;
+import com.todoapp.infrastructure.storage.StoredObject;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.MinioClient;
+
+/**
+ * Runs {@link FileStorageService} against a disposable MinIO server so storage behaviour is
+ * verified against a real S3-compatible API rather than mocks.
+ */
+@Testcontainers
+@DisplayName("FileStorageService Integration Tests")
+public class FileStorageIntegrationTest {
+
+  private static final String BUCKET = "integration-test-bucket";
+
+  @Container
+  static final MinIOContainer minio =
+      new MinIOContainer("minio/minio:RELEASE.2024-01-16T16-07-38Z");
+
+  private MinioClient minioClient;
+  private SimpleMeterRegistry meterRegistry;
+  private FileStorageService fileStorageService;
+
+  @BeforeEach
+  public void setUp() {
+    minioClient =
+        MinioClient.builder()
+            .endpoint(minio.getS3URL())
+            .region("us-east-1")
+            .credentials(minio.getUserName(), minio.getPassword())
+            .build();
+    meterRegistry = new SimpleMeterRegistry();
+    fileStorageService =
+        new FileStorageService(minioClient, new ApplicationMetricsService(meterRegistry));
+    ReflectionTestUtils.setField(fileStorageService, "bucketName", BUCKET);
+    ReflectionTestUtils.setField(fileStorageService, "partSize", 5L * 1024 * 1024);
+    ReflectionTestUtils.setField(fileStorageService, "bootstrapMaxAttempts", 3);
+    ReflectionTestUtils.setField(fileStorageService, "bootstrapBackoffMs", 100L);
+    fileStorageService.initializeBucket();
+  }
+
+  @Test
+  @DisplayName("Should create bucket at startup")
+  public void shouldCreateBucketAtStartup() throws Exception {
+    assertThat(minioClient.bucketExists(BucketExistsArgs.builder().bucket(BUCKET).build()))
+        .isTrue();
+  }
+
+  @Test
+  @DisplayName("Should round-trip uploaded content")
+  public void shouldRoundTripUpload() throws Exception {
+    byte[] content = "integration content".getBytes();
+
+    String storageKey =
+        fileStorageService.uploadFile(
+            "notes.txt", new ByteArrayInputStream(content), "text/plain", content.length);
+
+    assertThat(fileStorageService.fileExists(storageKey)).isTrue();
+    try (InputStream downloaded = fileStorageService.downloadFile(storageKey)) {
+      assertThat(downloaded.readAllBytes()).isEqualTo(content);
+    }
+
+    fileStorageService.deleteFile(storageKey);
+    assertThat(fileStorageService.fileExists(storageKey)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should list objects in key order and delete them in a batch")
+  public void shouldListAndBatchDelete() {
+    fileStorageService.uploadObject("uploads/list/b.txt", "b".getBytes(), "text/plain");
+    fileStorageService.uploadObject("uploads/list/a.txt", "a".getBytes(), "text/plain");
+    fileStorageService.uploadObject("uploads/list/c.txt", "c".getBytes(), "text/plain");
+
+    List<String> keys = new ArrayList<>();
+    Iterator<StoredObject> objects = fileStorageService.listObjects("uploads/list/");
+    objects.forEachRemaining(object -> keys.add(object.key()));
+
+    assertThat(keys)
+        .containsExactly("uploads/list/a.txt", "uploads/list/b.txt", "uploads/list/c.txt");
+
+    List<String> failed = fileStorageService.deleteObjects(keys);
+
+    assertThat(failed).isEmpty();
+    assertThat(fileStorageService.listObjects("uploads/list/").hasNext()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should record per-operation latency metrics")
+  public void shouldRecordOperationMetrics() {
+    byte[] content = "metrics".getBytes();
+    fileStorageService.uploadFile(
+        "metrics.txt", new ByteArrayInputStream(content), "text/plain", content.length);
+
+    assertThat(
+            meterRegistry
+                .get("storage.operation.time")
+                .tag("operation", "upload")
+                .tag("outcome", "success")
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+}
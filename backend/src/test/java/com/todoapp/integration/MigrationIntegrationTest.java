@@ -0,0 +1,329 @@
+package com.todoapp.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.todoapp.domain.repository.NotificationRepository;
+import com.todoapp.infrastructure.persistence.NotificationRetentionService;
+import com.todoapp.infrastructure.persistence.NotificationRetentionService.RetentionResult;
+
+/**
+ * Runs the Flyway migrations against a disposable PostgreSQL server, starting from a V13 schema
+ * that already holds data, and checks the parts of the schema that only PostgreSQL can run: the
+ * month partitions of notifications and their retention, the backfilled user handles, and the
+ * trigger-maintained task counters.
+ */
+@Testcontainers
+@DisplayName("Migration Integration Tests")
+public class MigrationIntegrationTest {
+
+  private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+  @Container
+  static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+  private static Long legacyUserId;
+
+  private static List<Long> clashingUserIds;
+
+  private static Long strandedUserId;
+
+  @BeforeAll
+  public static void migrate() {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+
+    flyway(dataSource, "13").migrate();
+    legacyUserId = insertUser("legacy@example.com");
+    insertNotification(legacyUserId, LocalDateTime.now().minusMonths(8));
+    insertNotification(legacyUserId, LocalDateTime.now().minusMonths(1));
+    Long legacyCategoryId = insertCategory(legacyUserId, "Work");
+    insertTask(legacyUserId, legacyCategoryId, "HIGH", false);
+    insertTask(legacyUserId, legacyCategoryId, "LOW", true);
+    insertTask(legacyUserId, null, "MEDIUM", false);
+    // The second bob would get bob_<id>, which the user in between already has
+    Long firstBobId = insertUser("bob@example.com");
+    Long reservedId = insertUser("bob_" + (firstBobId + 2) + "@example.com");
+    Long secondBobId = insertUser("bob@example.org");
+    clashingUserIds = List.of(firstBobId, reservedId, secondBobId);
+
+    // Beyond the months V16 created ahead, so the row lands in the default partition
+    flyway(dataSource, "25").migrate();
+    strandedUserId = insertUser("stranded@example.com");
+    insertNotification(strandedUserId, LocalDateTime.now().plusMonths(12));
+
+    flyway(dataSource, "latest").migrate();
+  }
+
+  @Test
+  @DisplayName("Should move existing notifications into their month partitions")
+  public void shouldMoveLegacyNotificationsIntoPartitions() {
+    assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT tableoid::regclass::text FROM notifications WHERE user_id = ?"
+                    + " ORDER BY created_at",
+                String.class,
+                legacyUserId))
+        .containsExactly(
+            partition(YearMonth.now().minusMonths(8)), partition(YearMonth.now().minusMonths(1)));
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT to_regclass('notifications_legacy') IS NULL", Boolean.class))
+        .isTrue();
+  }
+
+  @Test
+  @DisplayName("Should route new notifications to the partition of their month")
+  public void shouldRouteNewNotifications() {
+    Long userId = insertUser("routing@example.com");
+    insertNotification(userId, LocalDateTime.now());
+    insertNotification(userId, LocalDateTime.now().plusMonths(2));
+
+    assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT tableoid::regclass::text FROM notifications WHERE user_id = ?"
+                    + " ORDER BY created_at",
+                String.class,
+                userId))
+        .containsExactly(partition(YearMonth.now()), partition(YearMonth.now().plusMonths(2)));
+  }
+
+  @Test
+  @DisplayName("Should move default partition rows into their month and drop the default partition")
+  public void shouldDrainDefaultPartition() {
+    assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT tableoid::regclass::text FROM notifications WHERE user_id = ?",
+                String.class,
+                strandedUserId))
+        .containsExactly(partition(YearMonth.now().plusMonths(12)));
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT to_regclass('notifications_default') IS NULL", Boolean.class))
+        .isTrue();
+  }
+
+  @Test
+  @DisplayName("Should create upcoming partitions and drop expired ones with their rows")
+  public void shouldDropExpiredPartitions() {
+    Long userId = insertUser("retention@example.com");
+    YearMonth expiredMonth = YearMonth.now().minusMonths(10);
+    String expired =
+        jdbcTemplate.queryForObject(
+            "SELECT create_notification_partition(?)", String.class, expiredMonth.atDay(1));
+    insertNotification(userId, expiredMonth.atDay(15).atTime(12, 0));
+    insertNotification(userId, LocalDateTime.now());
+    NotificationRetentionService retention =
+        new NotificationRetentionService(jdbcTemplate, mock(NotificationRepository.class));
+    ReflectionTestUtils.setField(retention, "retentionMonths", 9);
+    ReflectionTestUtils.setField(retention, "readRetentionDays", 30);
+    ReflectionTestUtils.setField(retention, "premakeMonths", 4);
+
+    RetentionResult result = retention.runRetention(LocalDate.now());
+
+    assertThat(expired).isEqualTo(partition(expiredMonth));
+    assertThat(result.droppedPartitions()).containsExactly(expired);
+    assertThat(result.ensuredPartitions()).contains(partition(YearMonth.now().plusMonths(4)));
+    assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, expired))
+        .isTrue();
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE user_id = ?", Long.class, userId))
+        .isEqualTo(1);
+
+    // Idempotent, so concurrent runs on several nodes are harmless
+    assertThat(retention.runRetention(LocalDate.now()).droppedPartitions()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should give clashing users distinct handles even when the ID suffix is taken")
+  public void shouldBackfillDistinctHandles() {
+    List<String> handles =
+        clashingUserIds.stream()
+            .map(
+                id ->
+                    jdbcTemplate.queryForObject(
+                        "SELECT username FROM users WHERE id = ?", String.class, id))
+            .toList();
+
+    assertThat(clashingUserIds.get(2)).isEqualTo(clashingUserIds.get(0) + 2);
+    assertThat(handles.get(0)).isEqualTo("bob");
+    assertThat(handles.get(1)).isEqualTo("bob_" + clashingUserIds.get(2));
+    assertThat(handles.get(2)).startsWith("bob_" + clashingUserIds.get(2));
+    assertThat(handles).doesNotHaveDuplicates();
+  }
+
+  @Test
+  @DisplayName("Should seed the task counters from the existing tasks")
+  public void shouldBackfillTaskStats() {
+    assertThat(stats(legacyUserId)).containsExactly(3L, 1L, 1L, 1L, 0L);
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT total_count || '/' || completed_count FROM task_category_stats"
+                    + " WHERE user_id = ?",
+                String.class,
+                legacyUserId))
+        .isEqualTo("2/1");
+    assertThat(history(legacyUserId)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should keep the task counters up to date on insert, update and delete")
+  public void shouldMaintainTaskStatsPerStatement() {
+    Long userId = insertUser("stats@example.com");
+    Long categoryId = insertCategory(userId, "Home");
+
+    Long taskId = insertTask(userId, categoryId, "HIGH", false);
+    assertThat(stats(userId)).containsExactly(1L, 0L, 1L, 0L, 0L);
+    assertThat(categoryStats(userId, categoryId)).isEqualTo("1/0");
+
+    jdbcTemplate.update(
+        "UPDATE tasks SET is_completed = TRUE, completed_at = ? WHERE id = ?",
+        Timestamp.valueOf(COMPLETED_AT),
+        taskId);
+    assertThat(stats(userId)).containsExactly(1L, 1L, 0L, 0L, 0L);
+    assertThat(categoryStats(userId, categoryId)).isEqualTo("1/1");
+    assertThat(history(userId)).isEqualTo(1);
+
+    // Edits of uncounted columns leave the counters alone
+    jdbcTemplate.update("UPDATE tasks SET description = 'Renamed' WHERE id = ?", taskId);
+    assertThat(stats(userId)).containsExactly(1L, 1L, 0L, 0L, 0L);
+
+    jdbcTemplate.update("UPDATE tasks SET category_id = NULL WHERE id = ?", taskId);
+    assertThat(categoryStats(userId, categoryId)).isNull();
+
+    jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", taskId);
+    assertThat(stats(userId)).containsExactly(0L, 0L, 0L, 0L, 0L);
+    assertThat(history(userId)).isZero();
+  }
+
+  @Test
+  @DisplayName("Should count every row of a multi-row statement once")
+  public void shouldMaintainTaskStatsForBatches() {
+    Long userId = insertUser("batch@example.com");
+    Long categoryId = insertCategory(userId, "Errands");
+
+    jdbcTemplate.update(
+        "INSERT INTO tasks (user_id, category_id, description, priority, is_completed,"
+            + " completed_at)"
+            + " SELECT ?, ?, 'Task ' || n, CAST(CASE WHEN n <= 3 THEN 'LOW' ELSE 'MEDIUM' END"
+            + " AS priority_level), n > 3, CASE WHEN n > 3 THEN ? END"
+            + " FROM generate_series(1, 5) n",
+        userId,
+        categoryId,
+        Timestamp.valueOf(COMPLETED_AT));
+    assertThat(stats(userId)).containsExactly(5L, 2L, 0L, 0L, 3L);
+    assertThat(categoryStats(userId, categoryId)).isEqualTo("5/2");
+    assertThat(history(userId)).isEqualTo(2);
+
+    jdbcTemplate.update(
+        "UPDATE tasks SET priority = 'HIGH' WHERE user_id = ? AND NOT is_completed", userId);
+    assertThat(stats(userId)).containsExactly(5L, 2L, 3L, 0L, 0L);
+
+    jdbcTemplate.update("DELETE FROM tasks WHERE user_id = ? AND is_completed", userId);
+    assertThat(stats(userId)).containsExactly(3L, 0L, 3L, 0L, 0L);
+    assertThat(categoryStats(userId, categoryId)).isEqualTo("3/0");
+    assertThat(history(userId)).isZero();
+  }
+
+  private static Flyway flyway(DriverManagerDataSource dataSource, String target) {
+    return Flyway.configure()
+        .dataSource(dataSource)
+        .locations("classpath:db/migration")
+        .target(target)
+        .load();
+  }
+
+  private static Long insertUser(String email) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO users (email, password_hash) VALUES (?, 'hash') RETURNING id",
+        Long.class,
+        email);
+  }
+
+  private static void insertNotification(Long userId, LocalDateTime createdAt) {
+    jdbcTemplate.update(
+        "INSERT INTO notifications (user_id, type, title, message, created_at)"
+            + " VALUES (?, 'REMINDER', 'Reminder', 'Check your tasks', ?)",
+        userId,
+        Timestamp.valueOf(createdAt));
+  }
+
+  private static Long insertCategory(Long userId, String name) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO categories (user_id, name) VALUES (?, ?) RETURNING id",
+        Long.class,
+        userId,
+        name);
+  }
+
+  private static Long insertTask(Long userId, Long categoryId, String priority, boolean completed) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO tasks (user_id, category_id, description, priority, is_completed,"
+            + " completed_at) VALUES (?, ?, 'Task', CAST(? AS priority_level), ?, ?) RETURNING id",
+        Long.class,
+        userId,
+        categoryId,
+        priority,
+        completed,
+        completed ? Timestamp.valueOf(COMPLETED_AT) : null);
+  }
+
+  /** Total, completed, open high, open medium and open low count of a user. */
+  private static List<Long> stats(Long userId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT total_count, completed_count, open_high_count, open_medium_count, open_low_count"
+            + " FROM task_stats WHERE user_id = ?",
+        (rs, rowNum) ->
+            List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)),
+        userId);
+  }
+
+  private static String categoryStats(Long userId, Long categoryId) {
+    List<String> rows =
+        jdbcTemplate.queryForList(
+            "SELECT total_count || '/' || completed_count FROM task_category_stats"
+                + " WHERE user_id = ? AND category_id = ?",
+            String.class,
+            userId,
+            categoryId);
+    return rows.isEmpty() ? null : rows.get(0);
+  }
+
+  private static long history(Long userId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(completed_count), 0) FROM task_completion_history"
+            + " WHERE user_id = ? AND bucket = ?",
+        Long.class,
+        userId,
+        COMPLETED_AT.toLocalDate());
+  }
+
+  private static String partition(YearMonth month) {
+    return "notifications_p" + month.format(PARTITION_MONTH);
+  }
+}
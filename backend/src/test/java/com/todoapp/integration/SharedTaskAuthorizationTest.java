@@ -241,14 +241,14 @@ public class SharedTaskAuthorizationTest {
     mockMvc
         .perform(get("/api/v1/tasks/shared-with-me").header("X-User-Id", viewUser.getId()))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(1))
-        .andExpect(jsonPath("$[0].id").value(testTask.getId()));
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].id").value(testTask.getId()));
 
     mockMvc
         .perform(get("/api/v1/tasks/shared-with-me").header("X-User-Id", editUser.getId()))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(1))
-        .andExpect(jsonPath("$[0].id").value(testTask.getId()));
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].id").value(testTask.getId()));
   }
 
   @Test
@@ -257,6 +257,6 @@ public class SharedTaskAuthorizationTest {
     mockMvc
         .perform(get("/api/v1/tasks/shared-with-me").header("X-User-Id", unauthorizedUser.getId()))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(0));
+        .andExpect(jsonPath("$.content.length()").value(0));
   }
 }
@@ -3,11 +3,13 @@ package com.todoapp.integration;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todoapp.application.dto.TaskCreateDTO;
 import com.todoapp.application.dto.TaskUpdateDTO;
+import com.todoapp.domain.model.Category;
 import com.todoapp.domain.model.Priority;
 import com.todoapp.domain.model.Task;
 import com.todoapp.domain.model.User;
@@ -165,6 +168,41 @@ public class TaskControllerIntegrationTest {
         .andExpect(jsonPath("$.priority").value("MEDIUM"));
   }
 
+  @Test
+  @DisplayName("Should revalidate a task when its category changes without a new task version")
+  public void shouldRevalidateTaskAfterCategoryChange() throws Exception {
+    Category category =
+        categoryRepository.save(Category.builder().user(testUser).name("Work").build());
+    Task task = new Task();
+    task.setUser(testUser);
+    task.setDescription("Test task");
+    task.setPriority(Priority.MEDIUM);
+    task.setCategory(category);
+    task = taskRepository.saveAndFlush(task);
+    String url = "/api/v1/tasks/" + task.getId();
+
+    String eTag =
+        mockMvc
+            .perform(get(url).header("X-User-Id", testUser.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+    assertThat(eTag).startsWith("\"" + task.getVersion() + "-");
+    mockMvc
+        .perform(get(url).header("X-User-Id", testUser.getId()).header("If-None-Match", eTag))
+        .andExpect(status().isNotModified());
+
+    category.setName("Office");
+    categoryRepository.saveAndFlush(category);
+
+    mockMvc
+        .perform(get(url).header("X-User-Id", testUser.getId()).header("If-None-Match", eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.categoryName").value("Office"))
+        .andExpect(header().string("ETag", not(eTag)));
+  }
+
   @Test
   public void shouldReturnNotFoundForNonExistentTask() throws Exception {
     mockMvc
@@ -272,6 +272,6 @@ public class TaskShareApiTest {
     mockMvc
         .perform(get("/api/v1/tasks/shared-with-me").header("X-User-Id", otherUser.getId()))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(2));
+        .andExpect(jsonPath("$.content.length()").value(2));
   }
 }
@@ -200,8 +200,8 @@ public class TaskWebSocketIntegrationTest {
           }
         });
 
-    // Toggle completion
-    taskService.toggleCompletion(task.getId(), testUser.getId());
+    // Complete the task
+    taskService.setCompletion(task.getId(), testUser.getId(), true);
 
     // Wait for message to be received
     await()
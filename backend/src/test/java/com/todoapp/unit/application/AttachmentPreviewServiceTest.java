@@ -0,0 +1,171 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.application.service.AttachmentPreviewService;
+import com.todoapp.domain.event.AttachmentStatusChangedEvent;
+import com.todoapp.domain.model.FileAttachment;
+import com.todoapp.domain.model.VirusScanStatus;
+import com.todoapp.domain.repository.FileAttachmentRepository;
+import com.todoapp.infrastructure.storage.FileStorageService;
+import com.todoapp.infrastructure.storage.ThumbnailGenerator;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AttachmentPreviewService Tests")
+public class AttachmentPreviewServiceTest {
+
+  @Mock private FileAttachmentRepository fileAttachmentRepository;
+
+  @Mock private FileStorageService fileStorageService;
+
+  @Mock private ThumbnailGenerator thumbnailGenerator;
+
+  @Mock private ThreadPoolTaskExecutor previewExecutor;
+
+  @InjectMocks private AttachmentPreviewService previewService;
+
+  private UUID attachmentId;
+  private FileAttachment attachment;
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(previewService, "enabled", true);
+    ReflectionTestUtils.setField(previewService, "maxSourceBytes", 10L * 1024 * 1024);
+    ReflectionTestUtils.setField(previewService, "retryAfterMinutes", 10L);
+    ReflectionTestUtils.setField(previewService, "recoveryBatchSize", 100);
+
+    attachmentId = UUID.randomUUID();
+    attachment = new FileAttachment();
+    attachment.setId(attachmentId);
+    attachment.setFileName("photo.png");
+    attachment.setFileSize(2048L);
+    attachment.setMimeType("image/png");
+    attachment.setStorageKey("uploads/abcd1234/photo.png");
+    attachment.setScanStatus(VirusScanStatus.CLEAN);
+  }
+
+  @Test
+  @DisplayName("Should generate and store thumbnail next to the original")
+  public void shouldGenerateThumbnail() throws Exception {
+    byte[] jpeg = new byte[] {1, 2, 3};
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    when(thumbnailGenerator.supports("image/png")).thenReturn(true);
+    when(fileStorageService.generateDerivativeKey(attachment.getStorageKey(), ".thumb.jpg"))
+        .thenReturn("uploads/abcd1234/photo.thumb.jpg");
+    when(fileStorageService.downloadFile(attachment.getStorageKey()))
+        .thenReturn(new ByteArrayInputStream(new byte[] {9}));
+    when(thumbnailGenerator.generate(any(), eq("image/png"))).thenReturn(Optional.of(jpeg));
+
+    boolean generated = previewService.generateThumbnail(attachmentId);
+
+    assertThat(generated).isTrue();
+    verify(fileStorageService).uploadObject("uploads/abcd1234/photo.thumb.jpg", jpeg, "image/jpeg");
+    verify(fileAttachmentRepository)
+        .updateThumbnail(
+            eq(attachmentId), eq("uploads/abcd1234/photo.thumb.jpg"), any(LocalDateTime.class));
+  }
+
+  @Test
+  @DisplayName("Should skip attachments that are not clean")
+  public void shouldSkipUncleanAttachment() {
+    attachment.setScanStatus(VirusScanStatus.INFECTED);
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+
+    assertThat(previewService.generateThumbnail(attachmentId)).isFalse();
+    verify(fileStorageService, never()).downloadFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Should skip sources larger than the preview memory limit")
+  public void shouldSkipOversizedSource() {
+    ReflectionTestUtils.setField(previewService, "maxSourceBytes", 1024L);
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    when(thumbnailGenerator.supports("image/png")).thenReturn(true);
+
+    assertThat(previewService.generateThumbnail(attachmentId)).isFalse();
+    verify(fileStorageService, never()).downloadFile(anyString());
+  }
+
+  @Test
+  @DisplayName("Should ignore scan events other than CLEAN")
+  public void shouldIgnoreNonCleanEvents() {
+    previewService.onAttachmentStatusChanged(
+        new AttachmentStatusChangedEvent(attachmentId, 1L, 1L, VirusScanStatus.INFECTED));
+
+    verify(fileAttachmentRepository, never()).findById(any());
+  }
+
+  @Test
+  @DisplayName("Should clear the preview request even when nothing could be rendered")
+  public void shouldClearPreviewRequestAfterFailedRender() throws Exception {
+    attachment.setPreviewRequestedAt(LocalDateTime.now());
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    when(thumbnailGenerator.supports("image/png")).thenReturn(true);
+    when(fileStorageService.generateDerivativeKey(anyString(), eq(".thumb.jpg")))
+        .thenReturn("uploads/abcd1234/photo.thumb.jpg");
+    when(fileStorageService.downloadFile(attachment.getStorageKey()))
+        .thenReturn(new ByteArrayInputStream(new byte[] {9}));
+    when(thumbnailGenerator.generate(any(), eq("image/png"))).thenReturn(Optional.empty());
+
+    assertThat(previewService.generateThumbnail(attachmentId)).isFalse();
+    verify(fileAttachmentRepository).clearPreviewRequest(attachmentId);
+  }
+
+  @Test
+  @DisplayName("Should resubmit dropped preview requests that it renewed")
+  public void shouldResubmitDroppedPreviewRequests() {
+    UUID renewed = UUID.randomUUID();
+    UUID taken = UUID.randomUUID();
+    when(previewExecutor.getQueueCapacity()).thenReturn(100);
+    when(previewExecutor.getQueueSize()).thenReturn(98);
+    when(fileAttachmentRepository.findPendingPreviewIds(
+            any(LocalDateTime.class), eq(Pageable.ofSize(2))))
+        .thenReturn(List.of(renewed, taken));
+    when(fileAttachmentRepository.renewPreviewRequest(
+            eq(renewed), any(LocalDateTime.class), any(LocalDateTime.class)))
+        .thenReturn(1);
+    when(fileAttachmentRepository.renewPreviewRequest(
+            eq(taken), any(LocalDateTime.class), any(LocalDateTime.class)))
+        .thenReturn(0);
+
+    previewService.recoverDroppedPreviews();
+
+    verify(previewExecutor, times(1)).execute(any(Runnable.class));
+  }
+
+  @Test
+  @DisplayName("Should not resubmit previews while the queue is full")
+  public void shouldNotResubmitWhileQueueIsFull() {
+    when(previewExecutor.getQueueCapacity()).thenReturn(100);
+    when(previewExecutor.getQueueSize()).thenReturn(100);
+
+    previewService.recoverDroppedPreviews();
+
+    verify(fileAttachmentRepository, never()).findPendingPreviewIds(any(), any());
+    verify(previewExecutor, never()).execute(any(Runnable.class));
+  }
+}
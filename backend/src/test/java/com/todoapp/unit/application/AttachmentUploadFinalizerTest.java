@@ -0,0 +1,239 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.application.service.AttachmentUploadFinalizer;
+import com.todoapp.domain.event.AttachmentStatusChangedEvent;
+import com.todoapp.domain.model.FileAttachment;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.model.VirusScanStatus;
+import com.todoapp.domain.repository.FileAttachmentRepository;
+import com.todoapp.infrastructure.messaging.VirusScanService;
+import com.todoapp.infrastructure.storage.AttachmentStagingStore;
+import com.todoapp.infrastructure.storage.FileStorageService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AttachmentUploadFinalizer Tests")
+public class AttachmentUploadFinalizerTest {
+
+  @Mock private FileAttachmentRepository fileAttachmentRepository;
+
+  @Mock private FileStorageService fileStorageService;
+
+  @Mock private AttachmentStagingStore stagingStore;
+
+  @Mock private VirusScanService virusScanService;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks private AttachmentUploadFinalizer finalizer;
+
+  private UUID attachmentId;
+  private FileAttachment attachment;
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(finalizer, "retryAfterSeconds", 60L);
+    ReflectionTestUtils.setField(finalizer, "failAfterMinutes", 60L);
+    ReflectionTestUtils.setField(finalizer, "claimTimeoutMinutes", 30L);
+
+    User user = new User();
+    user.setId(7L);
+    Task task = new Task();
+    task.setId(3L);
+    task.setUser(user);
+
+    attachmentId = UUID.randomUUID();
+    attachment = new FileAttachment();
+    attachment.setId(attachmentId);
+    attachment.setTask(task);
+    attachment.setUser(user);
+    attachment.setFileName("report.pdf");
+    attachment.setFileSize(1024L);
+    attachment.setMimeType("application/pdf");
+    attachment.setStorageKey("uploads/abcd1234/report.pdf");
+    attachment.setScanStatus(VirusScanStatus.STAGED);
+  }
+
+  @Test
+  @DisplayName("Should move staged content to storage, announce STORED, then queue scan")
+  public void shouldFinalizeStagedUpload() throws Exception {
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    when(stagingStore.exists(attachmentId)).thenReturn(true);
+    when(stagingStore.open(attachmentId)).thenReturn(new ByteArrayInputStream(new byte[] {1}));
+    givenClaimed();
+    when(fileAttachmentRepository.releaseClaimedUpload(
+            eq(attachmentId), any(LocalDateTime.class), eq(VirusScanStatus.PENDING)))
+        .thenReturn(1);
+
+    boolean finalized = finalizer.finalizeUpload(attachmentId);
+
+    assertThat(finalized).isTrue();
+    assertThat(attachment.getScanStatus()).isEqualTo(VirusScanStatus.PENDING);
+    verify(fileStorageService)
+        .storeFile(eq("uploads/abcd1234/report.pdf"), any(), eq("application/pdf"), eq(1024L));
+    verify(stagingStore).delete(attachmentId);
+
+    InOrder order = inOrder(eventPublisher, virusScanService);
+    ArgumentCaptor<AttachmentStatusChangedEvent> event =
+        ArgumentCaptor.forClass(AttachmentStatusChangedEvent.class);
+    order.verify(eventPublisher).publishEvent(event.capture());
+    order.verify(virusScanService).queueForScanning(attachmentId);
+    assertThat(event.getValue().status()).isEqualTo(VirusScanStatus.PENDING);
+    assertThat(event.getValue().userId()).isEqualTo(7L);
+    assertThat(event.getValue().taskId()).isEqualTo(3L);
+  }
+
+  @Test
+  @DisplayName("Should skip attachments that are no longer staged or are claimed by another worker")
+  public void shouldSkipUnclaimableUpload() {
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    when(fileAttachmentRepository.claimStagedUpload(
+            eq(attachmentId), any(LocalDateTime.class), any(LocalDateTime.class)))
+        .thenReturn(0);
+
+    assertThat(finalizer.finalizeUpload(attachmentId)).isFalse();
+    verify(stagingStore, never()).exists(any());
+    verify(fileStorageService, never()).storeFile(anyString(), any(), anyString(), anyLong());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  @DisplayName("Should claim with a timestamp and only take over claims older than the timeout")
+  public void shouldClaimWithStaleness() {
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    ArgumentCaptor<LocalDateTime> claimedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+    ArgumentCaptor<LocalDateTime> claimedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+    when(fileAttachmentRepository.claimStagedUpload(
+            eq(attachmentId), claimedAt.capture(), claimedBefore.capture()))
+        .thenReturn(0);
+
+    finalizer.finalizeUpload(attachmentId);
+
+    assertThat(claimedBefore.getValue()).isEqualTo(claimedAt.getValue().minusMinutes(30));
+  }
+
+  @Test
+  @DisplayName("Should keep upload staged when storage fails")
+  public void shouldKeepStagedWhenStorageFails() throws Exception {
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    when(stagingStore.exists(attachmentId)).thenReturn(true);
+    when(stagingStore.open(attachmentId)).thenReturn(new ByteArrayInputStream(new byte[] {1}));
+    doThrow(new RuntimeException("MinIO unavailable"))
+        .when(fileStorageService)
+        .storeFile(anyString(), any(), anyString(), anyLong());
+    givenClaimed();
+    when(fileAttachmentRepository.releaseClaimedUpload(
+            eq(attachmentId), any(LocalDateTime.class), eq(VirusScanStatus.STAGED)))
+        .thenReturn(1);
+
+    assertThat(finalizer.finalizeUpload(attachmentId)).isFalse();
+    assertThat(attachment.getScanStatus()).isEqualTo(VirusScanStatus.STAGED);
+    verify(eventPublisher, never()).publishEvent(any());
+    verify(stagingStore, never()).delete(attachmentId);
+    verify(virusScanService, never()).queueForScanning(any());
+  }
+
+  @Test
+  @DisplayName("Should mark upload failed when staged content is missing")
+  public void shouldFailWhenStagedContentMissing() {
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    when(stagingStore.exists(attachmentId)).thenReturn(false);
+    givenClaimed();
+    when(fileAttachmentRepository.releaseClaimedUpload(
+            eq(attachmentId), any(LocalDateTime.class), eq(VirusScanStatus.UPLOAD_FAILED)))
+        .thenReturn(1);
+
+    assertThat(finalizer.finalizeUpload(attachmentId)).isFalse();
+    assertThat(attachment.getScanStatus()).isEqualTo(VirusScanStatus.UPLOAD_FAILED);
+    assertThat(attachment.getScannedAt()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should not queue a scan when the claim was taken over during the transfer")
+  public void shouldStopWhenClaimLost() throws Exception {
+    when(fileAttachmentRepository.findById(attachmentId)).thenReturn(Optional.of(attachment));
+    when(stagingStore.exists(attachmentId)).thenReturn(true);
+    when(stagingStore.open(attachmentId)).thenReturn(new ByteArrayInputStream(new byte[] {1}));
+    givenClaimed();
+    when(fileAttachmentRepository.releaseClaimedUpload(
+            eq(attachmentId), any(LocalDateTime.class), eq(VirusScanStatus.PENDING)))
+        .thenReturn(0);
+
+    assertThat(finalizer.finalizeUpload(attachmentId)).isFalse();
+    verify(stagingStore, never()).delete(attachmentId);
+    verify(virusScanService, never()).queueForScanning(any());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  @DisplayName("Should fail staged uploads that exceeded the timeout during recovery")
+  public void shouldFailTimedOutUploadsDuringRecovery() {
+    attachment.setCreatedAt(LocalDateTime.now().minusHours(2));
+    when(fileAttachmentRepository.findUnfinalizedUploads(
+            any(LocalDateTime.class), any(LocalDateTime.class)))
+        .thenReturn(List.of(attachment));
+    givenClaimed();
+    when(fileAttachmentRepository.releaseClaimedUpload(
+            eq(attachmentId), any(LocalDateTime.class), eq(VirusScanStatus.UPLOAD_FAILED)))
+        .thenReturn(1);
+
+    finalizer.recoverStagedUploads();
+
+    assertThat(attachment.getScanStatus()).isEqualTo(VirusScanStatus.UPLOAD_FAILED);
+    verify(stagingStore).delete(attachmentId);
+    verify(fileStorageService, never()).storeFile(anyString(), any(), anyString(), anyLong());
+  }
+
+  @Test
+  @DisplayName("Should leave timed-out uploads alone while another worker is transferring them")
+  public void shouldNotFailActiveTransferDuringRecovery() {
+    attachment.setCreatedAt(LocalDateTime.now().minusHours(2));
+    when(fileAttachmentRepository.findUnfinalizedUploads(
+            any(LocalDateTime.class), any(LocalDateTime.class)))
+        .thenReturn(List.of(attachment));
+    when(fileAttachmentRepository.claimStagedUpload(
+            eq(attachmentId), any(LocalDateTime.class), any(LocalDateTime.class)))
+        .thenReturn(0);
+
+    finalizer.recoverStagedUploads();
+
+    assertThat(attachment.getScanStatus()).isEqualTo(VirusScanStatus.STAGED);
+    verify(fileAttachmentRepository, never()).releaseClaimedUpload(any(), any(), any());
+    verify(stagingStore, never()).delete(attachmentId);
+  }
+
+  private void givenClaimed() {
+    when(fileAttachmentRepository.claimStagedUpload(
+            eq(attachmentId), any(LocalDateTime.class), any(LocalDateTime.class)))
+        .thenReturn(1);
+  }
+}
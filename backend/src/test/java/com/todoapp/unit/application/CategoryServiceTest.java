@@ -22,6 +22,8 @@ import com.todoapp.domain.model.Category;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.CategoryRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.ReferenceDataCacheInvalidator;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("CategoryService Unit Tests")
@@ -31,6 +33,10 @@ class CategoryServiceTest {
 
   @Mock private UserRepository userRepository;
 
+  @Mock private ReferenceDataCacheInvalidator cacheInvalidator;
+
+  @Mock private SyncChangeLog syncChangeLog;
+
   @InjectMocks private CategoryService categoryService;
 
   private User user;
@@ -136,6 +142,7 @@ class CategoryServiceTest {
 
     assertNotNull(result);
     verify(categoryRepository).save(any(Category.class));
+    verify(cacheInvalidator).evict(Category.class, 1L);
   }
 
   @Test
@@ -146,6 +153,7 @@ class CategoryServiceTest {
     categoryService.deleteCategory(1L, 1L);
 
     verify(categoryRepository).delete(category);
+    verify(cacheInvalidator).evict(Category.class, 1L);
   }
 
   @Test
@@ -156,5 +164,6 @@ class CategoryServiceTest {
     assertThrows(RuntimeException.class, () -> categoryService.deleteCategory(1L, 1L));
 
     verify(categoryRepository, never()).delete(any(Category.class));
+    verifyNoInteractions(cacheInvalidator);
   }
 }
@@ -2,28 +2,46 @@ package com.todoapp.unit.application;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 
 import com.todoapp.application.dto.CommentDTO;
+import com.todoapp.application.dto.CommentPageDTO;
+import com.todoapp.application.dto.CommentThreadMessage;
 import com.todoapp.application.service.CommentService;
+import com.todoapp.application.service.NotificationService;
+import com.todoapp.application.service.TaskAccessResolver;
 import com.todoapp.domain.model.Comment;
+import com.todoapp.domain.model.NotificationType;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.CommentRepository;
 import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.CommentThreadVersions;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
+import com.todoapp.presentation.websocket.CommentWebSocketHandler;
 
 @ExtendWith(MockitoExtension.class)
 public class CommentServiceTest {
@@ -34,6 +52,20 @@ public class CommentServiceTest {
 
   @Mock private UserRepository userRepository;
 
+  @Mock private NotificationService notificationService;
+
+  @Mock private TaskShareRepository taskShareRepository;
+
+  @Mock private CommentThreadVersions threadVersions;
+
+  @Mock private CommentWebSocketHandler commentWebSocketHandler;
+
+  // Real ownership logic; lookups for non-owners are stubbed per test
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
+  private TaskAccessResolver accessResolver;
+
+  @Mock private SyncChangeLog syncChangeLog;
+
   @InjectMocks private CommentService commentService;
 
   private User testUser;
@@ -67,7 +99,7 @@ public class CommentServiceTest {
     CommentDTO commentDTO = new CommentDTO();
     commentDTO.setContent("New comment");
 
-    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(userRepository.getReferenceById(1L)).thenReturn(testUser);
     when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
     when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
 
@@ -76,6 +108,112 @@ public class CommentServiceTest {
     assertNotNull(result);
     assertEquals("Test comment", result.getContent());
     verify(commentRepository, times(1)).save(any(Comment.class));
+    verify(userRepository, never()).findById(any());
+  }
+
+  @Test
+  @DisplayName("Should resolve all mentions of a comment in one query")
+  public void shouldResolveMentionsInOneQuery() {
+    CommentDTO commentDTO = new CommentDTO();
+    commentDTO.setContent("@Alice and @bob please review, cc @alice @test");
+    testComment.setContent(commentDTO.getContent());
+
+    User alice = new User();
+    alice.setId(2L);
+    alice.setIsActive(true);
+    User bob = new User();
+    bob.setId(3L);
+    bob.setIsActive(false);
+    testUser.setIsActive(true);
+
+    when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+    when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+    when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+    when(userRepository.findByUsernameIn(Set.of("alice", "bob", "test")))
+        .thenReturn(List.of(alice, bob, testUser));
+
+    commentService.addComment(1L, commentDTO, 1L);
+
+    verify(userRepository, times(1)).findByUsernameIn(any());
+    verify(userRepository, never()).findByEmail(any());
+    // The author and inactive users are not notified
+    verify(notificationService)
+        .createNotifications(
+            eq(List.of(alice)), eq(NotificationType.TASK_MENTIONED), any(), eq(testTask));
+  }
+
+  @Test
+  @DisplayName("Should push a new comment to the owner and collaborators")
+  public void shouldPushNewComment() {
+    CommentDTO commentDTO = new CommentDTO();
+    commentDTO.setContent("New comment");
+
+    when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+    when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+    when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+    when(taskShareRepository.findSharedWithUserIdsByTaskId(1L)).thenReturn(List.of(2L, 3L));
+
+    commentService.addComment(1L, commentDTO, 1L);
+
+    verify(threadVersions).changed(1L);
+    ArgumentCaptor<CommentThreadMessage> captor =
+        ArgumentCaptor.forClass(CommentThreadMessage.class);
+    verify(commentWebSocketHandler).sendCommentUpdate(eq(Set.of(1L, 2L, 3L)), captor.capture());
+    assertEquals("ADDED", captor.getValue().action());
+    assertEquals(1L, captor.getValue().commentId());
+  }
+
+  @Test
+  @DisplayName("Should page a thread by cursor and load all authors in one query")
+  public void shouldPageThreadWithBatchedAuthors() {
+    User other = new User();
+    other.setId(2L);
+    Comment second = comment(2L, other, LocalDateTime.now().minusMinutes(1));
+    Comment third = comment(3L, testUser, LocalDateTime.now().minusMinutes(2));
+
+    doReturn(Optional.of(TaskAccessLevel.OWNER)).when(accessResolver).accessLevel(1L, 1L);
+    when(commentRepository.findThreadPage(eq(1L), any(Pageable.class)))
+        .thenReturn(List.of(testComment, second, third));
+    when(userRepository.findEmailsByIds(Set.of(1L, 2L)))
+        .thenReturn(
+            List.of(new Object[] {1L, "test@example.com"}, new Object[] {2L, "other@example.com"}));
+
+    CommentPageDTO page = commentService.getCommentThread(1L, 1L, null, 2);
+
+    assertEquals(2, page.comments().size());
+    assertEquals("other@example.com", page.comments().get(1).getAuthorEmail());
+    assertNotNull(page.nextCursor());
+    verify(userRepository, times(1)).findEmailsByIds(any());
+
+    when(commentRepository.findThreadPageBefore(
+            eq(1L), eq(second.getCreatedAt()), eq(2L), any(Pageable.class)))
+        .thenReturn(List.of(third));
+    when(userRepository.findEmailsByIds(Set.of(1L)))
+        .thenReturn(List.<Object[]>of(new Object[] {1L, "test@example.com"}));
+
+    CommentPageDTO next = commentService.getCommentThread(1L, 1L, page.nextCursor(), 2);
+
+    assertEquals(3L, next.comments().get(0).getId());
+    assertNull(next.nextCursor());
+  }
+
+  @Test
+  @DisplayName("Should reject a malformed thread cursor")
+  public void shouldRejectMalformedCursor() {
+    doReturn(Optional.of(TaskAccessLevel.OWNER)).when(accessResolver).accessLevel(1L, 1L);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> commentService.getCommentThread(1L, 1L, "not-a-cursor", 20));
+  }
+
+  @Test
+  @DisplayName("Should derive the thread ETag from the thread version")
+  public void shouldDeriveThreadETag() {
+    doReturn(Optional.of(TaskAccessLevel.OWNER)).when(accessResolver).accessLevel(1L, 1L);
+    when(threadVersions.current(1L)).thenReturn("1700000000000");
+
+    assertEquals("\"1-1700000000000\"", commentService.getThreadETag(1L, 1L));
   }
 
   @Test
@@ -84,7 +222,7 @@ public class CommentServiceTest {
     CommentDTO commentDTO = new CommentDTO();
     commentDTO.setContent("New comment");
 
-    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(userRepository.getReferenceById(1L)).thenReturn(testUser);
     when(taskRepository.findById(99L)).thenReturn(Optional.empty());
 
     assertThrows(
@@ -94,17 +232,22 @@ public class CommentServiceTest {
   }
 
   @Test
-  @DisplayName("Should throw exception when user not found")
+  @DisplayName("Should reject a comment by a user that does not exist when inserting it")
   public void shouldThrowExceptionWhenUserNotFound() {
     CommentDTO commentDTO = new CommentDTO();
     commentDTO.setContent("New comment");
+    User missingUser = new User();
+    missingUser.setId(99L);
 
-    when(userRepository.findById(99L)).thenReturn(Optional.empty());
+    when(userRepository.getReferenceById(99L)).thenReturn(missingUser);
+    when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+    doReturn(Map.of(1L, TaskAccessLevel.VIEW)).when(accessResolver).accessLevels(List.of(1L), 99L);
+    when(commentRepository.save(any(Comment.class)))
+        .thenThrow(new DataIntegrityViolationException("fk_comments_author"));
 
     assertThrows(
-        ResourceNotFoundException.class, () -> commentService.addComment(1L, commentDTO, 99L));
-
-    verify(commentRepository, never()).save(any(Comment.class));
+        DataIntegrityViolationException.class,
+        () -> commentService.addComment(1L, commentDTO, 99L));
   }
 
   @Test
@@ -213,4 +356,16 @@ public class CommentServiceTest {
 
     verify(commentRepository, never()).delete(any(Comment.class));
   }
+
+  private Comment comment(Long id, User author, LocalDateTime createdAt) {
+    Comment comment = new Comment();
+    comment.setId(id);
+    comment.setTask(testTask);
+    comment.setAuthor(author);
+    comment.setContent("Comment " + id);
+    comment.setIsEdited(false);
+    comment.setCreatedAt(createdAt);
+    comment.setUpdatedAt(createdAt);
+    return comment;
+  }
 }
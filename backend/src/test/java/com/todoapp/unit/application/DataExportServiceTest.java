@@ -0,0 +1,160 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoapp.application.service.DataExportService;
+import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.Comment;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.domain.model.Tag;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.repository.CategoryRepository;
+import com.todoapp.domain.repository.CommentRepository;
+import com.todoapp.domain.repository.TagRepository;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TimeEntryRepository;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DataExportService Tests")
+public class DataExportServiceTest {
+
+  private static final Long USER_ID = 1L;
+
+  @Mock private TaskRepository taskRepository;
+
+  @Mock private CategoryRepository categoryRepository;
+
+  @Mock private TagRepository tagRepository;
+
+  @Mock private CommentRepository commentRepository;
+
+  @Mock private TimeEntryRepository timeEntryRepository;
+
+  @Mock private EntityManager entityManager;
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .findAndRegisterModules()
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  private DataExportService exportService;
+
+  private Category work;
+
+  private Tag urgent;
+
+  @BeforeEach
+  public void setUp() {
+    exportService =
+        new DataExportService(
+            taskRepository,
+            categoryRepository,
+            tagRepository,
+            commentRepository,
+            timeEntryRepository,
+            entityManager,
+            objectMapper);
+    ReflectionTestUtils.setField(exportService, "chunkSize", 2);
+    work = Category.builder().id(5L).name("Work").color("#FF0000").build();
+    urgent = Tag.builder().id(6L).name("urgent").build();
+  }
+
+  @Test
+  @DisplayName("Should write one typed record per line, parents before subtasks")
+  public void shouldExportNdjson() throws Exception {
+    Task parent = task(10L, "Plan release", null);
+    parent.setCategory(work);
+    parent.setTags(new ArrayList<>(List.of(urgent)));
+    Task child = task(11L, "Write notes", parent);
+    Task other = task(12L, "Book room", null);
+    Comment comment = new Comment();
+    comment.setId(20L);
+    comment.setTask(parent);
+    comment.setContent("Looks good");
+    when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(work));
+    when(tagRepository.findByUserId(USER_ID)).thenReturn(List.of(urgent));
+    when(taskRepository.streamForExport(USER_ID)).thenReturn(Stream.of(parent, child, other));
+    when(commentRepository.streamForExport(USER_ID)).thenReturn(Stream.of(comment));
+    when(timeEntryRepository.streamForExport(USER_ID)).thenReturn(Stream.empty());
+
+    List<JsonNode> records = exportNdjson();
+
+    assertThat(records)
+        .extracting(record -> record.get("type").asText() + ":" + record.get("id").asLong())
+        .containsExactly("CATEGORY:5", "TAG:6", "TASK:10", "TASK:11", "TASK:12", "COMMENT:20");
+    assertThat(records.get(2).get("categoryId").asLong()).isEqualTo(5L);
+    assertThat(records.get(2).get("tagIds").get(0).asLong()).isEqualTo(6L);
+    assertThat(records.get(3).get("parentId").asLong()).isEqualTo(10L);
+    assertThat(records.get(5).get("taskId").asLong()).isEqualTo(10L);
+    // Two chunks of tasks and one of comments
+    verify(entityManager, times(3)).clear();
+  }
+
+  @Test
+  @DisplayName("Should write tasks as CSV with names, quoting and formula protection")
+  public void shouldExportCsv() throws Exception {
+    Task task = task(10L, "=SUM(A1), then \"check\"", null);
+    task.setCategory(work);
+    task.setTags(new ArrayList<>(List.of(urgent, Tag.builder().id(7L).name("home").build())));
+    when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(work));
+    when(taskRepository.streamForExport(USER_ID)).thenReturn(Stream.of(task));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exportService.export(USER_ID, DataExportService.Format.CSV, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).startsWith("id,parent_id,description,");
+    assertThat(lines[1])
+        .isEqualTo(
+            "10,,\"'=SUM(A1), then \"\"check\"\"\",HIGH,false,2026-10-20T09:00,,Work,"
+                + "urgent;home,,,2026-10-01T08:00");
+  }
+
+  private List<JsonNode> exportNdjson() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exportService.export(USER_ID, DataExportService.Format.NDJSON, out);
+    List<JsonNode> records = new ArrayList<>();
+    for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+      records.add(objectMapper.readTree(line));
+    }
+    return records;
+  }
+
+  private static Task task(Long id, String description, Task parent) {
+    Task task =
+        Task.builder()
+            .id(id)
+            .description(description)
+            .priority(Priority.HIGH)
+            .isCompleted(false)
+            .dueDate(LocalDateTime.of(2026, 10, 20, 9, 0))
+            .createdAt(LocalDateTime.of(2026, 10, 1, 8, 0))
+            .build();
+    task.setParentTask(parent);
+    return task;
+  }
+}
@@ -0,0 +1,212 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.application.dto.ExportRecord;
+import com.todoapp.application.dto.ImportJobDTO;
+import com.todoapp.application.service.DataImportService;
+import com.todoapp.domain.event.ImportJobCreatedEvent;
+import com.todoapp.domain.model.ImportJob;
+import com.todoapp.domain.model.ImportJobStatus;
+import com.todoapp.domain.repository.ImportJobRepository;
+import com.todoapp.infrastructure.persistence.ImportChunkWriter;
+import com.todoapp.infrastructure.storage.ImportFileStore;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DataImportService Tests")
+public class DataImportServiceTest {
+
+  private static final Long USER_ID = 1L;
+
+  private static final Long JOB_ID = 42L;
+
+  private static final String FILE =
+      """
+      {"type":"TAG","id":6,"name":"urgent"}
+      {"type":"TASK","id":10,"description":"Plan release","tagIds":[6]}
+      {"type":"TASK","id":11,"parentId":10,"description":"Write notes"}
+
+      {"type":"COMMENT","id":20,"taskId":10,"content":"Looks good"}
+      {"type":"TIME_ENTRY","id":30,"taskId":11,"entryType":"MANUAL","durationMinutes":15}
+      """;
+
+  @Mock private ImportJobRepository importJobRepository;
+
+  @Mock private ImportChunkWriter chunkWriter;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Captor private ArgumentCaptor<List<ExportRecord>> chunks;
+
+  @TempDir private Path importDir;
+
+  private ImportFileStore importFileStore;
+
+  private DataImportService importService;
+
+  @BeforeEach
+  public void setUp() {
+    importFileStore = new ImportFileStore(importDir.toString());
+    importService =
+        new DataImportService(
+            importJobRepository,
+            importFileStore,
+            chunkWriter,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new SyncTaskExecutor(),
+            eventPublisher,
+            new ObjectMapper().findAndRegisterModules());
+    ReflectionTestUtils.setField(importService, "chunkSize", 2);
+    ReflectionTestUtils.setField(importService, "maxFileSizeMb", 1L);
+    ReflectionTestUtils.setField(importService, "staleAfterMinutes", 5L);
+  }
+
+  @Test
+  @DisplayName("Should stage the file, count its records and announce the job")
+  public void shouldStartImport() throws Exception {
+    when(importJobRepository.save(any(ImportJob.class)))
+        .thenAnswer(
+            invocation -> {
+              ImportJob job = invocation.getArgument(0);
+              job.setId(JOB_ID);
+              return job;
+            });
+
+    ImportJobDTO job = importService.startImport(USER_ID, "export.ndjson", body(FILE));
+
+    assertThat(job.status()).isEqualTo(ImportJobStatus.PENDING);
+    assertThat(job.totalRecords()).isEqualTo(5);
+    assertThat(importFileStore.exists(JOB_ID)).isTrue();
+    verify(eventPublisher).publishEvent(new ImportJobCreatedEvent(JOB_ID));
+  }
+
+  @Test
+  @DisplayName("Should reject a file without records and discard the upload")
+  public void shouldRejectEmptyFile() throws Exception {
+    assertThatThrownBy(() -> importService.startImport(USER_ID, null, body("\n  \n")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("no records");
+
+    verify(importJobRepository, never()).save(any());
+    try (var files = Files.list(importDir)) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("Should resume after the checkpoint and import the rest in chunks")
+  public void shouldResumeFromCheckpoint() throws Exception {
+    givenRunnableJob(1);
+    when(chunkWriter.write(eq(JOB_ID), eq(USER_ID), anyLong(), anyList())).thenReturn(true);
+
+    importService.runImport(JOB_ID);
+
+    ArgumentCaptor<Long> checkpoints = ArgumentCaptor.forClass(Long.class);
+    verify(chunkWriter, times(2))
+        .write(eq(JOB_ID), eq(USER_ID), checkpoints.capture(), chunks.capture());
+    assertThat(checkpoints.getAllValues()).containsExactly(1L, 3L);
+    assertThat(chunks.getAllValues().get(0)).extracting(ExportRecord::id).containsExactly(10L, 11L);
+    assertThat(chunks.getAllValues().get(1)).extracting(ExportRecord::id).containsExactly(20L, 30L);
+    verify(importJobRepository)
+        .finish(eq(JOB_ID), eq(ImportJobStatus.COMPLETED), isNull(), any(LocalDateTime.class));
+    assertThat(importFileStore.exists(JOB_ID)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should stop without finishing when another worker took the job over")
+  public void shouldStopWhenTakenOver() throws Exception {
+    givenRunnableJob(0);
+    when(chunkWriter.write(eq(JOB_ID), eq(USER_ID), anyLong(), anyList())).thenReturn(false);
+
+    importService.runImport(JOB_ID);
+
+    verify(chunkWriter).write(eq(JOB_ID), eq(USER_ID), eq(0L), anyList());
+    verify(importJobRepository, never()).finish(anyLong(), any(), any(), any());
+    assertThat(importFileStore.exists(JOB_ID)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should fail the job with the line of a malformed record and keep the file")
+  public void shouldFailOnMalformedRecord() throws Exception {
+    stage("{\"type\":\"TAG\",\"id\":6,\"name\":\"urgent\"}\n{\"type\":\"BOARD\",\"id\":1}\n");
+    givenClaimedJob(0);
+
+    importService.runImport(JOB_ID);
+
+    ArgumentCaptor<String> error = ArgumentCaptor.forClass(String.class);
+    verify(importJobRepository)
+        .finish(eq(JOB_ID), eq(ImportJobStatus.FAILED), error.capture(), any(LocalDateTime.class));
+    assertThat(error.getValue()).contains("BOARD").contains("line 2");
+    verify(chunkWriter, never()).write(anyLong(), anyLong(), anyLong(), anyList());
+    assertThat(importFileStore.exists(JOB_ID)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should not run a job that another worker holds")
+  public void shouldSkipUnavailableJob() {
+    when(importJobRepository.claim(eq(JOB_ID), any(), any())).thenReturn(0);
+
+    importService.runImport(JOB_ID);
+
+    verify(importJobRepository, never()).findById(any());
+    verify(chunkWriter, never()).write(anyLong(), anyLong(), anyLong(), anyList());
+  }
+
+  private void givenRunnableJob(long processed) throws Exception {
+    stage(FILE);
+    givenClaimedJob(processed);
+  }
+
+  private void givenClaimedJob(long processed) {
+    ImportJob job = new ImportJob(USER_ID, "export.ndjson");
+    job.setId(JOB_ID);
+    job.setStatus(ImportJobStatus.RUNNING);
+    job.setProcessedRecords(processed);
+    when(importJobRepository.claim(eq(JOB_ID), any(), any())).thenReturn(1);
+    when(importJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+  }
+
+  private void stage(String content) throws Exception {
+    Path received = importFileStore.receive(body(content), 1024 * 1024);
+    importFileStore.attach(received, JOB_ID);
+  }
+
+  private static ByteArrayInputStream body(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -3,10 +3,12 @@ package com.todoapp.unit.application;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,12 +20,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.todoapp.application.dto.NotificationPreferenceDTO;
 import com.todoapp.application.service.NotificationService;
+import com.todoapp.domain.event.UnreadNotificationsChangedEvent;
 import com.todoapp.domain.model.*;
+import com.todoapp.domain.repository.NotificationDigestItemRepository;
 import com.todoapp.domain.repository.NotificationPreferenceRepository;
 import com.todoapp.domain.repository.NotificationRepository;
+import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.NotificationPreferenceCache;
+import com.todoapp.infrastructure.cache.UnreadNotificationCounter;
+import com.todoapp.infrastructure.messaging.EmailMessage;
 import com.todoapp.infrastructure.messaging.EmailNotifier;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +50,16 @@ public class NotificationServiceTest {
 
   @Mock private EmailNotifier emailNotifier;
 
+  @Mock private UnreadNotificationCounter unreadCounter;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Mock private NotificationDigestItemRepository digestItemRepository;
+
+  @Mock private NotificationPreferenceCache preferenceCache;
+
+  @Mock private UserRepository userRepository;
+
   @InjectMocks private NotificationService notificationService;
 
   private User testUser;
@@ -54,6 +76,8 @@ public class NotificationServiceTest {
     testTask.setId(1L);
     testTask.setDescription("Test task");
     testTask.setUser(testUser);
+
+    lenient().when(preferenceCache.get(1L)).thenReturn(NotificationPreferenceMatrix.defaults());
   }
 
   // Deleted over-mocked test:
@@ -97,15 +121,7 @@ public class NotificationServiceTest {
   @Test
   @DisplayName("Should send notification via WebSocket when preference enabled")
   public void shouldSendNotificationViaWebSocket() {
-    NotificationPreference preference = new NotificationPreference();
-    preference.setUser(testUser);
-    preference.setNotificationType(NotificationType.TASK_DUE_SOON);
-    preference.setInAppEnabled(true);
-    preference.setEmailEnabled(false);
-
-    when(preferenceRepository.findByUserAndNotificationType(
-            testUser, NotificationType.TASK_DUE_SOON))
-        .thenReturn(Optional.of(preference));
+    givenPreference(NotificationType.TASK_DUE_SOON, true, false, DigestFrequency.IMMEDIATE);
 
     Notification notification = new Notification();
     notification.setId(UUID.randomUUID());
@@ -126,15 +142,7 @@ public class NotificationServiceTest {
   @Test
   @DisplayName("Should send notification via email when preference enabled")
   public void shouldSendNotificationViaEmail() {
-    NotificationPreference preference = new NotificationPreference();
-    preference.setUser(testUser);
-    preference.setNotificationType(NotificationType.TASK_DUE_SOON);
-    preference.setInAppEnabled(false);
-    preference.setEmailEnabled(true);
-
-    when(preferenceRepository.findByUserAndNotificationType(
-            testUser, NotificationType.TASK_DUE_SOON))
-        .thenReturn(Optional.of(preference));
+    givenPreference(NotificationType.TASK_DUE_SOON, false, true, DigestFrequency.IMMEDIATE);
 
     Notification notification = new Notification();
     notification.setId(UUID.randomUUID());
@@ -153,15 +161,7 @@ public class NotificationServiceTest {
   @Test
   @DisplayName("Should send notification via both channels when both enabled")
   public void shouldSendNotificationViaBothChannels() {
-    NotificationPreference preference = new NotificationPreference();
-    preference.setUser(testUser);
-    preference.setNotificationType(NotificationType.TASK_DUE_SOON);
-    preference.setInAppEnabled(true);
-    preference.setEmailEnabled(true);
-
-    when(preferenceRepository.findByUserAndNotificationType(
-            testUser, NotificationType.TASK_DUE_SOON))
-        .thenReturn(Optional.of(preference));
+    givenPreference(NotificationType.TASK_DUE_SOON, true, true, DigestFrequency.IMMEDIATE);
 
     Notification notification = new Notification();
     notification.setId(UUID.randomUUID());
@@ -182,10 +182,6 @@ public class NotificationServiceTest {
   @Test
   @DisplayName("Should use default preferences when none exist")
   public void shouldUseDefaultPreferencesWhenNoneExist() {
-    when(preferenceRepository.findByUserAndNotificationType(
-            testUser, NotificationType.TASK_DUE_SOON))
-        .thenReturn(Optional.empty());
-
     Notification notification = new Notification();
     notification.setId(UUID.randomUUID());
     notification.setUser(testUser);
@@ -249,6 +245,61 @@ public class NotificationServiceTest {
     verify(notificationRepository).save(captor.capture());
 
     assertThat(captor.getValue().isRead()).isTrue();
+    verify(eventPublisher).publishEvent(UnreadNotificationsChangedEvent.removed(1L));
+  }
+
+  @Test
+  @DisplayName("Should leave an already read notification and the counter untouched")
+  public void shouldNotDecrementForReadNotification() {
+    Notification notification = new Notification();
+    notification.setId(UUID.randomUUID());
+    notification.setUser(testUser);
+    notification.setRead(true);
+
+    when(notificationRepository.findById(notification.getId()))
+        .thenReturn(Optional.of(notification));
+
+    notificationService.markAsRead(notification.getId().toString(), 1L);
+
+    verify(notificationRepository, never()).save(any(Notification.class));
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  @DisplayName("Should decrement the counter when an unread notification is deleted")
+  public void shouldDecrementWhenDeletingUnread() {
+    Notification notification = new Notification();
+    notification.setId(UUID.randomUUID());
+    notification.setUser(testUser);
+    notification.setRead(false);
+
+    when(notificationRepository.findById(notification.getId()))
+        .thenReturn(Optional.of(notification));
+
+    notificationService.deleteNotification(notification.getId().toString(), 1L);
+
+    verify(notificationRepository).delete(notification);
+    verify(eventPublisher).publishEvent(UnreadNotificationsChangedEvent.removed(1L));
+  }
+
+  @Test
+  @DisplayName("Should mark all notifications as read with one bulk update and reset the counter")
+  public void shouldMarkAllAsReadInBulk() {
+    when(notificationRepository.markAllAsReadForUser(eq(1L), any())).thenReturn(4);
+
+    notificationService.markAllAsRead(1L);
+
+    verify(notificationRepository, never()).findByUserAndIsReadFalseOrderByCreatedAtDesc(any());
+    verify(eventPublisher).publishEvent(UnreadNotificationsChangedEvent.cleared(1L));
+  }
+
+  @Test
+  @DisplayName("Should serve the unread count from the counter")
+  public void shouldServeUnreadCountFromCounter() {
+    when(unreadCounter.getUnreadCount(1L)).thenReturn(7L);
+
+    assertThat(notificationService.getUnreadCount(1L)).isEqualTo(7L);
+    verifyNoInteractions(notificationRepository);
   }
 
   @Test
@@ -260,4 +311,217 @@ public class NotificationServiceTest {
 
     assertThat(count).isEqualTo(5L);
   }
+
+  @Test
+  @DisplayName("Should collapse a repeated notification for the same task into a counter")
+  public void shouldCollapseRepeatedNotification() {
+    ReflectionTestUtils.setField(notificationService, "collapseWindowMinutes", 1440L);
+    Notification existing = new Notification();
+    existing.setId(UUID.randomUUID());
+    existing.setUser(testUser);
+    existing.setType(NotificationType.TASK_COMMENTED);
+    existing.setMessage("First comment");
+    existing.setRelatedTask(testTask);
+
+    when(notificationRepository.findUnreadRepeats(
+            eq(1L), eq(1L), eq(NotificationType.TASK_COMMENTED), any(), any(Pageable.class)))
+        .thenReturn(List.of(existing));
+    when(notificationRepository.save(existing)).thenReturn(existing);
+
+    Notification result =
+        notificationService.createNotification(
+            testUser, NotificationType.TASK_COMMENTED, "Second comment", testTask);
+
+    assertThat(result).isSameAs(existing);
+    assertThat(result.getOccurrenceCount()).isEqualTo(2);
+    assertThat(result.getMessage()).isEqualTo("Second comment");
+    // Still one unread row, so the unread count does not change
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  @DisplayName("Should create a new notification when there is no unread repeat")
+  public void shouldCreateNotificationWithoutRepeat() {
+    ReflectionTestUtils.setField(notificationService, "collapseWindowMinutes", 1440L);
+    when(notificationRepository.findUnreadRepeats(
+            eq(1L), eq(1L), eq(NotificationType.TASK_COMMENTED), any(), any(Pageable.class)))
+        .thenReturn(List.of());
+    when(notificationRepository.save(any(Notification.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    Notification result =
+        notificationService.createNotification(
+            testUser, NotificationType.TASK_COMMENTED, "First comment", testTask);
+
+    assertThat(result.getOccurrenceCount()).isEqualTo(1);
+    verify(eventPublisher).publishEvent(UnreadNotificationsChangedEvent.added(1L));
+  }
+
+  @Test
+  @DisplayName("Should cap the unread notification page size")
+  public void shouldCapUnreadPageSize() {
+    ReflectionTestUtils.setField(notificationService, "maxUnreadPageSize", 100);
+    when(notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(
+            eq(1L), any(Pageable.class)))
+        .thenReturn(List.of());
+
+    notificationService.getUnreadNotifications(1L, 2, 5000);
+
+    ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+    verify(notificationRepository)
+        .findByUserIdAndIsReadFalseOrderByCreatedAtDesc(eq(1L), captor.capture());
+    assertThat(captor.getValue().getPageNumber()).isEqualTo(2);
+    assertThat(captor.getValue().getPageSize()).isEqualTo(100);
+  }
+
+  @Test
+  @DisplayName("Should buffer a notification for the next hourly digest instead of sending it")
+  public void shouldBufferNotificationForDigest() {
+    givenPreference(NotificationType.TASK_MENTIONED, true, true, DigestFrequency.HOURLY);
+
+    Notification result =
+        notificationService.createNotification(
+            testUser, NotificationType.TASK_MENTIONED, "You were mentioned", testTask);
+
+    assertThat(result).isNull();
+    ArgumentCaptor<NotificationDigestItem> captor =
+        ArgumentCaptor.forClass(NotificationDigestItem.class);
+    verify(digestItemRepository).save(captor.capture());
+    NotificationDigestItem item = captor.getValue();
+    assertThat(item.getUserId()).isEqualTo(1L);
+    assertThat(item.getTaskId()).isEqualTo(1L);
+    assertThat(item.isInAppEnabled()).isTrue();
+    assertThat(item.isEmailEnabled()).isTrue();
+    assertThat(item.getDeliverAt().getMinute()).isZero();
+    verify(notificationRepository, never()).save(any());
+    verifyNoInteractions(messagingTemplate, emailNotifier, eventPublisher);
+  }
+
+  @Test
+  @DisplayName("Should buffer a repeated notification for the same task only once")
+  public void shouldNotBufferDuplicateForSameTask() {
+    givenPreference(NotificationType.TASK_DUE_SOON, true, false, DigestFrequency.DAILY);
+    when(digestItemRepository.existsByUserIdAndTypeAndTaskId(
+            1L, NotificationType.TASK_DUE_SOON, 1L))
+        .thenReturn(true);
+
+    notificationService.createNotification(
+        testUser, NotificationType.TASK_DUE_SOON, "Task is due soon", testTask);
+
+    verify(digestItemRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Should deliver a digest as one in-app notification and one email")
+  public void shouldCreateDigestNotification() {
+    when(notificationRepository.save(any(Notification.class)))
+        .thenAnswer(
+            invocation -> {
+              Notification saved = invocation.getArgument(0);
+              saved.setId(UUID.randomUUID());
+              return saved;
+            });
+
+    Notification result =
+        notificationService.createDigestNotification(
+            testUser, "You have 2 new notifications", "Details", true, true);
+
+    assertThat(result.getType()).isEqualTo(NotificationType.DIGEST);
+    assertThat(result.getMessage()).isEqualTo("You have 2 new notifications");
+    verify(eventPublisher).publishEvent(UnreadNotificationsChangedEvent.added(1L));
+    verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/notifications"), any());
+    ArgumentCaptor<EmailMessage> captor = ArgumentCaptor.forClass(EmailMessage.class);
+    verify(emailNotifier).sendEmail(captor.capture());
+    assertThat(captor.getValue().notificationId()).isEqualTo(result.getId());
+    assertThat(captor.getValue().type()).isEqualTo(NotificationType.DIGEST);
+    assertThat(captor.getValue().message()).isEqualTo("Details");
+  }
+
+  @Test
+  @DisplayName("Should send an email-only digest without creating a notification")
+  public void shouldSendEmailOnlyDigest() {
+    Notification result =
+        notificationService.createDigestNotification(
+            testUser, "You have 1 new notification", "Details", false, true);
+
+    assertThat(result).isNull();
+    verify(notificationRepository, never()).save(any());
+    verify(emailNotifier).sendEmail(any(EmailMessage.class));
+  }
+
+  @Test
+  @DisplayName("Should read the preferences of all recipients in one call")
+  public void shouldReadPreferencesOnceForAllRecipients() {
+    User other = new User();
+    other.setId(2L);
+    other.setEmail("other@example.com");
+    when(preferenceCache.getAll(List.of(1L, 2L)))
+        .thenReturn(
+            Map.of(
+                1L,
+                NotificationPreferenceMatrix.defaults(),
+                2L,
+                NotificationPreferenceMatrix.defaults()
+                    .with(
+                        NotificationType.TASK_MENTIONED, false, true, DigestFrequency.IMMEDIATE)));
+    when(notificationRepository.save(any(Notification.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    List<Notification> created =
+        notificationService.createNotifications(
+            List.of(testUser, other),
+            NotificationType.TASK_MENTIONED,
+            user -> "Mentioned " + user.getEmail(),
+            testTask);
+
+    assertThat(created)
+        .extracting(Notification::getMessage)
+        .containsExactly("Mentioned test@example.com", "Mentioned other@example.com");
+    verify(preferenceCache, never()).get(anyLong());
+    verify(messagingTemplate).convertAndSendToUser(eq("1"), anyString(), any());
+    verify(emailNotifier).sendNotificationEmail(created.get(1));
+  }
+
+  @Test
+  @DisplayName("Should return every notification type from the cached preferences")
+  public void shouldGetPreferencesFromCache() {
+    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    givenPreference(NotificationType.TASK_SHARED, false, true, DigestFrequency.DAILY);
+
+    List<NotificationPreferenceDTO> preferences = notificationService.getPreferences(1L);
+
+    assertThat(preferences).hasSize(NotificationType.values().length - 1);
+    NotificationPreferenceDTO shared =
+        preferences.stream()
+            .filter(preference -> preference.getNotificationType() == NotificationType.TASK_SHARED)
+            .findFirst()
+            .orElseThrow();
+    assertThat(shared.isInAppEnabled()).isFalse();
+    assertThat(shared.isEmailEnabled()).isTrue();
+    assertThat(shared.getDigestFrequency()).isEqualTo(DigestFrequency.DAILY);
+    verifyNoInteractions(preferenceRepository);
+  }
+
+  @Test
+  @DisplayName("Should evict the cached preferences when a preference changes")
+  public void shouldEvictCachedPreferencesOnUpdate() {
+    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(preferenceRepository.findByUserAndNotificationType(testUser, NotificationType.TASK_SHARED))
+        .thenReturn(Optional.empty());
+    when(preferenceRepository.save(any(NotificationPreference.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    NotificationPreferenceDTO dto = new NotificationPreferenceDTO();
+    dto.setNotificationType(NotificationType.TASK_SHARED);
+    dto.setEmailEnabled(true);
+
+    notificationService.updatePreference(1L, dto);
+
+    verify(preferenceCache).evict(1L);
+  }
+
+  private void givenPreference(
+      NotificationType type, boolean inApp, boolean email, DigestFrequency frequency) {
+    when(preferenceCache.get(1L))
+        .thenReturn(NotificationPreferenceMatrix.defaults().with(type, inApp, email, frequency));
+  }
 }
@@ -25,6 +25,7 @@ import com.todoapp.domain.model.Task;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.RecurrencePatternRepository;
 import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("RecurrenceService Tests")
@@ -34,6 +35,8 @@ class RecurrenceServiceTest {
 
   @Mock private TaskRepository taskRepository;
 
+  @Mock private SyncChangeLog syncChangeLog;
+
   @InjectMocks private RecurrenceService recurrenceService;
 
   private User testUser;
@@ -0,0 +1,245 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.application.dto.TaskResponseDTO;
+import com.todoapp.application.mapper.TaskMapper;
+import com.todoapp.application.service.SyncService;
+import com.todoapp.application.service.TaskAccessResolver;
+import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.Comment;
+import com.todoapp.domain.model.SyncEntityType;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.CategoryRepository;
+import com.todoapp.domain.repository.CommentRepository;
+import com.todoapp.domain.repository.TagRepository;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+import com.todoapp.infrastructure.persistence.SyncChangeLog.SyncChange;
+import com.todoapp.infrastructure.persistence.SyncChangeLog.SyncState;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SyncService Tests")
+public class SyncServiceTest {
+
+  private static final Long USER_ID = 1L;
+
+  @Mock private SyncChangeLog changeLog;
+
+  @Mock private TaskRepository taskRepository;
+
+  @Mock private CategoryRepository categoryRepository;
+
+  @Mock private TagRepository tagRepository;
+
+  @Mock private CommentRepository commentRepository;
+
+  @Mock private TaskShareRepository taskShareRepository;
+
+  @Mock private TaskMapper taskMapper;
+
+  @Mock private TaskAccessResolver accessResolver;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private SyncService syncService;
+
+  @BeforeEach
+  public void setUp() {
+    syncService =
+        new SyncService(
+            changeLog,
+            taskRepository,
+            categoryRepository,
+            tagRepository,
+            commentRepository,
+            taskShareRepository,
+            taskMapper,
+            accessResolver,
+            objectMapper,
+            transactionManager);
+    ReflectionTestUtils.setField(syncService, "maxPageSize", 100);
+    ReflectionTestUtils.setField(syncService, "chunkSize", 2);
+  }
+
+  @Test
+  @DisplayName("Should stream changed entities and tombstones with the new token")
+  public void shouldStreamChanges() throws Exception {
+    when(changeLog.state(USER_ID)).thenReturn(new SyncState(3, 0));
+    when(changeLog.changesSince(USER_ID, 0, 2))
+        .thenReturn(
+            List.of(
+                new SyncChange(SyncEntityType.CATEGORY, 5L, 1, false),
+                new SyncChange(SyncEntityType.TASK, 10L, 2, false)));
+    when(changeLog.changesSince(USER_ID, 2, 2))
+        .thenReturn(List.of(new SyncChange(SyncEntityType.TAG, 6L, 3, true)));
+    when(categoryRepository.findAllById(List.of(5L))).thenReturn(List.of(category(5L, "Work")));
+    Task task = new Task();
+    task.setId(10L);
+    when(taskRepository.findByIdIn(List.of(10L))).thenReturn(List.of(task));
+    when(accessResolver.filterReadable(List.of(10L), USER_ID)).thenReturn(Set.of(10L));
+    TaskResponseDTO dto = new TaskResponseDTO();
+    dto.setId(10L);
+    dto.setDescription("Write report");
+    when(taskMapper.toResponseDTO(eq(task), any(LocalDateTime.class))).thenReturn(dto);
+    List<Object[]> subtaskCounts = List.<Object[]>of(new Object[] {10L, 2L, 1L});
+    when(taskRepository.countSubtasksByParentIds(Set.of(10L))).thenReturn(subtaskCounts);
+    when(taskMapper.toSubtaskProgress(subtaskCounts)).thenReturn(Map.of(10L, 50));
+
+    JsonNode response = sync(0, 500);
+
+    assertThat(response.get("reset").asBoolean()).isFalse();
+    assertThat(response.get("token").asLong()).isEqualTo(3);
+    assertThat(response.get("hasMore").asBoolean()).isFalse();
+    JsonNode changes = response.get("changes");
+    assertThat(changes).hasSize(3);
+    assertThat(changes.get(0).get("data").get("name").asText()).isEqualTo("Work");
+    assertThat(changes.get(1).get("data").get("description").asText()).isEqualTo("Write report");
+    assertThat(changes.get(1).get("data").get("subtaskProgress").asInt()).isEqualTo(50);
+    assertThat(changes.get(2).get("type").asText()).isEqualTo("TAG");
+    assertThat(changes.get(2).get("deleted").asBoolean()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should write a tombstone for an entity that is gone by the time it is read")
+  public void shouldTombstoneMissingEntity() throws Exception {
+    when(changeLog.state(USER_ID)).thenReturn(new SyncState(1, 0));
+    when(changeLog.changesSince(USER_ID, 0, 2))
+        .thenReturn(List.of(new SyncChange(SyncEntityType.TASK, 10L, 1, false)));
+    when(taskRepository.findByIdIn(List.of(10L))).thenReturn(List.of());
+
+    JsonNode change = sync(0, 500).get("changes").get(0);
+
+    assertThat(change.get("deleted").asBoolean()).isTrue();
+    assertThat(change.has("data")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should not write the comments of a task that is no longer shared with the user")
+  public void shouldTombstoneCommentsOfRevokedShare() throws Exception {
+    when(changeLog.state(USER_ID)).thenReturn(new SyncState(2, 0));
+    when(changeLog.changesSince(USER_ID, 0, 2))
+        .thenReturn(
+            List.of(
+                new SyncChange(SyncEntityType.COMMENT, 30L, 1, false),
+                new SyncChange(SyncEntityType.COMMENT, 31L, 2, false)));
+    Task revoked = new Task();
+    revoked.setId(10L);
+    Task shared = new Task();
+    shared.setId(11L);
+    when(commentRepository.findAllById(List.of(30L, 31L)))
+        .thenReturn(
+            List.of(
+                comment(30L, revoked, "Edited after the revoke"),
+                comment(31L, shared, "Still shared")));
+    when(accessResolver.filterReadable(List.of(10L, 11L), USER_ID)).thenReturn(Set.of(11L));
+
+    JsonNode changes = sync(0, 500).get("changes");
+
+    assertThat(changes.get(0).get("deleted").asBoolean()).isTrue();
+    assertThat(changes.get(0).has("data")).isFalse();
+    assertThat(changes.get(1).get("data").get("content").asText()).isEqualTo("Still shared");
+  }
+
+  @Test
+  @DisplayName("Should start over from a full snapshot when the token is older than the horizon")
+  public void shouldResetBehindHorizon() throws Exception {
+    when(changeLog.state(USER_ID)).thenReturn(new SyncState(9, 4));
+    when(changeLog.changesSince(eq(USER_ID), anyLong(), any(Integer.class))).thenReturn(List.of());
+
+    JsonNode response = sync(2, 500);
+
+    assertThat(response.get("reset").asBoolean()).isTrue();
+    verify(changeLog).changesSince(USER_ID, 0, 2);
+  }
+
+  @Test
+  @DisplayName("Should stop at the limit and report that more changes are waiting")
+  public void shouldStopAtLimit() throws Exception {
+    when(changeLog.state(USER_ID)).thenReturn(new SyncState(9, 0));
+    when(changeLog.changesSince(USER_ID, 4, 1))
+        .thenReturn(List.of(new SyncChange(SyncEntityType.TAG, 6L, 5, true)));
+
+    JsonNode response = sync(4, 1);
+
+    assertThat(response.get("changes")).hasSize(1);
+    assertThat(response.get("token").asLong()).isEqualTo(5);
+    assertThat(response.get("hasMore").asBoolean()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should read each chunk in its own transaction and write it after the commit")
+  public void shouldReadEachChunkInItsOwnTransaction() throws Exception {
+    when(changeLog.state(USER_ID)).thenReturn(new SyncState(3, 0));
+    when(changeLog.changesSince(USER_ID, 0, 2))
+        .thenReturn(
+            List.of(
+                new SyncChange(SyncEntityType.TAG, 6L, 1, true),
+                new SyncChange(SyncEntityType.TAG, 7L, 2, true)));
+    when(changeLog.changesSince(USER_ID, 2, 2))
+        .thenReturn(List.of(new SyncChange(SyncEntityType.TAG, 8L, 3, true)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    List<Integer> writtenAtCommit = new ArrayList<>();
+    doAnswer(invocation -> writtenAtCommit.add(out.size())).when(transactionManager).commit(any());
+
+    syncService.writeChanges(USER_ID, 0, 500, out);
+
+    // Nothing reaches the client while the first chunk's transaction is open
+    assertThat(writtenAtCommit).hasSize(2);
+    assertThat(writtenAtCommit.get(0)).isZero();
+    assertThat(writtenAtCommit.get(1)).isPositive();
+    assertThat(objectMapper.readTree(out.toByteArray()).get("changes")).hasSize(3);
+  }
+
+  private JsonNode sync(long since, int limit) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    syncService.writeChanges(USER_ID, since, limit, out);
+    return objectMapper.readTree(out.toByteArray());
+  }
+
+  private static Comment comment(Long id, Task task, String content) {
+    User author = new User();
+    author.setId(2L);
+    Comment comment = new Comment();
+    comment.setId(id);
+    comment.setTask(task);
+    comment.setAuthor(author);
+    comment.setContent(content);
+    return comment;
+  }
+
+  private static Category category(Long id, String name) {
+    Category category = new Category();
+    category.setId(id);
+    category.setName(name);
+    return category;
+  }
+}
@@ -0,0 +1,270 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.todoapp.application.service.TaskAccessResolver;
+import com.todoapp.domain.model.PermissionLevel;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.TaskRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskAccessResolver Tests")
+public class TaskAccessResolverTest {
+
+  @Mock private TaskRepository taskRepository;
+
+  @Mock private RedisTemplate<String, Object> redisTemplate;
+
+  @Mock private HashOperations<String, Object, Object> hashOperations;
+
+  @Mock private ValueOperations<String, Object> valueOperations;
+
+  private final String valid = "@" + (System.currentTimeMillis() + 60_000);
+
+  private TaskAccessResolver resolver;
+
+  @BeforeEach
+  public void setUp() {
+    resolver = new TaskAccessResolver(taskRepository, redisTemplate);
+    ReflectionTestUtils.setField(resolver, "cacheTtl", Duration.ofMinutes(15));
+    lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient()
+        .when(redisTemplate.getHashValueSerializer())
+        .thenAnswer(invocation -> RedisSerializer.string());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  @DisplayName("Should resolve owned, shared and foreign tasks with one query")
+  public void shouldResolveBatchWithOneQuery() {
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {10L, 1L, null});
+    rows.add(new Object[] {11L, 2L, PermissionLevel.EDIT});
+    rows.add(new Object[] {12L, 2L, null});
+    when(taskRepository.findAccessRows(List.of(10L, 11L, 12L, 13L), 1L)).thenReturn(rows);
+    when(hashOperations.multiGet(eq("task-access::1"), anyCollection()))
+        .thenReturn(Arrays.asList(null, null, null, null));
+
+    Map<Long, TaskAccessLevel> levels = resolver.accessLevels(List.of(10L, 11L, 12L, 13L), 1L);
+
+    assertThat(levels)
+        .containsEntry(10L, TaskAccessLevel.OWNER)
+        .containsEntry(11L, TaskAccessLevel.EDIT)
+        .containsEntry(12L, TaskAccessLevel.NONE)
+        .doesNotContainKey(13L);
+    verify(taskRepository, times(1)).findAccessRows(anyCollection(), anyLong());
+
+    List<String> args = writtenArgs("task-access::1");
+    assertThat(args.get(0)).isEqualTo("0");
+    assertThat(args.get(1)).isEqualTo(String.valueOf(Duration.ofMinutes(15).toMillis()));
+    assertThat(args.subList(2, args.size()))
+        .hasSize(6)
+        .contains("10", "11", "12")
+        .doesNotContain("13");
+    assertThat(args.subList(2, args.size()))
+        .filteredOn(arg -> arg.contains("@"))
+        .extracting(arg -> arg.substring(0, arg.indexOf('@')))
+        .containsExactlyInAnyOrder("OWNER", "EDIT", "NONE");
+    verify(redisTemplate, never()).expire(eq("task-access::1"), any(Duration.class));
+  }
+
+  @Test
+  @DisplayName("Should only query the database for tasks missing from Redis")
+  public void shouldUseRedisCacheBeforeDatabase() {
+    when(hashOperations.multiGet(eq("task-access::1"), anyCollection()))
+        .thenReturn(Arrays.asList("VIEW" + valid, null));
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {21L, 1L, null});
+    when(taskRepository.findAccessRows(List.of(21L), 1L)).thenReturn(rows);
+
+    Map<Long, TaskAccessLevel> levels = resolver.accessLevels(List.of(20L, 21L), 1L);
+
+    assertThat(levels)
+        .containsEntry(20L, TaskAccessLevel.VIEW)
+        .containsEntry(21L, TaskAccessLevel.OWNER);
+  }
+
+  @Test
+  @DisplayName("Should fall back to the database when Redis is unavailable")
+  public void shouldFallBackWhenRedisFails() {
+    when(hashOperations.multiGet(anyString(), anyCollection()))
+        .thenThrow(new IllegalStateException("Redis down"));
+    when(valueOperations.get(anyString())).thenThrow(new IllegalStateException("Redis down"));
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {30L, 2L, PermissionLevel.VIEW});
+    when(taskRepository.findAccessRows(List.of(30L), 1L)).thenReturn(rows);
+
+    assertThat(resolver.accessLevel(30L, 1L)).contains(TaskAccessLevel.VIEW);
+  }
+
+  @Test
+  @DisplayName("Should memoize access for the current request")
+  public void shouldMemoizeWithinRequest() {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+    when(hashOperations.multiGet(eq("task-access::1"), anyCollection()))
+        .thenReturn(Arrays.asList((Object) null));
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {40L, 2L, PermissionLevel.EDIT});
+    when(taskRepository.findAccessRows(List.of(40L), 1L)).thenReturn(rows);
+
+    assertThat(resolver.accessLevel(40L, 1L)).contains(TaskAccessLevel.EDIT);
+    assertThat(resolver.accessLevel(40L, 1L)).contains(TaskAccessLevel.EDIT);
+
+    verify(taskRepository, times(1)).findAccessRows(anyCollection(), anyLong());
+    verify(hashOperations, times(1)).multiGet(anyString(), anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should recognise owners of loaded tasks without any lookup")
+  public void shouldRecogniseOwnerWithoutLookup() {
+    User owner = new User();
+    owner.setId(1L);
+    Task task = new Task();
+    task.setId(50L);
+    task.setUser(owner);
+
+    assertThat(resolver.canEdit(task, 1L)).isTrue();
+    verify(taskRepository, never()).findAccessRows(anyCollection(), anyLong());
+    verify(redisTemplate, never()).opsForHash();
+  }
+
+  @Test
+  @DisplayName("Should filter a batch down to editable and owned tasks")
+  public void shouldFilterBatch() {
+    when(hashOperations.multiGet(eq("task-access::1"), anyCollection()))
+        .thenReturn(Arrays.asList("OWNER" + valid, "EDIT" + valid, "VIEW" + valid));
+
+    assertThat(resolver.filterEditable(List.of(60L, 61L, 62L), 1L)).isEqualTo(Set.of(60L, 61L));
+    assertThat(resolver.filterOwned(List.of(60L, 61L, 62L), 1L)).isEqualTo(Set.of(60L));
+    verify(taskRepository, never()).findAccessRows(anyCollection(), anyLong());
+  }
+
+  @Test
+  @DisplayName("Should evict the cached entry and the request memo on invalidation")
+  public void shouldInvalidateCachedAccess() {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+    when(hashOperations.multiGet(eq("task-access::2"), anyList()))
+        .thenReturn(Arrays.asList((Object) null));
+    List<Object[]> before = new ArrayList<>();
+    before.add(new Object[] {70L, 1L, null});
+    List<Object[]> after = new ArrayList<>();
+    after.add(new Object[] {70L, 1L, PermissionLevel.VIEW});
+    when(taskRepository.findAccessRows(List.of(70L), 2L)).thenReturn(before, after);
+
+    assertThat(resolver.accessLevel(70L, 2L)).contains(TaskAccessLevel.NONE);
+
+    resolver.invalidate(70L, 2L);
+
+    verify(valueOperations).increment("task-access-generation::2");
+    verify(hashOperations).delete("task-access::2", "70");
+    assertThat(resolver.accessLevel(70L, 2L)).isEqualTo(Optional.of(TaskAccessLevel.VIEW));
+  }
+
+  @Test
+  @DisplayName("Should write with the generation read before the database lookup")
+  public void shouldGuardWriteWithGeneration() {
+    when(hashOperations.multiGet(eq("task-access::3"), anyList()))
+        .thenReturn(Arrays.asList((Object) null));
+    when(valueOperations.get("task-access-generation::3")).thenReturn(4);
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {80L, 1L, PermissionLevel.VIEW});
+    when(taskRepository.findAccessRows(List.of(80L), 3L))
+        .thenAnswer(
+            invocation -> {
+              // A revoke commits while the lookup is running
+              resolver.invalidate(80L, 3L);
+              return rows;
+            });
+
+    resolver.accessLevel(80L, 3L);
+
+    // The script compares against the generation from before the bump and skips the write
+    assertThat(writtenArgs("task-access::3").get(0)).isEqualTo("4");
+    verify(valueOperations).increment("task-access-generation::3");
+  }
+
+  @Test
+  @DisplayName("Should treat expired and old-format entries as misses")
+  public void shouldIgnoreExpiredEntries() {
+    when(hashOperations.multiGet(eq("task-access::1"), anyCollection()))
+        .thenReturn(Arrays.asList("VIEW@" + (System.currentTimeMillis() - 1), "EDIT"));
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {90L, 2L, null});
+    rows.add(new Object[] {91L, 2L, null});
+    when(taskRepository.findAccessRows(List.of(90L, 91L), 1L)).thenReturn(rows);
+
+    assertThat(resolver.accessLevels(List.of(90L, 91L), 1L))
+        .containsEntry(90L, TaskAccessLevel.NONE)
+        .containsEntry(91L, TaskAccessLevel.NONE);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<String> writtenArgs(String key) {
+    ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+    verify(redisTemplate)
+        .execute(
+            any(RedisScript.class),
+            any(RedisSerializer.class),
+            any(RedisSerializer.class),
+            eq(List.of(key, key.replace("task-access::", "task-access-generation::"))),
+            args.capture());
+    return Arrays.stream(args.getValue())
+        .map(arg -> new String((byte[]) arg, StandardCharsets.UTF_8))
+        .toList();
+  }
+
+  @Test
+  @DisplayName("Should not touch Redis or the database for an empty batch")
+  public void shouldHandleEmptyBatch() {
+    assertThat(resolver.accessLevels(List.of(), 1L)).isEmpty();
+    verify(taskRepository, never()).findAccessRows(any(), any());
+    verify(redisTemplate, never()).opsForHash();
+  }
+}
@@ -0,0 +1,70 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.todoapp.application.dto.TaskDueFilter;
+import com.todoapp.application.dto.TaskDueFilter.DueRange;
+import com.todoapp.application.dto.TaskDueFilter.DueWindow;
+
+@DisplayName("TaskDueFilter Tests")
+public class TaskDueFilterTest {
+
+  private static final ZoneId SERVER = ZoneOffset.UTC;
+
+  // Wednesday evening in UTC, already Thursday morning in Tokyo
+  private static final Instant NOW = Instant.parse("2026-10-21T22:30:00Z");
+
+  @Test
+  @DisplayName("Should bound today by the caller's midnights")
+  public void shouldResolveTodayInCallerZone() {
+    DueRange range = filter(null, false, DueWindow.TODAY, "Asia/Tokyo").resolve(NOW, SERVER);
+
+    assertThat(range.from()).isEqualTo(LocalDateTime.of(2026, 10, 21, 15, 0));
+    assertThat(range.to()).isEqualTo(LocalDateTime.of(2026, 10, 22, 15, 0));
+  }
+
+  @Test
+  @DisplayName("Should bound this week from Monday to Monday across a DST change")
+  public void shouldResolveWeekAcrossDstChange() {
+    Instant sunday = Instant.parse("2026-11-01T12:00:00Z");
+
+    DueRange range =
+        filter(null, false, DueWindow.THIS_WEEK, "America/New_York").resolve(sunday, SERVER);
+
+    assertThat(range.from()).isEqualTo(LocalDateTime.of(2026, 10, 26, 4, 0));
+    assertThat(range.to()).isEqualTo(LocalDateTime.of(2026, 11, 2, 5, 0));
+  }
+
+  @Test
+  @DisplayName("Should end the overdue range at the request time and intersect it with the window")
+  public void shouldIntersectOverdueWithWindow() {
+    DueRange range = filter(null, true, DueWindow.THIS_WEEK, "Asia/Tokyo").resolve(NOW, SERVER);
+
+    assertThat(range.from()).isEqualTo(LocalDateTime.of(2026, 10, 18, 15, 0));
+    assertThat(range.to()).isEqualTo(LocalDateTime.of(2026, 10, 21, 22, 30));
+    assertThat(range.isEmpty()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should be empty when the explicit bound ends before the window starts")
+  public void shouldDetectEmptyRange() {
+    DueRange range =
+        filter(LocalDateTime.of(2026, 10, 1, 0, 0), false, DueWindow.TODAY, "UTC")
+            .resolve(NOW, SERVER);
+
+    assertThat(range.isEmpty()).isTrue();
+  }
+
+  private static TaskDueFilter filter(
+      LocalDateTime dueBefore, boolean overdue, DueWindow window, String zone) {
+    return new TaskDueFilter(null, dueBefore, overdue, window, ZoneId.of(zone));
+  }
+}
@@ -0,0 +1,89 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.todoapp.application.dto.CompactTaskPageDTO;
+import com.todoapp.application.dto.CompactTaskPageDTO.Reference;
+import com.todoapp.application.dto.TagDTO;
+import com.todoapp.application.dto.TaskResponseDTO;
+import com.todoapp.application.mapper.TaskMapper;
+
+@DisplayName("TaskMapper Tests")
+public class TaskMapperTest {
+
+  private final TaskMapper taskMapper = new TaskMapper();
+
+  @Test
+  @DisplayName("Should list each category and tag of a page once in the compact representation")
+  public void shouldDictionaryEncodePage() {
+    TaskResponseDTO first = task(1L, 7L, tag(3L, "urgent"), tag(4L, "home"));
+    TaskResponseDTO second = task(2L, 7L, tag(3L, "urgent"));
+
+    CompactTaskPageDTO page =
+        taskMapper.toCompactPage(new PageImpl<>(List.of(first, second), PageRequest.of(0, 2), 5));
+
+    assertThat(page.categories()).containsOnlyKeys(7L);
+    assertThat(page.categories().get(7L)).isEqualTo(new Reference("Work", "#FF0000"));
+    assertThat(page.tags()).containsOnlyKeys(3L, 4L);
+    assertThat(page.tasks())
+        .extracting(TaskResponseDTO::getTagIds)
+        .containsExactly(List.of(3L, 4L), List.of(3L));
+    assertThat(page.tasks())
+        .allSatisfy(
+            task -> {
+              assertThat(task.getCategoryId()).isEqualTo(7L);
+              assertThat(task.getCategoryName()).isNull();
+              assertThat(task.getTags()).isNull();
+            });
+    assertThat(page.totalElements()).isEqualTo(5);
+    assertThat(page.totalPages()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should leave tasks without category or tags unchanged")
+  public void shouldKeepTasksWithoutReferences() {
+    TaskResponseDTO plain = new TaskResponseDTO();
+    plain.setId(1L);
+
+    CompactTaskPageDTO page =
+        taskMapper.toCompactPage(new PageImpl<>(List.of(plain), PageRequest.of(0, 20), 1));
+
+    assertThat(page.categories()).isEmpty();
+    assertThat(page.tags()).isEmpty();
+    assertThat(page.tasks().get(0).getTagIds()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should turn grouped subtask counts into rounded completion percentages")
+  public void shouldComputeSubtaskProgressFromCounts() {
+    Map<Long, Integer> progress =
+        taskMapper.toSubtaskProgress(List.of(new Object[] {1L, 3L, 2L}, new Object[] {2L, 4L, 0L}));
+
+    assertThat(progress).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 67, 2L, 0));
+  }
+
+  private static TaskResponseDTO task(Long id, Long categoryId, TagDTO... tags) {
+    TaskResponseDTO task = new TaskResponseDTO();
+    task.setId(id);
+    task.setCategoryId(categoryId);
+    task.setCategoryName("Work");
+    task.setCategoryColor("#FF0000");
+    task.setTags(List.of(tags));
+    return task;
+  }
+
+  private static TagDTO tag(Long id, String name) {
+    TagDTO tag = new TagDTO();
+    tag.setId(id);
+    tag.setName(name);
+    return tag;
+  }
+}
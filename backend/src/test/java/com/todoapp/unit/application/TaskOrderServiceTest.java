@@ -0,0 +1,226 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.application.dto.TaskOrderPageDTO;
+import com.todoapp.application.dto.TaskResponseDTO;
+import com.todoapp.application.mapper.TaskMapper;
+import com.todoapp.application.service.TaskOrderService;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskRank;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+import com.todoapp.infrastructure.persistence.TaskPositionRebalancer;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ConflictException;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskOrderService Tests")
+public class TaskOrderServiceTest {
+
+  private static final Long USER_ID = 1L;
+
+  @Mock private TaskRepository taskRepository;
+
+  @Mock private TaskMapper taskMapper;
+
+  @Mock private TaskPositionRebalancer rebalancer;
+
+  @Mock private SyncChangeLog syncChangeLog;
+
+  private TaskOrderService orderService;
+
+  @BeforeEach
+  public void setUp() {
+    orderService = new TaskOrderService(taskRepository, taskMapper, rebalancer, syncChangeLog);
+    ReflectionTestUtils.setField(orderService, "maxPageSize", 2);
+    lenient().when(taskRepository.findById(anyLong())).thenReturn(Optional.of(new Task()));
+    lenient().when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(new TaskResponseDTO());
+    lenient()
+        .when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenAnswer(invocation -> new TaskResponseDTO());
+  }
+
+  @Test
+  @DisplayName("Should move a task to the midpoint of its neighbours with one update")
+  public void shouldMoveBetweenNeighbours() {
+    givenRows(row(10L, null, 0L), row(20L, null, 1000L), row(30L, null, 2000L));
+
+    orderService.moveTask(10L, 20L, 30L, USER_ID);
+
+    verify(taskRepository).updatePosition(eq(10L), eq(1500L), any());
+    verify(rebalancer, never()).requestRebalance(any(), any());
+    verify(rebalancer, never()).rebalance(any(), any());
+  }
+
+  @Test
+  @DisplayName("Should look up the following task when only the preceding one is given")
+  public void shouldMoveAfterTask() {
+    givenRows(row(10L, 5L, 0L), row(20L, 5L, 1000L));
+    when(taskRepository.findChildPositionsAfter(
+            eq(USER_ID), eq(5L), eq(1000L), eq(20L), eq(10L), any(Pageable.class)))
+        .thenReturn(List.of(1100L));
+
+    orderService.moveTask(10L, 20L, null, USER_ID);
+
+    verify(taskRepository).updatePosition(eq(10L), eq(1050L), any());
+  }
+
+  @Test
+  @DisplayName("Should move to the end of the list after the last task")
+  public void shouldMoveAfterLastTask() {
+    givenRows(row(10L, null, 0L), row(20L, null, 1000L));
+    when(taskRepository.findRootPositionsAfter(
+            eq(USER_ID), eq(1000L), eq(20L), eq(10L), any(Pageable.class)))
+        .thenReturn(List.of());
+
+    orderService.moveTask(10L, 20L, null, USER_ID);
+
+    verify(taskRepository).updatePosition(eq(10L), eq(1000L + TaskRank.GAP), any());
+  }
+
+  @Test
+  @DisplayName("Should move to the top of the list without reading the list")
+  public void shouldMoveToTop() {
+    givenRows(row(10L, null, 500L));
+
+    orderService.moveTask(10L, null, null, USER_ID);
+
+    ArgumentCaptor<Long> position = ArgumentCaptor.forClass(Long.class);
+    verify(taskRepository).updatePosition(eq(10L), position.capture(), any());
+    assertThat(position.getValue()).isNegative();
+  }
+
+  @Test
+  @DisplayName("Should queue the list for rebalancing when the gap gets small")
+  public void shouldQueueCrowdedList() {
+    givenRows(row(10L, null, 0L), row(20L, null, 1000L), row(30L, null, 1010L));
+
+    orderService.moveTask(10L, 20L, 30L, USER_ID);
+
+    verify(taskRepository).updatePosition(eq(10L), eq(1005L), any());
+    verify(rebalancer).requestRebalance(USER_ID, null);
+  }
+
+  @Test
+  @DisplayName("Should renumber the list first when the neighbours are adjacent")
+  public void shouldRebalanceAdjacentNeighbours() {
+    when(taskRepository.findOrderRows(any()))
+        .thenReturn(rows(row(10L, null, 0L), row(20L, null, 1000L), row(30L, null, 1001L)))
+        .thenReturn(rows(row(10L, null, 0L), row(20L, null, 65536L), row(30L, null, 131072L)));
+
+    orderService.moveTask(10L, 20L, 30L, USER_ID);
+
+    verify(rebalancer).rebalance(USER_ID, null);
+    verify(taskRepository).updatePosition(eq(10L), eq(98304L), any());
+  }
+
+  @Test
+  @DisplayName("Should reject neighbours that are no longer in the given order")
+  public void shouldRejectStaleOrder() {
+    givenRows(row(10L, null, 0L), row(20L, null, 2000L), row(30L, null, 1000L));
+
+    assertThatThrownBy(() -> orderService.moveTask(10L, 20L, 30L, USER_ID))
+        .isInstanceOf(ConflictException.class);
+    verify(taskRepository, never()).updatePosition(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should reject neighbours from another list")
+  public void shouldRejectNeighbourFromOtherList() {
+    givenRows(row(10L, null, 0L), row(20L, 5L, 1000L));
+
+    assertThatThrownBy(() -> orderService.moveTask(10L, 20L, null, USER_ID))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("not in the same list");
+  }
+
+  @Test
+  @DisplayName("Should only let the owner reorder a task")
+  public void shouldRejectNonOwner() {
+    givenRows(row(10L, null, 0L));
+
+    assertThatThrownBy(() -> orderService.moveTask(10L, null, null, 2L))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Should fail when the moved task does not exist")
+  public void shouldFailForMissingTask() {
+    givenRows();
+
+    assertThatThrownBy(() -> orderService.moveTask(10L, null, null, USER_ID))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  @Test
+  @DisplayName("Should page an ordered list by keyset cursor")
+  public void shouldPageOrderedList() {
+    when(taskRepository.findRootOrderPage(
+            eq(USER_ID), eq(Long.MIN_VALUE), eq(0L), any(Pageable.class)))
+        .thenReturn(List.of(task(1L, 100L), task(2L, 200L), task(3L, 300L)));
+
+    TaskOrderPageDTO first = orderService.getOrderedTasks(USER_ID, null, null, 50);
+
+    assertThat(first.tasks()).hasSize(2);
+    assertThat(first.nextCursor()).isNotNull();
+    // Subtask progress of the page from one grouped count, without the extra lookahead row
+    verify(taskRepository).countSubtasksByParentIds(List.of(1L, 2L));
+
+    when(taskRepository.findRootOrderPage(eq(USER_ID), eq(200L), eq(2L), any(Pageable.class)))
+        .thenReturn(List.of(task(3L, 300L)));
+    TaskOrderPageDTO second = orderService.getOrderedTasks(USER_ID, null, first.nextCursor(), 50);
+
+    assertThat(second.tasks()).hasSize(1);
+    assertThat(second.nextCursor()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should reject an invalid cursor")
+  public void shouldRejectInvalidCursor() {
+    assertThatThrownBy(() -> orderService.getOrderedTasks(USER_ID, null, "not-a-cursor", 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void givenRows(Object[]... rows) {
+    when(taskRepository.findOrderRows(any())).thenReturn(rows(rows));
+  }
+
+  private static List<Object[]> rows(Object[]... rows) {
+    return new ArrayList<>(List.of(rows));
+  }
+
+  private static Object[] row(Long id, Long parentId, Long position) {
+    return new Object[] {id, USER_ID, parentId, position};
+  }
+
+  private static Task task(Long id, Long position) {
+    Task task = new Task();
+    task.setId(id);
+    task.setPosition(position);
+    return task;
+  }
+}
@@ -2,34 +2,49 @@ package com.todoapp.unit.application;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import com.todoapp.application.dto.TaskCreateDTO;
+import com.todoapp.application.dto.TaskDueFilter;
+import com.todoapp.application.dto.TaskPatchDTO;
 import com.todoapp.application.dto.TaskResponseDTO;
 import com.todoapp.application.dto.TaskUpdateDTO;
 import com.todoapp.application.mapper.TaskMapper;
+import com.todoapp.application.service.TaskAccessResolver;
 import com.todoapp.application.service.TaskService;
 import com.todoapp.domain.model.Category;
 import com.todoapp.domain.model.PermissionLevel;
 import com.todoapp.domain.model.Priority;
 import com.todoapp.domain.model.Tag;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.TaskShare;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.CategoryRepository;
@@ -38,6 +53,9 @@ import com.todoapp.domain.repository.TagRepository;
 import com.todoapp.domain.repository.TaskRepository;
 import com.todoapp.domain.repository.TaskShareRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ConflictException;
+import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.todoapp.presentation.websocket.TaskWebSocketHandler;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +68,10 @@ class TaskServiceTest {
 
   @Mock private TaskShareRepository taskShareRepository;
 
+  // Real ownership logic; lookups for non-owners are stubbed per test
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
+  private TaskAccessResolver accessResolver;
+
   @Mock private CategoryRepository categoryRepository;
 
   @Mock private TagRepository tagRepository;
@@ -60,6 +82,8 @@ class TaskServiceTest {
 
   @Mock private TaskMapper taskMapper;
 
+  @Mock private SyncChangeLog syncChangeLog;
+
   @InjectMocks private TaskService taskService;
 
   private User testUser;
@@ -94,7 +118,7 @@ class TaskServiceTest {
   @Test
   @DisplayName("Should create task successfully")
   void shouldCreateTaskSuccessfully() {
-    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(userRepository.getReferenceById(1L)).thenReturn(testUser);
     when(taskMapper.toEntity(createDTO, testUser)).thenReturn(testTask);
     when(taskRepository.save(any(Task.class))).thenReturn(testTask);
     when(taskMapper.toResponseDTO(testTask)).thenReturn(responseDTO);
@@ -106,21 +130,26 @@ class TaskServiceTest {
     assertEquals(Priority.MEDIUM, result.getPriority());
     assertFalse(result.getIsCompleted());
 
-    verify(userRepository).findById(1L);
+    verify(userRepository).getReferenceById(1L);
+    verify(userRepository, never()).findById(any());
     verify(taskRepository).save(any(Task.class));
     verify(taskMapper).toResponseDTO(testTask);
   }
 
   @Test
-  @DisplayName("Should throw exception when user not found")
+  @DisplayName("Should reject a task for a user that does not exist when inserting it")
   void shouldThrowExceptionWhenUserNotFound() {
-    when(userRepository.findById(999L)).thenReturn(Optional.empty());
+    User missingUser = new User();
+    missingUser.setId(999L);
+    when(userRepository.getReferenceById(999L)).thenReturn(missingUser);
+    when(taskMapper.toEntity(createDTO, missingUser)).thenReturn(testTask);
+    when(taskRepository.save(any(Task.class)))
+        .thenThrow(new DataIntegrityViolationException("fk_tasks_user"));
 
     assertThrows(
-        RuntimeException.class, () -> taskService.createTask(createDTO, 999L), "User not found");
+        DataIntegrityViolationException.class, () -> taskService.createTask(createDTO, 999L));
 
-    verify(userRepository).findById(999L);
-    verify(taskRepository, never()).save(any(Task.class));
+    verify(userRepository, never()).findById(any());
   }
 
   @Test
@@ -148,7 +177,7 @@ class TaskServiceTest {
     Pageable pageable = PageRequest.of(0, 20);
 
     when(taskRepository.findByUserId(1L, pageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class)))
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
         .thenReturn(responseDTO)
         .thenReturn(
             new TaskResponseDTO() {
@@ -165,7 +194,7 @@ class TaskServiceTest {
     assertEquals(2, result.getContent().size());
 
     verify(taskRepository).findByUserId(1L, pageable);
-    verify(taskMapper, times(2)).toResponseDTO(any(Task.class));
+    verify(taskMapper, times(2)).toResponseDTO(any(Task.class), any(LocalDateTime.class));
   }
 
   @Test
@@ -192,7 +221,7 @@ class TaskServiceTest {
     Page<Task> taskPage = new PageImpl<>(Arrays.asList(testTask));
 
     when(taskRepository.findByUserId(1L, customPageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(testTask)).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(eq(testTask), any(LocalDateTime.class))).thenReturn(responseDTO);
 
     Page<TaskResponseDTO> result = taskService.getUserTasks(1L, customPageable);
 
@@ -201,61 +230,140 @@ class TaskServiceTest {
   }
 
   @Test
-  @DisplayName("Should toggle task completion from incomplete to complete")
-  void shouldToggleTaskCompletionFromIncompleteToComplete() {
-    testTask.setIsCompleted(false);
+  @DisplayName("Should list owned and shared tasks with the caller's access level")
+  void shouldListOwnedAndSharedTasksWithAccessLevel() {
+    Task sharedTask = new Task();
+    sharedTask.setId(2L);
+    sharedTask.setDescription("Shared task");
+    Page<Object[]> rows =
+        new PageImpl<>(
+            Arrays.asList(new Object[] {testTask, null}, new Object[] {sharedTask, "EDIT"}));
+
+    when(taskRepository.findAccessibleTasks(
+            1L, true, true, null, false, null, "%report%", PageRequest.of(0, 20)))
+        .thenReturn(rows);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenAnswer(invocation -> new TaskResponseDTO());
+
+    Page<TaskResponseDTO> result =
+        taskService.getAccessibleTasks(
+            1L, TaskService.ListingScope.ALL, null, " Report ", false, null, PageRequest.of(0, 20));
+
+    assertEquals(2, result.getContent().size());
+    assertEquals(TaskAccessLevel.OWNER, result.getContent().get(0).getAccessLevel());
+    assertEquals(TaskAccessLevel.EDIT, result.getContent().get(1).getAccessLevel());
+    verify(taskShareRepository, never()).findBySharedWithUserId(any());
+  }
+
+  @Test
+  @DisplayName("Should list shared tasks without loading shares one by one")
+  void shouldListSharedTasksInOneQuery() {
+    when(taskRepository.findAccessibleTasks(
+            1L, false, true, null, null, null, "%", PageRequest.of(0, 20)))
+        .thenReturn(new PageImpl<>(List.<Object[]>of(new Object[] {testTask, "VIEW"})));
+    when(taskMapper.toResponseDTO(eq(testTask), any(LocalDateTime.class))).thenReturn(responseDTO);
+
+    Page<TaskResponseDTO> result = taskService.getSharedTasksForUser(1L, PageRequest.of(0, 20));
+
+    assertEquals(1, result.getContent().size());
+    assertEquals(TaskAccessLevel.VIEW, result.getContent().get(0).getAccessLevel());
+    verify(taskShareRepository, never()).findBySharedWithUserId(any());
+  }
+
+  @Test
+  @DisplayName("Should set completion idempotently with a targeted update")
+  void shouldSetCompletionIdempotently() {
+    doReturn(Optional.of(TaskAccessLevel.OWNER)).when(accessResolver).accessLevel(1L, 1L);
+    when(taskRepository.updateCompletion(eq(1L), eq(true), any(), any())).thenReturn(1, 0);
     when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-    when(taskRepository.save(any(Task.class))).thenReturn(testTask);
     when(taskMapper.toResponseDTO(testTask)).thenReturn(responseDTO);
 
-    TaskResponseDTO result = taskService.toggleCompletion(1L, 1L);
+    taskService.setCompletion(1L, 1L, true);
+    taskService.setCompletion(1L, 1L, true);
 
-    assertNotNull(result);
-    verify(taskRepository).findById(1L);
-    verify(taskRepository).save(testTask);
-    verify(taskMapper).toResponseDTO(testTask);
+    verify(taskRepository, never()).save(any(Task.class));
+    // Only the call that changed the state is broadcast
+    verify(webSocketHandler, times(1)).sendTaskUpdateToUser(eq(1L), any());
   }
 
   @Test
-  @DisplayName("Should toggle task completion from complete to incomplete")
-  void shouldToggleTaskCompletionFromCompleteToIncomplete() {
-    testTask.setIsCompleted(true);
+  @DisplayName("Should reject an update based on a stale version with the current task")
+  void shouldRejectStaleUpdate() {
+    testTask.setVersion(4L);
+    responseDTO.setVersion(4L);
     when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-    when(taskRepository.save(any(Task.class))).thenReturn(testTask);
     when(taskMapper.toResponseDTO(testTask)).thenReturn(responseDTO);
+    TaskUpdateDTO updateDTO = new TaskUpdateDTO();
+    updateDTO.setDescription("Mine");
 
-    TaskResponseDTO result = taskService.toggleCompletion(1L, 1L);
+    ConflictException conflict =
+        assertThrows(ConflictException.class, () -> taskService.updateTask(1L, updateDTO, 1L, 3L));
 
-    assertNotNull(result);
-    verify(taskRepository).findById(1L);
-    verify(taskRepository).save(testTask);
-    verify(taskMapper).toResponseDTO(testTask);
+    assertSame(responseDTO, conflict.getCurrent());
+    assertEquals("Test task", testTask.getDescription());
+    verify(taskRepository, never()).save(any(Task.class));
   }
 
   @Test
-  @DisplayName("Should throw exception when toggling non-existent task")
-  void shouldThrowExceptionWhenTogglingNonExistentTask() {
-    when(taskRepository.findById(999L)).thenReturn(Optional.empty());
-
-    assertThrows(
-        RuntimeException.class, () -> taskService.toggleCompletion(999L, 1L), "Task not found");
+  @DisplayName("Should patch fields without loading the task first")
+  void shouldPatchWithTargetedUpdate() {
+    doReturn(Optional.of(TaskAccessLevel.EDIT)).when(accessResolver).accessLevel(1L, 2L);
+    TaskPatchDTO patchDTO = new TaskPatchDTO();
+    patchDTO.setPriority(Priority.HIGH);
+    when(taskRepository.patch(
+            eq(1L), isNull(), eq(Priority.HIGH), isNull(), eq(false), isNull(), eq(7L), any()))
+        .thenReturn(1);
+    when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+    when(taskMapper.toResponseDTO(testTask)).thenReturn(responseDTO);
 
-    verify(taskRepository).findById(999L);
+    assertSame(responseDTO, taskService.patchTask(1L, patchDTO, 2L, 7L));
     verify(taskRepository, never()).save(any(Task.class));
   }
 
   @Test
-  @DisplayName("Should throw exception when toggling task owned by different user")
-  void shouldThrowExceptionWhenTogglingTaskOwnedByDifferentUser() {
+  @DisplayName("Should report a conflict when a patch matches no version")
+  void shouldReportPatchConflict() {
+    doReturn(Optional.of(TaskAccessLevel.OWNER)).when(accessResolver).accessLevel(1L, 1L);
+    TaskPatchDTO patchDTO = new TaskPatchDTO();
+    patchDTO.setDescription("Mine");
+    when(taskRepository.patch(any(), any(), any(), any(), anyBoolean(), any(), any(), any()))
+        .thenReturn(0);
     when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+    when(taskMapper.toResponseDTO(testTask)).thenReturn(responseDTO);
+
+    assertThrows(ConflictException.class, () -> taskService.patchTask(1L, patchDTO, 1L, 3L));
+  }
+
+  @Test
+  @DisplayName("Should refuse patches from users without edit permission")
+  void shouldRefusePatchWithoutEditPermission() {
+    doReturn(Optional.of(TaskAccessLevel.VIEW)).when(accessResolver).accessLevel(1L, 2L);
 
     assertThrows(
-        RuntimeException.class,
-        () -> taskService.toggleCompletion(1L, 999L),
-        "User not authorized to modify task");
+        IllegalArgumentException.class,
+        () -> taskService.patchTask(1L, new TaskPatchDTO(), 2L, null));
+    verify(taskRepository, never())
+        .patch(any(), any(), any(), any(), anyBoolean(), any(), any(), any());
+  }
 
-    verify(taskRepository).findById(1L);
-    verify(taskRepository, never()).save(any(Task.class));
+  @Test
+  @DisplayName("Should throw exception when completing non-existent task")
+  void shouldThrowExceptionWhenCompletingNonExistentTask() {
+    doReturn(Optional.empty()).when(accessResolver).accessLevel(999L, 1L);
+
+    assertThrows(ResourceNotFoundException.class, () -> taskService.setCompletion(999L, 1L, true));
+
+    verify(taskRepository, never()).updateCompletion(any(), anyBoolean(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should throw exception when completing task without edit permission")
+  void shouldThrowExceptionWhenCompletingTaskWithoutEditPermission() {
+    doReturn(Optional.of(TaskAccessLevel.VIEW)).when(accessResolver).accessLevel(1L, 2L);
+
+    assertThrows(IllegalArgumentException.class, () -> taskService.setCompletion(1L, 2L, true));
+
+    verify(taskRepository, never()).updateCompletion(any(), anyBoolean(), any(), any());
   }
 
   @Test
@@ -367,7 +475,8 @@ class TaskServiceTest {
     Pageable pageable = PageRequest.of(0, 10);
 
     when(taskRepository.searchByUserIdAndDescription(1L, "buy", pageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     Page<TaskResponseDTO> result = taskService.searchTasks(1L, "buy", null, pageable);
 
@@ -393,7 +502,8 @@ class TaskServiceTest {
 
     when(taskRepository.searchByUserIdAndDescriptionAndIsCompleted(1L, "buy", true, pageable))
         .thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     Page<TaskResponseDTO> result = taskService.searchTasks(1L, "buy", true, pageable);
 
@@ -417,7 +527,8 @@ class TaskServiceTest {
     Pageable pageable = PageRequest.of(0, 10);
 
     when(taskRepository.findByUserIdAndIsCompleted(1L, true, pageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     Page<TaskResponseDTO> result = taskService.searchTasks(1L, null, true, pageable);
 
@@ -434,7 +545,8 @@ class TaskServiceTest {
     Pageable pageable = PageRequest.of(0, 10);
 
     when(taskRepository.findByUserId(1L, pageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     Page<TaskResponseDTO> result = taskService.searchTasks(1L, null, null, pageable);
 
@@ -451,7 +563,8 @@ class TaskServiceTest {
     Pageable pageable = PageRequest.of(0, 10);
 
     when(taskRepository.searchByUserIdAndDescription(1L, "test", pageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     taskService.searchTasks(1L, "  test  ", null, pageable);
 
@@ -466,7 +579,8 @@ class TaskServiceTest {
     Pageable pageable = PageRequest.of(0, 10);
 
     when(taskRepository.findByUserId(1L, pageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     taskService.searchTasks(1L, "   ", null, pageable);
 
@@ -495,6 +609,44 @@ class TaskServiceTest {
   // User Story 5: Priority and Due Date Service Tests
   // ========================================
 
+  @Test
+  @DisplayName("Should list overdue tasks in a due date range judged by one clock")
+  void shouldListOverdueTasksByDueDate() {
+    LocalDateTime dueAfter = LocalDateTime.now().minusDays(7);
+    TaskDueFilter filter = new TaskDueFilter(dueAfter, null, true, null, ZoneId.of("UTC"));
+    ArgumentCaptor<LocalDateTime> before = ArgumentCaptor.forClass(LocalDateTime.class);
+    ArgumentCaptor<LocalDateTime> mappedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+    when(taskRepository.findOpenDueBetween(
+            eq(1L),
+            eq(dueAfter),
+            before.capture(),
+            isNull(),
+            eq("%report%"),
+            eq(PageRequest.of(0, 20))))
+        .thenReturn(new PageImpl<>(List.of(testTask)));
+    when(taskMapper.toResponseDTO(eq(testTask), mappedAt.capture())).thenReturn(responseDTO);
+
+    Page<TaskResponseDTO> result =
+        taskService.getTasksByDueDate(
+            1L, filter, " Report ", null, PageRequest.of(0, 20, Sort.by("createdAt")));
+
+    assertEquals(1, result.getTotalElements());
+    assertEquals(before.getValue(), mappedAt.getValue());
+  }
+
+  @Test
+  @DisplayName("Should reject a due date range that ends before it starts")
+  void shouldRejectInvertedDueDateRange() {
+    LocalDateTime dueBefore = LocalDateTime.now();
+    TaskDueFilter filter =
+        new TaskDueFilter(dueBefore.plusDays(1), dueBefore, false, null, ZoneId.of("UTC"));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> taskService.getTasksByDueDate(1L, filter, null, null, PageRequest.of(0, 20)));
+    verifyNoInteractions(taskRepository);
+  }
+
   @Test
   @DisplayName("Should sort tasks by priority (HIGH, MEDIUM, LOW)")
   void shouldSortTasksByPriority() {
@@ -527,7 +679,8 @@ class TaskServiceTest {
         PageRequest.of(0, 10, org.springframework.data.domain.Sort.by("priority").descending());
 
     when(taskRepository.findByUserId(1L, pageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     Page<TaskResponseDTO> result = taskService.getUserTasks(1L, pageable);
 
@@ -567,7 +720,8 @@ class TaskServiceTest {
         PageRequest.of(0, 10, org.springframework.data.domain.Sort.by("dueDate").ascending());
 
     when(taskRepository.findByUserId(1L, pageable)).thenReturn(taskPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     Page<TaskResponseDTO> result = taskService.getUserTasks(1L, pageable);
 
@@ -599,7 +753,7 @@ class TaskServiceTest {
     responseDTO.setPriority(Priority.HIGH);
     responseDTO.setDueDate(dueDate);
 
-    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(userRepository.getReferenceById(1L)).thenReturn(testUser);
     when(taskMapper.toEntity(createDTO, testUser)).thenReturn(task);
     when(taskRepository.save(any(Task.class))).thenReturn(task);
     when(taskMapper.toResponseDTO(task)).thenReturn(responseDTO);
@@ -611,7 +765,8 @@ class TaskServiceTest {
     assertEquals(Priority.HIGH, result.getPriority());
     assertEquals(dueDate, result.getDueDate());
 
-    verify(userRepository).findById(1L);
+    verify(userRepository).getReferenceById(1L);
+    verify(userRepository, never()).findById(any());
     verify(taskRepository).save(any(Task.class));
     verify(taskMapper).toResponseDTO(task);
   }
@@ -630,7 +785,7 @@ class TaskServiceTest {
 
     assertNotNull(result);
     verify(taskRepository).findById(1L);
-    verify(taskShareRepository, never()).findByTaskIdAndSharedWithUserId(anyLong(), anyLong());
+    verify(accessResolver, never()).accessLevel(anyLong(), anyLong());
   }
 
   @Test
@@ -646,15 +801,16 @@ class TaskServiceTest {
     taskShare.setPermissionLevel(PermissionLevel.VIEW);
 
     when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-    when(taskShareRepository.findByTaskIdAndSharedWithUserId(1L, 2L))
-        .thenReturn(Optional.of(taskShare));
+    doReturn(Map.of(1L, TaskAccessLevel.fromPermission(taskShare.getPermissionLevel())))
+        .when(accessResolver)
+        .accessLevels(List.of(1L), 2L);
     when(taskMapper.toResponseDTO(testTask)).thenReturn(responseDTO);
 
     TaskResponseDTO result = taskService.getTaskById(1L, 2L);
 
     assertNotNull(result);
     verify(taskRepository).findById(1L);
-    verify(taskShareRepository).findByTaskIdAndSharedWithUserId(1L, 2L);
+    verify(accessResolver).accessLevels(List.of(1L), 2L);
   }
 
   @Test
@@ -673,8 +829,9 @@ class TaskServiceTest {
     updateDTO.setDescription("Updated by shared user");
 
     when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-    when(taskShareRepository.findByTaskIdAndSharedWithUserId(1L, 2L))
-        .thenReturn(Optional.of(taskShare));
+    doReturn(Map.of(1L, TaskAccessLevel.fromPermission(taskShare.getPermissionLevel())))
+        .when(accessResolver)
+        .accessLevels(List.of(1L), 2L);
     when(taskRepository.save(any(Task.class))).thenReturn(testTask);
     when(taskMapper.toResponseDTO(testTask)).thenReturn(responseDTO);
 
@@ -682,7 +839,7 @@ class TaskServiceTest {
 
     assertNotNull(result);
     verify(taskRepository).findById(1L);
-    verify(taskShareRepository).findByTaskIdAndSharedWithUserId(1L, 2L);
+    verify(accessResolver).accessLevels(List.of(1L), 2L);
     verify(taskRepository).save(any(Task.class));
   }
 
@@ -702,13 +859,14 @@ class TaskServiceTest {
     updateDTO.setDescription("Attempt to update");
 
     when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-    when(taskShareRepository.findByTaskIdAndSharedWithUserId(1L, 2L))
-        .thenReturn(Optional.of(taskShare));
+    doReturn(Map.of(1L, TaskAccessLevel.fromPermission(taskShare.getPermissionLevel())))
+        .when(accessResolver)
+        .accessLevels(List.of(1L), 2L);
 
     assertThrows(IllegalArgumentException.class, () -> taskService.updateTask(1L, updateDTO, 2L));
 
     verify(taskRepository).findById(1L);
-    verify(taskShareRepository).findByTaskIdAndSharedWithUserId(1L, 2L);
+    verify(accessResolver).accessLevels(List.of(1L), 2L);
     verify(taskRepository, never()).save(any(Task.class));
   }
 
@@ -719,12 +877,12 @@ class TaskServiceTest {
     unauthorizedUser.setId(3L);
 
     when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-    when(taskShareRepository.findByTaskIdAndSharedWithUserId(1L, 3L)).thenReturn(Optional.empty());
+    doReturn(Map.of(1L, TaskAccessLevel.NONE)).when(accessResolver).accessLevels(List.of(1L), 3L);
 
     assertThrows(IllegalArgumentException.class, () -> taskService.getTaskById(1L, 3L));
 
     verify(taskRepository).findById(1L);
-    verify(taskShareRepository).findByTaskIdAndSharedWithUserId(1L, 3L);
+    verify(accessResolver).accessLevels(List.of(1L), 3L);
   }
 
   @Test
@@ -795,7 +953,8 @@ class TaskServiceTest {
     Page<Task> ownedPage = new PageImpl<>(Arrays.asList(ownedTask));
 
     when(taskRepository.findByUserId(2L, pageable)).thenReturn(ownedPage);
-    when(taskMapper.toResponseDTO(any(Task.class))).thenReturn(responseDTO);
+    when(taskMapper.toResponseDTO(any(Task.class), any(LocalDateTime.class)))
+        .thenReturn(responseDTO);
 
     Page<TaskResponseDTO> result = taskService.getUserTasks(2L, pageable);
 
@@ -815,9 +974,11 @@ class TaskServiceTest {
     Task task3 =
         Task.builder().id(3L).description("Task 3").user(testUser).isCompleted(false).build();
 
-    when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
-    when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
-    when(taskRepository.findById(3L)).thenReturn(Optional.of(task3));
+    doReturn(
+            Map.of(1L, TaskAccessLevel.OWNER, 2L, TaskAccessLevel.OWNER, 3L, TaskAccessLevel.OWNER))
+        .when(accessResolver)
+        .accessLevels(taskIds, 1L);
+    when(taskRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(task1, task2, task3));
 
     taskService.batchComplete(taskIds, 1L);
 
@@ -838,8 +999,10 @@ class TaskServiceTest {
     Task task2 =
         Task.builder().id(2L).description("Task 2").user(otherUser).isCompleted(false).build();
 
-    when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
-    when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
+    doReturn(Map.of(1L, TaskAccessLevel.OWNER, 2L, TaskAccessLevel.NONE))
+        .when(accessResolver)
+        .accessLevels(taskIds, 1L);
+    when(taskRepository.findAllById(Set.of(1L))).thenReturn(List.of(task1));
 
     taskService.batchComplete(taskIds, 1L);
 
@@ -855,7 +1018,7 @@ class TaskServiceTest {
 
     taskService.batchComplete(taskIds, 1L);
 
-    verify(taskRepository, never()).findById(anyLong());
+    verify(taskRepository, never()).findAllById(any());
     verify(taskRepository, never()).save(any(Task.class));
   }
 
@@ -868,15 +1031,38 @@ class TaskServiceTest {
     Task task2 = Task.builder().id(2L).description("Task 2").user(testUser).build();
     Task task3 = Task.builder().id(3L).description("Task 3").user(testUser).build();
 
-    when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
-    when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
-    when(taskRepository.findById(3L)).thenReturn(Optional.of(task3));
+    doReturn(
+            Map.of(1L, TaskAccessLevel.OWNER, 2L, TaskAccessLevel.OWNER, 3L, TaskAccessLevel.OWNER))
+        .when(accessResolver)
+        .accessLevels(taskIds, 1L);
+    when(taskRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(task1, task2, task3));
 
     taskService.batchDelete(taskIds, 1L);
 
     verify(taskRepository, times(3)).delete(any(Task.class));
   }
 
+  @Test
+  @DisplayName("Should log sync tombstones for deleted tasks and their subtasks")
+  void shouldLogTombstonesForBatchDelete() {
+    List<Long> taskIds = Arrays.asList(1L, 2L);
+
+    Task task1 = Task.builder().id(1L).description("Task 1").user(testUser).build();
+    Task task2 = Task.builder().id(2L).description("Task 2").user(testUser).build();
+    doReturn(Map.of(1L, TaskAccessLevel.OWNER, 2L, TaskAccessLevel.OWNER))
+        .when(accessResolver)
+        .accessLevels(taskIds, 1L);
+    when(taskRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(task1, task2));
+    // The subtree comes from one recursive query, not from the subtask collections
+    when(taskRepository.findSubtreeOwners(List.of(1L, 2L)))
+        .thenReturn(List.of(new Object[] {1L, 1L}, new Object[] {2L, 1L}, new Object[] {3L, 2L}));
+
+    taskService.batchDelete(taskIds, 1L);
+
+    verify(syncChangeLog).tasksDeleted(List.of(1L, 2L), 1L);
+    verify(syncChangeLog).tasksDeleted(List.of(3L), 2L);
+  }
+
   @Test
   @DisplayName("Should skip tasks user doesn't own in batch delete")
   void shouldSkipTasksUserDoesNotOwnInBatchDelete() {
@@ -886,8 +1072,11 @@ class TaskServiceTest {
     Task task1 = Task.builder().id(1L).description("Task 1").user(testUser).build();
     Task task2 = Task.builder().id(2L).description("Task 2").user(otherUser).build();
 
-    when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
-    when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
+    // An EDIT share is not enough to delete
+    doReturn(Map.of(1L, TaskAccessLevel.OWNER, 2L, TaskAccessLevel.EDIT))
+        .when(accessResolver)
+        .accessLevels(taskIds, 1L);
+    when(taskRepository.findAllById(Set.of(1L))).thenReturn(List.of(task1));
 
     taskService.batchDelete(taskIds, 1L);
 
@@ -902,7 +1091,7 @@ class TaskServiceTest {
 
     taskService.batchDelete(taskIds, 1L);
 
-    verify(taskRepository, never()).findById(anyLong());
+    verify(taskRepository, never()).findAllById(any());
     verify(taskRepository, never()).delete(any(Task.class));
   }
 
@@ -916,8 +1105,10 @@ class TaskServiceTest {
 
     Category category = Category.builder().id(5L).name("Work").user(testUser).build();
 
-    when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
-    when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
+    doReturn(Map.of(1L, TaskAccessLevel.OWNER, 2L, TaskAccessLevel.OWNER))
+        .when(accessResolver)
+        .accessLevels(taskIds, 1L);
+    when(taskRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(task1, task2));
     when(categoryRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.of(category));
 
     taskService.batchUpdateCategory(taskIds, 5L, 1L);
@@ -939,8 +1130,10 @@ class TaskServiceTest {
     Tag tag2 = Tag.builder().id(20L).name("Tag 2").user(testUser).build();
     List<Tag> tags = Arrays.asList(tag1, tag2);
 
-    when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
-    when(taskRepository.findById(2L)).thenReturn(Optional.of(task2));
+    doReturn(Map.of(1L, TaskAccessLevel.OWNER, 2L, TaskAccessLevel.OWNER))
+        .when(accessResolver)
+        .accessLevels(taskIds, 1L);
+    when(taskRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(task1, task2));
     when(tagRepository.findByIdInAndUserId(tagIds, 1L)).thenReturn(tags);
 
     taskService.batchUpdateTags(taskIds, tagIds, 1L);
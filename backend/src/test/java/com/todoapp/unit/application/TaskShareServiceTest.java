@@ -2,30 +2,47 @@ package com.todoapp.unit.application;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.todoapp.application.dto.BulkShareDTO;
+import com.todoapp.application.dto.BulkShareResultDTO;
 import com.todoapp.application.dto.TaskShareDTO;
 import com.todoapp.application.service.NotificationService;
+import com.todoapp.application.service.TaskAccessResolver;
 import com.todoapp.application.service.TaskShareService;
+import com.todoapp.domain.model.NotificationType;
 import com.todoapp.domain.model.PermissionLevel;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.TaskShare;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.TaskRepository;
 import com.todoapp.domain.repository.TaskShareRepository;
 import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
 import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +56,12 @@ public class TaskShareServiceTest {
 
   @Mock private NotificationService notificationService;
 
+  // Real ownership logic; lookups for non-owners are stubbed per test
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
+  private TaskAccessResolver accessResolver;
+
+  @Mock private SyncChangeLog syncChangeLog;
+
   @InjectMocks private TaskShareService taskShareService;
 
   private User owner;
@@ -68,6 +91,130 @@ public class TaskShareServiceTest {
     taskShare.setSharedByUser(owner);
     taskShare.setPermissionLevel(PermissionLevel.VIEW);
     taskShare.setSharedAt(LocalDateTime.now());
+
+    lenient().doNothing().when(accessResolver).invalidate(anyLong(), anyLong());
+    ReflectionTestUtils.setField(taskShareService, "bulkMaxTasks", 5000);
+    ReflectionTestUtils.setField(taskShareService, "bulkMaxUsers", 100);
+  }
+
+  @Test
+  @DisplayName("Should bulk share tasks with one digest notification per recipient")
+  public void shouldBulkShareWithOneNotificationPerRecipient() {
+    User third = new User();
+    third.setId(3L);
+    third.setEmail("third@example.com");
+    Set<Long> taskIds = new LinkedHashSet<>(List.of(10L, 11L, 12L));
+    Set<Long> userIds = new LinkedHashSet<>(List.of(2L, 3L));
+
+    when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+    when(userRepository.findAllById(userIds)).thenReturn(List.of(sharedWith, third));
+    doReturn(
+            Map.of(
+                10L, TaskAccessLevel.OWNER,
+                11L, TaskAccessLevel.OWNER,
+                12L, TaskAccessLevel.OWNER,
+                13L, TaskAccessLevel.VIEW))
+        .when(accessResolver)
+        .accessLevels(Set.of(10L, 11L, 12L, 13L), 1L);
+    // User 2 already has one of the tasks; user 3 has all of them
+    when(taskShareRepository.findSharePairs(taskIds, userIds))
+        .thenReturn(
+            List.of(
+                new Object[] {10L, 2L},
+                new Object[] {10L, 3L},
+                new Object[] {11L, 3L},
+                new Object[] {12L, 3L}));
+    when(taskShareRepository.updatePermissions(taskIds, userIds, PermissionLevel.EDIT))
+        .thenReturn(1);
+    when(taskShareRepository.insertMissingShares(
+            eq(taskIds), eq(userIds), eq(1L), eq(PermissionLevel.EDIT), any(LocalDateTime.class)))
+        .thenReturn(2);
+    doNothing().when(accessResolver).invalidate(taskIds, userIds);
+
+    BulkShareDTO request =
+        BulkShareDTO.builder()
+            .taskIds(List.of(10L, 11L, 12L, 13L))
+            .userIds(List.of(2L, 3L))
+            .permissionLevel(PermissionLevel.EDIT)
+            .build();
+    BulkShareResultDTO result = taskShareService.bulkShare(request, 1L);
+
+    assertEquals(3, result.getTaskCount());
+    assertEquals(2, result.getUserCount());
+    assertEquals(2, result.getSharesCreated());
+    assertEquals(1, result.getSharesUpdated());
+    ArgumentCaptor<Function<User, String>> messageFor = ArgumentCaptor.forClass(Function.class);
+    verify(notificationService)
+        .createNotifications(
+            eq(List.of(sharedWith)),
+            eq(NotificationType.TASK_SHARED),
+            messageFor.capture(),
+            isNull());
+    assertEquals(
+        "2 tasks have been shared with you by owner@example.com with EDIT permission",
+        messageFor.getValue().apply(sharedWith));
+    verify(accessResolver, times(1)).invalidate(taskIds, userIds);
+    verify(taskShareRepository, never()).save(any(TaskShare.class));
+  }
+
+  @Test
+  @DisplayName("Should expand a category and its subtrees when bulk sharing")
+  public void shouldExpandCategoryAndSubtasksWhenBulkSharing() {
+    when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+    when(userRepository.findAllById(Set.of(2L))).thenReturn(List.of(sharedWith));
+    when(taskRepository.findIdsByUserIdAndCategoryId(1L, 7L)).thenReturn(List.of(20L));
+    when(taskRepository.findChildIds(1L, List.of(20L))).thenReturn(List.of(21L, 22L));
+    when(taskRepository.findChildIds(1L, List.of(21L, 22L))).thenReturn(List.of(23L));
+    when(taskRepository.findChildIds(1L, List.of(23L))).thenReturn(List.of());
+    when(taskShareRepository.insertMissingShares(
+            eq(Set.of(20L, 21L, 22L, 23L)),
+            eq(Set.of(2L)),
+            eq(1L),
+            eq(PermissionLevel.VIEW),
+            any(LocalDateTime.class)))
+        .thenReturn(4);
+    lenient().doNothing().when(accessResolver).invalidate(anySet(), anySet());
+
+    BulkShareDTO request =
+        BulkShareDTO.builder()
+            .categoryId(7L)
+            .includeSubtasks(true)
+            .userIds(List.of(2L))
+            .permissionLevel(PermissionLevel.VIEW)
+            .build();
+    BulkShareResultDTO result = taskShareService.bulkShare(request, 1L);
+
+    assertEquals(4, result.getTaskCount());
+    assertEquals(4, result.getSharesCreated());
+    verify(notificationService, times(1))
+        .createNotifications(
+            eq(List.of(sharedWith)), eq(NotificationType.TASK_SHARED), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should reject bulk share that includes the owner")
+  public void shouldRejectBulkShareWithSelf() {
+    when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+
+    BulkShareDTO request =
+        BulkShareDTO.builder()
+            .taskIds(List.of(1L))
+            .userIds(List.of(1L, 2L))
+            .permissionLevel(PermissionLevel.VIEW)
+            .build();
+
+    assertThrows(IllegalArgumentException.class, () -> taskShareService.bulkShare(request, 1L));
+    verify(taskShareRepository, never()).insertMissingShares(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should reject bulk share without tasks or category")
+  public void shouldRejectBulkShareWithoutSelection() {
+    BulkShareDTO request =
+        BulkShareDTO.builder().userIds(List.of(2L)).permissionLevel(PermissionLevel.VIEW).build();
+
+    assertThrows(IllegalArgumentException.class, () -> taskShareService.bulkShare(request, 1L));
+    verify(userRepository, never()).findAllById(any());
   }
 
   @Test
@@ -89,6 +236,7 @@ public class TaskShareServiceTest {
     assertEquals(2L, result.getSharedWithUserId());
     assertEquals(PermissionLevel.VIEW, result.getPermissionLevel());
     verify(taskShareRepository, times(1)).save(any(TaskShare.class));
+    verify(accessResolver).invalidate(1L, 2L);
   }
 
   @Test
@@ -222,6 +370,7 @@ public class TaskShareServiceTest {
     assertNotNull(result);
     assertEquals(PermissionLevel.EDIT, result.getPermissionLevel());
     verify(taskShareRepository, times(1)).save(any(TaskShare.class));
+    verify(accessResolver).invalidate(1L, 2L);
   }
 
   @Test
@@ -234,6 +383,7 @@ public class TaskShareServiceTest {
     taskShareService.revokeShare(1L, 2L, 1L);
 
     verify(taskShareRepository, times(1)).delete(taskShare);
+    verify(accessResolver).invalidate(1L, 2L);
   }
 
   @Test
@@ -271,9 +421,10 @@ public class TaskShareServiceTest {
     share2.setSharedByUser(owner);
     share2.setPermissionLevel(PermissionLevel.EDIT);
 
+    doReturn(Optional.of(TaskAccessLevel.OWNER)).when(accessResolver).accessLevel(1L, 1L);
     when(taskShareRepository.findByTaskId(1L)).thenReturn(List.of(taskShare, share2));
 
-    List<TaskShareDTO> shares = taskShareService.getTaskShares(1L);
+    List<TaskShareDTO> shares = taskShareService.getTaskShares(1L, 1L);
 
     assertNotNull(shares);
     assertEquals(2, shares.size());
@@ -292,4 +443,12 @@ public class TaskShareServiceTest {
     assertEquals(1L, shares.get(0).getTaskId());
     verify(taskShareRepository, times(1)).findBySharedWithUserId(2L);
   }
+
+  @Test
+  @DisplayName("Should return the users connected through shares without the user")
+  public void shouldGetCollaboratorIds() {
+    when(taskShareRepository.findConnectedUserIds(2L)).thenReturn(List.of(1L, 2L, 3L));
+
+    assertEquals(Set.of(1L, 3L), taskShareService.getCollaboratorIds(2L));
+  }
 }
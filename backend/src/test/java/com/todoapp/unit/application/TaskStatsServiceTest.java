@@ -0,0 +1,113 @@
+package com.todoapp.unit.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.application.dto.TaskStatsDTO;
+import com.todoapp.application.dto.TaskStatsDTO.CategoryStats;
+import com.todoapp.application.dto.TaskStatsDTO.DailyCompletions;
+import com.todoapp.application.service.TaskStatsService;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.infrastructure.persistence.TaskStatsStore;
+import com.todoapp.infrastructure.persistence.TaskStatsStore.StoredStats;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskStatsService Tests")
+public class TaskStatsServiceTest {
+
+  private static final Long USER_ID = 1L;
+
+  @Mock private TaskStatsStore taskStatsStore;
+
+  @InjectMocks private TaskStatsService taskStatsService;
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(taskStatsService, "historyDaysMax", 365);
+  }
+
+  @Test
+  @DisplayName("Should combine the stored counters into the dashboard numbers")
+  public void shouldBuildStats() {
+    LocalDate today = LocalDate.now();
+    CategoryStats work = new CategoryStats(5L, "Work", "#FF0000", 4, 1);
+    when(taskStatsStore.find(eq(USER_ID), any(LocalDateTime.class), eq(today.minusDays(2))))
+        .thenReturn(
+            Optional.of(
+                new StoredStats(
+                    10,
+                    4,
+                    3,
+                    2,
+                    1,
+                    2,
+                    List.of(work),
+                    List.of(new DailyCompletions(today.minusDays(2), 3)))));
+
+    TaskStatsDTO stats = taskStatsService.getStats(USER_ID, 3);
+
+    assertThat(stats.total()).isEqualTo(10);
+    assertThat(stats.completed()).isEqualTo(4);
+    assertThat(stats.open()).isEqualTo(6);
+    assertThat(stats.overdue()).isEqualTo(2);
+    assertThat(stats.openByPriority())
+        .containsExactly(
+            Map.entry(Priority.LOW, 1L),
+            Map.entry(Priority.MEDIUM, 2L),
+            Map.entry(Priority.HIGH, 3L));
+    assertThat(stats.byCategory()).containsExactly(work);
+    assertThat(stats.completionHistory())
+        .containsExactly(
+            new DailyCompletions(today.minusDays(2), 3),
+            new DailyCompletions(today.minusDays(1), 0),
+            new DailyCompletions(today, 0));
+  }
+
+  @Test
+  @DisplayName("Should return zeros for a user who never had a task")
+  public void shouldReturnZerosWithoutCounters() {
+    when(taskStatsStore.find(eq(USER_ID), any(LocalDateTime.class), any(LocalDate.class)))
+        .thenReturn(Optional.empty());
+
+    TaskStatsDTO stats = taskStatsService.getStats(USER_ID, 1);
+
+    assertThat(stats.total()).isZero();
+    assertThat(stats.openByPriority())
+        .containsOnlyKeys(Priority.values())
+        .allSatisfy((priority, count) -> assertThat(count).isZero());
+    assertThat(stats.byCategory()).isEmpty();
+    assertThat(stats.completionHistory())
+        .containsExactly(new DailyCompletions(stats.generatedAt().toLocalDate(), 0));
+    verify(taskStatsStore).find(eq(USER_ID), eq(stats.generatedAt()), any(LocalDate.class));
+  }
+
+  @Test
+  @DisplayName("Should reject a history longer than allowed")
+  public void shouldRejectTooManyDays() {
+    assertThatThrownBy(() -> taskStatsService.getStats(USER_ID, 366))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("between 1 and 365");
+
+    verifyNoInteractions(taskStatsStore);
+  }
+}
@@ -4,32 +4,44 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.todoapp.application.dto.TimeEntryDTO;
 import com.todoapp.application.mapper.TimeEntryMapper;
+import com.todoapp.application.service.TaskAccessResolver;
 import com.todoapp.application.service.TimeTrackingService;
 import com.todoapp.domain.model.EntryType;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskAccessLevel;
 import com.todoapp.domain.model.TimeEntry;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.TaskRepository;
 import com.todoapp.domain.repository.TimeEntryRepository;
 import com.todoapp.presentation.exception.GlobalExceptionHandler.ResourceNotFoundException;
 
+import jakarta.persistence.EntityManager;
+
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TimeTrackingService Tests")
 class TimeTrackingServiceTest {
@@ -40,6 +52,18 @@ class TimeTrackingServiceTest {
 
   @Mock private TimeEntryMapper timeEntryMapper;
 
+  // Real ownership logic; lookups for non-owners are stubbed per test
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
+  private TaskAccessResolver accessResolver;
+
+  @Spy
+  private ObjectMapper objectMapper =
+      new ObjectMapper()
+          .findAndRegisterModules()
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  @Mock private EntityManager entityManager;
+
   @InjectMocks private TimeTrackingService timeTrackingService;
 
   private User testUser;
@@ -154,6 +178,9 @@ class TimeTrackingServiceTest {
     @DisplayName("Should throw exception when user does not own task")
     void shouldThrowExceptionWhenUserDoesNotOwnTask() {
       when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+      doReturn(Map.of(1L, TaskAccessLevel.NONE))
+          .when(accessResolver)
+          .accessLevels(List.of(1L), 999L);
 
       assertThrows(
           IllegalArgumentException.class,
@@ -418,6 +445,9 @@ class TimeTrackingServiceTest {
     @DisplayName("Should throw exception when user does not own task")
     void shouldThrowExceptionWhenUserDoesNotOwnTask() {
       when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+      doReturn(Map.of(1L, TaskAccessLevel.NONE))
+          .when(accessResolver)
+          .accessLevels(List.of(1L), 999L);
 
       assertThrows(
           IllegalArgumentException.class,
@@ -455,7 +485,9 @@ class TimeTrackingServiceTest {
               .durationMinutes(30)
               .build();
 
-      when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+      doReturn(Map.of(1L, TaskAccessLevel.OWNER))
+          .when(accessResolver)
+          .accessLevels(List.of(1L), 1L);
       when(timeEntryRepository.findByTaskIdOrderByCreatedAtDesc(1L))
           .thenReturn(Arrays.asList(entry1, entry2));
 
@@ -464,35 +496,37 @@ class TimeTrackingServiceTest {
       assertNotNull(results, "Results should not be null");
       assertEquals(2, results.size(), "Should have 2 entries");
 
-      verify(taskRepository).findById(1L);
+      verify(taskRepository, never()).findById(anyLong());
       verify(timeEntryRepository).findByTaskIdOrderByCreatedAtDesc(1L);
     }
 
     @Test
     @DisplayName("Should throw exception when task not found")
     void shouldThrowExceptionWhenTaskNotFound() {
-      when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+      doReturn(Map.of()).when(accessResolver).accessLevels(List.of(999L), 1L);
 
       assertThrows(
           ResourceNotFoundException.class,
           () -> timeTrackingService.getTimeEntriesForTask(999L, 1L),
           "Should throw ResourceNotFoundException");
 
-      verify(taskRepository).findById(999L);
+      verify(accessResolver).accessLevels(List.of(999L), 1L);
       verify(timeEntryRepository, never()).findByTaskIdOrderByCreatedAtDesc(anyLong());
     }
 
     @Test
     @DisplayName("Should throw exception when user does not have access to task")
     void shouldThrowExceptionWhenUserDoesNotHaveAccessToTask() {
-      when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+      doReturn(Map.of(1L, TaskAccessLevel.NONE))
+          .when(accessResolver)
+          .accessLevels(List.of(1L), 999L);
 
       assertThrows(
           IllegalArgumentException.class,
           () -> timeTrackingService.getTimeEntriesForTask(1L, 999L),
           "Should throw IllegalArgumentException for non-owner");
 
-      verify(taskRepository).findById(1L);
+      verify(accessResolver).accessLevels(List.of(1L), 999L);
       verify(timeEntryRepository, never()).findByTaskIdOrderByCreatedAtDesc(anyLong());
     }
   }
@@ -513,7 +547,9 @@ class TimeTrackingServiceTest {
               .startTime(LocalDateTime.now().minusMinutes(15))
               .build();
 
-      when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+      doReturn(Map.of(1L, TaskAccessLevel.OWNER))
+          .when(accessResolver)
+          .accessLevels(List.of(1L), 1L);
       when(timeEntryRepository.findActiveTimerForTask(1L, 1L)).thenReturn(Optional.of(activeTimer));
 
       Optional<TimeEntryDTO> result = timeTrackingService.getActiveTimer(1L, 1L);
@@ -522,35 +558,37 @@ class TimeTrackingServiceTest {
       assertEquals(1L, result.get().getId(), "Timer ID should match");
       assertTrue(result.get().isRunning(), "Timer should be running");
 
-      verify(taskRepository).findById(1L);
+      verify(taskRepository, never()).findById(anyLong());
       verify(timeEntryRepository).findActiveTimerForTask(1L, 1L);
     }
 
     @Test
     @DisplayName("Should return empty when no active timer")
     void shouldReturnEmptyWhenNoActiveTimer() {
-      when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+      doReturn(Map.of(1L, TaskAccessLevel.OWNER))
+          .when(accessResolver)
+          .accessLevels(List.of(1L), 1L);
       when(timeEntryRepository.findActiveTimerForTask(1L, 1L)).thenReturn(Optional.empty());
 
       Optional<TimeEntryDTO> result = timeTrackingService.getActiveTimer(1L, 1L);
 
       assertFalse(result.isPresent(), "No active timer should be present");
 
-      verify(taskRepository).findById(1L);
+      verify(taskRepository, never()).findById(anyLong());
       verify(timeEntryRepository).findActiveTimerForTask(1L, 1L);
     }
 
     @Test
     @DisplayName("Should throw exception when task not found")
     void shouldThrowExceptionWhenTaskNotFound() {
-      when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+      doReturn(Map.of()).when(accessResolver).accessLevels(List.of(999L), 1L);
 
       assertThrows(
           ResourceNotFoundException.class,
           () -> timeTrackingService.getActiveTimer(999L, 1L),
           "Should throw ResourceNotFoundException");
 
-      verify(taskRepository).findById(999L);
+      verify(accessResolver).accessLevels(List.of(999L), 1L);
       verify(timeEntryRepository, never()).findActiveTimerForTask(anyLong(), anyLong());
     }
   }
@@ -584,6 +622,46 @@ class TimeTrackingServiceTest {
     }
   }
 
+  @Nested
+  @DisplayName("Time Report Tests")
+  class TimeReportTests {
+
+    @Test
+    @DisplayName("Should stream the report entries and detach each one once written")
+    void shouldStreamTimeReport() throws Exception {
+      LocalDateTime start = LocalDateTime.of(2026, 10, 1, 0, 0);
+      LocalDateTime end = LocalDateTime.of(2026, 11, 1, 0, 0);
+      TimeEntry first = manualEntry(1L, 30);
+      TimeEntry second = manualEntry(2L, 45);
+      when(timeEntryRepository.getTotalTimeForUserInRange(1L, start, end)).thenReturn(75);
+      when(timeEntryRepository.streamByUserIdAndDateRange(1L, start, end))
+          .thenReturn(Stream.of(first, second));
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      timeTrackingService.writeTimeReport(1L, start, end, out);
+
+      JsonNode report = objectMapper.readTree(out.toByteArray());
+      assertEquals(2, report.get("entries").size());
+      assertEquals(2L, report.get("entries").get(1).get("id").asLong());
+      assertEquals(75, report.get("totalMinutes").asInt());
+      assertEquals("2026-10-01T00:00:00", report.get("startDate").asText());
+      verify(entityManager).detach(first);
+      verify(entityManager).detach(second);
+      verify(timeEntryRepository, never()).findByUserIdAndDateRange(any(), any(), any());
+    }
+
+    private TimeEntry manualEntry(Long id, int minutes) {
+      TimeEntry entry = new TimeEntry();
+      entry.setId(id);
+      entry.setTask(testTask);
+      entry.setUser(testUser);
+      entry.setEntryType(EntryType.MANUAL);
+      entry.setDurationMinutes(minutes);
+      entry.setLoggedAt(LocalDateTime.of(2026, 10, 5, 9, 0));
+      return entry;
+    }
+  }
+
   @Nested
   @DisplayName("Delete Time Entry Tests")
   class DeleteTimeEntryTests {
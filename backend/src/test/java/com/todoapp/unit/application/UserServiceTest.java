@@ -4,12 +4,14 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -59,6 +61,21 @@ class UserServiceTest {
     userResponseDTO.setFullName("Test User");
   }
 
+  @Test
+  @DisplayName("Should assign the first free mention handle on registration")
+  void shouldAssignFreeUsername() {
+    when(userRepository.existsByEmail(registerDTO.getEmail())).thenReturn(false);
+    when(userRepository.findUsernamesStartingWith("test")).thenReturn(List.of("test", "test2"));
+    when(passwordEncoder.encode(registerDTO.getPassword())).thenReturn("$2a$12$hashedPassword");
+    when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    userService.registerUser(registerDTO);
+
+    ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
+    verify(userRepository).save(captor.capture());
+    assertEquals("test3", captor.getValue().getUsername());
+  }
+
   @Test
   @DisplayName("Should register user with BCrypt password hashing")
   void shouldRegisterUserWithBCryptHashing() {
@@ -0,0 +1,97 @@
+package com.todoapp.unit.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.todoapp.domain.model.Comment;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.CommentRepository;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.UserRepository;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("CommentRepository Unit Tests")
+public class CommentRepositoryTest {
+
+  @Autowired private CommentRepository commentRepository;
+
+  @Autowired private TaskRepository taskRepository;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Test
+  @DisplayName("Should walk a comment thread by keyset without gaps or duplicates")
+  void shouldPageThreadByKeyset() {
+    User author = new User();
+    author.setEmail("author@example.com");
+    author.setPasswordHash("$2a$10$dummyhash");
+    author.setIsActive(true);
+    author = userRepository.save(author);
+
+    Task task = new Task();
+    task.setUser(author);
+    task.setDescription("Discussed task");
+    task.setPriority(Priority.MEDIUM);
+    task = taskRepository.save(task);
+
+    Task other = new Task();
+    other.setUser(author);
+    other.setDescription("Other task");
+    other.setPriority(Priority.MEDIUM);
+    other = taskRepository.save(other);
+
+    for (int i = 0; i < 7; i++) {
+      saveComment(task, author, "Comment " + i);
+    }
+    saveComment(other, author, "Elsewhere");
+    entityManager.flush();
+    entityManager.clear();
+
+    List<Comment> walked = new ArrayList<>();
+    List<Comment> page = commentRepository.findThreadPage(task.getId(), PageRequest.of(0, 3));
+    while (!page.isEmpty()) {
+      walked.addAll(page);
+      Comment last = page.get(page.size() - 1);
+      page =
+          commentRepository.findThreadPageBefore(
+              task.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 3));
+    }
+
+    assertThat(walked)
+        .hasSize(7)
+        .extracting(Comment::getId)
+        .doesNotHaveDuplicates()
+        .containsExactlyElementsOf(
+            walked.stream()
+                .sorted(
+                    Comparator.comparing(Comment::getCreatedAt)
+                        .thenComparing(Comment::getId)
+                        .reversed())
+                .map(Comment::getId)
+                .toList());
+  }
+
+  private void saveComment(Task task, User author, String content) {
+    Comment comment = new Comment();
+    comment.setTask(task);
+    comment.setAuthor(author);
+    comment.setContent(content);
+    commentRepository.save(comment);
+  }
+}
@@ -0,0 +1,40 @@
+package com.todoapp.unit.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.todoapp.domain.model.DigestFrequency;
+
+@DisplayName("DigestFrequency Tests")
+public class DigestFrequencyTest {
+
+  @Test
+  @DisplayName("Should end hourly windows at the top of the next hour")
+  public void shouldEndHourlyWindowAtNextHour() {
+    LocalDateTime now = LocalDateTime.of(2026, 10, 19, 14, 25);
+
+    assertThat(DigestFrequency.HOURLY.windowEnd(now, 8))
+        .isEqualTo(LocalDateTime.of(2026, 10, 19, 15, 0));
+  }
+
+  @Test
+  @DisplayName("Should end daily windows at the delivery hour of today or tomorrow")
+  public void shouldEndDailyWindowAtDeliveryHour() {
+    assertThat(DigestFrequency.DAILY.windowEnd(LocalDateTime.of(2026, 10, 19, 7, 59), 8))
+        .isEqualTo(LocalDateTime.of(2026, 10, 19, 8, 0));
+    assertThat(DigestFrequency.DAILY.windowEnd(LocalDateTime.of(2026, 10, 19, 8, 0), 8))
+        .isEqualTo(LocalDateTime.of(2026, 10, 20, 8, 0));
+  }
+
+  @Test
+  @DisplayName("Should deliver immediate notifications right away")
+  public void shouldDeliverImmediately() {
+    LocalDateTime now = LocalDateTime.of(2026, 10, 19, 14, 25);
+
+    assertThat(DigestFrequency.IMMEDIATE.windowEnd(now, 8)).isEqualTo(now);
+  }
+}
@@ -0,0 +1,63 @@
+package com.todoapp.unit.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.todoapp.domain.model.DigestFrequency;
+import com.todoapp.domain.model.NotificationPreference;
+import com.todoapp.domain.model.NotificationPreferenceMatrix;
+import com.todoapp.domain.model.NotificationType;
+
+@DisplayName("NotificationPreferenceMatrix Tests")
+public class NotificationPreferenceMatrixTest {
+
+  @Test
+  @DisplayName("Should default every type to in-app only and immediate delivery")
+  public void shouldDefaultToInAppOnly() {
+    NotificationPreferenceMatrix matrix = NotificationPreferenceMatrix.defaults();
+
+    for (NotificationType type : NotificationType.values()) {
+      assertThat(matrix.isInAppEnabled(type)).isTrue();
+      assertThat(matrix.isEmailEnabled(type)).isFalse();
+      assertThat(matrix.getDigestFrequency(type)).isEqualTo(DigestFrequency.IMMEDIATE);
+    }
+  }
+
+  @Test
+  @DisplayName("Should override stored types and keep the defaults of the others")
+  public void shouldBuildFromStoredPreferences() {
+    NotificationPreference shared = new NotificationPreference(null, NotificationType.TASK_SHARED);
+    shared.setInAppEnabled(false);
+    shared.setEmailEnabled(true);
+    shared.setDigestFrequency(DigestFrequency.DAILY);
+
+    NotificationPreferenceMatrix matrix = NotificationPreferenceMatrix.of(List.of(shared));
+
+    assertThat(matrix.isInAppEnabled(NotificationType.TASK_SHARED)).isFalse();
+    assertThat(matrix.isEmailEnabled(NotificationType.TASK_SHARED)).isTrue();
+    assertThat(matrix.isDigest(NotificationType.TASK_SHARED)).isTrue();
+    assertThat(matrix.isInAppEnabled(NotificationType.TASK_OVERDUE)).isTrue();
+    assertThat(matrix.isAnyEnabled(NotificationType.TASK_OVERDUE)).isTrue();
+    assertThat(matrix.isDigest(NotificationType.TASK_OVERDUE)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should survive a round trip through its packed form")
+  public void shouldRoundTripThroughBits() {
+    NotificationPreferenceMatrix matrix =
+        NotificationPreferenceMatrix.defaults()
+            .with(NotificationType.DIGEST, false, false, DigestFrequency.IMMEDIATE)
+            .with(NotificationType.TASK_DUE_SOON, true, true, DigestFrequency.HOURLY);
+
+    NotificationPreferenceMatrix restored = NotificationPreferenceMatrix.fromBits(matrix.toBits());
+
+    assertThat(restored).isEqualTo(matrix);
+    assertThat(restored.isAnyEnabled(NotificationType.DIGEST)).isFalse();
+    assertThat(restored.getDigestFrequency(NotificationType.TASK_DUE_SOON))
+        .isEqualTo(DigestFrequency.HOURLY);
+  }
+}
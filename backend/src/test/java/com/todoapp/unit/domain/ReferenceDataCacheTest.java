@@ -0,0 +1,179 @@
+package com.todoapp.unit.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.Tag;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.CategoryRepository;
+import com.todoapp.domain.repository.TagRepository;
+import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.ReferenceDataCacheInvalidator;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the SQL statements of the reference-data lookups made when a task is created or updated
+ * (owner, category and tags) with the second-level cache enabled. Each lookup runs in its own
+ * transaction, as it would in separate requests.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@TestPropertySource(
+    properties = {
+      "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+      "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+      "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+      "spring.jpa.properties.hibernate.javax.cache.provider=org.ehcache.jsr107.EhcacheCachingProvider",
+      "spring.jpa.properties.hibernate.javax.cache.uri=ehcache.xml",
+      "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail"
+    })
+@DisplayName("Reference data second-level cache")
+public class ReferenceDataCacheTest {
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private UserRepository userRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private TagRepository tagRepository;
+
+  private TransactionTemplate transaction;
+  private Statistics statistics;
+  private User user;
+  private Category category;
+  private List<Long> tagIds;
+
+  @BeforeEach
+  void setUp() {
+    transaction = new TransactionTemplate(transactionManager);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    entityManagerFactory.getCache().evictAll();
+
+    String suffix = String.valueOf(System.nanoTime());
+    transaction.executeWithoutResult(
+        status -> {
+          user = new User();
+          user.setEmail("cached-" + suffix + "@example.com");
+          user.setPasswordHash("$2a$10$dummyhash");
+          user.setIsActive(true);
+          user = userRepository.save(user);
+
+          category = new Category();
+          category.setUser(user);
+          category.setName("Work");
+          category.setColor("#FF0000");
+          category = categoryRepository.save(category);
+
+          tagIds =
+              List.of(saveTag("urgent").getId(), saveTag("home").getId(), saveTag("later").getId());
+        });
+  }
+
+  @Test
+  @DisplayName("Should serve repeated task-write lookups without any SQL")
+  void shouldServeRepeatedLookupsFromCache() {
+    long cold = countStatements(this::lookUpTaskReferences);
+    long warm = countStatements(this::lookUpTaskReferences);
+
+    assertThat(cold).isEqualTo(3);
+    assertThat(warm).isZero();
+    assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount()).isPositive();
+    // Query results carry the entity state themselves, so category and tag lookups hit the
+    // query region rather than the entity regions
+    assertThat(statistics.getQueryRegionStatistics("reference-data-queries").getHitCount())
+        .isPositive();
+  }
+
+  @Test
+  @DisplayName("Should return the new state after a category is updated")
+  void shouldReflectUpdates() {
+    lookUpTaskReferences();
+
+    transaction.executeWithoutResult(
+        status -> {
+          Category loaded =
+              categoryRepository.findByIdAndUserId(category.getId(), user.getId()).orElseThrow();
+          loaded.setName("Renamed");
+        });
+
+    Category reloaded =
+        transaction.execute(
+            status ->
+                categoryRepository.findByIdAndUserId(category.getId(), user.getId()).orElseThrow());
+    assertThat(reloaded.getName()).isEqualTo("Renamed");
+  }
+
+  @Test
+  @DisplayName("Should include a newly created tag in the cached tag listing")
+  void shouldRefreshListingAfterCreate() {
+    List<Tag> before = transaction.execute(status -> tagRepository.findByUserId(user.getId()));
+    transaction.executeWithoutResult(status -> saveTag("new"));
+    List<Tag> after = transaction.execute(status -> tagRepository.findByUserId(user.getId()));
+
+    assertThat(before).hasSize(3);
+    assertThat(after).hasSize(4);
+  }
+
+  @Test
+  @DisplayName("Should reload an entity from the database after a remote eviction")
+  void shouldReloadAfterEviction() {
+    ReferenceDataCacheInvalidator invalidator =
+        new ReferenceDataCacheInvalidator(entityManagerFactory, null);
+    lookUpTaskReferences();
+
+    invalidator.evictLocally("Category:" + category.getId());
+
+    assertThat(entityManagerFactory.getCache().contains(Category.class, category.getId()))
+        .isFalse();
+    assertThat(
+            countStatements(
+                () ->
+                    transaction.executeWithoutResult(
+                        status ->
+                            categoryRepository.findByIdAndUserId(category.getId(), user.getId()))))
+        .isEqualTo(1);
+  }
+
+  /** The lookups TaskService performs for createTask and updateTask. */
+  private void lookUpTaskReferences() {
+    transaction.executeWithoutResult(
+        status -> {
+          userRepository.findById(user.getId()).orElseThrow();
+          categoryRepository.findByIdAndUserId(category.getId(), user.getId()).orElseThrow();
+          assertThat(tagRepository.findByIdInAndUserId(tagIds, user.getId())).hasSize(3);
+        });
+  }
+
+  private long countStatements(Runnable action) {
+    statistics.clear();
+    action.run();
+    return statistics.getPrepareStatementCount();
+  }
+
+  private Tag saveTag(String name) {
+    Tag tag = new Tag();
+    tag.setUser(user);
+    tag.setName(name);
+    tag.setColor("#00FF00");
+    return tagRepository.save(tag);
+  }
+}
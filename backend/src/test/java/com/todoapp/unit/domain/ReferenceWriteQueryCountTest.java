@@ -0,0 +1,176 @@
+package com.todoapp.unit.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.todoapp.application.dto.TaskCreateDTO;
+import com.todoapp.application.dto.TaskResponseDTO;
+import com.todoapp.application.mapper.TaskMapper;
+import com.todoapp.application.service.NotificationService;
+import com.todoapp.application.service.TaskAccessResolver;
+import com.todoapp.application.service.TaskService;
+import com.todoapp.domain.model.Notification;
+import com.todoapp.domain.model.NotificationType;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.CategoryRepository;
+import com.todoapp.domain.repository.NotificationRepository;
+import com.todoapp.domain.repository.RecurrencePatternRepository;
+import com.todoapp.domain.repository.TagRepository;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
+import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.UnreadNotificationCounter;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+import com.todoapp.presentation.websocket.TaskWebSocketHandler;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the SQL statements of writes that only need the acting user as a foreign key, and of the
+ * unread notification count. None of them may load the user row.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Reference-based write query count")
+public class ReferenceWriteQueryCountTest {
+
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private TaskRepository taskRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private TagRepository tagRepository;
+  @Autowired private TaskShareRepository taskShareRepository;
+  @Autowired private RecurrencePatternRepository recurrencePatternRepository;
+  @Autowired private NotificationRepository notificationRepository;
+
+  private TaskService taskService;
+  private NotificationService notificationService;
+  private StringRedisTemplate redisTemplate;
+  private ValueOperations<String, String> valueOperations;
+  private Statistics statistics;
+  private User user;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    valueOperations = mock(ValueOperations.class);
+    taskService =
+        new TaskService(
+            taskRepository,
+            userRepository,
+            categoryRepository,
+            tagRepository,
+            taskShareRepository,
+            new TaskAccessResolver(taskRepository, null),
+            recurrencePatternRepository,
+            new TaskMapper(),
+            mock(TaskWebSocketHandler.class),
+            mock(SyncChangeLog.class));
+    notificationService =
+        new NotificationService(
+            notificationRepository,
+            null,
+            null,
+            null,
+            userRepository,
+            new UnreadNotificationCounter(redisTemplate, notificationRepository, null),
+            null,
+            null,
+            null);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    user = new User();
+    user.setEmail("writer@example.com");
+    user.setPasswordHash("$2a$10$dummyhash");
+    user.setIsActive(true);
+    user = userRepository.save(user);
+
+    for (int i = 0; i < 3; i++) {
+      Notification notification = new Notification();
+      notification.setUser(user);
+      notification.setType(NotificationType.TASK_COMMENTED);
+      notification.setMessage("Comment " + i);
+      notification.setRead(i == 0);
+      entityManager.persist(notification);
+    }
+
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  @DisplayName("Should create a task with a single INSERT")
+  void shouldCreateTaskWithoutLoadingUser() {
+    TaskResponseDTO created =
+        countStatements(1, () -> taskService.createTask(createDTO("Write report"), user.getId()));
+
+    assertThat(created.getId()).isNotNull();
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    assertThat(taskRepository.findById(created.getId()).orElseThrow().getUser().getId())
+        .isEqualTo(user.getId());
+  }
+
+  @Test
+  @DisplayName("Should create a subtask with the parent SELECT and a single INSERT")
+  void shouldCreateSubtaskWithoutLoadingUser() {
+    Task parent = new Task();
+    parent.setUser(user);
+    parent.setDescription("Parent");
+    parent.setPriority(Priority.MEDIUM);
+    parent = taskRepository.save(parent);
+    entityManager.flush();
+    entityManager.clear();
+    Long parentId = parent.getId();
+
+    TaskResponseDTO subtask =
+        countStatements(
+            2, () -> taskService.createSubtask(parentId, createDTO("Child"), user.getId()));
+
+    assertThat(subtask.getParentTaskId()).isEqualTo(parentId);
+    assertThat(statistics.getEntityLoadCount()).as("only the parent task is loaded").isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should build a missing unread counter with a single SELECT")
+  void shouldCountUnreadByUserId() {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    long count = countStatements(1, () -> notificationService.getUnreadCount(user.getId()));
+
+    assertThat(count).isEqualTo(2);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  private TaskCreateDTO createDTO(String description) {
+    TaskCreateDTO dto = new TaskCreateDTO();
+    dto.setDescription(description);
+    dto.setPriority(Priority.MEDIUM);
+    return dto;
+  }
+
+  private <T> T countStatements(int expected, Supplier<T> action) {
+    statistics.clear();
+    T result = action.get();
+    assertThat(statistics.getPrepareStatementCount()).as("SQL statements").isEqualTo(expected);
+    return result;
+  }
+}
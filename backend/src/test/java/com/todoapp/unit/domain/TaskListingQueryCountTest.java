@@ -0,0 +1,230 @@
+package com.todoapp.unit.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.todoapp.application.dto.TaskResponseDTO;
+import com.todoapp.application.mapper.TaskMapper;
+import com.todoapp.application.service.TaskService;
+import com.todoapp.domain.model.Category;
+import com.todoapp.domain.model.PermissionLevel;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.domain.model.Tag;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskShare;
+import com.todoapp.domain.model.TaskTag;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.CategoryRepository;
+import com.todoapp.domain.repository.RecurrencePatternRepository;
+import com.todoapp.domain.repository.TagRepository;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
+import com.todoapp.domain.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the SQL statements of the task listings. Each page must cost at most the page query, the
+ * count query, one batched tag query and one grouped subtask count, however many tasks, tags and
+ * subtasks it contains.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Task listing query count")
+public class TaskListingQueryCountTest {
+
+  private static final int MAX_STATEMENTS_PER_PAGE = 4;
+  private static final int PAGE_SIZE = 20;
+
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private TaskRepository taskRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private TagRepository tagRepository;
+  @Autowired private TaskShareRepository taskShareRepository;
+  @Autowired private RecurrencePatternRepository recurrencePatternRepository;
+
+  private TaskService taskService;
+  private Statistics statistics;
+  private User user;
+  private Category category;
+  private Tag tag;
+
+  @BeforeEach
+  void setUp() {
+    taskService =
+        new TaskService(
+            taskRepository,
+            userRepository,
+            categoryRepository,
+            tagRepository,
+            taskShareRepository,
+            null,
+            recurrencePatternRepository,
+            new TaskMapper(),
+            null,
+            null);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    user = saveUser("lister@example.com");
+    User other = saveUser("sharer@example.com");
+
+    category = new Category();
+    category.setUser(user);
+    category.setName("Work");
+    category.setColor("#FF0000");
+    category = categoryRepository.save(category);
+
+    List<Tag> tags = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Tag t = new Tag();
+      t.setUser(user);
+      t.setName("tag-" + i);
+      t.setColor("#00FF00");
+      tags.add(tagRepository.save(t));
+    }
+    tag = tags.get(0);
+
+    for (int i = 0; i < 30; i++) {
+      Task task = newTask(user, "Task " + i);
+      task.setCategory(category);
+      task = taskRepository.save(task);
+      // Links are persisted through TaskTag so the H2 schema gets its created_at value
+      for (Tag t : tags) {
+        entityManager.persist(new TaskTag(task, t));
+      }
+
+      Task done = newTask(user, "Subtask done " + i);
+      done.setParentTask(task);
+      done.setIsCompleted(true);
+      taskRepository.save(done);
+      Task open = newTask(user, "Subtask open " + i);
+      open.setParentTask(task);
+      taskRepository.save(open);
+
+      Task foreign = taskRepository.save(newTask(other, "Shared " + i));
+      TaskShare share = new TaskShare();
+      share.setTask(foreign);
+      share.setSharedWithUser(user);
+      share.setSharedByUser(other);
+      share.setPermissionLevel(PermissionLevel.VIEW);
+      taskShareRepository.save(share);
+    }
+
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  @DisplayName("Should list a page of tasks in at most four statements")
+  void shouldListUserTasks() {
+    Page<TaskResponseDTO> page =
+        countStatements(
+            () ->
+                taskService.getUserTasks(
+                    user.getId(), PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt"))));
+
+    assertThat(page.getContent()).hasSize(PAGE_SIZE);
+    TaskResponseDTO parent =
+        page.getContent().stream().filter(t -> t.getParentTaskId() == null).findFirst().get();
+    assertThat(parent.getCategoryName()).isEqualTo("Work");
+    assertThat(parent.getTags()).hasSize(3);
+    assertThat(parent.getSubtaskProgress()).isEqualTo(50);
+    assertThat(page.getContent())
+        .filteredOn(t -> t.getParentTaskId() != null)
+        .allSatisfy(t -> assertThat(t.getDepth()).isEqualTo(1));
+  }
+
+  @Test
+  @DisplayName("Should search tasks in at most four statements")
+  void shouldSearchTasks() {
+    Page<TaskResponseDTO> page =
+        countStatements(
+            () ->
+                taskService.searchTasks(
+                    user.getId(), "subtask", false, PageRequest.of(0, PAGE_SIZE)));
+
+    assertThat(page.getContent()).hasSize(PAGE_SIZE);
+  }
+
+  @Test
+  @DisplayName("Should filter tasks by category and tags in at most four statements")
+  void shouldFilterTasks() {
+    Page<TaskResponseDTO> byCategory =
+        countStatements(
+            () ->
+                taskService.getTasksWithFilters(
+                    user.getId(), category.getId(), null, PageRequest.of(0, PAGE_SIZE)));
+    entityManager.clear();
+    Page<TaskResponseDTO> byTag =
+        countStatements(
+            () ->
+                taskService.getTasksWithFilters(
+                    user.getId(), null, List.of(tag.getId()), PageRequest.of(0, PAGE_SIZE)));
+
+    assertThat(byCategory.getContent()).hasSize(PAGE_SIZE);
+    assertThat(byTag.getContent()).hasSize(PAGE_SIZE);
+    assertThat(byTag.getContent()).allSatisfy(t -> assertThat(t.getTags()).hasSize(3));
+  }
+
+  @Test
+  @DisplayName("Should list owned and shared tasks in at most four statements")
+  void shouldListAccessibleTasks() {
+    Page<TaskResponseDTO> page =
+        countStatements(
+            () ->
+                taskService.getAccessibleTasks(
+                    user.getId(),
+                    TaskService.ListingScope.ALL,
+                    null,
+                    null,
+                    null,
+                    null,
+                    PageRequest.of(0, PAGE_SIZE)));
+
+    assertThat(page.getTotalElements()).isEqualTo(120);
+    assertThat(page.getContent()).hasSize(PAGE_SIZE);
+  }
+
+  private <T> T countStatements(Supplier<T> listing) {
+    statistics.clear();
+    T result = listing.get();
+    assertThat(statistics.getPrepareStatementCount())
+        .as("SQL statements per page")
+        .isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    return result;
+  }
+
+  private User saveUser(String email) {
+    User u = new User();
+    u.setEmail(email);
+    u.setPasswordHash("$2a$10$dummyhash");
+    u.setIsActive(true);
+    return userRepository.save(u);
+  }
+
+  private Task newTask(User owner, String description) {
+    Task task = new Task();
+    task.setUser(owner);
+    task.setDescription(description);
+    task.setPriority(Priority.MEDIUM);
+    return task;
+  }
+}
@@ -2,6 +2,11 @@ package com.todoapp.unit.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,10 +17,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.todoapp.domain.model.PermissionLevel;
 import com.todoapp.domain.model.Priority;
 import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskShare;
 import com.todoapp.domain.model.User;
 import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
 import com.todoapp.domain.repository.UserRepository;
 
 @DataJpaTest
@@ -27,6 +35,8 @@ public class TaskRepositoryTest {
 
   @Autowired private UserRepository userRepository;
 
+  @Autowired private TaskShareRepository taskShareRepository;
+
   private User testUser;
 
   @BeforeEach
@@ -232,4 +242,250 @@ public class TaskRepositoryTest {
     assertThat(results.getTotalElements()).isEqualTo(15);
     assertThat(results.getTotalPages()).isEqualTo(3);
   }
+
+  @Test
+  @DisplayName("Should resolve ownership and share permission for several tasks in one query")
+  void shouldResolveAccessRows() {
+    User otherUser = new User();
+    otherUser.setEmail("other@example.com");
+    otherUser.setPasswordHash("$2a$10$dummyhash");
+    otherUser.setIsActive(true);
+    otherUser = userRepository.save(otherUser);
+
+    Task owned = new Task();
+    owned.setUser(testUser);
+    owned.setDescription("Owned task");
+    owned.setPriority(Priority.MEDIUM);
+    owned = taskRepository.save(owned);
+
+    Task shared = new Task();
+    shared.setUser(otherUser);
+    shared.setDescription("Shared task");
+    shared.setPriority(Priority.MEDIUM);
+    shared = taskRepository.save(shared);
+
+    Task foreign = new Task();
+    foreign.setUser(otherUser);
+    foreign.setDescription("Foreign task");
+    foreign.setPriority(Priority.MEDIUM);
+    foreign = taskRepository.save(foreign);
+
+    TaskShare share = new TaskShare();
+    share.setTask(shared);
+    share.setSharedWithUser(testUser);
+    share.setSharedByUser(otherUser);
+    share.setPermissionLevel(PermissionLevel.EDIT);
+    taskShareRepository.save(share);
+
+    List<Object[]> rows =
+        taskRepository.findAccessRows(
+            List.of(owned.getId(), shared.getId(), foreign.getId(), -1L), testUser.getId());
+
+    Map<Long, Object[]> byTask = new HashMap<>();
+    rows.forEach(row -> byTask.put((Long) row[0], row));
+    assertThat(byTask).hasSize(3);
+    assertThat(byTask.get(owned.getId())[1]).isEqualTo(testUser.getId());
+    assertThat(byTask.get(owned.getId())[2]).isNull();
+    assertThat(byTask.get(shared.getId())[2]).isEqualTo(PermissionLevel.EDIT);
+    assertThat(byTask.get(foreign.getId())[1]).isEqualTo(otherUser.getId());
+    assertThat(byTask.get(foreign.getId())[2]).isNull();
+  }
+
+  @Test
+  @DisplayName("Should list owned and shared tasks together with their permission")
+  void shouldListOwnedAndSharedTasks() {
+    User otherUser = new User();
+    otherUser.setEmail("other@example.com");
+    otherUser.setPasswordHash("$2a$10$dummyhash");
+    otherUser.setIsActive(true);
+    otherUser = userRepository.save(otherUser);
+
+    Task owned = new Task();
+    owned.setUser(testUser);
+    owned.setDescription("Owned report");
+    owned.setPriority(Priority.MEDIUM);
+    owned = taskRepository.save(owned);
+
+    Task viewable = new Task();
+    viewable.setUser(otherUser);
+    viewable.setDescription("Shared report");
+    viewable.setPriority(Priority.MEDIUM);
+    viewable = taskRepository.save(viewable);
+
+    Task editable = new Task();
+    editable.setUser(otherUser);
+    editable.setDescription("Shared draft");
+    editable.setPriority(Priority.MEDIUM);
+    editable = taskRepository.save(editable);
+
+    Task foreign = new Task();
+    foreign.setUser(otherUser);
+    foreign.setDescription("Foreign report");
+    foreign.setPriority(Priority.MEDIUM);
+    taskRepository.save(foreign);
+
+    for (Object[] grant :
+        new Object[][] {{viewable, PermissionLevel.VIEW}, {editable, PermissionLevel.EDIT}}) {
+      TaskShare share = new TaskShare();
+      share.setTask((Task) grant[0]);
+      share.setSharedWithUser(testUser);
+      share.setSharedByUser(otherUser);
+      share.setPermissionLevel((PermissionLevel) grant[1]);
+      taskShareRepository.save(share);
+    }
+
+    Page<Object[]> all =
+        taskRepository.findAccessibleTasks(
+            testUser.getId(), true, true, null, null, null, "%", PageRequest.of(0, 10));
+
+    Map<Long, Object> permissions = new HashMap<>();
+    all.getContent().forEach(row -> permissions.put(((Task) row[0]).getId(), row[1]));
+    assertThat(all.getTotalElements()).isEqualTo(3);
+    assertThat(permissions)
+        .containsOnlyKeys(owned.getId(), viewable.getId(), editable.getId())
+        .containsEntry(owned.getId(), null)
+        .containsEntry(viewable.getId(), "VIEW")
+        .containsEntry(editable.getId(), "EDIT");
+
+    Page<Object[]> sharedReports =
+        taskRepository.findAccessibleTasks(
+            testUser.getId(), false, true, null, null, null, "%report%", PageRequest.of(0, 10));
+    assertThat(sharedReports.getContent())
+        .extracting(row -> ((Task) row[0]).getId())
+        .containsExactly(viewable.getId());
+
+    Page<Object[]> editableOnly =
+        taskRepository.findAccessibleTasks(
+            testUser.getId(),
+            false,
+            true,
+            PermissionLevel.EDIT,
+            false,
+            null,
+            "%",
+            PageRequest.of(0, 1));
+    assertThat(editableOnly.getTotalElements()).isEqualTo(1);
+    assertThat(((Task) editableOnly.getContent().get(0)[0]).getId()).isEqualTo(editable.getId());
+  }
+
+  @Test
+  @DisplayName("Should patch only the given fields and only the expected version")
+  void shouldPatchConditionally() {
+    Task task = new Task();
+    task.setUser(testUser);
+    task.setDescription("Original");
+    task.setPriority(Priority.LOW);
+    task.setDueDate(LocalDateTime.of(2026, 5, 1, 9, 0));
+    task = taskRepository.saveAndFlush(task);
+    Long version = task.getVersion();
+
+    int stale =
+        taskRepository.patch(
+            task.getId(), "Lost", null, null, false, null, version + 1, LocalDateTime.now());
+    int applied =
+        taskRepository.patch(
+            task.getId(), null, Priority.HIGH, null, true, null, version, LocalDateTime.now());
+
+    Task reloaded = taskRepository.findById(task.getId()).orElseThrow();
+    assertThat(stale).isZero();
+    assertThat(applied).isEqualTo(1);
+    assertThat(reloaded.getDescription()).isEqualTo("Original");
+    assertThat(reloaded.getPriority()).isEqualTo(Priority.HIGH);
+    assertThat(reloaded.getDueDate()).isNull();
+    assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+  }
+
+  @Test
+  @DisplayName("Should only change the completion state when it differs")
+  void shouldUpdateCompletionIdempotently() {
+    Task task = new Task();
+    task.setUser(testUser);
+    task.setDescription("Finish me");
+    task.setPriority(Priority.MEDIUM);
+    task = taskRepository.saveAndFlush(task);
+    LocalDateTime now = LocalDateTime.now();
+
+    assertThat(taskRepository.updateCompletion(task.getId(), true, now, now)).isEqualTo(1);
+    assertThat(taskRepository.updateCompletion(task.getId(), true, now, now)).isZero();
+
+    Task reloaded = taskRepository.findById(task.getId()).orElseThrow();
+    assertThat(reloaded.getIsCompleted()).isTrue();
+    assertThat(reloaded.getCompletedAt()).isNotNull();
+    assertThat(reloaded.getVersion()).isEqualTo(task.getVersion() + 1);
+  }
+
+  @Test
+  @DisplayName("Should list a task list in position order by keyset")
+  void shouldListInPositionOrderByKeyset() {
+    Task parent = orderedTask("Parent", 0L, null);
+    Task second = orderedTask("Second", 200L, null);
+    Task first = orderedTask("First", 100L, null);
+    Task third = orderedTask("Third", 300L, null);
+    orderedTask("Subtask", 50L, parent);
+
+    List<Task> page =
+        taskRepository.findRootOrderPage(
+            testUser.getId(), 0L, parent.getId(), PageRequest.of(0, 2));
+    List<Task> rest =
+        taskRepository.findRootOrderPage(
+            testUser.getId(), second.getPosition(), second.getId(), PageRequest.of(0, 2));
+
+    assertThat(page).extracting(Task::getDescription).containsExactly("First", "Second");
+    assertThat(rest).extracting(Task::getDescription).containsExactly("Third");
+    assertThat(
+            taskRepository.findChildOrderPage(
+                testUser.getId(), parent.getId(), Long.MIN_VALUE, 0L, PageRequest.of(0, 10)))
+        .extracting(Task::getDescription)
+        .containsExactly("Subtask");
+    assertThat(
+            taskRepository.findRootPositionsAfter(
+                testUser.getId(),
+                first.getPosition(),
+                first.getId(),
+                second.getId(),
+                PageRequest.of(0, 1)))
+        .containsExactly(300L);
+    assertThat(
+            taskRepository.findRootPositionsBefore(
+                testUser.getId(),
+                third.getPosition(),
+                third.getId(),
+                third.getId(),
+                PageRequest.of(0, 1)))
+        .containsExactly(200L);
+  }
+
+  @Test
+  @DisplayName("Should move a task by updating its position only")
+  void shouldUpdatePosition() {
+    Task parent = orderedTask("Parent", 0L, null);
+    Task subtask = orderedTask("Subtask", 100L, parent);
+
+    int moved = taskRepository.updatePosition(subtask.getId(), 150L, LocalDateTime.now());
+
+    Task reloaded = taskRepository.findById(subtask.getId()).orElseThrow();
+    assertThat(moved).isEqualTo(1);
+    assertThat(reloaded.getPosition()).isEqualTo(150L);
+    assertThat(reloaded.getVersion()).isEqualTo(subtask.getVersion() + 1);
+    Map<Long, Object[]> rows = new HashMap<>();
+    taskRepository
+        .findOrderRows(List.of(parent.getId(), subtask.getId()))
+        .forEach(row -> rows.put((Long) row[0], row));
+    assertThat(rows.get(parent.getId()))
+        .containsExactly(parent.getId(), testUser.getId(), null, 0L);
+    assertThat(rows.get(subtask.getId()))
+        .containsExactly(subtask.getId(), testUser.getId(), parent.getId(), 150L);
+  }
+
+  private Task orderedTask(String description, long position, Task parent) {
+    Task task = new Task();
+    task.setUser(testUser);
+    task.setDescription(description);
+    task.setPriority(Priority.MEDIUM);
+    task.setPosition(position);
+    if (parent != null) {
+      task.setParentTask(parent);
+    }
+    return taskRepository.saveAndFlush(task);
+  }
 }
@@ -0,0 +1,148 @@
+package com.todoapp.unit.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.todoapp.domain.model.PermissionLevel;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.domain.model.Task;
+import com.todoapp.domain.model.TaskShare;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.TaskRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
+import com.todoapp.domain.repository.UserRepository;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("TaskShareRepository Unit Tests")
+public class TaskShareRepositoryTest {
+
+  @Autowired private TaskShareRepository taskShareRepository;
+
+  @Autowired private TaskRepository taskRepository;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
+  private User owner;
+  private User alice;
+  private User bob;
+
+  @BeforeEach
+  void setUp() {
+    owner = saveUser("owner@example.com");
+    alice = saveUser("alice@example.com");
+    bob = saveUser("bob@example.com");
+  }
+
+  @Test
+  @DisplayName("Should share many tasks with many users in one insert and update existing shares")
+  void shouldUpsertSharesInBulk() {
+    Task first = saveTask(owner, "First");
+    Task second = saveTask(owner, "Second");
+    Task foreign = saveTask(alice, "Foreign");
+
+    TaskShare existing = new TaskShare();
+    existing.setTask(first);
+    existing.setSharedWithUser(alice);
+    existing.setSharedByUser(owner);
+    existing.setPermissionLevel(PermissionLevel.VIEW);
+    taskShareRepository.save(existing);
+    entityManager.flush();
+
+    List<Long> taskIds = List.of(first.getId(), second.getId(), foreign.getId());
+    List<Long> userIds = List.of(alice.getId(), bob.getId(), owner.getId());
+
+    assertThat(taskShareRepository.findSharePairs(taskIds, userIds)).hasSize(1);
+
+    int updated = taskShareRepository.updatePermissions(taskIds, userIds, PermissionLevel.EDIT);
+    int created =
+        taskShareRepository.insertMissingShares(
+            taskIds, userIds, owner.getId(), PermissionLevel.EDIT, LocalDateTime.now());
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    // first->bob, second->alice, second->bob; the foreign task and the owner are skipped
+    assertThat(created).isEqualTo(3);
+    assertThat(taskShareRepository.findAll())
+        .hasSize(4)
+        .allSatisfy(
+            share -> {
+              assertThat(share.getPermissionLevel()).isEqualTo(PermissionLevel.EDIT);
+              assertThat(share.getSharedByUser().getId()).isEqualTo(owner.getId());
+              assertThat(share.getSharedAt()).isNotNull();
+            });
+  }
+
+  @Test
+  @DisplayName("Should find the owned children of a subtree level")
+  void shouldFindOwnedChildIds() {
+    Task parent = saveTask(owner, "Parent");
+    Task child = new Task();
+    child.setUser(owner);
+    child.setDescription("Child");
+    child.setPriority(Priority.MEDIUM);
+    child.setParentTask(parent);
+    child = taskRepository.save(child);
+    saveTask(owner, "Unrelated");
+
+    assertThat(taskRepository.findChildIds(owner.getId(), List.of(parent.getId())))
+        .containsExactly(child.getId());
+    assertThat(taskRepository.findChildIds(alice.getId(), List.of(parent.getId()))).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should find the users connected to a user through shared tasks")
+  void shouldFindConnectedUserIds() {
+    User carol = saveUser("carol@example.com");
+    saveUser("stranger@example.com");
+    Task shared = saveTask(owner, "Shared");
+    share(shared, alice);
+    share(shared, bob);
+    share(saveTask(carol, "Carol's"), owner);
+    entityManager.flush();
+
+    // A recipient is among the recipients of the task shared with them, so the user may be listed
+    assertThat(taskShareRepository.findConnectedUserIds(owner.getId()))
+        .containsExactlyInAnyOrder(owner.getId(), alice.getId(), bob.getId(), carol.getId());
+    // A recipient sees the owner and the other recipients of the task
+    assertThat(taskShareRepository.findConnectedUserIds(alice.getId()))
+        .containsExactlyInAnyOrder(owner.getId(), alice.getId(), bob.getId());
+  }
+
+  private void share(Task task, User user) {
+    TaskShare share = new TaskShare();
+    share.setTask(task);
+    share.setSharedWithUser(user);
+    share.setSharedByUser(task.getUser());
+    share.setPermissionLevel(PermissionLevel.VIEW);
+    taskShareRepository.save(share);
+  }
+
+  private User saveUser(String email) {
+    User user = new User();
+    user.setEmail(email);
+    user.setPasswordHash("$2a$10$dummyhash");
+    user.setIsActive(true);
+    return userRepository.save(user);
+  }
+
+  private Task saveTask(User user, String description) {
+    Task task = new Task();
+    task.setUser(user);
+    task.setDescription(description);
+    task.setPriority(Priority.MEDIUM);
+    return taskRepository.save(task);
+  }
+}
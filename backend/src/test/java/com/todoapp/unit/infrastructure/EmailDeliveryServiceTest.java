@@ -0,0 +1,188 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.domain.model.NotificationType;
+import com.todoapp.infrastructure.config.RabbitMQConfig;
+import com.todoapp.infrastructure.messaging.EmailDeliveryService;
+import com.todoapp.infrastructure.messaging.EmailMessage;
+import com.todoapp.infrastructure.messaging.EmailTemplateRenderer;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailDeliveryService Tests")
+public class EmailDeliveryServiceTest {
+
+  @Mock private JavaMailSender mailSender;
+
+  @Mock private RabbitTemplate rabbitTemplate;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private EmailDeliveryService deliveryService;
+
+  @BeforeEach
+  public void setUp() {
+    deliveryService =
+        new EmailDeliveryService(
+            mailSender, new EmailTemplateRenderer(), rabbitTemplate, objectMapper);
+    ReflectionTestUtils.setField(deliveryService, "fromAddress", "noreply@example.com");
+    ReflectionTestUtils.setField(deliveryService, "fromName", "TODO App");
+    ReflectionTestUtils.setField(deliveryService, "maxAttempts", 3);
+    ReflectionTestUtils.setField(deliveryService, "perDomainPerMinute", 100L);
+    lenient()
+        .when(mailSender.createMimeMessage())
+        .thenAnswer(invocation -> new MimeMessage((Session) null));
+  }
+
+  @Test
+  @DisplayName("Should send a whole batch in one call with rendered templates")
+  public void shouldSendBatchInOneCall() throws Exception {
+    deliveryService.deliverBatch(
+        List.of(message("alice@example.com", 0), message("bob@example.org", 0)));
+
+    ArgumentCaptor<MimeMessage[]> captor = ArgumentCaptor.forClass(MimeMessage[].class);
+    verify(mailSender).send(captor.capture());
+    assertThat(captor.getValue()).hasSize(2);
+    assertThat(captor.getValue()[0].getSubject()).isEqualTo("Task Due Soon: Write report");
+    assertThat(captor.getValue()[0].getContent().toString())
+        .contains("Task is due soon")
+        .contains("Task: Write report");
+    verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class));
+  }
+
+  @Test
+  @DisplayName("Should retry only the emails that failed")
+  public void shouldRetryFailedEmails() {
+    doThrow(new MailSendException("Mailbox unavailable"))
+        .when(mailSender)
+        .send(any(MimeMessage[].class));
+    Message failed = message("alice@example.com", 0);
+
+    deliveryService.deliverBatch(List.of(failed));
+
+    ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+    verify(rabbitTemplate)
+        .send(
+            eq(RabbitMQConfig.EMAIL_DEAD_LETTER_EXCHANGE),
+            eq(RabbitMQConfig.EMAIL_ROUTING_KEY),
+            captor.capture());
+    assertThat((Integer) captor.getValue().getMessageProperties().getHeader("x-email-attempt"))
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should retry partially failed batches per email")
+  public void shouldRetryPartialFailures() {
+    Message ok = message("alice@example.com", 0);
+    Message failed = message("bob@example.org", 0);
+    failSecondEmailOfBatch();
+
+    deliveryService.deliverBatch(List.of(ok, failed));
+
+    verify(rabbitTemplate)
+        .send(RabbitMQConfig.EMAIL_DEAD_LETTER_EXCHANGE, RabbitMQConfig.EMAIL_ROUTING_KEY, failed);
+    verify(rabbitTemplate, never()).send(anyString(), anyString(), eq(ok));
+  }
+
+  @Test
+  @DisplayName("Should park an email once it runs out of attempts")
+  public void shouldParkAfterMaxAttempts() {
+    doThrow(new MailSendException("Mailbox unavailable"))
+        .when(mailSender)
+        .send(any(MimeMessage[].class));
+    Message failed = message("alice@example.com", 2);
+
+    deliveryService.deliverBatch(List.of(failed));
+
+    verify(rabbitTemplate).send("", RabbitMQConfig.EMAIL_PARKING_QUEUE, failed);
+  }
+
+  @Test
+  @DisplayName("Should delay emails over the per-domain rate limit without counting an attempt")
+  public void shouldDelayRateLimitedEmails() {
+    ReflectionTestUtils.setField(deliveryService, "perDomainPerMinute", 1L);
+    Message first = message("alice@example.com", 0);
+    Message second = message("bob@example.com", 0);
+    Message otherDomain = message("carol@example.org", 0);
+
+    deliveryService.deliverBatch(List.of(first, second, otherDomain));
+
+    ArgumentCaptor<MimeMessage[]> captor = ArgumentCaptor.forClass(MimeMessage[].class);
+    verify(mailSender).send(captor.capture());
+    assertThat(captor.getValue()).hasSize(2);
+    verify(rabbitTemplate)
+        .send(RabbitMQConfig.EMAIL_DEAD_LETTER_EXCHANGE, RabbitMQConfig.EMAIL_ROUTING_KEY, second);
+    assertThat((Integer) second.getMessageProperties().getHeader("x-email-attempt")).isZero();
+  }
+
+  @Test
+  @DisplayName("Should park unreadable messages")
+  public void shouldParkUnreadableMessages() {
+    Message unreadable = new Message("not json".getBytes(), new MessageProperties());
+
+    deliveryService.deliverBatch(List.of(unreadable));
+
+    verify(rabbitTemplate).send("", RabbitMQConfig.EMAIL_PARKING_QUEUE, unreadable);
+    verify(mailSender, never()).send(any(MimeMessage[].class));
+  }
+
+  private void failSecondEmailOfBatch() {
+    doAnswer(
+            invocation -> {
+              MimeMessage[] sent = (MimeMessage[]) invocation.getRawArguments()[0];
+              throw new MailSendException(Map.of(sent[1], new RuntimeException("Rejected")));
+            })
+        .when(mailSender)
+        .send(any(MimeMessage[].class));
+  }
+
+  private Message message(String recipient, int attempt) {
+    EmailMessage email =
+        new EmailMessage(
+            UUID.randomUUID(),
+            recipient,
+            NotificationType.TASK_DUE_SOON,
+            "Task is due soon",
+            "Write report",
+            "2026-10-20T09:00");
+    MessageProperties properties = new MessageProperties();
+    if (attempt > 0) {
+      properties.setHeader("x-email-attempt", attempt);
+    }
+    try {
+      return new Message(objectMapper.writeValueAsBytes(email), properties);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.todoapp.domain.model.NotificationType;
+import com.todoapp.infrastructure.messaging.EmailMessage;
+import com.todoapp.infrastructure.messaging.EmailTemplateRenderer;
+import com.todoapp.infrastructure.messaging.EmailTemplateRenderer.RenderedEmail;
+
+@DisplayName("EmailTemplateRenderer Tests")
+public class EmailTemplateRendererTest {
+
+  private final EmailTemplateRenderer renderer = new EmailTemplateRenderer();
+
+  @Test
+  @DisplayName("Should render subject and body with task details")
+  public void shouldRenderWithTaskDetails() {
+    RenderedEmail email =
+        renderer.render(
+            new EmailMessage(
+                UUID.randomUUID(),
+                "alice@example.com",
+                NotificationType.TASK_OVERDUE,
+                "Your task is overdue",
+                "Pay rent",
+                "2026-10-01T09:00"));
+
+    assertThat(email.subject()).isEqualTo("Task Overdue: Pay rent");
+    assertThat(email.body())
+        .isEqualTo(
+            "Hello,\n\nYour task is overdue\n\nTask: Pay rent\nDue Date: 2026-10-01T09:00\n\n"
+                + "Click here to view details in the application.\n\nBest regards,\nTODO App Team");
+  }
+
+  @Test
+  @DisplayName("Should omit task details when there is no related task")
+  public void shouldRenderWithoutTask() {
+    RenderedEmail email =
+        renderer.render(
+            new EmailMessage(
+                UUID.randomUUID(),
+                "alice@example.com",
+                NotificationType.TASK_MENTIONED,
+                "Bob mentioned you",
+                null,
+                null));
+
+    assertThat(email.subject()).isEqualTo("You Were Mentioned in a Comment");
+    assertThat(email.body()).doesNotContain("Task:").contains("Bob mentioned you\n\nClick here");
+  }
+}
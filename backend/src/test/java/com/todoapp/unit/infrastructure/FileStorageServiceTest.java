@@ -3,7 +3,9 @@ package com.todoapp.unit.infrastructure;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -20,19 +22,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.todoapp.infrastructure.monitoring.ApplicationMetricsService;
 import com.todoapp.infrastructure.storage.FileStorageService;
 
+import io.minio.BucketExistsArgs;
 import io.minio.GetObjectArgs;
 import io.minio.GetObjectResponse;
+import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
 
 @ExtendWith(MockitoExtension.class)
 public class FileStorageServiceTest {
 
   @Mock private MinioClient minioClient;
 
+  @Mock private ApplicationMetricsService metricsService;
+
   @InjectMocks private FileStorageService fileStorageService;
 
   private String bucketName;
@@ -264,4 +274,95 @@ public class FileStorageServiceTest {
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessageContaining("File size exceeds maximum allowed size");
   }
+
+  @Test
+  @DisplayName("Should check bucket only once across uploads")
+  public void shouldCheckBucketOnlyOnce() throws Exception {
+    when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+    byte[] fileContent = "Content".getBytes();
+
+    fileStorageService.uploadFile(
+        "a.txt", new ByteArrayInputStream(fileContent), "text/plain", fileContent.length);
+    fileStorageService.uploadFile(
+        "b.txt", new ByteArrayInputStream(fileContent), "text/plain", fileContent.length);
+
+    verify(minioClient, times(1)).bucketExists(any(BucketExistsArgs.class));
+    verify(minioClient, never()).makeBucket(any(MakeBucketArgs.class));
+    verify(minioClient, times(2)).putObject(any(PutObjectArgs.class));
+  }
+
+  @Test
+  @DisplayName("Should create bucket at startup when missing")
+  public void shouldCreateBucketAtStartup() throws Exception {
+    when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(false);
+
+    fileStorageService.initializeBucket();
+    byte[] fileContent = "Content".getBytes();
+    fileStorageService.uploadFile(
+        "a.txt", new ByteArrayInputStream(fileContent), "text/plain", fileContent.length);
+
+    verify(minioClient, times(1)).makeBucket(any(MakeBucketArgs.class));
+    verify(minioClient, times(1)).bucketExists(any(BucketExistsArgs.class));
+  }
+
+  @Test
+  @DisplayName("Should retry bucket check on upload when startup bootstrap failed")
+  public void shouldRetryBucketCheckAfterFailedBootstrap() throws Exception {
+    when(minioClient.bucketExists(any(BucketExistsArgs.class)))
+        .thenThrow(new IOException("MinIO unavailable"))
+        .thenReturn(true);
+
+    fileStorageService.initializeBucket();
+    byte[] fileContent = "Content".getBytes();
+    fileStorageService.uploadFile(
+        "a.txt", new ByteArrayInputStream(fileContent), "text/plain", fileContent.length);
+
+    verify(minioClient, times(2)).bucketExists(any(BucketExistsArgs.class));
+    verify(minioClient, times(1)).putObject(any(PutObjectArgs.class));
+  }
+
+  @Test
+  @DisplayName("Should record storage operation metrics")
+  public void shouldRecordStorageOperationMetrics() throws Exception {
+    doThrow(new IOException("MinIO error"))
+        .when(minioClient)
+        .removeObject(any(RemoveObjectArgs.class));
+
+    fileStorageService.fileExists("uploads/123/file.pdf");
+    assertThatThrownBy(() -> fileStorageService.deleteFile("uploads/123/file.pdf"))
+        .isInstanceOf(RuntimeException.class);
+
+    verify(metricsService).recordStorageOperation(any(), eq("stat"), eq(true));
+    verify(metricsService).recordStorageOperation(any(), eq("delete"), eq(false));
+  }
+
+  @Test
+  @DisplayName("Should report a file as missing only for NoSuchKey")
+  public void shouldReportMissingFileForNoSuchKey() throws Exception {
+    when(minioClient.statObject(any(StatObjectArgs.class))).thenThrow(errorResponse("NoSuchKey"));
+
+    assertThat(fileStorageService.fileExists("uploads/123/file.pdf")).isFalse();
+    verify(metricsService).recordStorageOperation(any(), eq("stat"), eq(true));
+  }
+
+  @Test
+  @DisplayName("Should fail the existence check on other storage errors")
+  public void shouldFailExistenceCheckOnOtherErrors() throws Exception {
+    when(minioClient.statObject(any(StatObjectArgs.class)))
+        .thenThrow(errorResponse("AccessDenied"))
+        .thenThrow(new IOException("MinIO unavailable"));
+
+    assertThatThrownBy(() -> fileStorageService.fileExists("uploads/123/file.pdf"))
+        .isInstanceOf(RuntimeException.class);
+    assertThatThrownBy(() -> fileStorageService.fileExists("uploads/123/file.pdf"))
+        .isInstanceOf(RuntimeException.class);
+    verify(metricsService, times(2)).recordStorageOperation(any(), eq("stat"), eq(false));
+  }
+
+  private static ErrorResponseException errorResponse(String code) {
+    return new ErrorResponseException(
+        new ErrorResponse(code, code, "test-bucket", "uploads/123/file.pdf", null, null, null),
+        null,
+        null);
+  }
 }
@@ -0,0 +1,199 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.todoapp.application.dto.ExportRecord;
+import com.todoapp.application.dto.ExportRecord.CommentRecord;
+import com.todoapp.application.dto.ExportRecord.TagRecord;
+import com.todoapp.application.dto.ExportRecord.TaskRecord;
+import com.todoapp.domain.model.Priority;
+import com.todoapp.domain.model.Tag;
+import com.todoapp.infrastructure.cache.ReferenceDataCacheInvalidator;
+import com.todoapp.infrastructure.persistence.ImportChunkWriter;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportChunkWriter Tests")
+public class ImportChunkWriterTest {
+
+  private static final Long JOB_ID = 42L;
+
+  private static final Long USER_ID = 1L;
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private SyncChangeLog syncChangeLog;
+
+  @Mock private ReferenceDataCacheInvalidator cacheInvalidator;
+
+  @InjectMocks private ImportChunkWriter chunkWriter;
+
+  @Captor private ArgumentCaptor<List<Object[]>> rows;
+
+  @Test
+  @DisplayName("Should write nothing when the checkpoint was moved by another worker")
+  public void shouldSkipChunkOfLostJob() {
+    when(jdbcTemplate.update(contains("UPDATE import_jobs"), any(Object[].class))).thenReturn(0);
+
+    boolean written = chunkWriter.write(JOB_ID, USER_ID, 1000, List.of(task(10L, null)));
+
+    assertThat(written).isFalse();
+    verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    verifyNoInteractions(syncChangeLog, cacheInvalidator);
+  }
+
+  @Test
+  @DisplayName("Should link subtasks to parents of the same and of earlier chunks")
+  public void shouldResolveParentsAndTags() {
+    when(jdbcTemplate.update(contains("UPDATE import_jobs"), any(Object[].class))).thenReturn(1);
+    when(jdbcTemplate.queryForObject(
+            contains("INSERT INTO tags"), eq(Long.class), any(Object[].class)))
+        .thenReturn(60L);
+    when(jdbcTemplate.queryForList(contains("nextval"), eq(Long.class), eq(3)))
+        .thenReturn(List.of(100L, 101L, 102L));
+    Map<String, Map<Long, Object>> stored = new HashMap<>();
+    stored.put("TAG", Map.of(6L, 60L));
+    stored.put("TASK", Map.of(9L, 90L));
+    stored.put("DEPTH", Map.of(90L, 2));
+    givenRows(stored);
+
+    TaskRecord parent =
+        new TaskRecord(
+            10L,
+            null,
+            null,
+            List.of(6L),
+            "Plan",
+            Priority.HIGH,
+            false,
+            null,
+            null,
+            1024L,
+            null,
+            null,
+            null);
+    boolean written =
+        chunkWriter.write(
+            JOB_ID,
+            USER_ID,
+            0,
+            List.of(new TagRecord(6L, "urgent", null), parent, task(11L, 10L), task(12L, 9L)));
+
+    assertThat(written).isTrue();
+    verify(jdbcTemplate).batchUpdate(contains("INSERT INTO tasks"), rows.capture());
+    assertThat(rows.getValue())
+        .extracting(row -> row[0] + "<" + row[2] + "@" + row[12])
+        .containsExactly("100<null@0", "101<100@1", "102<90@3");
+    verify(jdbcTemplate).batchUpdate(contains("INSERT INTO task_tags"), rows.capture());
+    assertThat(rows.getValue()).extracting(Arrays::asList).containsExactly(List.of(100L, 60L));
+    verify(syncChangeLog).tasksChanged(List.of(100L, 101L, 102L), USER_ID);
+    verify(cacheInvalidator).evict(Tag.class, 60L);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  @DisplayName("Should insert comments with sequence IDs and log them for delta sync")
+  public void shouldLogImportedComments() {
+    when(jdbcTemplate.update(contains("UPDATE import_jobs"), any(Object[].class))).thenReturn(1);
+    when(jdbcTemplate.queryForList(contains("tasks_id_seq"), eq(Long.class), eq(1)))
+        .thenReturn(List.of(100L));
+    when(jdbcTemplate.queryForList(contains("comments_id_seq"), eq(Long.class), eq(2)))
+        .thenReturn(List.of(500L, 501L));
+    Map<String, Map<Long, Object>> stored = new HashMap<>();
+    stored.put("TASK", Map.of(9L, 90L));
+    givenRows(stored);
+
+    boolean written =
+        chunkWriter.write(
+            JOB_ID,
+            USER_ID,
+            0,
+            List.of(
+                task(10L, null),
+                new CommentRecord(1L, 10L, "Same chunk", false, null),
+                new CommentRecord(2L, 9L, "Earlier chunk", true, null),
+                new CommentRecord(3L, 77L, "Unknown task", false, null)));
+
+    assertThat(written).isTrue();
+    verify(jdbcTemplate).batchUpdate(contains("INSERT INTO comments"), rows.capture());
+    assertThat(rows.getValue())
+        .extracting(row -> row[0] + ">" + row[1])
+        .containsExactly("500>100", "501>90");
+    ArgumentCaptor<List<Object[]>> changes = ArgumentCaptor.forClass(List.class);
+    verify(syncChangeLog).commentsChanged(changes.capture(), eq(USER_ID));
+    assertThat(changes.getValue())
+        .extracting(Arrays::asList)
+        .containsExactly(List.of(500L, 100L), List.of(501L, 90L));
+  }
+
+  /**
+   * Answer ID map lookups from {@code stored} by entity type, and depth lookups from its DEPTH
+   * entry.
+   */
+  private void givenRows(Map<String, Map<Long, Object>> stored) {
+    doAnswer(
+            invocation -> {
+              Object[] args = invocation.getArguments();
+              String sql = invocation.getArgument(0);
+              RowCallbackHandler handler = invocation.getArgument(1);
+              boolean idMap = sql.contains("import_id_map");
+              Map<Long, Object> values = stored.get(idMap ? (String) args[3] : "DEPTH");
+              for (int i = idMap ? 4 : 2; i < args.length; i++) {
+                Object value = values != null ? values.get((Long) args[i]) : null;
+                if (value != null) {
+                  handler.processRow(row(args[i], value));
+                }
+              }
+              return null;
+            })
+        .when(jdbcTemplate)
+        .query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+  }
+
+  private static ResultSet row(Object... columns) {
+    return (ResultSet)
+        Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[] {ResultSet.class},
+            (proxy, method, args) -> {
+              Number value = (Number) columns[(Integer) args[0] - 1];
+              if (method.getName().equals("getInt")) {
+                return value.intValue();
+              }
+              return value.longValue();
+            });
+  }
+
+  private static ExportRecord task(Long id, Long parentId) {
+    return new TaskRecord(
+        id, parentId, null, null, "Task " + id, null, false, null, null, null, null, null, null);
+  }
+}
@@ -0,0 +1,109 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.todoapp.application.dto.MentionCandidateDTO;
+import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.cache.MentionHandleIndex;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MentionHandleIndex Tests")
+public class MentionHandleIndexTest {
+
+  private static final LocalDateTime T1 = LocalDateTime.of(2026, 1, 1, 9, 0);
+  private static final LocalDateTime T2 = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+  @Mock private UserRepository userRepository;
+
+  private MentionHandleIndex index;
+
+  @BeforeEach
+  public void setUp() {
+    index = new MentionHandleIndex(userRepository);
+  }
+
+  @Test
+  @DisplayName("Should find users by handle prefix or full-name word")
+  public void shouldSearchByHandleAndName() {
+    index.put(new MentionCandidateDTO(1L, "alice", "Alice Smith"));
+    index.put(new MentionCandidateDTO(2L, "albert", "Albert Jones"));
+    index.put(new MentionCandidateDTO(3L, "bob", "Bob Smithers"));
+
+    assertThat(index.search("Al", 10)).extracting(MentionCandidateDTO::id).containsExactly(2L, 1L);
+    assertThat(index.search("smith", 10))
+        .extracting(MentionCandidateDTO::id)
+        .containsExactly(1L, 3L);
+    assertThat(index.search("zed", 10)).isEmpty();
+    assertThat(index.search("", 10)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should return each user once and respect the limit")
+  public void shouldDeduplicateAndLimit() {
+    index.put(new MentionCandidateDTO(1L, "alice", "Alice Alison"));
+    index.put(new MentionCandidateDTO(2L, "alma", null));
+    index.put(new MentionCandidateDTO(3L, "alvin", null));
+
+    assertThat(index.search("al", 10)).hasSize(3);
+    assertThat(index.search("al", 2)).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Should replace old entries when a user changes handle")
+  public void shouldReplaceOldEntries() {
+    index.put(new MentionCandidateDTO(1L, "alice", null));
+    index.put(new MentionCandidateDTO(1L, "ally", null));
+
+    assertThat(index.search("alice", 10)).isEmpty();
+    assertThat(index.search("ally", 10))
+        .extracting(MentionCandidateDTO::username)
+        .containsExactly("ally");
+  }
+
+  @Test
+  @DisplayName("Should refresh incrementally from the last seen update")
+  public void shouldRefreshIncrementally() {
+    when(userRepository.findMentionHandlesUpdatedSince(ArgumentMatchers.any()))
+        .thenReturn(
+            List.<Object[]>of(
+                new Object[] {1L, "alice", "Alice", true, T1},
+                new Object[] {2L, "bob", "Bob", true, T2}));
+    assertThat(index.refresh()).isEqualTo(2);
+
+    // Re-reads a safety window before the newest update, for late commits and clock skew
+    when(userRepository.findMentionHandlesUpdatedSince(T2.minusMinutes(5)))
+        .thenReturn(List.<Object[]>of(new Object[] {2L, "bob", "Bob", false, T2}));
+    index.refresh();
+
+    assertThat(index.search("alice", 10)).hasSize(1);
+    // Deactivated users are dropped
+    assertThat(index.search("bob", 10)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should only return the given users when the search is limited to them")
+  public void shouldSearchAmongGivenUsers() {
+    index.put(new MentionCandidateDTO(1L, "alice", "Alice Smith"));
+    index.put(new MentionCandidateDTO(2L, "albert", "Albert Jones"));
+    index.put(new MentionCandidateDTO(3L, "bob", "Bob Alder"));
+
+    assertThat(index.search("al", 10, Set.of(1L, 3L, 99L)))
+        .extracting(MentionCandidateDTO::id)
+        .containsExactly(3L, 1L);
+    assertThat(index.search("al", 1, Set.of(1L, 3L))).hasSize(1);
+    assertThat(index.search("al", 10, Set.of())).isEmpty();
+  }
+}
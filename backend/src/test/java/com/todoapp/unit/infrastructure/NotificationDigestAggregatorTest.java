@@ -0,0 +1,201 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.todoapp.application.service.NotificationService;
+import com.todoapp.domain.model.NotificationDigestItem;
+import com.todoapp.domain.model.NotificationType;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.NotificationDigestItemRepository;
+import com.todoapp.domain.repository.UserRepository;
+import com.todoapp.infrastructure.messaging.NotificationDigestAggregator;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationDigestAggregator Tests")
+public class NotificationDigestAggregatorTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+  @Mock private NotificationDigestItemRepository digestItemRepository;
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private NotificationService notificationService;
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private NotificationDigestAggregator aggregator;
+  private User user;
+
+  @BeforeEach
+  public void setUp() {
+    aggregator =
+        new NotificationDigestAggregator(
+            digestItemRepository,
+            userRepository,
+            notificationService,
+            redisTemplate,
+            new TransactionTemplate(transactionManager));
+    ReflectionTestUtils.setField(aggregator, "shardCount", 2);
+    ReflectionTestUtils.setField(aggregator, "batchSize", 100);
+    ReflectionTestUtils.setField(aggregator, "maxItems", 2);
+    ReflectionTestUtils.setField(aggregator, "lockTtl", Duration.ofMinutes(5));
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    user = new User();
+    user.setId(1L);
+    user.setEmail("test@example.com");
+  }
+
+  @Test
+  @DisplayName("Should deliver one digest per user and delete its items")
+  public void shouldDeliverOneDigestPerUser() {
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    when(digestItemRepository.findDueUserIds(eq(NOW), eq(2), anyInt(), any(Pageable.class)))
+        .thenReturn(List.of(1L), List.of());
+    when(digestItemRepository.findByUserIdInAndDeliverAtLessThanEqualOrderByCreatedAtAsc(
+            List.of(1L), NOW))
+        .thenReturn(
+            List.of(
+                item(10L, NotificationType.TASK_MENTIONED, "Mentioned on A", false),
+                item(11L, NotificationType.TASK_MENTIONED, "Mentioned on B", true),
+                item(12L, NotificationType.TASK_DUE_SOON, "A is due soon", false)));
+    when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+    when(digestItemRepository.deleteByIds(List.of(10L, 11L, 12L))).thenReturn(3);
+
+    int delivered = aggregator.flush(NOW);
+
+    assertThat(delivered).isEqualTo(1);
+    ArgumentCaptor<String> details = ArgumentCaptor.forClass(String.class);
+    verify(notificationService)
+        .createDigestNotification(
+            eq(user),
+            eq("You have 3 new notifications: 1 due soon, 2 mentions"),
+            details.capture(),
+            eq(true),
+            eq(true));
+    assertThat(details.getValue())
+        .contains("- Mentioned on A\n- Mentioned on B\n")
+        .doesNotContain("A is due soon")
+        .contains("...and 1 more");
+    ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+    verify(valueOperations)
+        .setIfAbsent(
+            eq("notifications:digest:shard-lock::0"), token.capture(), any(Duration.class));
+    verify(redisTemplate)
+        .execute(
+            any(RedisScript.class),
+            eq(List.of("notifications:digest:shard-lock::0")),
+            eq(token.getValue()));
+    verify(redisTemplate)
+        .execute(
+            any(RedisScript.class),
+            eq(List.of("notifications:digest:shard-lock::1")),
+            eq(token.getValue()));
+    verify(redisTemplate, never()).delete(anyString());
+  }
+
+  @Test
+  @DisplayName("Should skip shards locked by another node")
+  public void shouldSkipLockedShards() {
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    assertThat(aggregator.flush(NOW)).isZero();
+
+    verify(digestItemRepository, never())
+        .findDueUserIds(any(), anyInt(), anyInt(), any(Pageable.class));
+    verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+  }
+
+  @Test
+  @DisplayName("Should not send a digest whose items another node already delivered")
+  public void shouldSkipDigestDeliveredConcurrently() {
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    when(digestItemRepository.findDueUserIds(eq(NOW), eq(2), anyInt(), any(Pageable.class)))
+        .thenReturn(List.of(1L));
+    when(digestItemRepository.findByUserIdInAndDeliverAtLessThanEqualOrderByCreatedAtAsc(
+            List.of(1L), NOW))
+        .thenReturn(
+            List.of(
+                item(10L, NotificationType.TASK_COMMENTED, "New comment", false),
+                item(11L, NotificationType.TASK_COMMENTED, "Another comment", false)));
+    when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+    when(digestItemRepository.deleteByIds(List.of(10L, 11L))).thenReturn(1);
+
+    assertThat(aggregator.flush(NOW)).isZero();
+
+    verify(notificationService, never())
+        .createDigestNotification(any(), anyString(), anyString(), anyBoolean(), anyBoolean());
+    // Both shards return the user
+    verify(transactionManager, times(2)).rollback(any());
+    verify(transactionManager, never()).commit(any());
+  }
+
+  @Test
+  @DisplayName("Should keep the items of a digest that failed to deliver")
+  public void shouldKeepItemsWhenDeliveryFails() {
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    when(digestItemRepository.findDueUserIds(eq(NOW), eq(2), anyInt(), any(Pageable.class)))
+        .thenReturn(List.of(1L));
+    when(digestItemRepository.findByUserIdInAndDeliverAtLessThanEqualOrderByCreatedAtAsc(
+            List.of(1L), NOW))
+        .thenReturn(List.of(item(10L, NotificationType.TASK_COMMENTED, "New comment", false)));
+    when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+    when(digestItemRepository.deleteByIds(List.of(10L))).thenReturn(1);
+    when(notificationService.createDigestNotification(
+            any(), anyString(), anyString(), anyBoolean(), anyBoolean()))
+        .thenThrow(new IllegalStateException("Database unavailable"));
+
+    assertThat(aggregator.flush(NOW)).isZero();
+
+    // The deletion is rolled back together with the failed delivery, in both shards
+    verify(transactionManager, times(2)).rollback(any());
+    verify(transactionManager, never()).commit(any());
+  }
+
+  private NotificationDigestItem item(
+      Long id, NotificationType type, String message, boolean email) {
+    NotificationDigestItem item =
+        new NotificationDigestItem(1L, type, message, null, true, email, NOW);
+    item.setId(id);
+    return item;
+  }
+}
@@ -0,0 +1,248 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.todoapp.domain.model.DigestFrequency;
+import com.todoapp.domain.model.NotificationPreference;
+import com.todoapp.domain.model.NotificationPreferenceMatrix;
+import com.todoapp.domain.model.NotificationType;
+import com.todoapp.domain.model.User;
+import com.todoapp.domain.repository.NotificationPreferenceRepository;
+import com.todoapp.infrastructure.cache.NotificationPreferenceCache;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationPreferenceCache Tests")
+public class NotificationPreferenceCacheTest {
+
+  @Mock private NotificationPreferenceRepository preferenceRepository;
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  private CacheManager jCacheManager;
+
+  private NotificationPreferenceCache cache;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    // The application's ehcache.xml, so the region must exist there
+    jCacheManager =
+        Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+            .getCacheManager(
+                new ClassPathResource("ehcache.xml").getURL().toURI(), getClass().getClassLoader());
+    cache = new NotificationPreferenceCache(preferenceRepository, redisTemplate, jCacheManager);
+    ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    // The guarded write stores every matrix unless a test says otherwise
+    lenient()
+        .when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenAnswer(
+            invocation -> {
+              List<String> keys = invocation.getArgument(1);
+              return Collections.nCopies(keys.size() / 2, 1L);
+            });
+  }
+
+  @AfterEach
+  public void tearDown() {
+    jCacheManager.close();
+  }
+
+  @Test
+  @DisplayName("Should load all missing users with one Redis read and one query")
+  public void shouldLoadBatchWithOneQuery() {
+    NotificationPreferenceMatrix cached =
+        NotificationPreferenceMatrix.defaults()
+            .with(NotificationType.TASK_SHARED, false, true, DigestFrequency.IMMEDIATE);
+    when(valueOperations.multiGet(
+            List.of(
+                "notifications:preferences::1",
+                "notifications:preferences::2",
+                "notifications:preferences::3",
+                "notifications:preferences-generation::1",
+                "notifications:preferences-generation::2",
+                "notifications:preferences-generation::3")))
+        .thenReturn(Arrays.asList(String.valueOf(cached.toBits()), null, null, null, "4", null));
+    when(preferenceRepository.findByUserIds(anyCollection()))
+        .thenReturn(List.of(preference(2L, NotificationType.TASK_MENTIONED)));
+
+    Map<Long, NotificationPreferenceMatrix> matrices = cache.getAll(List.of(1L, 2L, 3L));
+
+    assertThat(matrices.get(1L)).isEqualTo(cached);
+    assertThat(matrices.get(2L).isEmailEnabled(NotificationType.TASK_MENTIONED)).isTrue();
+    assertThat(matrices.get(3L)).isEqualTo(NotificationPreferenceMatrix.defaults());
+    verify(preferenceRepository)
+        .findByUserIds(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(2L, 3L))));
+    ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+    verify(redisTemplate)
+        .execute(
+            any(RedisScript.class),
+            eq(
+                List.of(
+                    "notifications:preferences::2",
+                    "notifications:preferences-generation::2",
+                    "notifications:preferences::3",
+                    "notifications:preferences-generation::3")),
+            args.capture());
+    assertThat(args.getValue())
+        .containsExactly(
+            "3600000",
+            "4",
+            String.valueOf(matrices.get(2L).toBits()),
+            "0",
+            String.valueOf(matrices.get(3L).toBits()));
+  }
+
+  @Test
+  @DisplayName("Should serve repeated lookups from the local cache")
+  public void shouldServeFromLocalCache() {
+    when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+
+    cache.get(1L);
+    cache.get(1L);
+
+    verify(valueOperations, times(1)).multiGet(anyList());
+    verify(preferenceRepository, times(1)).findByUserIds(anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should fall back to the database when Redis is unavailable")
+  public void shouldFallBackToDatabase() {
+    when(valueOperations.multiGet(anyList())).thenThrow(new IllegalStateException("Redis down"));
+
+    assertThat(cache.get(1L)).isEqualTo(NotificationPreferenceMatrix.defaults());
+    verify(preferenceRepository).findByUserIds(anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should drop the entry on every node when preferences change")
+  public void shouldEvictOnAllNodes() {
+    when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+    cache.get(1L);
+
+    cache.evict(1L);
+    cache.get(1L);
+
+    InOrder order = inOrder(valueOperations, redisTemplate);
+    order.verify(valueOperations).increment("notifications:preferences-generation::1");
+    order.verify(redisTemplate).delete("notifications:preferences::1");
+    order.verify(redisTemplate).convertAndSend(NotificationPreferenceCache.EVICTION_CHANNEL, "1");
+    verify(preferenceRepository, times(2)).findByUserIds(anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should not cache preferences whose generation moved during the lookup")
+  public void shouldNotCacheWhenGenerationMoved() {
+    when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, "1"));
+    when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenReturn(List.of(0L));
+
+    cache.get(1L);
+    cache.get(1L);
+
+    // Neither Redis nor L1 kept the matrix, so the second lookup goes to the database again
+    verify(preferenceRepository, times(2)).findByUserIds(anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should still use the local cache when Redis is unavailable")
+  public void shouldUseLocalCacheWithoutRedis() {
+    when(valueOperations.multiGet(anyList())).thenThrow(new IllegalStateException("Redis down"));
+
+    cache.get(1L);
+    cache.get(1L);
+
+    verify(preferenceRepository, times(1)).findByUserIds(anyCollection());
+    verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+  }
+
+  @Test
+  @DisplayName("Should drop the entry again after commit so a concurrent lookup cannot keep it")
+  public void shouldEvictAgainAfterCommit() {
+    when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.evict(1L);
+      verify(redisTemplate).delete("notifications:preferences::1");
+
+      // A lookup between the eviction and the commit caches the preferences read before the commit
+      cache.get(1L);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    cache.get(1L);
+
+    verify(redisTemplate, times(2)).delete("notifications:preferences::1");
+    verify(redisTemplate, times(2))
+        .convertAndSend(NotificationPreferenceCache.EVICTION_CHANNEL, "1");
+    verify(preferenceRepository, times(2)).findByUserIds(anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should drop the local entry when another node publishes an eviction")
+  public void shouldEvictLocallyOnMessage() {
+    when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+    cache.get(1L);
+
+    cache.onMessage(
+        new DefaultMessage(
+            NotificationPreferenceCache.EVICTION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+            "1".getBytes(StandardCharsets.UTF_8)),
+        null);
+    cache.get(1L);
+
+    verify(preferenceRepository, times(2)).findByUserIds(anyCollection());
+    verify(redisTemplate, never()).delete(any(String.class));
+  }
+
+  private NotificationPreference preference(Long userId, NotificationType type) {
+    User user = new User();
+    user.setId(userId);
+    NotificationPreference preference = new NotificationPreference(user, type);
+    preference.setEmailEnabled(true);
+    return preference;
+  }
+}
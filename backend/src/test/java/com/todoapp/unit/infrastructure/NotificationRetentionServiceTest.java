@@ -0,0 +1,122 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.domain.repository.NotificationRepository;
+import com.todoapp.infrastructure.persistence.NotificationRetentionService;
+import com.todoapp.infrastructure.persistence.NotificationRetentionService.RetentionResult;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationRetentionService Tests")
+public class NotificationRetentionServiceTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private NotificationRepository notificationRepository;
+
+  @InjectMocks private NotificationRetentionService retentionService;
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(retentionService, "retentionMonths", 6);
+    ReflectionTestUtils.setField(retentionService, "readRetentionDays", 30);
+    ReflectionTestUtils.setField(retentionService, "premakeMonths", 2);
+  }
+
+  @Test
+  @DisplayName("Should create the current and upcoming monthly partitions")
+  public void shouldCreateUpcomingPartitions() {
+    givenPartitions();
+    when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(LocalDate.class)))
+        .thenReturn("notifications_p202610", "notifications_p202611", "notifications_p202612");
+
+    RetentionResult result = retentionService.runRetention(TODAY);
+
+    verify(jdbcTemplate)
+        .queryForObject(
+            "SELECT create_notification_partition(?)", String.class, LocalDate.of(2026, 10, 1));
+    verify(jdbcTemplate)
+        .queryForObject(
+            "SELECT create_notification_partition(?)", String.class, LocalDate.of(2026, 12, 1));
+    assertThat(result.ensuredPartitions()).hasSize(3);
+  }
+
+  @Test
+  @DisplayName("Should drop only monthly partitions older than the retention period")
+  public void shouldDropExpiredPartitions() {
+    givenPartitions(
+        "notifications_default",
+        "notifications_p202603",
+        "notifications_p202604",
+        "notifications_p202605",
+        "notifications_p202610");
+
+    RetentionResult result = retentionService.runRetention(TODAY);
+
+    // Six months back from October 2026 is April 2026, which is kept
+    assertThat(result.droppedPartitions()).containsExactly("notifications_p202603");
+    InOrder order = inOrder(jdbcTemplate);
+    order
+        .verify(jdbcTemplate)
+        .execute("ALTER TABLE notifications DETACH PARTITION notifications_p202603 CONCURRENTLY");
+    order.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS notifications_p202603");
+    verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS notifications_p202604");
+    verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS notifications_default");
+  }
+
+  @Test
+  @DisplayName("Should finalize a detach left pending by an interrupted run")
+  public void shouldFinalizePendingDetach() {
+    givenPartitions("notifications_p202603");
+    when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(LocalDate.class)))
+        .thenReturn("notifications_p202610");
+    when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("notifications_p202603")))
+        .thenReturn(true);
+
+    retentionService.runRetention(TODAY);
+
+    verify(jdbcTemplate)
+        .execute("ALTER TABLE notifications DETACH PARTITION notifications_p202603 FINALIZE");
+    verify(jdbcTemplate).execute("DROP TABLE IF EXISTS notifications_p202603");
+  }
+
+  @Test
+  @DisplayName("Should delete read notifications older than the read retention period")
+  public void shouldDeleteOldReadNotifications() {
+    givenPartitions();
+    when(notificationRepository.deleteOldReadNotifications(LocalDateTime.of(2026, 9, 19, 0, 0)))
+        .thenReturn(42);
+
+    RetentionResult result = retentionService.runRetention(TODAY);
+
+    assertThat(result.deletedReadNotifications()).isEqualTo(42);
+  }
+
+  private void givenPartitions(String... partitions) {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(partitions));
+  }
+}
@@ -0,0 +1,196 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.domain.repository.FileAttachmentRepository;
+import com.todoapp.infrastructure.storage.FileStorageService;
+import com.todoapp.infrastructure.storage.StorageReconciliationReport;
+import com.todoapp.infrastructure.storage.StorageReconciliationService;
+import com.todoapp.infrastructure.storage.StoredObject;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorageReconciliationService Tests")
+public class StorageReconciliationServiceTest {
+
+  @Mock private FileStorageService fileStorageService;
+
+  @Mock private FileAttachmentRepository fileAttachmentRepository;
+
+  @InjectMocks private StorageReconciliationService reconciliationService;
+
+  private final ZonedDateTime oldTimestamp = ZonedDateTime.now().minusDays(7);
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(reconciliationService, "prefix", "uploads/");
+    ReflectionTestUtils.setField(reconciliationService, "minObjectAgeHours", 24L);
+    ReflectionTestUtils.setField(reconciliationService, "pageSize", 2);
+    ReflectionTestUtils.setField(reconciliationService, "deleteBatchSize", 2);
+    ReflectionTestUtils.setField(reconciliationService, "maxDeletesPerSecond", 1000L);
+    ReflectionTestUtils.setField(reconciliationService, "maxDeletesPerRun", 100L);
+    ReflectionTestUtils.setField(reconciliationService, "reportSampleSize", 10);
+  }
+
+  private StoredObject object(String key) {
+    return new StoredObject(key, 100L, oldTimestamp);
+  }
+
+  private void givenReferencedKeys(String... keys) {
+    // Page size is 2, so keys are served in pages of two via keyset pagination
+    String after = "";
+    for (int i = 0; i <= keys.length; i += 2) {
+      List<String> page = List.of(keys).subList(i, Math.min(i + 2, keys.length));
+      when(fileAttachmentRepository.findReferencedStorageKeysAfter(
+              after, "uploads/", "uploads0", 2))
+          .thenReturn(page);
+      if (page.size() < 2) {
+        break;
+      }
+      after = page.get(page.size() - 1);
+    }
+  }
+
+  @Test
+  @DisplayName("Should report orphans and missing objects without deleting in dry-run mode")
+  public void shouldReportWithoutDeletingInDryRun() {
+    when(fileStorageService.listObjects("uploads/"))
+        .thenReturn(
+            List.of(object("uploads/a/1.pdf"), object("uploads/b/2.pdf"), object("uploads/c/3.pdf"))
+                .iterator());
+    givenReferencedKeys("uploads/a/1.pdf", "uploads/b/0.pdf", "uploads/c/3.pdf");
+
+    StorageReconciliationReport report = reconciliationService.reconcile(true);
+
+    assertThat(report.isDryRun()).isTrue();
+    assertThat(report.getObjectsScanned()).isEqualTo(3);
+    assertThat(report.getReferencedKeysScanned()).isEqualTo(3);
+    assertThat(report.getMatchedKeys()).isEqualTo(2);
+    assertThat(report.getOrphanedObjects()).isEqualTo(1);
+    assertThat(report.getOrphanedBytes()).isEqualTo(100L);
+    assertThat(report.getOrphanedSample()).containsExactly("uploads/b/2.pdf");
+    assertThat(report.getMissingObjects()).isEqualTo(1);
+    assertThat(report.getMissingSample()).containsExactly("uploads/b/0.pdf");
+    assertThat(report.getDeletedObjects()).isZero();
+    verify(fileStorageService, never()).deleteObjects(any());
+  }
+
+  @Test
+  @DisplayName("Should delete orphans in batches")
+  public void shouldDeleteOrphansInBatches() {
+    when(fileStorageService.listObjects("uploads/"))
+        .thenReturn(
+            List.of(
+                    object("uploads/a/1.pdf"),
+                    object("uploads/a/2.pdf"),
+                    object("uploads/a/3.pdf"),
+                    object("uploads/b/4.pdf"))
+                .iterator());
+    givenReferencedKeys("uploads/b/4.pdf");
+    when(fileStorageService.deleteObjects(any())).thenReturn(List.of());
+
+    StorageReconciliationReport report = reconciliationService.reconcile(false);
+
+    assertThat(report.getOrphanedObjects()).isEqualTo(3);
+    assertThat(report.getDeletedObjects()).isEqualTo(3);
+    verify(fileStorageService).deleteObjects(List.of("uploads/a/1.pdf", "uploads/a/2.pdf"));
+    verify(fileStorageService).deleteObjects(List.of("uploads/a/3.pdf"));
+  }
+
+  @Test
+  @DisplayName("Should never delete objects younger than the minimum age")
+  public void shouldSkipRecentObjects() {
+    when(fileStorageService.listObjects("uploads/"))
+        .thenReturn(
+            List.of(new StoredObject("uploads/a/new.pdf", 50L, ZonedDateTime.now())).iterator());
+    givenReferencedKeys();
+
+    StorageReconciliationReport report = reconciliationService.reconcile(false);
+
+    assertThat(report.getSkippedRecentObjects()).isEqualTo(1);
+    assertThat(report.getOrphanedObjects()).isZero();
+    verify(fileStorageService, never()).deleteObjects(any());
+  }
+
+  @Test
+  @DisplayName("Should stop deleting once the per-run limit is reached")
+  public void shouldRespectDeleteLimit() {
+    ReflectionTestUtils.setField(reconciliationService, "maxDeletesPerRun", 1L);
+    when(fileStorageService.listObjects("uploads/"))
+        .thenReturn(List.of(object("uploads/a/1.pdf"), object("uploads/a/2.pdf")).iterator());
+    givenReferencedKeys();
+    when(fileStorageService.deleteObjects(any())).thenReturn(List.of());
+
+    StorageReconciliationReport report = reconciliationService.reconcile(false);
+
+    assertThat(report.getOrphanedObjects()).isEqualTo(2);
+    assertThat(report.getDeletedObjects()).isEqualTo(1);
+    assertThat(report.isDeleteLimitReached()).isTrue();
+    verify(fileStorageService, times(1)).deleteObjects(List.of("uploads/a/1.pdf"));
+  }
+
+  @Test
+  @DisplayName("Should count failed deletes reported by storage")
+  public void shouldCountFailedDeletes() {
+    when(fileStorageService.listObjects("uploads/"))
+        .thenReturn(List.of(object("uploads/a/1.pdf"), object("uploads/a/2.pdf")).iterator());
+    givenReferencedKeys();
+    when(fileStorageService.deleteObjects(any())).thenReturn(List.of("uploads/a/2.pdf"));
+
+    StorageReconciliationReport report = reconciliationService.reconcile(false);
+
+    assertThat(report.getDeletedObjects()).isEqualTo(1);
+    assertThat(report.getFailedDeletes()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should page through referenced keys using the last key of each page")
+  public void shouldPageReferencedKeys() {
+    when(fileStorageService.listObjects("uploads/")).thenReturn(List.<StoredObject>of().iterator());
+    givenReferencedKeys("uploads/a", "uploads/b", "uploads/c", "uploads/d");
+
+    StorageReconciliationReport report = reconciliationService.reconcile(true);
+
+    assertThat(report.getMissingObjects()).isEqualTo(4);
+    verify(fileAttachmentRepository).findReferencedStorageKeysAfter("", "uploads/", "uploads0", 2);
+    verify(fileAttachmentRepository)
+        .findReferencedStorageKeysAfter("uploads/b", "uploads/", "uploads0", 2);
+    verify(fileAttachmentRepository)
+        .findReferencedStorageKeysAfter("uploads/d", "uploads/", "uploads0", 2);
+    verify(fileAttachmentRepository, times(3))
+        .findReferencedStorageKeysAfter(any(), any(), any(), eq(2));
+  }
+
+  @Test
+  @DisplayName("Should read every referenced key when no prefix is configured")
+  public void shouldReadAllKeysWithoutPrefix() {
+    ReflectionTestUtils.setField(reconciliationService, "prefix", "");
+    when(fileStorageService.listObjects("")).thenReturn(List.<StoredObject>of().iterator());
+    when(fileAttachmentRepository.findReferencedStorageKeysFrom("", "", 2))
+        .thenReturn(List.of("thumbnails/a"));
+
+    StorageReconciliationReport report = reconciliationService.reconcile(true);
+
+    assertThat(report.getMissingObjects()).isEqualTo(1);
+    verify(fileAttachmentRepository, never())
+        .findReferencedStorageKeysAfter(any(), any(), any(), anyInt());
+  }
+}
@@ -0,0 +1,185 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.todoapp.domain.model.SyncEntityType;
+import com.todoapp.domain.repository.CommentRepository;
+import com.todoapp.domain.repository.TaskShareRepository;
+import com.todoapp.infrastructure.persistence.SyncChangeLog;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SyncChangeLog Tests")
+public class SyncChangeLogTest {
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private TaskShareRepository taskShareRepository;
+
+  @Mock private CommentRepository commentRepository;
+
+  @InjectMocks private SyncChangeLog changeLog;
+
+  @Captor private ArgumentCaptor<List<Object[]>> rows;
+
+  @AfterEach
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.unbindResourceIfPossible(changeLog);
+  }
+
+  @Test
+  @DisplayName("Should write a change right away outside a transaction")
+  public void shouldWriteImmediatelyWithoutTransaction() {
+    givenSequence(1L, 1, 7L);
+
+    changeLog.changed(SyncEntityType.CATEGORY, 5L, 1L);
+
+    verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+    assertThat(rows.getValue()).hasSize(1);
+    assertThat(rows.getValue().get(0)).startsWith(1L, "CATEGORY", 5L, 7L, false);
+  }
+
+  @Test
+  @DisplayName("Should write the changes of a transaction once, users in ID order")
+  public void shouldFlushBeforeCommitInUserOrder() {
+    TransactionSynchronizationManager.initSynchronization();
+    when(taskShareRepository.findCollaborators(anyCollection()))
+        .thenReturn(collaborators(new Object[] {10L, 1L}));
+    givenSequence(1L, 1, 4L);
+    givenSequence(3L, 2, 12L);
+
+    changeLog.taskChanged(10L, 3L);
+    changeLog.taskChanged(11L, 3L);
+    verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class));
+
+    commit();
+
+    InOrder order = inOrder(jdbcTemplate);
+    order.verify(jdbcTemplate).queryForObject(anyString(), eq(Long.class), eq(1L), eq(1));
+    order.verify(jdbcTemplate).queryForObject(anyString(), eq(Long.class), eq(3L), eq(2));
+    order.verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+    verify(taskShareRepository, times(1)).findCollaborators(anyCollection());
+    assertThat(rows.getValue())
+        .extracting(row -> row[0] + ":" + row[2] + "@" + row[3])
+        .containsExactly("1:10@4", "3:10@11", "3:11@12");
+  }
+
+  @Test
+  @DisplayName("Should keep the tombstone of a task changed and deleted in one transaction")
+  public void shouldPreferTombstone() {
+    TransactionSynchronizationManager.initSynchronization();
+    when(taskShareRepository.findCollaborators(anyCollection())).thenReturn(collaborators());
+    givenSequence(3L, 1, 2L);
+
+    changeLog.taskChanged(10L, 3L);
+    changeLog.tasksDeleted(List.of(10L), 3L);
+    commit();
+
+    verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+    assertThat(rows.getValue()).hasSize(1);
+    assertThat(rows.getValue().get(0)).startsWith(3L, "TASK", 10L, 2L, true);
+  }
+
+  @Test
+  @DisplayName("Should send the recipient tombstones for the task and its comments on revoke")
+  public void shouldTombstoneTaskForFormerRecipient() {
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(4L), eq(10L)))
+        .thenReturn(List.of(30L));
+    givenSequence(3L, 1, 9L);
+    givenSequence(4L, 3, 6L);
+
+    changeLog.shareDeleted(20L, 10L, 3L, 4L);
+
+    verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+    assertThat(rows.getValue())
+        .extracting(row -> row[0] + ":" + row[1] + ":" + row[2] + ":" + row[4])
+        .containsExactly(
+            "3:SHARE:20:true", "4:SHARE:20:true", "4:TASK:10:true", "4:COMMENT:30:true");
+  }
+
+  @Test
+  @DisplayName("Should read the comments of all tasks of a bulk share with one query")
+  public void shouldLogBulkShareWithOneCommentQuery() {
+    when(commentRepository.findIdsByTaskIds(anyCollection()))
+        .thenReturn(List.<Object[]>of(new Object[] {10L, 30L}));
+    givenSequence(3L, 3, 3L);
+    givenSequence(4L, 5, 5L);
+    givenSequence(5L, 2, 2L);
+
+    changeLog.sharesChanged(
+        List.of(
+            new Object[] {20L, 10L, 4L}, new Object[] {21L, 11L, 4L}, new Object[] {22L, 11L, 5L}),
+        3L);
+
+    verify(commentRepository, times(1)).findIdsByTaskIds(anyCollection());
+    verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+    assertThat(rows.getValue())
+        .extracting(row -> row[0] + ":" + row[1] + ":" + row[2])
+        .containsExactly(
+            "3:SHARE:20",
+            "3:SHARE:21",
+            "3:SHARE:22",
+            "4:SHARE:20",
+            "4:TASK:10",
+            "4:COMMENT:30",
+            "4:SHARE:21",
+            "4:TASK:11",
+            "5:SHARE:22",
+            "5:TASK:11");
+  }
+
+  @Test
+  @DisplayName("Should report the number of pruned tombstones")
+  public void shouldPruneTombstones() {
+    LocalDateTime cutoff = LocalDateTime.of(2026, 9, 19, 4, 15);
+    when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class)))
+        .thenReturn(42L);
+
+    assertThat(changeLog.pruneTombstones(cutoff)).isEqualTo(42L);
+  }
+
+  private void givenSequence(Long userId, int changes, Long last) {
+    when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(userId), eq(changes)))
+        .thenReturn(last);
+  }
+
+  private static List<Object[]> collaborators(Object[]... rows) {
+    return new ArrayList<>(List.of(rows));
+  }
+
+  private static void commit() {
+    for (TransactionSynchronization synchronization :
+        TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.beforeCommit(false);
+    }
+  }
+}
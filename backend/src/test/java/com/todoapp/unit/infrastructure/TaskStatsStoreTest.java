@@ -0,0 +1,122 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.application.dto.TaskStatsDTO.CategoryStats;
+import com.todoapp.application.dto.TaskStatsDTO.DailyCompletions;
+import com.todoapp.infrastructure.persistence.TaskStatsStore;
+import com.todoapp.infrastructure.persistence.TaskStatsStore.StoredStats;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskStatsStore Tests")
+public class TaskStatsStoreTest {
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  private TaskStatsStore taskStatsStore;
+
+  @BeforeEach
+  public void setUp() {
+    taskStatsStore =
+        new TaskStatsStore(
+            jdbcTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new ObjectMapper().findAndRegisterModules());
+    ReflectionTestUtils.setField(taskStatsStore, "batchSize", 2);
+  }
+
+  @Test
+  @DisplayName("Should read counters, categories and history from one row")
+  @SuppressWarnings("unchecked")
+  public void shouldReadStats() throws Exception {
+    Map<String, Object> row =
+        Map.of(
+            "total_count", 7L,
+            "completed_count", 3L,
+            "open_high_count", 2L,
+            "open_medium_count", 1L,
+            "open_low_count", 1L,
+            "overdue_count", 1L,
+            "categories",
+                "[{\"categoryId\":5,\"name\":\"Work\",\"color\":\"#FF0000\",\"total\":4,"
+                    + "\"completed\":2}]",
+            "history", "[{\"date\":\"2026-10-18\",\"completed\":2}]");
+    when(jdbcTemplate.query(contains("FROM task_stats"), any(RowMapper.class), any(Object[].class)))
+        .thenAnswer(
+            invocation -> {
+              RowMapper<StoredStats> mapper = invocation.getArgument(1);
+              return List.of(mapper.mapRow(row(row), 0));
+            });
+
+    Optional<StoredStats> stats =
+        taskStatsStore.find(1L, LocalDateTime.of(2026, 10, 19, 9, 0), LocalDate.of(2026, 10, 1));
+
+    assertThat(stats).isPresent();
+    assertThat(stats.get().total()).isEqualTo(7);
+    assertThat(stats.get().overdue()).isEqualTo(1);
+    assertThat(stats.get().categories())
+        .containsExactly(new CategoryStats(5L, "Work", "#FF0000", 4, 2));
+    assertThat(stats.get().history())
+        .containsExactly(new DailyCompletions(LocalDate.of(2026, 10, 18), 2));
+  }
+
+  @Test
+  @DisplayName("Should reconcile users batch by batch and remove counters of deleted users")
+  public void shouldReconcileInBatches() {
+    when(jdbcTemplate.update(contains("INSERT INTO task_stats"))).thenReturn(0);
+    when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Long.class), eq(0L), eq(2)))
+        .thenReturn(List.of(3L, 8L));
+    when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Long.class), eq(8L), eq(2)))
+        .thenReturn(List.of(9L));
+    when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Long.class), eq(9L), eq(2)))
+        .thenReturn(List.of());
+    when(jdbcTemplate.update(contains("UPDATE task_stats"), eq(3L), eq(8L))).thenReturn(1);
+    when(jdbcTemplate.update(contains("UPDATE task_stats"), eq(9L), eq(9L))).thenReturn(0);
+    when(jdbcTemplate.queryForObject(contains("WITH actual"), eq(Long.class), any(Object[].class)))
+        .thenReturn(1L, 0L, 0L, 0L);
+    when(jdbcTemplate.update(contains("DELETE FROM"))).thenReturn(1);
+
+    long corrected = taskStatsStore.reconcile();
+
+    assertThat(corrected).isEqualTo(2);
+    verify(jdbcTemplate, times(3)).update(contains("DELETE FROM"));
+    verify(jdbcTemplate, times(4)).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+  }
+
+  private static ResultSet row(Map<String, Object> columns) {
+    return (ResultSet)
+        Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[] {ResultSet.class},
+            (proxy, method, args) -> columns.get((String) args[0]));
+  }
+}
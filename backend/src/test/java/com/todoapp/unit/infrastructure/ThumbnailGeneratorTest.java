@@ -0,0 +1,118 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Optional;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.infrastructure.storage.ThumbnailGenerator;
+
+@DisplayName("ThumbnailGenerator Tests")
+public class ThumbnailGeneratorTest {
+
+  private ThumbnailGenerator thumbnailGenerator;
+
+  @BeforeEach
+  public void setUp() {
+    thumbnailGenerator = new ThumbnailGenerator();
+    ReflectionTestUtils.setField(thumbnailGenerator, "thumbnailSize", 128);
+    ReflectionTestUtils.setField(thumbnailGenerator, "maxSourcePixels", 10_000_000L);
+    ReflectionTestUtils.setField(thumbnailGenerator, "pdfMaxMainMemoryBytes", 4L * 1024 * 1024);
+  }
+
+  @Test
+  @DisplayName("Should support images and PDFs only")
+  public void shouldSupportImagesAndPdfs() {
+    assertThat(thumbnailGenerator.supports("image/png")).isTrue();
+    assertThat(thumbnailGenerator.supports("image/jpeg")).isTrue();
+    assertThat(thumbnailGenerator.supports("application/pdf")).isTrue();
+    assertThat(thumbnailGenerator.supports("text/plain")).isFalse();
+    assertThat(thumbnailGenerator.supports(null)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should scale large image down to thumbnail size preserving aspect ratio")
+  public void shouldScaleImageToThumbnail() throws Exception {
+    byte[] png = encodePng(new BufferedImage(1600, 800, BufferedImage.TYPE_INT_ARGB));
+
+    Optional<byte[]> thumbnail =
+        thumbnailGenerator.generate(new ByteArrayInputStream(png), "image/png");
+
+    assertThat(thumbnail).isPresent();
+    BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumbnail.get()));
+    assertThat(decoded.getWidth()).isEqualTo(128);
+    assertThat(decoded.getHeight()).isEqualTo(64);
+  }
+
+  @Test
+  @DisplayName("Should not upscale images smaller than thumbnail size")
+  public void shouldNotUpscaleSmallImage() throws Exception {
+    byte[] png = encodePng(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB));
+
+    Optional<byte[]> thumbnail =
+        thumbnailGenerator.generate(new ByteArrayInputStream(png), "image/png");
+
+    assertThat(thumbnail).isPresent();
+    BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumbnail.get()));
+    assertThat(decoded.getWidth()).isEqualTo(40);
+    assertThat(decoded.getHeight()).isEqualTo(20);
+  }
+
+  @Test
+  @DisplayName("Should skip images exceeding the source pixel limit")
+  public void shouldSkipOversizedImage() throws Exception {
+    ReflectionTestUtils.setField(thumbnailGenerator, "maxSourcePixels", 1000L);
+    byte[] png = encodePng(new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB));
+
+    Optional<byte[]> thumbnail =
+        thumbnailGenerator.generate(new ByteArrayInputStream(png), "image/png");
+
+    assertThat(thumbnail).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should render first page of a PDF")
+  public void shouldRenderPdfFirstPage() throws Exception {
+    ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+    try (PDDocument document = new PDDocument()) {
+      document.addPage(new PDPage(PDRectangle.A4));
+      document.addPage(new PDPage(PDRectangle.A4));
+      document.save(pdf);
+    }
+
+    Optional<byte[]> thumbnail =
+        thumbnailGenerator.generate(new ByteArrayInputStream(pdf.toByteArray()), "application/pdf");
+
+    assertThat(thumbnail).isPresent();
+    BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumbnail.get()));
+    assertThat(decoded.getHeight()).isEqualTo(128);
+    assertThat(decoded.getWidth()).isLessThan(128);
+  }
+
+  @Test
+  @DisplayName("Should return empty for unsupported content")
+  public void shouldReturnEmptyForUnsupportedContent() throws Exception {
+    Optional<byte[]> thumbnail =
+        thumbnailGenerator.generate(new ByteArrayInputStream("hello".getBytes()), "text/plain");
+
+    assertThat(thumbnail).isEmpty();
+  }
+
+  private byte[] encodePng(BufferedImage image) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", output);
+    return output.toByteArray();
+  }
+}
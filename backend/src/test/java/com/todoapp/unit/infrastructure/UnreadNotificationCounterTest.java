@@ -0,0 +1,179 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.domain.event.UnreadNotificationsChangedEvent;
+import com.todoapp.domain.repository.NotificationRepository;
+import com.todoapp.infrastructure.cache.UnreadNotificationCounter;
+import com.todoapp.presentation.websocket.NotificationWebSocketHandler;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UnreadNotificationCounter Tests")
+public class UnreadNotificationCounterTest {
+
+  private static final String LOCK_KEY = "notifications:unread:reconcile-lock";
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  @Mock private NotificationRepository notificationRepository;
+
+  @Mock private NotificationWebSocketHandler webSocketHandler;
+
+  private UnreadNotificationCounter counter;
+
+  @BeforeEach
+  public void setUp() {
+    counter =
+        new UnreadNotificationCounter(redisTemplate, notificationRepository, webSocketHandler);
+    ReflectionTestUtils.setField(counter, "ttl", Duration.ofHours(24));
+    ReflectionTestUtils.setField(counter, "batchSize", 500);
+    ReflectionTestUtils.setField(counter, "lockTtl", Duration.ofMinutes(10));
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+  }
+
+  @Test
+  @DisplayName("Should serve an existing counter without touching the database")
+  public void shouldServeCachedCount() {
+    when(valueOperations.get("notifications:unread::1")).thenReturn("4");
+
+    assertThat(counter.getUnreadCount(1L)).isEqualTo(4L);
+    verify(notificationRepository, never()).countByUserIdAndIsReadFalse(anyLong());
+  }
+
+  @Test
+  @DisplayName("Should build a missing counter from the database without overwriting a newer one")
+  public void shouldBuildMissingCounter() {
+    when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(3L);
+
+    assertThat(counter.getUnreadCount(1L)).isEqualTo(3L);
+    verify(valueOperations).setIfAbsent("notifications:unread::1", "3", Duration.ofHours(24));
+  }
+
+  @Test
+  @DisplayName("Should fall back to the database when Redis is unavailable")
+  public void shouldFallBackWhenRedisFails() {
+    when(valueOperations.get(anyString())).thenThrow(new IllegalStateException("Redis down"));
+    when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(2L);
+
+    assertThat(counter.getUnreadCount(1L)).isEqualTo(2L);
+    verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+  }
+
+  @Test
+  @DisplayName("Should adjust an existing counter and push the new count")
+  @SuppressWarnings("unchecked")
+  public void shouldAdjustAndPush() {
+    when(redisTemplate.execute(
+            any(RedisScript.class), eq(List.of("notifications:unread::1")), eq("1")))
+        .thenReturn(5L);
+
+    counter.onUnreadNotificationsChanged(UnreadNotificationsChangedEvent.added(1L));
+
+    verify(webSocketHandler).sendUnreadCount(1L, 5L);
+    verify(notificationRepository, never()).countByUserIdAndIsReadFalse(anyLong());
+  }
+
+  @Test
+  @DisplayName("Should rebuild a missing counter from the database instead of applying the delta")
+  @SuppressWarnings("unchecked")
+  public void shouldRebuildWhenCounterMissing() {
+    when(redisTemplate.execute(
+            any(RedisScript.class), eq(List.of("notifications:unread::1")), eq("-1")))
+        .thenReturn(null);
+    when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(6L);
+
+    counter.onUnreadNotificationsChanged(UnreadNotificationsChangedEvent.removed(1L));
+
+    verify(valueOperations).setIfAbsent("notifications:unread::1", "6", Duration.ofHours(24));
+    verify(webSocketHandler).sendUnreadCount(1L, 6L);
+  }
+
+  @Test
+  @DisplayName("Should reset the counter to zero when all notifications are read")
+  public void shouldResetCounter() {
+    counter.onUnreadNotificationsChanged(UnreadNotificationsChangedEvent.cleared(1L));
+
+    verify(valueOperations).set("notifications:unread::1", "0", Duration.ofHours(24));
+    verify(webSocketHandler).sendUnreadCount(1L, 0L);
+  }
+
+  @Test
+  @DisplayName("Should replace only the counters that drifted from the database")
+  @SuppressWarnings("unchecked")
+  public void shouldReconcileDriftedCounters() {
+    when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    Cursor<String> cursor = mock(Cursor.class);
+    when(cursor.hasNext()).thenReturn(true, true, true, false);
+    when(cursor.next())
+        .thenReturn(
+            "notifications:unread::1", "notifications:unread::2", "notifications:unread::3");
+    when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+    when(valueOperations.multiGet(anyCollection())).thenReturn(Arrays.asList("4", "9", "2"));
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {1L, 4L});
+    rows.add(new Object[] {2L, 7L});
+    when(notificationRepository.countUnreadByUserIds(anyCollection())).thenReturn(rows);
+    when(redisTemplate.execute(
+            any(RedisScript.class), eq(List.of("notifications:unread::2")), eq("9"), eq("7")))
+        .thenReturn(1L);
+    when(redisTemplate.execute(
+            any(RedisScript.class), eq(List.of("notifications:unread::3")), eq("2"), eq("0")))
+        .thenReturn(0L);
+
+    int corrected = counter.reconcile();
+
+    // User 3's counter changed after it was read, so it is left for the next run
+    assertThat(corrected).isEqualTo(1);
+    verify(webSocketHandler).sendUnreadCount(2L, 7L);
+    verify(webSocketHandler, never()).sendUnreadCount(eq(3L), anyLong());
+    ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+    verify(valueOperations).setIfAbsent(eq(LOCK_KEY), token.capture(), any(Duration.class));
+    verify(redisTemplate)
+        .execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), eq(token.getValue()));
+    verify(redisTemplate, never()).delete(LOCK_KEY);
+  }
+
+  @Test
+  @DisplayName("Should skip reconciliation while another node holds the lock")
+  public void shouldSkipReconciliationWhenLocked() {
+    when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    assertThat(counter.reconcile()).isZero();
+    verify(redisTemplate, never()).scan(any(ScanOptions.class));
+    verify(redisTemplate, never())
+        .execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString());
+  }
+}
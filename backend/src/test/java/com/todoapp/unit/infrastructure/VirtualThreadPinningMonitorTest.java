@@ -0,0 +1,87 @@
+package com.todoapp.unit.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.todoapp.infrastructure.monitoring.ApplicationMetricsService;
+import com.todoapp.infrastructure.monitoring.VirtualThreadPinningMonitor;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("VirtualThreadPinningMonitor Tests")
+public class VirtualThreadPinningMonitorTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private VirtualThreadPinningMonitor monitor;
+
+  @BeforeEach
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    monitor = new VirtualThreadPinningMonitor(new ApplicationMetricsService(meterRegistry));
+    ReflectionTestUtils.setField(monitor, "stackDepth", 8);
+    ReflectionTestUtils.setField(monitor, "thresholdMs", 20L);
+  }
+
+  @Test
+  @DisplayName("Should attribute pinning to the innermost application frame")
+  public void shouldAttributePinningToApplicationFrame() {
+    monitor.recordPinning(
+        Duration.ofMillis(40),
+        List.of(
+            "java.lang.Object.wait0:-1",
+            "io.minio.MinioClient.bucketExists:120",
+            "com.todoapp.infrastructure.storage.FileStorageService.ensureBucketExists:395",
+            "com.todoapp.infrastructure.storage.FileStorageService.uploadFile:90"));
+
+    Timer timer =
+        meterRegistry
+            .find("jvm.virtual.thread.pinned")
+            .tag("site", "com.todoapp.infrastructure.storage.FileStorageService.ensureBucketExists")
+            .timer();
+    assertThat(timer).isNotNull();
+    assertThat(timer.count()).isEqualTo(1);
+    assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40.0);
+  }
+
+  @Test
+  @DisplayName("Should fall back to the top frame when no application frame is present")
+  public void shouldFallBackToTopFrame() {
+    monitor.recordPinning(Duration.ofMillis(25), List.of("sun.nio.ch.Net.poll:-1"));
+    monitor.recordPinning(Duration.ofMillis(25), List.of("sun.nio.ch.Net.poll:-1"));
+
+    Timer timer =
+        meterRegistry.find("jvm.virtual.thread.pinned").tag("site", "sun.nio.ch.Net.poll").timer();
+    assertThat(timer).isNotNull();
+    assertThat(timer.count()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should record pinning without a stack trace")
+  public void shouldRecordPinningWithoutStack() {
+    monitor.recordPinning(Duration.ofMillis(30), List.of());
+
+    assertThat(meterRegistry.find("jvm.virtual.thread.pinned").tag("site", "unknown").timer())
+        .isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should not start the event stream in platform-thread mode")
+  public void shouldNotStartInPlatformThreadMode() {
+    ReflectionTestUtils.setField(monitor, "virtualThreadsEnabled", false);
+    ReflectionTestUtils.setField(monitor, "enabled", true);
+
+    monitor.start();
+
+    assertThat(ReflectionTestUtils.getField(monitor, "recordingStream")).isNull();
+    monitor.stop();
+  }
+}
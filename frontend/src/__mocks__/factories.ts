@@ -37,6 +37,7 @@ export const createMockTask = (overrides: Partial<Task> = {}): Task => {
     subtaskProgress: 0,
     createdAt: '2024-01-01T10:00:00Z',
     updatedAt: '2024-01-01T10:00:00Z',
+    version: 0,
     ...overrides,
   };
 };
@@ -32,6 +32,8 @@ export const NotificationItem: React.FC<NotificationItemProps> = ({
         return <Bell size={20} className="notification-icon notification-icon-info" />;
       case 'REMINDER':
         return <Bell size={20} className="notification-icon notification-icon-warning" />;
+      case 'DIGEST':
+        return <Bell size={20} className="notification-icon notification-icon-info" />;
       default:
         return <Bell size={20} className="notification-icon notification-icon-info" />;
     }
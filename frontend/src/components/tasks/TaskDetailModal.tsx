@@ -39,6 +39,7 @@ export const TaskDetailModal: React.FC<TaskDetailModalProps> = ({
   const { data: comments = [], isLoading: isLoadingComments } = useQuery({
     queryKey: ['comments', task.id],
     queryFn: () => commentService.getTaskComments(task.id),
+    select: (page) => page.comments,
     enabled: isOpen,
   });
 
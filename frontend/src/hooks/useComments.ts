@@ -1,7 +1,12 @@
 import { useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
 
 import { commentService } from '../services/commentService';
-import { Comment, CommentCreateRequest, CommentUpdateRequest } from '../types/comment';
+import {
+  Comment,
+  CommentCreateRequest,
+  CommentPage,
+  CommentUpdateRequest,
+} from '../types/comment';
 
 const COMMENTS_QUERY_KEY = 'comments';
 
@@ -12,8 +17,9 @@ export function useTaskComments(taskId: number) {
   return useQuery({
     queryKey: [COMMENTS_QUERY_KEY, taskId],
     queryFn: () => commentService.getTaskComments(taskId),
+    select: (page) => page.comments,
     enabled: !!taskId,
-    staleTime: 10000, // Consider data fresh for 10 seconds
+    staleTime: 10000, // Consider data fresh for 10 seconds; changes are pushed over STOMP
   });
 }
 
@@ -33,7 +39,7 @@ export function useCreateComment(taskId: number) {
       const previousComments = queryClient.getQueryData([COMMENTS_QUERY_KEY, taskId]);
 
       // Optimistically update to the new value
-      queryClient.setQueryData([COMMENTS_QUERY_KEY, taskId], (old: Comment[] | undefined) => {
+      queryClient.setQueryData([COMMENTS_QUERY_KEY, taskId], (old: CommentPage | undefined) => {
         if (!old) return old;
         const optimisticComment: Comment = {
           id: Date.now(), // Temporary ID
@@ -45,7 +51,7 @@ export function useCreateComment(taskId: number) {
           authorEmail: 'you@example.com', // Placeholder
           isEdited: false,
         };
-        return [...old, optimisticComment];
+        return { ...old, comments: [optimisticComment, ...old.comments] };
       });
 
       return { previousComments };
@@ -80,17 +86,20 @@ export function useUpdateComment(taskId: number) {
       const previousComments = queryClient.getQueryData([COMMENTS_QUERY_KEY, taskId]);
 
       // Optimistically update the comment
-      queryClient.setQueryData([COMMENTS_QUERY_KEY, taskId], (old: Comment[] | undefined) => {
+      queryClient.setQueryData([COMMENTS_QUERY_KEY, taskId], (old: CommentPage | undefined) => {
         if (!old) return old;
-        return old.map((comment) =>
-          comment.id === commentId
-            ? {
-                ...comment,
-                ...data,
-                updatedAt: new Date().toISOString(),
-              }
-            : comment
-        );
+        return {
+          ...old,
+          comments: old.comments.map((comment) =>
+            comment.id === commentId
+              ? {
+                  ...comment,
+                  ...data,
+                  updatedAt: new Date().toISOString(),
+                }
+              : comment
+          ),
+        };
       });
 
       return { previousComments };
@@ -124,9 +133,9 @@ export function useDeleteComment(taskId: number) {
       const previousComments = queryClient.getQueryData([COMMENTS_QUERY_KEY, taskId]);
 
       // Optimistically remove the comment
-      queryClient.setQueryData([COMMENTS_QUERY_KEY, taskId], (old: Comment[] | undefined) => {
+      queryClient.setQueryData([COMMENTS_QUERY_KEY, taskId], (old: CommentPage | undefined) => {
         if (!old) return old;
-        return old.filter((comment) => comment.id !== commentId);
+        return { ...old, comments: old.comments.filter((comment) => comment.id !== commentId) };
       });
 
       return { previousComments };
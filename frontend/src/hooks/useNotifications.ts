@@ -206,7 +206,7 @@ export function useUpdateNotificationPreference() {
         (old: NotificationPreference[] | undefined) => {
           if (!old) return old;
           return old.map((pref) =>
-            pref.id === updatedPreference.id ? updatedPreference : pref
+            pref.notificationType === updatedPreference.notificationType ? updatedPreference : pref
           );
         }
       );
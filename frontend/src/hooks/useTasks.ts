@@ -65,6 +65,7 @@ export function useCreateTask() {
           subtaskProgress: 0,
           createdAt: new Date().toISOString(),
           updatedAt: new Date().toISOString(),
+          version: 0,
         };
         return {
           ...old,
@@ -299,6 +300,7 @@ export function useCreateSubtask(parentTaskId: number) {
             subtaskProgress: 0,
             createdAt: new Date().toISOString(),
             updatedAt: new Date().toISOString(),
+            version: 0,
           };
           return [optimisticSubtask, ...old];
         }
@@ -1,7 +1,11 @@
 import React, { useEffect, useState } from 'react';
 
 import { notificationService } from '../services/notificationService';
-import { NotificationPreference, NotificationType } from '../types/notification';
+import {
+  DigestFrequency,
+  NotificationPreference,
+  NotificationType,
+} from '../types/notification';
 
 export const NotificationPreferencesPage: React.FC = () => {
   const [preferences, setPreferences] = useState<NotificationPreference[]>([]);
@@ -31,14 +35,30 @@ export const NotificationPreferencesPage: React.FC = () => {
     preference: NotificationPreference,
     field: 'inAppEnabled' | 'emailEnabled'
   ) => {
-    setSaving(preference.id);
+    setSaving(preference.notificationType);
     try {
       const updated = {
         ...preference,
         [field]: !preference[field],
       };
       const result = await notificationService.updatePreference(updated);
-      setPreferences((prev) => prev.map((p) => (p.id === result.id ? result : p)));
+      setPreferences((prev) => prev.map((p) => (p.notificationType === result.notificationType ? result : p)));
+    } catch (err) {
+      console.error('Failed to update preference:', err);
+      setError('Failed to update preference');
+    } finally {
+      setSaving(null);
+    }
+  };
+
+  const handleFrequencyChange = async (
+    preference: NotificationPreference,
+    digestFrequency: DigestFrequency
+  ) => {
+    setSaving(preference.notificationType);
+    try {
+      const result = await notificationService.updatePreference({ ...preference, digestFrequency });
+      setPreferences((prev) => prev.map((p) => (p.notificationType === result.notificationType ? result : p)));
     } catch (err) {
       console.error('Failed to update preference:', err);
       setError('Failed to update preference');
@@ -56,6 +76,7 @@ export const NotificationPreferencesPage: React.FC = () => {
       TASK_MENTIONED: 'Mentioned in Comment',
       TASK_ASSIGNED: 'Task Assigned to You',
       REMINDER: 'Task Reminder',
+      DIGEST: 'Notification Digest',
     };
     return labels[type] || type;
   };
@@ -85,12 +106,13 @@ export const NotificationPreferencesPage: React.FC = () => {
           <div className="preference-name">Notification Type</div>
           <div className="preference-channel">In-App</div>
           <div className="preference-channel">Email</div>
+          <div className="preference-channel">Delivery</div>
         </div>
 
         {preferences.map((preference) => (
           <div
-            key={preference.id}
-            className={`preference-item ${saving === preference.id ? 'preference-item-saving' : ''}`}
+            key={preference.notificationType}
+            className={`preference-item ${saving === preference.notificationType ? 'preference-item-saving' : ''}`}
           >
             <div className="preference-name">
               {getNotificationTypeLabel(preference.notificationType)}
@@ -101,7 +123,7 @@ export const NotificationPreferencesPage: React.FC = () => {
                   type="checkbox"
                   checked={preference.inAppEnabled}
                   onChange={() => handleToggle(preference, 'inAppEnabled')}
-                  disabled={saving === preference.id}
+                  disabled={saving === preference.notificationType}
                 />
                 <span className="preference-toggle-slider"></span>
               </label>
@@ -112,11 +134,24 @@ export const NotificationPreferencesPage: React.FC = () => {
                   type="checkbox"
                   checked={preference.emailEnabled}
                   onChange={() => handleToggle(preference, 'emailEnabled')}
-                  disabled={saving === preference.id}
+                  disabled={saving === preference.notificationType}
                 />
                 <span className="preference-toggle-slider"></span>
               </label>
             </div>
+            <div className="preference-channel">
+              <select
+                value={preference.digestFrequency}
+                onChange={(e) =>
+                  handleFrequencyChange(preference, e.target.value as DigestFrequency)
+                }
+                disabled={saving === preference.notificationType}
+              >
+                <option value="IMMEDIATE">Immediately</option>
+                <option value="HOURLY">Hourly digest</option>
+                <option value="DAILY">Daily digest</option>
+              </select>
+            </div>
           </div>
         ))}
       </div>
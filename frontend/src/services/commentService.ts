@@ -1,4 +1,9 @@
-import { Comment, CommentCreateRequest, CommentUpdateRequest } from '../types/comment';
+import {
+  Comment,
+  CommentCreateRequest,
+  CommentPage,
+  CommentUpdateRequest,
+} from '../types/comment';
 
 import api from './api';
 
@@ -6,8 +11,9 @@ const USER_ID_HEADER = 'X-User-Id';
 const DEFAULT_USER_ID = '1';
 
 export const commentService = {
-  async getTaskComments(taskId: number): Promise<Comment[]> {
-    const response = await api.get<Comment[]>(`/tasks/${taskId}/comments`, {
+  async getTaskComments(taskId: number, cursor?: string): Promise<CommentPage> {
+    const response = await api.get<CommentPage>(`/tasks/${taskId}/comments`, {
+      params: cursor ? { cursor } : undefined,
       headers: {
         [USER_ID_HEADER]: DEFAULT_USER_ID,
       },
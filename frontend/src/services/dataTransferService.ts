@@ -0,0 +1,31 @@
+import { ExportFormat, ImportJob } from '../types/dataTransfer';
+
+import api from './api';
+
+export const dataTransferService = {
+  async exportData(format: ExportFormat = 'NDJSON'): Promise<Blob> {
+    const response = await api.get<Blob>('/data/export', {
+      params: { format },
+      responseType: 'blob',
+    });
+    return response.data;
+  },
+
+  async startImport(file: File): Promise<ImportJob> {
+    const response = await api.post<ImportJob>('/data/imports', file, {
+      params: { fileName: file.name },
+      headers: { 'Content-Type': 'application/x-ndjson' },
+    });
+    return response.data;
+  },
+
+  async getImport(jobId: number): Promise<ImportJob> {
+    const response = await api.get<ImportJob>(`/data/imports/${jobId}`);
+    return response.data;
+  },
+
+  async resumeImport(jobId: number): Promise<ImportJob> {
+    const response = await api.post<ImportJob>(`/data/imports/${jobId}/resume`);
+    return response.data;
+  },
+};
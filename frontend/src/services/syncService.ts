@@ -0,0 +1,10 @@
+import { SyncResponse } from '../types/sync';
+
+import api from './api';
+
+export const syncService = {
+  async sync(since: number, limit?: number): Promise<SyncResponse> {
+    const response = await api.get<SyncResponse>('/sync', { params: { since, limit } });
+    return response.data;
+  },
+};
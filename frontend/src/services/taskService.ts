@@ -1,9 +1,17 @@
-import { Task, TaskCreateRequest, TaskUpdateRequest } from '@/types/task';
+import {
+  CompactTaskPage,
+  Task,
+  TaskCreateRequest,
+  TaskOrderPage,
+  TaskStats,
+  TaskUpdateRequest,
+} from '@/types/task';
 
 import api, { PaginatedResponse } from './api';
 
 const USER_ID_HEADER = 'X-User-Id';
 const DEFAULT_USER_ID = '1';
+const COMPACT_MEDIA_TYPE = 'application/vnd.todoapp.compact+json';
 
 export interface GetTasksParams {
   page?: number;
@@ -14,8 +22,18 @@ export interface GetTasksParams {
   completed?: boolean;
   categoryId?: number;
   tagIds?: number[];
+  /** Due date filters list open tasks only, soonest first. */
+  dueBefore?: string;
+  dueAfter?: string;
+  overdue?: boolean;
+  dueWithin?: DueWindow;
 }
 
+export type DueWindow = 'TODAY' | 'THIS_WEEK';
+
+/** The browser's time zone, so "today" and "this week" follow the user's calendar. */
+const timeZone = (): string | undefined => Intl.DateTimeFormat().resolvedOptions().timeZone;
+
 export const taskService = {
   async getTasks(params: GetTasksParams = {}): Promise<PaginatedResponse<Task>> {
     const {
@@ -27,6 +45,10 @@ export const taskService = {
       completed,
       categoryId,
       tagIds,
+      dueBefore,
+      dueAfter,
+      overdue,
+      dueWithin,
     } = params;
 
     const response = await api.get<PaginatedResponse<Task>>('/tasks', {
@@ -39,6 +61,11 @@ export const taskService = {
         completed,
         categoryId,
         tagIds,
+        dueBefore,
+        dueAfter,
+        overdue,
+        dueWithin,
+        timeZone: dueWithin ? timeZone() : undefined,
       },
       headers: {
         [USER_ID_HEADER]: DEFAULT_USER_ID,
@@ -48,6 +75,48 @@ export const taskService = {
     return response.data;
   },
 
+  /** Same as getTasks, but transfers categories and tags once per page. */
+  async getTasksCompact(params: GetTasksParams = {}): Promise<PaginatedResponse<Task>> {
+    const {
+      page = 0,
+      size = 20,
+      sortBy = 'createdAt',
+      sortDirection = 'desc',
+      search,
+      completed,
+      categoryId,
+      tagIds,
+      dueBefore,
+      dueAfter,
+      overdue,
+      dueWithin,
+    } = params;
+
+    const response = await api.get<CompactTaskPage>('/tasks', {
+      params: {
+        page,
+        size,
+        sortBy,
+        sortDirection,
+        search,
+        completed,
+        categoryId,
+        tagIds,
+        dueBefore,
+        dueAfter,
+        overdue,
+        dueWithin,
+        timeZone: dueWithin ? timeZone() : undefined,
+      },
+      headers: {
+        [USER_ID_HEADER]: DEFAULT_USER_ID,
+        Accept: COMPACT_MEDIA_TYPE,
+      },
+    });
+
+    return expandCompactPage(response.data);
+  },
+
   async getTaskById(id: number): Promise<Task> {
     const response = await api.get<Task>(`/tasks/${id}`, {
       headers: {
@@ -66,10 +135,15 @@ export const taskService = {
     return response.data;
   },
 
-  async updateTask(id: number, data: TaskUpdateRequest): Promise<Task> {
+  /**
+   * Update a task. With the version the edit is based on, the server answers 409 with the current
+   * task instead of overwriting a collaborator's changes.
+   */
+  async updateTask(id: number, data: TaskUpdateRequest, version?: number): Promise<Task> {
     const response = await api.put<Task>(`/tasks/${id}`, data, {
       headers: {
         [USER_ID_HEADER]: DEFAULT_USER_ID,
+        ...(version !== undefined ? { 'If-Match': `"${version}"` } : {}),
       },
     });
     return response.data;
@@ -93,6 +167,30 @@ export const taskService = {
     return response.data;
   },
 
+  async moveTask(id: number, after?: number | null, before?: number | null): Promise<Task> {
+    const response = await api.post<Task>(`/tasks/${id}/move`, null, {
+      params: { after: after ?? undefined, before: before ?? undefined },
+      headers: {
+        [USER_ID_HEADER]: DEFAULT_USER_ID,
+      },
+    });
+    return response.data;
+  },
+
+  async getOrderedTasks(
+    parentTaskId?: number | null,
+    cursor?: string | null,
+    limit = 50
+  ): Promise<TaskOrderPage> {
+    const response = await api.get<TaskOrderPage>('/tasks/ordered', {
+      params: { parentTaskId: parentTaskId ?? undefined, cursor: cursor ?? undefined, limit },
+      headers: {
+        [USER_ID_HEADER]: DEFAULT_USER_ID,
+      },
+    });
+    return response.data;
+  },
+
   async getTaskCount(completed?: boolean): Promise<number> {
     const response = await api.get<number>('/tasks/count', {
       params: { completed },
@@ -103,6 +201,16 @@ export const taskService = {
     return response.data;
   },
 
+  async getTaskStats(days = 30): Promise<TaskStats> {
+    const response = await api.get<TaskStats>('/tasks/stats', {
+      params: { days },
+      headers: {
+        [USER_ID_HEADER]: DEFAULT_USER_ID,
+      },
+    });
+    return response.data;
+  },
+
   async getSubtasks(parentTaskId: number): Promise<Task[]> {
     const response = await api.get<Task[]>(`/tasks/${parentTaskId}/subtasks`, {
       headers: {
@@ -157,3 +265,31 @@ export const taskService = {
     return response.data;
   },
 };
+
+function expandCompactPage(page: CompactTaskPage): PaginatedResponse<Task> {
+  const content: Task[] = page.tasks.map(({ tagIds, ...task }) => {
+    const category = task.categoryId != null ? page.categories[task.categoryId] : undefined;
+    return {
+      ...task,
+      categoryName: category?.name ?? null,
+      categoryColor: category?.color ?? null,
+      tags: (tagIds ?? []).map((id) => ({
+        id,
+        name: page.tags[id].name,
+        color: page.tags[id].color ?? null,
+        createdAt: '',
+        updatedAt: '',
+      })),
+    };
+  });
+  return {
+    content,
+    totalElements: page.totalElements,
+    totalPages: page.totalPages,
+    size: page.size,
+    number: page.page,
+    first: page.page === 0,
+    last: page.page >= page.totalPages - 1,
+    empty: content.length === 0,
+  };
+}
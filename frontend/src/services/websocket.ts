@@ -1,6 +1,8 @@
 import { Client, IMessage } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 
+import { invalidateCommentQueries } from './queryClient';
+
 const WS_URL = process.env.REACT_APP_WS_URL || 'http://localhost:8080/ws/tasks';
 
 export interface TaskUpdate {
@@ -14,6 +16,13 @@ export interface TaskUpdate {
   timestamp: string;
 }
 
+export interface CommentThreadUpdate {
+  taskId: number;
+  action: 'ADDED' | 'UPDATED' | 'DELETED';
+  commentId: number;
+  timestamp: string;
+}
+
 export type TaskUpdateCallback = (update: TaskUpdate) => void;
 
 export class WebSocketClient {
@@ -58,6 +67,17 @@ export class WebSocketClient {
           }
         });
 
+        // Comment threads are refetched when they change instead of being polled
+        stompClient.subscribe(`/user/queue/comment-updates`, (message: IMessage) => {
+          try {
+            const update: CommentThreadUpdate = JSON.parse(message.body);
+            invalidateCommentQueries(update.taskId);
+          } catch (error) {
+            // eslint-disable-next-line no-console
+            console.error('Failed to parse comment update:', error);
+          }
+        });
+
         resolve();
       };
 
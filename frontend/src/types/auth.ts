@@ -1,6 +1,7 @@
 export interface User {
   id: number;
   email: string;
+  username: string | null;
   fullName: string | null;
   isActive: boolean;
   emailVerified: boolean;
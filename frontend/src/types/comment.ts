@@ -9,6 +9,11 @@ export interface Comment {
   updatedAt: string;
 }
 
+export interface CommentPage {
+  comments: Comment[];
+  nextCursor: string | null;
+}
+
 export interface CommentCreateRequest {
   content: string;
 }
@@ -0,0 +1,14 @@
+export type ExportFormat = 'NDJSON' | 'CSV';
+
+export type ImportJobStatus = 'PENDING' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+
+export interface ImportJob {
+  id: number;
+  status: ImportJobStatus;
+  fileName?: string;
+  totalRecords: number;
+  processedRecords: number;
+  errorMessage?: string;
+  createdAt: string;
+  completedAt?: string;
+}
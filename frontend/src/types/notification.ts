@@ -5,7 +5,10 @@ export type NotificationType =
   | 'TASK_COMMENTED'
   | 'TASK_MENTIONED'
   | 'TASK_ASSIGNED'
-  | 'REMINDER';
+  | 'REMINDER'
+  | 'DIGEST';
+
+export type DigestFrequency = 'IMMEDIATE' | 'HOURLY' | 'DAILY';
 
 export interface Notification {
   id: string;
@@ -20,9 +23,11 @@ export interface Notification {
 }
 
 export interface NotificationPreference {
-  id: string;
+  // Only set on the result of an update; preferences are identified by notificationType
+  id?: string;
   userId: number;
   notificationType: NotificationType;
   inAppEnabled: boolean;
   emailEnabled: boolean;
+  digestFrequency: DigestFrequency;
 }
@@ -0,0 +1,46 @@
+import { Task } from './task';
+
+export type SyncEntityType = 'TASK' | 'CATEGORY' | 'TAG' | 'COMMENT' | 'SHARE';
+
+export interface SyncCategory {
+  name: string;
+  color?: string;
+  icon?: string;
+}
+
+export interface SyncTag {
+  name: string;
+  color?: string;
+}
+
+export interface SyncComment {
+  taskId: number;
+  authorId: number;
+  content: string;
+  edited: boolean;
+  createdAt: string;
+  updatedAt: string;
+}
+
+export interface SyncShare {
+  taskId: number;
+  sharedWithUserId: number;
+  sharedByUserId: number;
+  permission: string;
+  sharedAt: string;
+}
+
+export interface SyncChange {
+  seq: number;
+  type: SyncEntityType;
+  id: number;
+  data?: Task | SyncCategory | SyncTag | SyncComment | SyncShare;
+  deleted?: boolean;
+}
+
+export interface SyncResponse {
+  reset: boolean;
+  changes: SyncChange[];
+  token: number;
+  hasMore: boolean;
+}
@@ -22,6 +22,28 @@ export interface Task {
   subtaskProgress: number;
   createdAt: string;
   updatedAt: string;
+  version: number;
+}
+
+export interface TaskOrderPage {
+  tasks: Task[];
+  nextCursor: string | null;
+}
+
+export interface CompactTaskReference {
+  name: string;
+  color?: string | null;
+}
+
+/** A task page with each category and tag listed once; tasks refer to them by ID. */
+export interface CompactTaskPage {
+  tasks: (Omit<Task, 'categoryName' | 'categoryColor' | 'tags'> & { tagIds?: number[] })[];
+  categories: Record<number, CompactTaskReference>;
+  tags: Record<number, CompactTaskReference>;
+  page: number;
+  size: number;
+  totalElements: number;
+  totalPages: number;
 }
 
 export interface TaskCreateRequest {
@@ -52,3 +74,27 @@ export interface TasksResponse {
   last: boolean;
   empty: boolean;
 }
+
+export interface CategoryTaskStats {
+  categoryId: number;
+  name: string;
+  color?: string;
+  total: number;
+  completed: number;
+}
+
+export interface DailyCompletions {
+  date: string;
+  completed: number;
+}
+
+export interface TaskStats {
+  total: number;
+  completed: number;
+  open: number;
+  overdue: number;
+  openByPriority: Record<Priority, number>;
+  byCategory: CategoryTaskStats[];
+  completionHistory: DailyCompletions[];
+  generatedAt: string;
+}
@@ -0,0 +1,209 @@
+#!/bin/bash
+
+# Virtual Thread Benchmark Script
+# Compares throughput of platform-thread and virtual-thread mode with 500 concurrent users.
+#
+# Start two instances of the backend against the same Postgres/Redis/MinIO/RabbitMQ, one with
+# VIRTUAL_THREADS_ENABLED=false and one with VIRTUAL_THREADS_ENABLED=true, and keep the pool sizes
+# (DB_POOL_SIZE, Redis max-active) identical so only the threading model differs:
+#
+#   SERVER_PORT=8080 VIRTUAL_THREADS_ENABLED=false java -jar backend/target/*.jar &
+#   SERVER_PORT=8081 VIRTUAL_THREADS_ENABLED=true  java -jar backend/target/*.jar &
+#   ./virtual-threads-benchmark.sh
+#
+# The benchmarked endpoint is an authenticated task listing, which blocks on Postgres and Redis,
+# so the run measures I/O-bound request concurrency rather than raw CPU throughput.
+
+set -e
+
+BOLD='\033[1m'
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+# Configuration
+PLATFORM_URL="${PLATFORM_URL:-http://localhost:8080}"
+VIRTUAL_URL="${VIRTUAL_URL:-http://localhost:8081}"
+CONCURRENT_USERS="${CONCURRENT_USERS:-500}"
+TOTAL_REQUESTS="${TOTAL_REQUESTS:-50000}"
+WARMUP_REQUESTS="${WARMUP_REQUESTS:-2000}"
+BENCHMARK_PATH="${BENCHMARK_PATH:-/api/v1/tasks?page=0&size=20}"
+BENCHMARK_EMAIL="${BENCHMARK_EMAIL:-benchmark-user@example.com}"
+BENCHMARK_PASSWORD="${BENCHMARK_PASSWORD:-Benchmark123!}"
+
+echo -e "${BOLD}================================${NC}"
+echo -e "${BOLD}Virtual Thread Benchmark${NC}"
+echo -e "${BOLD}================================${NC}"
+echo ""
+echo "Configuration:"
+echo "  Platform-thread instance: $PLATFORM_URL"
+echo "  Virtual-thread instance: $VIRTUAL_URL"
+echo "  Concurrent Users: $CONCURRENT_USERS"
+echo "  Requests per run: $TOTAL_REQUESTS"
+echo "  Endpoint: $BENCHMARK_PATH"
+echo ""
+
+success() {
+    echo -e "${GREEN}✓ $1${NC}"
+}
+
+error() {
+    echo -e "${RED}✗ $1${NC}"
+}
+
+warning() {
+    echo -e "${YELLOW}⚠ $1${NC}"
+}
+
+info() {
+    echo -e "${BLUE}ℹ $1${NC}"
+}
+
+section() {
+    echo -e "\n${BOLD}$1${NC}"
+    echo "----------------------------------------"
+}
+
+# Check prerequisites
+section "1. Checking Prerequisites"
+
+for tool in ab curl jq; do
+    if command -v "$tool" &> /dev/null; then
+        success "$tool found"
+    else
+        error "$tool not found - required for benchmarking"
+        exit 1
+    fi
+done
+
+for url in "$PLATFORM_URL" "$VIRTUAL_URL"; do
+    if curl -sf "${url}/actuator/health" > /dev/null 2>&1; then
+        success "API is reachable at ${url}"
+    else
+        error "API is not reachable at ${url}"
+        exit 1
+    fi
+done
+
+RESULTS_DIR="virtual-threads-benchmark-$(date +%Y%m%d-%H%M%S)"
+mkdir -p "$RESULTS_DIR"
+success "Results directory created: $RESULTS_DIR"
+
+# Both instances share the database, so one account serves both runs
+section "2. Preparing Benchmark User"
+
+curl -s -o /dev/null -X POST "${PLATFORM_URL}/api/v1/auth/register" \
+    -H "Content-Type: application/json" \
+    -d "{\"email\":\"${BENCHMARK_EMAIL}\",\"password\":\"${BENCHMARK_PASSWORD}\",\"fullName\":\"Benchmark User\"}" || true
+
+LOGIN_RESPONSE=$(curl -sf -X POST "${PLATFORM_URL}/api/v1/auth/login" \
+    -H "Content-Type: application/json" \
+    -d "{\"email\":\"${BENCHMARK_EMAIL}\",\"password\":\"${BENCHMARK_PASSWORD}\"}")
+TOKEN=$(echo "$LOGIN_RESPONSE" | jq -r '.token')
+USER_ID=$(echo "$LOGIN_RESPONSE" | jq -r '.userId')
+
+if [ -z "$TOKEN" ] || [ "$TOKEN" = "null" ]; then
+    error "Could not log in as ${BENCHMARK_EMAIL}"
+    exit 1
+fi
+success "Logged in as ${BENCHMARK_EMAIL} (user ${USER_ID})"
+
+for i in $(seq 1 50); do
+    curl -sf -o /dev/null -X POST "${PLATFORM_URL}/api/v1/tasks" \
+        -H "Authorization: Bearer ${TOKEN}" \
+        -H "X-User-Id: ${USER_ID}" \
+        -H "Content-Type: application/json" \
+        -d "{\"description\":\"Benchmark task ${i}\"}" || true
+done
+success "Seeded benchmark tasks"
+
+# Run one warmup pass and one measured pass against an instance
+run_benchmark() {
+    local label="$1"
+    local url="$2"
+    local output="$RESULTS_DIR/${label}.txt"
+
+    info "Warming up ${label} instance..."
+    ab -q -n "$WARMUP_REQUESTS" -c 50 \
+       -H "Authorization: Bearer ${TOKEN}" -H "X-User-Id: ${USER_ID}" \
+       "${url}${BENCHMARK_PATH}" > /dev/null 2>&1 || true
+
+    info "Running ${TOTAL_REQUESTS} requests with ${CONCURRENT_USERS} concurrent users..."
+    ab -n "$TOTAL_REQUESTS" -c "$CONCURRENT_USERS" -s 60 \
+       -H "Authorization: Bearer ${TOKEN}" -H "X-User-Id: ${USER_ID}" \
+       -g "$RESULTS_DIR/${label}-gnuplot.tsv" \
+       "${url}${BENCHMARK_PATH}" > "$output" 2>&1 || true
+
+    curl -sf "${url}/actuator/metrics/hikaricp.connections.pending" \
+        > "$RESULTS_DIR/${label}-hikari-pending.json" 2>/dev/null || true
+    curl -sf "${url}/actuator/metrics/jvm.threads.live" \
+        > "$RESULTS_DIR/${label}-threads.json" 2>/dev/null || true
+    curl -sf "${url}/actuator/metrics/jvm.virtual.thread.pinned" \
+        > "$RESULTS_DIR/${label}-pinned.json" 2>/dev/null || true
+}
+
+metric() {
+    local file="$1"
+    local pattern="$2"
+    local column="$3"
+    grep "$pattern" "$file" | head -1 | awk "{print \$${column}}"
+}
+
+section "3. Platform-Thread Mode"
+run_benchmark "platform" "$PLATFORM_URL"
+success "Platform-thread run complete"
+
+section "4. Virtual-Thread Mode"
+run_benchmark "virtual" "$VIRTUAL_URL"
+success "Virtual-thread run complete"
+
+# Compare
+section "5. Comparison"
+
+REPORT="$RESULTS_DIR/comparison.md"
+{
+    echo "# Virtual Thread Benchmark"
+    echo ""
+    echo "- Date: $(date)"
+    echo "- Endpoint: \`${BENCHMARK_PATH}\`"
+    echo "- Concurrent users: ${CONCURRENT_USERS}"
+    echo "- Requests per run: ${TOTAL_REQUESTS}"
+    echo ""
+    echo "| Mode | Requests/sec | Mean (ms) | p50 (ms) | p95 (ms) | p99 (ms) | Failed | Non-2xx | Live threads |"
+    echo "|------|--------------|-----------|----------|----------|----------|--------|---------|--------------|"
+    for label in platform virtual; do
+        file="$RESULTS_DIR/${label}.txt"
+        RPS=$(metric "$file" "Requests per second" 4)
+        MEAN=$(metric "$file" "Time per request.*mean)" 4)
+        P50=$(metric "$file" " 50%" 2)
+        P95=$(metric "$file" " 95%" 2)
+        P99=$(metric "$file" " 99%" 2)
+        FAILED=$(metric "$file" "Failed requests" 3)
+        NON_2XX=$(metric "$file" "Non-2xx responses" 3)
+        THREADS=$(jq -r '.measurements[0].value // "n/a"' "$RESULTS_DIR/${label}-threads.json" 2>/dev/null || echo "n/a")
+        echo "| ${label} | ${RPS:-n/a} | ${MEAN:-n/a} | ${P50:-n/a} | ${P95:-n/a} | ${P99:-n/a} | ${FAILED:-n/a} | ${NON_2XX:-0} | ${THREADS} |"
+    done
+} > "$REPORT"
+
+cat "$REPORT"
+echo ""
+
+PLATFORM_RPS=$(metric "$RESULTS_DIR/platform.txt" "Requests per second" 4)
+VIRTUAL_RPS=$(metric "$RESULTS_DIR/virtual.txt" "Requests per second" 4)
+if [ -n "$PLATFORM_RPS" ] && [ -n "$VIRTUAL_RPS" ]; then
+    RATIO=$(echo "scale=2; $VIRTUAL_RPS / $PLATFORM_RPS" | bc)
+    echo "Throughput ratio (virtual / platform): ${RATIO}x" | tee -a "$REPORT"
+fi
+
+PINNED=$(jq -r '.measurements[] | select(.statistic == "COUNT") | .value' \
+    "$RESULTS_DIR/virtual-pinned.json" 2>/dev/null || echo "")
+if [ -n "$PINNED" ] && [ "$PINNED" != "0.0" ]; then
+    warning "Virtual-thread instance reported ${PINNED} pinning events - check its logs for the sites"
+else
+    success "No virtual thread pinning reported"
+fi
+
+echo ""
+success "Results saved to $RESULTS_DIR"